@@ -0,0 +1,68 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.mime2045.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Run the steady-state benchmarks at increasing thread counts with the GC
+ * profiler enabled, so that both scaling and allocation rates (reported
+ * as {@code gc.alloc.rate.norm}, in bytes per operation) are measured.
+ * An optional argument restricts the run to benchmarks matching the given
+ * regular expression.
+ */
+
+public final class MimeBenchmarkMain
+{
+  private MimeBenchmarkMain()
+  {
+
+  }
+
+  /**
+   * The main entry point.
+   *
+   * @param args The command-line arguments
+   *
+   * @throws RunnerException On errors
+   */
+
+  public static void main(
+    final String[] args)
+    throws RunnerException
+  {
+    final var include =
+      args.length > 0 ? args[0] : "com\\.io7m\\.mime2045\\.benchmarks\\..*";
+    final var processors = Runtime.getRuntime().availableProcessors();
+
+    for (int threads = 1; threads <= processors; threads *= 2) {
+      final var options =
+        new OptionsBuilder()
+          .include(include)
+          .exclude(MimeStartupBenchmark.class.getSimpleName())
+          .threads(threads)
+          .addProfiler(GCProfiler.class)
+          .build();
+
+      new Runner(options).run();
+    }
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.mime2045.benchmarks;
+
+import com.io7m.mime2045.core.MimeType;
+import com.io7m.mime2045.core.MimeTypeParameter;
+import com.io7m.mime2045.fileext.MimeFileExtensions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for file extension lookups in the built-in table.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class MimeFileExtensionsBenchmark
+{
+  private static final MimeType[] KNOWN = {
+    MimeType.of("application", "json"),
+    MimeType.of("image", "png"),
+    MimeType.of("TEXT", "HTML"),
+    MimeType.of("application", "vnd.openxmlformats-officedocument.wordprocessingml.document"),
+    new MimeType(
+      "text",
+      "plain",
+      List.of(new MimeTypeParameter("charset", "utf-8"))),
+  };
+
+  private static final MimeType[] UNKNOWN = {
+    MimeType.of("application", "x-unknown"),
+    MimeType.of("image", "x-nothing"),
+  };
+
+  private static final String[] FILE_NAMES = {
+    "report.pdf",
+    "photo.JPG",
+    "archive.tar.gz",
+    "schema.cwl.json",
+    "README",
+  };
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public MimeFileExtensionsBenchmark()
+  {
+
+  }
+
+  /**
+   * @param cursor The per-thread cursor
+   *
+   * @return The extension of a known type
+   */
+
+  @Benchmark
+  public Optional<String> suggestKnown(
+    final MimeBenchmarkCursor cursor)
+  {
+    return MimeFileExtensions.suggestFileExtension(
+      KNOWN[cursor.next(KNOWN.length)]);
+  }
+
+  /**
+   * @param cursor The per-thread cursor
+   *
+   * @return Nothing
+   */
+
+  @Benchmark
+  public Optional<String> suggestUnknown(
+    final MimeBenchmarkCursor cursor)
+  {
+    return MimeFileExtensions.suggestFileExtension(
+      UNKNOWN[cursor.next(UNKNOWN.length)]);
+  }
+
+  /**
+   * @param cursor The per-thread cursor
+   *
+   * @return The type of a file name
+   */
+
+  @Benchmark
+  public Optional<MimeType> typeForFileName(
+    final MimeBenchmarkCursor cursor)
+  {
+    return MimeFileExtensions.typeForFileName(
+      FILE_NAMES[cursor.next(FILE_NAMES.length)]);
+  }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.mime2045.benchmarks;
+
+import com.io7m.mime2045.core.MimeType;
+import com.io7m.mime2045.parser.MimeParsers;
+import com.io7m.mime2045.parser.api.MimeParseResultType;
+import com.io7m.mime2045.parser.api.MimeParserType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing benchmarks over a realistic mix of header values, for each
+ * parser engine, with and without the parse cache.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class MimeParseBenchmark
+{
+  /**
+   * Valid values, weighted towards the types that dominate real traffic.
+   */
+
+  static final String[] VALID = {
+    "application/json",
+    "text/html; charset=utf-8",
+    "application/json; charset=UTF-8",
+    "text/plain",
+    "image/png",
+    "application/x-www-form-urlencoded",
+    "multipart/form-data; boundary=----WebKitFormBoundary7MA4YWxkTrZu0gW",
+    "text/html;charset=\"iso-8859-1\"",
+    "application/vnd.api+json",
+    "application/octet-stream",
+    "text/plain; format=flowed; delsp=yes; charset=\"utf-8\"",
+    "application/xml",
+  };
+
+  /**
+   * Invalid values.
+   */
+
+  static final String[] INVALID = {
+    "",
+    "application",
+    "application/",
+    "text/html; charset",
+    "text/html; charset=\"utf-8",
+    "image/png;;",
+  };
+
+  /**
+   * The parser engine.
+   */
+
+  @Param({MimeParsers.ENGINE_JFLEX, MimeParsers.ENGINE_DIRECT})
+  public String engine;
+
+  /**
+   * The maximum number of cache entries (0 disables the cache).
+   */
+
+  @Param({"0", "1024"})
+  public String cacheSize;
+
+  private MimeParserType parser;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public MimeParseBenchmark()
+  {
+
+  }
+
+  /**
+   * Create the parser.
+   */
+
+  @Setup
+  public void setup()
+  {
+    this.parser = new MimeParsers().create(Map.of(
+      MimeParsers.OPTION_ENGINE, this.engine,
+      MimeParsers.OPTION_CACHE_MAX_ENTRIES, this.cacheSize
+    ));
+  }
+
+  /**
+   * Parse the next valid value.
+   *
+   * @param cursor The per-thread cursor
+   *
+   * @return The type
+   *
+   * @throws Exception On errors
+   */
+
+  @Benchmark
+  public MimeType parseValid(
+    final MimeBenchmarkCursor cursor)
+    throws Exception
+  {
+    return this.parser.parse(VALID[cursor.next(VALID.length)]);
+  }
+
+  /**
+   * Parse the next invalid value without exceptions.
+   *
+   * @param cursor The per-thread cursor
+   *
+   * @return The result
+   */
+
+  @Benchmark
+  public MimeParseResultType tryParseInvalid(
+    final MimeBenchmarkCursor cursor)
+  {
+    return this.parser.tryParse(INVALID[cursor.next(INVALID.length)]);
+  }
+
+  /**
+   * Parse a mix of valid and invalid values without exceptions, with one
+   * invalid value for every four valid values.
+   *
+   * @param cursor The per-thread cursor
+   *
+   * @return The result
+   */
+
+  @Benchmark
+  public MimeParseResultType tryParseMixed(
+    final MimeBenchmarkCursor cursor)
+  {
+    final var index = cursor.next(VALID.length * 5 / 4);
+    if (index < VALID.length) {
+      return this.parser.tryParse(VALID[index]);
+    }
+    return this.parser.tryParse(INVALID[index % INVALID.length]);
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.mime2045.benchmarks;
+
+import com.io7m.mime2045.core.MimeType;
+import com.io7m.mime2045.fileext.MimeFileExtensions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold-start benchmarks. Each benchmark runs exactly once in each of many
+ * freshly forked JVMs, and so the measured time includes loading and
+ * initializing the classes (and decoding the tables) that the first
+ * lookup touches, which is the cost that short-lived processes pay.
+ */
+
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(20)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@State(Scope.Benchmark)
+public class MimeStartupBenchmark
+{
+  /**
+   * Construct a benchmark.
+   */
+
+  public MimeStartupBenchmark()
+  {
+
+  }
+
+  /**
+   * The first extension lookup by type.
+   *
+   * @return The extension
+   */
+
+  @Benchmark
+  public Optional<String> firstSuggestFileExtension()
+  {
+    return MimeFileExtensions.suggestFileExtension(
+      MimeType.of("image", "png"));
+  }
+
+  /**
+   * The first type lookup by extension.
+   *
+   * @return The type
+   */
+
+  @Benchmark
+  public Optional<MimeType> firstTypeForExtension()
+  {
+    return MimeFileExtensions.typeForExtension("png");
+  }
+
+  /**
+   * The first type lookup by file name.
+   *
+   * @return The type
+   */
+
+  @Benchmark
+  public Optional<MimeType> firstTypeForFileName()
+  {
+    return MimeFileExtensions.typeForFileName("archive.tar.gz");
+  }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.mime2045.benchmarks;
+
+import com.io7m.mime2045.core.MimeType;
+import com.io7m.mime2045.core.MimeTypeParameter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for serializing and comparing types. The "shared" benchmarks
+ * operate on a long-lived instance (and so benefit from any per-instance
+ * caching), whereas the "fresh" benchmarks construct a new instance for
+ * every operation, as happens when a type is parsed per request.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class MimeTypeBenchmark
+{
+  private MimeType shared;
+  private MimeType sharedEqual;
+  private MimeType sharedDifferent;
+  private StringBuilder builder;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public MimeTypeBenchmark()
+  {
+
+  }
+
+  private static MimeType create()
+  {
+    return new MimeType(
+      "text",
+      "plain",
+      List.of(
+        new MimeTypeParameter("charset", "utf-8"),
+        new MimeTypeParameter("format", "flowed"),
+        new MimeTypeParameter("title", "a,quoted;value")
+      )
+    );
+  }
+
+  /**
+   * Create the shared instances.
+   */
+
+  @Setup
+  public void setup()
+  {
+    this.shared = create();
+    this.sharedEqual = create();
+    this.sharedDifferent =
+      new MimeType(
+        "text",
+        "plain",
+        List.of(new MimeTypeParameter("charset", "utf-16")));
+    this.builder = new StringBuilder(128);
+  }
+
+  /**
+   * @return The text of a shared instance
+   */
+
+  @Benchmark
+  public String toStringShared()
+  {
+    return this.shared.toString();
+  }
+
+  /**
+   * @return The text of a new instance
+   */
+
+  @Benchmark
+  public String toStringFresh()
+  {
+    return create().toString();
+  }
+
+  /**
+   * @return The length of the builder after appending a new instance
+   */
+
+  @Benchmark
+  public int appendToFresh()
+  {
+    this.builder.setLength(0);
+    return create().appendTo(this.builder).length();
+  }
+
+  /**
+   * @return The hash code of a shared instance
+   */
+
+  @Benchmark
+  public int hashCodeShared()
+  {
+    return this.shared.hashCode();
+  }
+
+  /**
+   * @return The hash code of a new instance
+   */
+
+  @Benchmark
+  public int hashCodeFresh()
+  {
+    return create().hashCode();
+  }
+
+  /**
+   * @return {@code true}
+   */
+
+  @Benchmark
+  public boolean equalsEqual()
+  {
+    return this.shared.equals(this.sharedEqual);
+  }
+
+  /**
+   * @return {@code false}
+   */
+
+  @Benchmark
+  public boolean equalsDifferent()
+  {
+    return this.shared.equals(this.sharedDifferent);
+  }
+}
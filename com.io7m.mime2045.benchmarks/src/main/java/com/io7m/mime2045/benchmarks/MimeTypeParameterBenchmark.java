@@ -0,0 +1,104 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.mime2045.benchmarks;
+
+import com.io7m.mime2045.core.MimeTypeParameter;
+import com.io7m.mime2045.core.MimeValidityException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for constructing (and therefore validating) parameters.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class MimeTypeParameterBenchmark
+{
+  private String name = "charset";
+  private String bareValue = "utf-8";
+  private String quotedValue = "needs,quoting;(really)";
+  private String boundaryValue = "----WebKitFormBoundary7MA4YWxkTrZu0gW";
+  private String invalidValue = "line\nbreak";
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public MimeTypeParameterBenchmark()
+  {
+
+  }
+
+  /**
+   * @return A parameter with a short bare value
+   */
+
+  @Benchmark
+  public MimeTypeParameter createBare()
+  {
+    return new MimeTypeParameter(this.name, this.bareValue);
+  }
+
+  /**
+   * @return A parameter with a value that must be quoted
+   */
+
+  @Benchmark
+  public MimeTypeParameter createQuoted()
+  {
+    return new MimeTypeParameter(this.name, this.quotedValue);
+  }
+
+  /**
+   * @return A parameter with a long bare value
+   */
+
+  @Benchmark
+  public MimeTypeParameter createBoundary()
+  {
+    return new MimeTypeParameter("boundary", this.boundaryValue);
+  }
+
+  /**
+   * @return The rejection of an invalid value
+   */
+
+  @Benchmark
+  public Object createInvalid()
+  {
+    try {
+      return new MimeTypeParameter(this.name, this.invalidValue);
+    } catch (final MimeValidityException e) {
+      return e;
+    }
+  }
+}
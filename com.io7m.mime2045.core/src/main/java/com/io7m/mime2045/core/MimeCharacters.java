@@ -14,11 +14,12 @@
  * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
  */
 
-
 package com.io7m.mime2045.core;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Objects;
 
 /**
  * Characters that can appear in types and parameters.
@@ -31,115 +32,63 @@ public final class MimeCharacters
 
   }
 
-  private static final Set<Character> ALLOWED_BARE =
-    Set.of(
-      Character.valueOf('!'),
-      Character.valueOf('#'),
-      Character.valueOf('$'),
-      Character.valueOf('%'),
-      Character.valueOf('&'),
-      Character.valueOf('\''),
-      Character.valueOf('*'),
-      Character.valueOf('+'),
-      Character.valueOf('-'),
-      Character.valueOf('.'),
-      Character.valueOf('0'),
-      Character.valueOf('1'),
-      Character.valueOf('2'),
-      Character.valueOf('3'),
-      Character.valueOf('4'),
-      Character.valueOf('5'),
-      Character.valueOf('6'),
-      Character.valueOf('7'),
-      Character.valueOf('8'),
-      Character.valueOf('9'),
-      Character.valueOf('A'),
-      Character.valueOf('B'),
-      Character.valueOf('C'),
-      Character.valueOf('D'),
-      Character.valueOf('E'),
-      Character.valueOf('F'),
-      Character.valueOf('G'),
-      Character.valueOf('H'),
-      Character.valueOf('I'),
-      Character.valueOf('J'),
-      Character.valueOf('K'),
-      Character.valueOf('L'),
-      Character.valueOf('M'),
-      Character.valueOf('N'),
-      Character.valueOf('O'),
-      Character.valueOf('P'),
-      Character.valueOf('Q'),
-      Character.valueOf('R'),
-      Character.valueOf('S'),
-      Character.valueOf('T'),
-      Character.valueOf('U'),
-      Character.valueOf('V'),
-      Character.valueOf('W'),
-      Character.valueOf('X'),
-      Character.valueOf('Y'),
-      Character.valueOf('Z'),
-      Character.valueOf('^'),
-      Character.valueOf('_'),
-      Character.valueOf('`'),
-      Character.valueOf('a'),
-      Character.valueOf('b'),
-      Character.valueOf('c'),
-      Character.valueOf('d'),
-      Character.valueOf('e'),
-      Character.valueOf('f'),
-      Character.valueOf('g'),
-      Character.valueOf('h'),
-      Character.valueOf('i'),
-      Character.valueOf('j'),
-      Character.valueOf('k'),
-      Character.valueOf('l'),
-      Character.valueOf('m'),
-      Character.valueOf('n'),
-      Character.valueOf('o'),
-      Character.valueOf('p'),
-      Character.valueOf('q'),
-      Character.valueOf('r'),
-      Character.valueOf('s'),
-      Character.valueOf('t'),
-      Character.valueOf('u'),
-      Character.valueOf('v'),
-      Character.valueOf('w'),
-      Character.valueOf('x'),
-      Character.valueOf('y'),
-      Character.valueOf('z'),
-      Character.valueOf('{'),
-      Character.valueOf('|'),
-      Character.valueOf('}'),
-      Character.valueOf('~')
-    );
-
-  private static final Set<Character> TSPECIALS =
-    Set.of(
-      Character.valueOf('('),
-      Character.valueOf(')'),
-      Character.valueOf('<'),
-      Character.valueOf('>'),
-      Character.valueOf('@'),
-      Character.valueOf(','),
-      Character.valueOf(';'),
-      Character.valueOf(':'),
-      Character.valueOf('\\'),
-      Character.valueOf('"'),
-      Character.valueOf('/'),
-      Character.valueOf('['),
-      Character.valueOf(']'),
-      Character.valueOf('?'),
-      Character.valueOf('=')
-    );
-
-  private static final Set<Character> ALLOWED_QUOTED;
-
-  static {
-    final var quoted = new HashSet<Character>();
-    quoted.addAll(ALLOWED_BARE);
-    quoted.addAll(TSPECIALS);
-    ALLOWED_QUOTED = Set.copyOf(quoted);
+  /*
+   * Character classes are held as 128-bit tables split across two longs:
+   * bit N of the LO word is set if character N is in the class, and bit N of
+   * the HI word is set if character 64 + N is in the class. Nothing above
+   * U+007F is in any class.
+   */
+
+  private static final String CHARACTERS_BARE =
+    "!#$%&'*+-.0123456789"
+    + "ABCDEFGHIJKLMNOPQRSTUVWXYZ"
+    + "^_`"
+    + "abcdefghijklmnopqrstuvwxyz"
+    + "{|}~";
+
+  private static final String CHARACTERS_TSPECIALS =
+    "()<>@,;:\\\"/[]?=";
+
+  private static final long BARE_LO =
+    maskLo(CHARACTERS_BARE);
+  private static final long BARE_HI =
+    maskHi(CHARACTERS_BARE);
+  private static final long QUOTED_LO =
+    BARE_LO | maskLo(CHARACTERS_TSPECIALS);
+  private static final long QUOTED_HI =
+    BARE_HI | maskHi(CHARACTERS_TSPECIALS);
+
+  private static final VarHandle LONGS =
+    MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+  private static final long ONES = 0x0101_0101_0101_0101L;
+  private static final long HIGHS = 0x8080_8080_8080_8080L;
+  private static final long LOWS = 0x7f7f_7f7f_7f7f_7f7fL;
+
+  private static long maskLo(
+    final String characters)
+  {
+    long mask = 0L;
+    for (int index = 0; index < characters.length(); ++index) {
+      final var ch = characters.charAt(index);
+      if (ch < 64) {
+        mask |= 1L << ch;
+      }
+    }
+    return mask;
+  }
+
+  private static long maskHi(
+    final String characters)
+  {
+    long mask = 0L;
+    for (int index = 0; index < characters.length(); ++index) {
+      final var ch = characters.charAt(index);
+      if (ch >= 64) {
+        mask |= 1L << (ch - 64);
+      }
+    }
+    return mask;
   }
 
   /**
@@ -153,7 +102,13 @@ public final class MimeCharacters
   public static boolean characterIsAllowedBare(
     final char ch)
   {
-    return ALLOWED_BARE.contains(Character.valueOf(ch));
+    if (ch < 64) {
+      return ((BARE_LO >>> ch) & 1L) != 0L;
+    }
+    if (ch < 128) {
+      return ((BARE_HI >>> (ch - 64)) & 1L) != 0L;
+    }
+    return false;
   }
 
   /**
@@ -167,6 +122,335 @@ public final class MimeCharacters
   public static boolean characterIsAllowedQuoted(
     final char ch)
   {
-    return ALLOWED_QUOTED.contains(Character.valueOf(ch));
+    if (ch < 64) {
+      return ((QUOTED_LO >>> ch) & 1L) != 0L;
+    }
+    if (ch < 128) {
+      return ((QUOTED_HI >>> (ch - 64)) & 1L) != 0L;
+    }
+    return false;
+  }
+
+  /**
+   * Find the first character in the given text that cannot appear in an
+   * unquoted token.
+   *
+   * @param text The text
+   *
+   * @return The index of the first disallowed character, or {@code -1} if
+   * all characters are allowed
+   *
+   * @since 1.3.0
+   */
+
+  public static int firstDisallowedBare(
+    final CharSequence text)
+  {
+    return firstDisallowedBare(text, 0, text.length());
+  }
+
+  /**
+   * Find the first character in the given range of text that cannot appear
+   * in an unquoted token.
+   *
+   * @param text  The text
+   * @param start The starting offset (inclusive)
+   * @param end   The ending offset (exclusive)
+   *
+   * @return The index of the first disallowed character, or {@code -1} if
+   * all characters are allowed
+   *
+   * @since 1.3.0
+   */
+
+  public static int firstDisallowedBare(
+    final CharSequence text,
+    final int start,
+    final int end)
+  {
+    Objects.checkFromToIndex(start, end, text.length());
+
+    for (int index = start; index < end; ++index) {
+      if (!characterIsAllowedBare(text.charAt(index))) {
+        return index;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Find the first character in the given text that cannot appear in a
+   * quoted token.
+   *
+   * @param text The text
+   *
+   * @return The index of the first disallowed character, or {@code -1} if
+   * all characters are allowed
+   *
+   * @since 1.3.0
+   */
+
+  public static int firstDisallowedQuoted(
+    final CharSequence text)
+  {
+    return firstDisallowedQuoted(text, 0, text.length());
+  }
+
+  /**
+   * Find the first character in the given range of text that cannot appear
+   * in a quoted token.
+   *
+   * @param text  The text
+   * @param start The starting offset (inclusive)
+   * @param end   The ending offset (exclusive)
+   *
+   * @return The index of the first disallowed character, or {@code -1} if
+   * all characters are allowed
+   *
+   * @since 1.3.0
+   */
+
+  public static int firstDisallowedQuoted(
+    final CharSequence text,
+    final int start,
+    final int end)
+  {
+    Objects.checkFromToIndex(start, end, text.length());
+
+    for (int index = start; index < end; ++index) {
+      if (!characterIsAllowedQuoted(text.charAt(index))) {
+        return index;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Convert the ASCII letters in the given text to lower case. Types,
+   * subtypes and parameter names are case-insensitive, and this is the
+   * conversion used to put them into canonical form. Characters outside of
+   * ASCII are left unchanged, and so the result does not depend on the
+   * default locale.
+   *
+   * @param text The text
+   *
+   * @return The lower-case text, or {@code text} itself if it contains no
+   * upper-case ASCII letters
+   *
+   * @since 1.3.0
+   */
+
+  public static String toLowerCaseAscii(
+    final String text)
+  {
+    Objects.requireNonNull(text, "text");
+
+    final var length = text.length();
+    int index = 0;
+    while (index < length && !isUpperAscii(text.charAt(index))) {
+      ++index;
+    }
+    if (index == length) {
+      return text;
+    }
+
+    final var chars = text.toCharArray();
+    for (; index < length; ++index) {
+      if (isUpperAscii(chars[index])) {
+        chars[index] = (char) (chars[index] + ('a' - 'A'));
+      }
+    }
+    return String.valueOf(chars);
+  }
+
+  /**
+   * Determine whether the given range of text is equal to the given
+   * lower-case text, ignoring the case of ASCII letters in the range.
+   *
+   * @param text  The text
+   * @param start The starting offset (inclusive)
+   * @param end   The ending offset (exclusive)
+   * @param lower The lower-case text
+   *
+   * @return {@code true} if the range matches
+   */
+
+  static boolean regionEqualsLowerAscii(
+    final CharSequence text,
+    final int start,
+    final int end,
+    final String lower)
+  {
+    if (end - start != lower.length()) {
+      return false;
+    }
+    for (int index = start; index < end; ++index) {
+      var ch = text.charAt(index);
+      if (isUpperAscii(ch)) {
+        ch = (char) (ch + ('a' - 'A'));
+      }
+      if (ch != lower.charAt(index - start)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Compare the given text to the given lower-case text, ignoring the case
+   * of ASCII letters in the text. This method does not allocate.
+   *
+   * @param text  The text
+   * @param lower The lower-case text
+   *
+   * @return A negative integer, zero, or a positive integer as the text is
+   * less than, equal to, or greater than {@code lower}
+   */
+
+  static int compareLowerAscii(
+    final CharSequence text,
+    final String lower)
+  {
+    final var length = Math.min(text.length(), lower.length());
+    for (int index = 0; index < length; ++index) {
+      var ch = text.charAt(index);
+      if (isUpperAscii(ch)) {
+        ch = (char) (ch + ('a' - 'A'));
+      }
+      final var other = lower.charAt(index);
+      if (ch != other) {
+        return ch - other;
+      }
+    }
+    return text.length() - lower.length();
+  }
+
+  private static boolean isUpperAscii(
+    final char ch)
+  {
+    return ch >= 'A' && ch <= 'Z';
+  }
+
+  /**
+   * Determine whether every byte in the given range is a character that can
+   * appear in an unquoted token. Bytes are interpreted as ISO-8859-1, and so
+   * any byte with the high bit set is rejected. The range is examined eight
+   * bytes at a time.
+   *
+   * @param data   The data
+   * @param offset The starting offset
+   * @param length The number of bytes
+   *
+   * @return {@code true} if all bytes are allowed
+   *
+   * @since 1.3.0
+   */
+
+  public static boolean isAllTokenBytes(
+    final byte[] data,
+    final int offset,
+    final int length)
+  {
+    return firstDisallowedBareByte(data, offset, length) == -1;
+  }
+
+  /**
+   * Find the first byte in the given range that is not a character that can
+   * appear in an unquoted token. Bytes are interpreted as ISO-8859-1, and so
+   * any byte with the high bit set is disallowed. The range is examined
+   * eight bytes at a time, and only the word that contains a disallowed byte
+   * is examined byte by byte.
+   *
+   * @param data   The data
+   * @param offset The starting offset
+   * @param length The number of bytes
+   *
+   * @return The index of the first disallowed byte, or {@code -1} if all
+   * bytes are allowed
+   *
+   * @since 1.3.0
+   */
+
+  public static int firstDisallowedBareByte(
+    final byte[] data,
+    final int offset,
+    final int length)
+  {
+    Objects.checkFromIndexSize(offset, length, data.length);
+
+    final var end = offset + length;
+    int index = offset;
+    while (end - index >= Long.BYTES) {
+      final var word = (long) LONGS.get(data, index);
+      if (wordHasNonTokenByte(word)) {
+        break;
+      }
+      index += Long.BYTES;
+    }
+
+    while (index < end) {
+      if (!characterIsAllowedBare((char) (data[index] & 0xff))) {
+        return index;
+      }
+      ++index;
+    }
+    return -1;
+  }
+
+  /*
+   * The SWAR tests below are exact at the word level, given that no byte in
+   * the word has its high bit set (which is checked first). A token byte is
+   * any byte in [0x21, 0x7e] that is not one of the tspecials; the tspecials
+   * are covered by three ranges and three single values.
+   */
+
+  private static boolean wordHasNonTokenByte(
+    final long word)
+  {
+    if ((word & HIGHS) != 0L) {
+      return true;
+    }
+
+    long bad = hasLess(word, 0x21);
+    bad |= hasValue(word, 0x7f);
+    bad |= hasValue(word, '"');
+    bad |= hasValue(word, ',');
+    bad |= hasValue(word, '/');
+    bad |= hasBetween(word, '(' - 1, ')' + 1);
+    bad |= hasBetween(word, ':' - 1, '@' + 1);
+    bad |= hasBetween(word, '[' - 1, ']' + 1);
+    return bad != 0L;
+  }
+
+  private static long hasZero(
+    final long word)
+  {
+    return (word - ONES) & ~word & HIGHS;
+  }
+
+  private static long hasValue(
+    final long word,
+    final int value)
+  {
+    return hasZero(word ^ (ONES * value));
+  }
+
+  private static long hasLess(
+    final long word,
+    final int value)
+  {
+    return (word - ONES * value) & ~word & HIGHS;
+  }
+
+  private static long hasBetween(
+    final long word,
+    final int lower,
+    final int upper)
+  {
+    final var low = word & LOWS;
+    return (ONES * (127 + upper) - low)
+      & ~word
+      & (low + ONES * (127 - lower))
+      & HIGHS;
   }
 }
@@ -0,0 +1,235 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.mime2045.core;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * <p>The structured syntax suffixes registered with IANA, such as the
+ * {@code +json} in {@code application/vnd.api+json}.</p>
+ *
+ * <p>A type has a structured syntax if its subtype ends with the
+ * corresponding suffix, or if it is the {@code application} or {@code text}
+ * type named after the suffix itself (such as {@code application/json} or
+ * {@code text/xml}).</p>
+ *
+ * @see "https://www.rfc-editor.org/rfc/rfc6838#section-4.2.8"
+ * @see "https://www.iana.org/assignments/media-type-structured-suffix/"
+ * @since 1.3.0
+ */
+
+public enum MimeStructuredSyntax
+{
+  /**
+   * Basic Encoding Rules ({@code +ber}).
+   */
+
+  BER("ber"),
+
+  /**
+   * Concise Binary Object Representation ({@code +cbor}).
+   */
+
+  CBOR("cbor"),
+
+  /**
+   * CBOR sequences ({@code +cbor-seq}).
+   */
+
+  CBOR_SEQ("cbor-seq"),
+
+  /**
+   * Distinguished Encoding Rules ({@code +der}).
+   */
+
+  DER("der"),
+
+  /**
+   * Fast Infoset ({@code +fastinfoset}).
+   */
+
+  FASTINFOSET("fastinfoset"),
+
+  /**
+   * GZIP ({@code +gzip}).
+   */
+
+  GZIP("gzip"),
+
+  /**
+   * JSON ({@code +json}).
+   */
+
+  JSON("json"),
+
+  /**
+   * JSON text sequences ({@code +json-seq}).
+   */
+
+  JSON_SEQ("json-seq"),
+
+  /**
+   * JSON Web Tokens ({@code +jwt}).
+   */
+
+  JWT("jwt"),
+
+  /**
+   * SQLite3 databases ({@code +sqlite3}).
+   */
+
+  SQLITE3("sqlite3"),
+
+  /**
+   * Type-length-value ({@code +tlv}).
+   */
+
+  TLV("tlv"),
+
+  /**
+   * WAP binary XML ({@code +wbxml}).
+   */
+
+  WBXML("wbxml"),
+
+  /**
+   * XML ({@code +xml}).
+   */
+
+  XML("xml"),
+
+  /**
+   * YAML ({@code +yaml}).
+   */
+
+  YAML("yaml"),
+
+  /**
+   * ZIP ({@code +zip}).
+   */
+
+  ZIP("zip"),
+
+  /**
+   * Zstandard ({@code +zstd}).
+   */
+
+  ZSTD("zstd");
+
+  private static final MimeStructuredSyntax[] VALUES = values();
+
+  private static final List<Optional<MimeStructuredSyntax>> PRESENT =
+    Arrays.stream(VALUES).map(Optional::of).toList();
+
+  private final String suffix;
+
+  MimeStructuredSyntax(
+    final String inSuffix)
+  {
+    this.suffix = Objects.requireNonNull(inSuffix, "suffix");
+  }
+
+  /**
+   * @return The suffix, without the leading {@code '+'}
+   */
+
+  public String suffix()
+  {
+    return this.suffix;
+  }
+
+  /**
+   * @return The bit that represents this syntax in a set of syntaxes
+   */
+
+  int bit()
+  {
+    return 1 << this.ordinal();
+  }
+
+  /**
+   * Find the syntax with the given suffix. This method does not allocate.
+   *
+   * @param suffix The suffix, without the leading {@code '+'}
+   *
+   * @return The syntax, if the suffix is registered
+   */
+
+  public static Optional<MimeStructuredSyntax> ofSuffix(
+    final String suffix)
+  {
+    final var index = indexOf(suffix);
+    return index < 0 ? Optional.empty() : PRESENT.get(index);
+  }
+
+  private static int indexOf(
+    final String suffix)
+  {
+    for (int index = 0; index < VALUES.length; ++index) {
+      if (VALUES[index].suffix.equalsIgnoreCase(suffix)) {
+        return index;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * @param bits A set of syntaxes
+   *
+   * @return The lowest-numbered syntax in the set, if any
+   */
+
+  static Optional<MimeStructuredSyntax> first(
+    final int bits)
+  {
+    if (bits == 0) {
+      return Optional.empty();
+    }
+    return PRESENT.get(Integer.numberOfTrailingZeros(bits));
+  }
+
+  /**
+   * Classify a type.
+   *
+   * @param type    The type
+   * @param subtype The subtype
+   * @param suffix  The structured syntax suffix of the subtype, or
+   *                {@code null} if the subtype has no suffix
+   *
+   * @return The set of syntaxes of the type
+   */
+
+  static int classify(
+    final String type,
+    final String subtype,
+    final String suffix)
+  {
+    if (suffix != null) {
+      final var index = indexOf(suffix);
+      return index < 0 ? 0 : 1 << index;
+    }
+    if ("application".equals(type) || "text".equals(type)) {
+      final var index = indexOf(subtype);
+      return index < 0 ? 0 : 1 << index;
+    }
+    return 0;
+  }
+}
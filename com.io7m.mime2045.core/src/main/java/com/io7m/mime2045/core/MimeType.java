@@ -16,11 +16,20 @@
 
 package com.io7m.mime2045.core;
 
+import com.io7m.mime2045.core.internal.MimeTypeAccess;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 
 /**
- * An RFC 2045 content type.
+ * An RFC 2045 content type. Types, subtypes and parameter names are
+ * case-insensitive, and are converted to lower case on construction, so
+ * that {@code Text/HTML} and {@code text/html} produce equal values with the
+ * same canonical text.
  *
  * @param type       The type
  * @param subtype    The subtype
@@ -32,6 +41,10 @@ public record MimeType(
   String subtype,
   List<MimeTypeParameter> parameters)
 {
+  static {
+    MimeTypeAccess.setAccess(MimeType::presetStructuredSyntax);
+  }
+
   /**
    * An RFC 2045 content type.
    *
@@ -46,14 +59,12 @@ public record MimeType(
     final List<MimeTypeParameter> parameters)
   {
     this.type =
-      Objects.requireNonNull(type, "type");
+      MimeCharacters.toLowerCaseAscii(Objects.requireNonNull(type, "type"));
     this.subtype =
-      Objects.requireNonNull(subtype, "subtype");
+      MimeCharacters.toLowerCaseAscii(
+        Objects.requireNonNull(subtype, "subtype"));
     this.parameters =
-      Objects.requireNonNull(parameters, "parameters")
-        .stream()
-        .sorted()
-        .toList();
+      MimeTypeParameters.sortedCopyOf(parameters);
   }
 
   /**
@@ -72,17 +83,380 @@ public record MimeType(
     return new MimeType(type, subtype, List.of());
   }
 
+  /**
+   * Determine whether this type has the same type and subtype as the given
+   * type, ignoring parameters. This method does not allocate.
+   *
+   * @param other The other type
+   *
+   * @return {@code true} if the types have equal essences
+   *
+   * @since 1.3.0
+   */
+
+  public boolean essenceEquals(
+    final MimeType other)
+  {
+    Objects.requireNonNull(other, "other");
+    return this.type.equals(other.type)
+           && this.subtype.equals(other.subtype);
+  }
+
+  /**
+   * Determine whether the given text, such as the unparsed value of a
+   * {@code Content-Type} header, begins with the type and subtype of this
+   * type. Letters are compared ignoring case, surrounding spaces and tabs
+   * are ignored, and anything following a {@code ';'} is ignored without
+   * being validated. This method does not allocate, and can be used to
+   * route on a header value without parsing it.
+   *
+   * @param text The text
+   *
+   * @return {@code true} if the text has the same essence as this type
+   *
+   * @since 1.3.0
+   */
+
+  public boolean matchesIgnoringParameters(
+    final CharSequence text)
+  {
+    Objects.requireNonNull(text, "text");
+
+    final var length = text.length();
+    var start = skipSpace(text, 0, length);
+    var end = start + this.type.length();
+    if (end >= length
+        || text.charAt(end) != '/'
+        || !MimeCharacters.regionEqualsLowerAscii(text, start, end, this.type)) {
+      return false;
+    }
+
+    start = end + 1;
+    end = start + this.subtype.length();
+    if (end > length
+        || !MimeCharacters.regionEqualsLowerAscii(
+      text, start, end, this.subtype)) {
+      return false;
+    }
+
+    end = skipSpace(text, end, length);
+    return end == length || text.charAt(end) == ';';
+  }
+
+  private static int skipSpace(
+    final CharSequence text,
+    final int start,
+    final int end)
+  {
+    int index = start;
+    while (index < end) {
+      final var ch = text.charAt(index);
+      if (ch != ' ' && ch != '\t') {
+        break;
+      }
+      ++index;
+    }
+    return index;
+  }
+
+  /**
+   * Find the parameter with the given name. Parameter names are
+   * case-insensitive, so {@code CHARSET} finds the {@code charset}
+   * parameter. If there are several parameters with the given name, the
+   * first in sorted order is returned. The parameters are held sorted by
+   * name, so this is a binary search. The result is cached, so repeated
+   * lookups on the same instance do not allocate.
+   *
+   * @param name The parameter name
+   *
+   * @return The parameter, if present
+   *
+   * @since 1.3.0
+   */
+
+  public Optional<MimeTypeParameter> parameter(
+    final String name)
+  {
+    Objects.requireNonNull(name, "name");
+    return this.holder().parameter(name);
+  }
+
+  /**
+   * Find the value of the parameter with the given name, such as the value
+   * of {@code charset} or {@code boundary}. As with
+   * {@link #parameter(String)}, repeated lookups do not allocate.
+   *
+   * @param name The parameter name
+   *
+   * @return The parameter value, if present
+   *
+   * @see #parameter(String)
+   * @since 1.3.0
+   */
+
+  public Optional<String> parameterValue(
+    final CharSequence name)
+  {
+    Objects.requireNonNull(name, "name");
+    return this.holder().parameterValue(name);
+  }
+
+  /**
+   * The structured syntax suffix of this type is the part of the subtype
+   * following the last {@code '+'}, such as {@code json} for
+   * {@code application/vnd.api+json}. The suffix is computed once, on the
+   * first call, and then shared.
+   *
+   * @return The structured syntax suffix, without the {@code '+'}, if the
+   * subtype has one
+   *
+   * @since 1.3.0
+   */
+
+  public Optional<String> structuredSyntaxSuffix()
+  {
+    return this.holder().suffix(this);
+  }
+
+  /**
+   * The structured syntax of this type is the registered syntax named by
+   * its suffix, or the syntax that the type itself names (for example,
+   * {@code application/json} is classified as
+   * {@link MimeStructuredSyntax#JSON}). The classification is computed once,
+   * on the first call, and then shared.
+   *
+   * @return The structured syntax of this type, if any
+   *
+   * @see MimeStructuredSyntax
+   * @since 1.3.0
+   */
+
+  public Optional<MimeStructuredSyntax> structuredSyntax()
+  {
+    return MimeStructuredSyntax.first(this.holder().syntax(this));
+  }
+
+  /**
+   * Determine whether this type has the given structured syntax, such as
+   * whether it is JSON-like. After the first call on a given instance, this
+   * is a single bit test.
+   *
+   * @param syntax The syntax
+   *
+   * @return {@code true} if this type has the given syntax
+   *
+   * @see #structuredSyntax()
+   * @since 1.3.0
+   */
+
+  public boolean hasStructuredSyntax(
+    final MimeStructuredSyntax syntax)
+  {
+    return (this.holder().syntax(this) & syntax.bit()) != 0;
+  }
+
+  /**
+   * @return The number of characters in the canonical text of this type
+   *
+   * @see #appendTo(StringBuilder)
+   * @since 1.3.0
+   */
+
+  public int serializedLength()
+  {
+    final var holder = this.holder();
+    var length = this.type.length() + 1 + this.subtype.length();
+    for (int index = 0; index < holder.size(); ++index) {
+      length += holder.get(index).serializedLength();
+    }
+    return length;
+  }
+
+  /**
+   * Append the canonical text of this type (as returned by
+   * {@link #toString()}) to the given builder.
+   *
+   * @param builder The builder
+   *
+   * @return {@code builder}
+   *
+   * @since 1.3.0
+   */
+
+  public StringBuilder appendTo(
+    final StringBuilder builder)
+  {
+    final var text = this.holder().cachedText();
+    if (text != null) {
+      return builder.append(text);
+    }
+
+    builder.append(this.type);
+    builder.append('/');
+    builder.append(this.subtype);
+    final var holder = this.holder();
+    for (int index = 0; index < holder.size(); ++index) {
+      holder.get(index).appendTo(builder);
+    }
+    return builder;
+  }
+
+  /**
+   * Append the canonical text of this type to the given output.
+   *
+   * @param output The output
+   * @param <A>    The type of output
+   *
+   * @return {@code output}
+   *
+   * @throws IOException On I/O errors
+   * @see #appendTo(StringBuilder)
+   * @since 1.3.0
+   */
+
+  public <A extends Appendable> A appendTo(
+    final A output)
+    throws IOException
+  {
+    final var text = this.holder().cachedText();
+    if (text != null) {
+      output.append(text);
+      return output;
+    }
+
+    output.append(this.type);
+    output.append('/');
+    output.append(this.subtype);
+    final var holder = this.holder();
+    for (int index = 0; index < holder.size(); ++index) {
+      holder.get(index).appendTo(output);
+    }
+    return output;
+  }
+
+  /**
+   * Write the canonical text of this type to the given buffer as US-ASCII
+   * bytes, starting at the buffer's current position. Characters in the
+   * type and subtype that cannot be represented in US-ASCII are written as
+   * {@code '?'}. Nothing is written if the buffer has insufficient space.
+   *
+   * @param buffer The buffer
+   *
+   * @return {@code buffer}
+   *
+   * @throws BufferOverflowException If the buffer has fewer than
+   *                                 {@link #serializedLength()} bytes
+   *                                 remaining
+   * @since 1.3.0
+   */
+
+  public ByteBuffer writeAsciiTo(
+    final ByteBuffer buffer)
+  {
+    final var holder = this.holder();
+    final var ascii = holder.cachedAscii();
+    if (ascii != null) {
+      final var length = ascii.limit();
+      if (buffer.remaining() < length) {
+        throw new BufferOverflowException();
+      }
+      final var position = buffer.position();
+      buffer.put(position, ascii, 0, length);
+      return buffer.position(position + length);
+    }
+
+    if (buffer.remaining() < this.serializedLength()) {
+      throw new BufferOverflowException();
+    }
+
+    putAscii(buffer, this.type);
+    buffer.put((byte) '/');
+    putAscii(buffer, this.subtype);
+    for (int index = 0; index < holder.size(); ++index) {
+      holder.get(index).writeAsciiUnchecked(buffer);
+    }
+    return buffer;
+  }
+
+  /**
+   * Obtain the canonical text of this type encoded as US-ASCII bytes, as
+   * written by {@link #writeAsciiTo(ByteBuffer)}. The bytes are encoded
+   * once, on the first call, and then shared. Each call returns a new
+   * read-only view of the shared bytes, with its own position and limit, so
+   * that the result can be handed directly to gathering writes such as
+   * {@link java.nio.channels.GatheringByteChannel#write(ByteBuffer[])}.
+   *
+   * @return A read-only buffer containing the encoded type
+   *
+   * @since 1.3.0
+   */
+
+  public ByteBuffer asciiBytes()
+  {
+    return this.holder().ascii(this).duplicate();
+  }
+
+  static void putAscii(
+    final ByteBuffer buffer,
+    final String text)
+  {
+    for (int index = 0; index < text.length(); ++index) {
+      final var ch = text.charAt(index);
+      buffer.put(ch < 0x80 ? (byte) ch : (byte) '?');
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The canonical text of a type is computed once and then cached.</p>
+   */
+
   @Override
   public String toString()
   {
-    final StringBuilder sb = new StringBuilder(32);
-    sb.append(this.type);
-    sb.append('/');
-    sb.append(this.subtype);
+    return this.holder().text(this);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The hash code of a type is computed once and then cached.</p>
+   */
 
-    for (final var parameter : this.parameters) {
-      sb.append(parameter);
+  @Override
+  public int hashCode()
+  {
+    return this.holder().hash(this);
+  }
+
+  @Override
+  public boolean equals(
+    final Object other)
+  {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof MimeType that)) {
+      return false;
+    }
+    if (this.hashCode() != that.hashCode()) {
+      return false;
     }
-    return sb.toString();
+    return this.type.equals(that.type)
+           && this.subtype.equals(that.subtype)
+           && this.holder().parametersEqual(that.holder());
+  }
+
+  private static void presetStructuredSyntax(
+    final MimeType type,
+    final MimeStructuredSyntax syntax)
+  {
+    type.holder().presetSyntax(syntax);
+  }
+
+  private MimeTypeParameters holder()
+  {
+    return (MimeTypeParameters) this.parameters;
   }
 }
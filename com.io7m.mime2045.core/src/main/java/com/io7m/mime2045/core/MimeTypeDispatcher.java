@@ -0,0 +1,229 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.mime2045.core;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <p>A dispatch table from types to handlers, compiled from a set of
+ * {@link MimeTypePattern patterns}.</p>
+ *
+ * <p>The patterns are indexed by type and then by subtype. For every
+ * subtype named by an exact pattern, the table holds the complete list of
+ * patterns that could match it (exact, suffix, {@code type/*} and
+ * {@code *}{@code /*} patterns), sorted from the most to the least
+ * specific; subtypes and types that no exact pattern names share a
+ * precompiled fallback list. Resolving a type therefore takes one lookup
+ * for the type and one for the subtype, followed by a scan of a short list
+ * that stops at the first (and so most specific) matching pattern. When
+ * patterns are equally specific, the one that was given first wins.</p>
+ *
+ * <p>Resolutions are additionally cached in a small direct-mapped table
+ * keyed by type. A lookup of the same instance as the cached type, such as
+ * a constant in {@code MimeTypes}, takes a single probe; a lookup of an
+ * equal instance, such as a type freshly parsed from each request, is
+ * checked by equality. Neither allocates or writes to the table, which is
+ * only written when a slot holds a different type. Dispatchers are
+ * immutable (apart from this cache) and safe for use from multiple
+ * threads.</p>
+ *
+ * @param <H> The type of handlers
+ *
+ * @since 1.3.0
+ */
+
+public final class MimeTypeDispatcher<H>
+{
+  private static final int CACHE_SIZE = 256;
+
+  private final Rule<H>[] fallback;
+  private final Map<String, TypeRules<H>> byType;
+  private final AtomicReferenceArray<Resolved<H>> cache;
+
+  private record Rule<H>(
+    MimeTypePattern pattern,
+    Optional<H> handler)
+  {
+
+  }
+
+  private record Resolved<H>(
+    MimeType type,
+    Optional<H> handler)
+  {
+
+  }
+
+  private record TypeRules<H>(
+    Rule<H>[] fallback,
+    Map<String, Rule<H>[]> bySubtype)
+  {
+
+  }
+
+  private MimeTypeDispatcher(
+    final Map<MimeTypePattern, H> handlers)
+  {
+    final var rules = new ArrayList<Rule<H>>(handlers.size());
+    for (final var entry : handlers.entrySet()) {
+      rules.add(new Rule<>(
+        Objects.requireNonNull(entry.getKey(), "pattern"),
+        Optional.of(Objects.requireNonNull(entry.getValue(), "handler"))
+      ));
+    }
+
+    /*
+     * A stable sort keeps equally specific rules in the order given.
+     */
+
+    rules.sort(
+      Comparator.comparingInt((Rule<H> r) -> r.pattern().specificity())
+        .reversed());
+
+    this.fallback = select(rules, null, null);
+    this.byType = new HashMap<>();
+
+    for (final var rule : rules) {
+      final var pattern = rule.pattern();
+      if (pattern.isTypeWildcard()) {
+        continue;
+      }
+
+      final var type = pattern.type();
+      final var typeRules =
+        this.byType.computeIfAbsent(
+          type,
+          k -> new TypeRules<>(select(rules, type, null), new HashMap<>()));
+
+      if (!pattern.isSubtypeWildcard()) {
+        typeRules.bySubtype()
+          .computeIfAbsent(
+            pattern.subtype(),
+            subtype -> select(rules, type, subtype));
+      }
+    }
+
+    this.cache = new AtomicReferenceArray<>(CACHE_SIZE);
+  }
+
+  /**
+   * Select the rules that could match a type.
+   *
+   * @param rules   The sorted rules
+   * @param type    The type, or {@code null} for a type that no rule names
+   * @param subtype The subtype, or {@code null} for a subtype that no rule
+   *                names
+   *
+   * @return The candidate rules, in order of decreasing specificity
+   */
+
+  @SuppressWarnings("unchecked")
+  private static <H> Rule<H>[] select(
+    final List<Rule<H>> rules,
+    final String type,
+    final String subtype)
+  {
+    final var result = new ArrayList<Rule<H>>();
+    for (final var rule : rules) {
+      final var pattern = rule.pattern();
+      final var typeOk =
+        pattern.isTypeWildcard() || pattern.type().equals(type);
+      final var subtypeOk =
+        pattern.isSubtypeWildcard() || pattern.subtype().equals(subtype);
+      if (typeOk && subtypeOk) {
+        result.add(rule);
+      }
+    }
+    return result.toArray(new Rule[0]);
+  }
+
+  /**
+   * Compile a dispatcher.
+   *
+   * @param handlers The handlers for each pattern; if the map has a defined
+   *                 iteration order (such as a {@link java.util.LinkedHashMap})
+   *                 then earlier patterns win over equally specific later
+   *                 patterns
+   * @param <H>      The type of handlers
+   *
+   * @return A dispatcher
+   */
+
+  public static <H> MimeTypeDispatcher<H> create(
+    final Map<MimeTypePattern, H> handlers)
+  {
+    return new MimeTypeDispatcher<>(handlers);
+  }
+
+  /**
+   * Find the handler for the most specific pattern that matches the given
+   * type.
+   *
+   * @param type The type
+   *
+   * @return The handler, or nothing if no pattern matches
+   */
+
+  public Optional<H> handlerFor(
+    final MimeType type)
+  {
+    final var slot = spread(type.hashCode()) & (CACHE_SIZE - 1);
+    final var cached = this.cache.get(slot);
+    if (cached != null) {
+      final var cachedType = cached.type();
+      if (cachedType == type || cachedType.equals(type)) {
+        return cached.handler();
+      }
+    }
+
+    final var result = this.resolve(type);
+    this.cache.set(slot, new Resolved<>(type, result));
+    return result;
+  }
+
+  private static int spread(
+    final int hash)
+  {
+    return hash ^ (hash >>> 16);
+  }
+
+  private Optional<H> resolve(
+    final MimeType type)
+  {
+    var candidates = this.fallback;
+    final var typeRules = this.byType.get(type.type());
+    if (typeRules != null) {
+      candidates =
+        typeRules.bySubtype().getOrDefault(type.subtype(), typeRules.fallback());
+    }
+
+    for (final var rule : candidates) {
+      if (rule.pattern().matches(type)) {
+        return rule.handler();
+      }
+    }
+    return Optional.empty();
+  }
+}
@@ -16,11 +16,16 @@
 
 package com.io7m.mime2045.core;
 
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.util.Comparator;
 import java.util.Objects;
 
 /**
- * A type parameter.
+ * A type parameter. Parameter names are case-insensitive, and are
+ * converted to lower case on construction. Values are preserved exactly,
+ * as the significance of case in a value depends on the parameter.
  *
  * @param name  The parameter name
  * @param value The parameter value
@@ -31,6 +36,10 @@ public record MimeTypeParameter(
   String value)
   implements Comparable<MimeTypeParameter>
 {
+  private static final Comparator<MimeTypeParameter> ORDER =
+    Comparator.comparing(MimeTypeParameter::name)
+      .thenComparing(MimeTypeParameter::value);
+
   /**
    * A type parameter.
    *
@@ -43,67 +52,204 @@ public record MimeTypeParameter(
     Objects.requireNonNull(name, "name");
     Objects.requireNonNull(value, "value");
 
-    for (final var ch : name.toCharArray()) {
-      if (!MimeCharacters.characterIsAllowedBare(ch)) {
-        throw new MimeValidityException(
-          "Parameter name '%s' contains disallowed character '%s' (0x%s)"
-            .formatted(
-              name,
-              Character.valueOf(ch),
-              Integer.toUnsignedString((int) ch, 16))
-        );
-      }
+    final var badName = MimeCharacters.firstDisallowedBare(name);
+    if (badName >= 0) {
+      throw disallowed("name", name, name.charAt(badName));
     }
 
-    for (final var ch : value.toCharArray()) {
-      if (!MimeCharacters.characterIsAllowedQuoted(ch)) {
-        throw new MimeValidityException(
-          "Parameter value '%s' contains disallowed character '%s' (0x%s)"
-            .formatted(
-              name,
-              Character.valueOf(ch),
-              Integer.toUnsignedString((int) ch, 16))
-        );
-      }
+    final var badValue = MimeCharacters.firstDisallowedQuoted(value);
+    if (badValue >= 0) {
+      throw disallowed("value", name, value.charAt(badValue));
     }
+
+    name = MimeCharacters.toLowerCaseAscii(name);
   }
 
-  private static String quoteIfNecessary(
+  private static MimeValidityException disallowed(
+    final String part,
+    final String name,
+    final char ch)
+  {
+    return new MimeValidityException(
+      "Parameter %s '%s' contains disallowed character '%s' (0x%s)"
+        .formatted(
+          part,
+          name,
+          Character.valueOf(ch),
+          Integer.toUnsignedString((int) ch, 16))
+    );
+  }
+
+  private static boolean needsQuoting(
     final String value)
   {
-    final var text = new StringBuilder(value.length());
-    boolean quote = false;
-    for (final var ch : value.toCharArray()) {
-      quote = quote || !MimeCharacters.characterIsAllowedBare(ch);
+    return MimeCharacters.firstDisallowedBare(value) >= 0;
+  }
 
-      switch (ch) {
-        case '"', '\\', ' ' -> text.append('\\');
-        default -> {
+  private static boolean needsEscape(
+    final char ch)
+  {
+    return ch == '"' || ch == '\\' || ch == ' ';
+  }
 
+  /**
+   * @return The number of characters in the serialized form of this
+   * parameter
+   *
+   * @see #appendTo(StringBuilder)
+   * @since 1.3.0
+   */
+
+  public int serializedLength()
+  {
+    final var v = this.value;
+    var length = 2 + this.name.length() + v.length();
+    if (needsQuoting(v)) {
+      length += 2;
+      for (int index = 0; index < v.length(); ++index) {
+        if (needsEscape(v.charAt(index))) {
+          ++length;
         }
       }
+    }
+    return length;
+  }
+
+  /**
+   * Append the serialized form of this parameter (such as
+   * {@code ;charset=utf-8}) to the given builder. The value is quoted and
+   * escaped if necessary.
+   *
+   * @param builder The builder
+   *
+   * @return {@code builder}
+   *
+   * @since 1.3.0
+   */
+
+  public StringBuilder appendTo(
+    final StringBuilder builder)
+  {
+    builder.append(';');
+    builder.append(this.name);
+    builder.append('=');
+
+    final var v = this.value;
+    if (!needsQuoting(v)) {
+      return builder.append(v);
+    }
+
+    builder.append('"');
+    for (int index = 0; index < v.length(); ++index) {
+      final var ch = v.charAt(index);
+      if (needsEscape(ch)) {
+        builder.append('\\');
+      }
+      builder.append(ch);
+    }
+    return builder.append('"');
+  }
+
+  /**
+   * Append the serialized form of this parameter to the given output.
+   *
+   * @param output The output
+   * @param <A>    The type of output
+   *
+   * @return {@code output}
+   *
+   * @throws IOException On I/O errors
+   * @see #appendTo(StringBuilder)
+   * @since 1.3.0
+   */
 
-      text.append(ch);
+  public <A extends Appendable> A appendTo(
+    final A output)
+    throws IOException
+  {
+    output.append(';');
+    output.append(this.name);
+    output.append('=');
+
+    final var v = this.value;
+    if (!needsQuoting(v)) {
+      output.append(v);
+      return output;
     }
 
-    if (quote) {
-      return "\"%s\"".formatted(text);
+    output.append('"');
+    for (int index = 0; index < v.length(); ++index) {
+      final var ch = v.charAt(index);
+      if (needsEscape(ch)) {
+        output.append('\\');
+      }
+      output.append(ch);
+    }
+    output.append('"');
+    return output;
+  }
+
+  /**
+   * Write the serialized form of this parameter to the given buffer as
+   * US-ASCII bytes, starting at the buffer's current position. Nothing is
+   * written if the buffer has insufficient space.
+   *
+   * @param buffer The buffer
+   *
+   * @return {@code buffer}
+   *
+   * @throws java.nio.BufferOverflowException If the buffer has fewer than
+   *                                          {@link #serializedLength()}
+   *                                          bytes remaining
+   * @see #appendTo(StringBuilder)
+   * @since 1.3.0
+   */
+
+  public ByteBuffer writeAsciiTo(
+    final ByteBuffer buffer)
+  {
+    if (buffer.remaining() < this.serializedLength()) {
+      throw new BufferOverflowException();
+    }
+    this.writeAsciiUnchecked(buffer);
+    return buffer;
+  }
+
+  void writeAsciiUnchecked(
+    final ByteBuffer buffer)
+  {
+    buffer.put((byte) ';');
+    MimeType.putAscii(buffer, this.name);
+    buffer.put((byte) '=');
+
+    final var v = this.value;
+    if (!needsQuoting(v)) {
+      MimeType.putAscii(buffer, v);
+      return;
+    }
+
+    buffer.put((byte) '"');
+    for (int index = 0; index < v.length(); ++index) {
+      final var ch = v.charAt(index);
+      if (needsEscape(ch)) {
+        buffer.put((byte) '\\');
+      }
+      buffer.put((byte) ch);
     }
-    return text.toString();
+    buffer.put((byte) '"');
   }
 
   @Override
   public String toString()
   {
-    return ";%s=%s".formatted(this.name, quoteIfNecessary(this.value));
+    return this.appendTo(new StringBuilder(this.serializedLength()))
+      .toString();
   }
 
   @Override
   public int compareTo(
     final MimeTypeParameter other)
   {
-    return Comparator.comparing(MimeTypeParameter::name)
-      .thenComparing(MimeTypeParameter::value)
-      .compare(this, other);
+    return ORDER.compare(this, other);
   }
 }
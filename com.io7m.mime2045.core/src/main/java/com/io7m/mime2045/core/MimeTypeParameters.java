@@ -0,0 +1,303 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.mime2045.core;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.RandomAccess;
+
+/**
+ * The sorted, immutable parameters of a type. Because {@link MimeType} is a
+ * record and cannot declare additional fields, the list also carries the
+ * lazily computed canonical text, hash code, structured syntax, and
+ * parameter lookup results of the type that owns it.
+ * Each list is created by, and belongs to, exactly one type.
+ */
+
+final class MimeTypeParameters
+  extends AbstractList<MimeTypeParameter>
+  implements RandomAccess
+{
+  private static final MimeTypeParameter[] EMPTY =
+    new MimeTypeParameter[0];
+
+  /*
+   * Set in the syntax field once the structured syntax has been computed,
+   * so that a type without a structured syntax is not recomputed.
+   */
+
+  private static final int SYNTAX_COMPUTED = 1 << 31;
+
+  private final MimeTypeParameter[] parameters;
+
+  /*
+   * These fields are written without synchronization. This is safe because
+   * the values are primitive or safely published immutable objects (String
+   * and Optional have only final fields), and any thread that observes the
+   * default value simply recomputes an identical result.
+   */
+
+  private String text;
+  private int hash;
+  private boolean hashIsZero;
+  private Optional<String> suffix;
+  private int syntax;
+
+  /*
+   * A buffer is not safely published by a racy write: its position and
+   * limit are not final, and its contents are written by plain stores.
+   * The field is volatile so that a thread that observes the buffer also
+   * observes its contents, position, and limit.
+   */
+
+  private volatile ByteBuffer ascii;
+
+  /*
+   * The results of parameter lookups, created on the first lookup and
+   * indexed by parameter. Entries are filled in lazily; a racing thread
+   * that observes a missing entry simply computes an equal one.
+   */
+
+  private Optional<MimeTypeParameter>[] found;
+  private Optional<String>[] foundValues;
+
+  private MimeTypeParameters(
+    final MimeTypeParameter[] inParameters)
+  {
+    this.parameters = inParameters;
+  }
+
+  /**
+   * Create a sorted copy of the given parameters.
+   *
+   * @param parameters The parameters
+   *
+   * @return A sorted, immutable list
+   */
+
+  static MimeTypeParameters sortedCopyOf(
+    final List<MimeTypeParameter> parameters)
+  {
+    Objects.requireNonNull(parameters, "parameters");
+
+    if (parameters.isEmpty()) {
+      return new MimeTypeParameters(EMPTY);
+    }
+
+    final var array = parameters.toArray(EMPTY);
+    for (final var parameter : array) {
+      Objects.requireNonNull(parameter, "parameter");
+    }
+    if (array.length > 1) {
+      Arrays.sort(array);
+    }
+    return new MimeTypeParameters(array);
+  }
+
+  @Override
+  public MimeTypeParameter get(
+    final int index)
+  {
+    return this.parameters[index];
+  }
+
+  @Override
+  public int size()
+  {
+    return this.parameters.length;
+  }
+
+  String cachedText()
+  {
+    return this.text;
+  }
+
+  String text(
+    final MimeType owner)
+  {
+    var result = this.text;
+    if (result == null) {
+      result = owner.appendTo(new StringBuilder(owner.serializedLength()))
+        .toString();
+      this.text = result;
+    }
+    return result;
+  }
+
+  ByteBuffer cachedAscii()
+  {
+    return this.ascii;
+  }
+
+  ByteBuffer ascii(
+    final MimeType owner)
+  {
+    var result = this.ascii;
+    if (result == null) {
+      final var buffer = ByteBuffer.allocate(owner.serializedLength());
+      owner.writeAsciiTo(buffer);
+      result = buffer.flip().asReadOnlyBuffer();
+      this.ascii = result;
+    }
+    return result;
+  }
+
+  int hash(
+    final MimeType owner)
+  {
+    var result = this.hash;
+    if (result == 0 && !this.hashIsZero) {
+      result = owner.type().hashCode();
+      result = 31 * result + owner.subtype().hashCode();
+      result = 31 * result + Arrays.hashCode(this.parameters);
+      if (result == 0) {
+        this.hashIsZero = true;
+      } else {
+        this.hash = result;
+      }
+    }
+    return result;
+  }
+
+  Optional<String> suffix(
+    final MimeType owner)
+  {
+    var result = this.suffix;
+    if (result == null) {
+      final var subtype = owner.subtype();
+      final var plus = subtype.lastIndexOf('+');
+      if (plus > 0 && plus < subtype.length() - 1) {
+        result = Optional.of(subtype.substring(plus + 1));
+      } else {
+        result = Optional.empty();
+      }
+      this.suffix = result;
+    }
+    return result;
+  }
+
+  int syntax(
+    final MimeType owner)
+  {
+    var result = this.syntax;
+    if (result == 0) {
+      result = SYNTAX_COMPUTED | MimeStructuredSyntax.classify(
+        owner.type(),
+        owner.subtype(),
+        this.suffix(owner).orElse(null)
+      );
+      this.syntax = result;
+    }
+    return result & ~SYNTAX_COMPUTED;
+  }
+
+  /**
+   * Find the first parameter with the given name, ignoring the case of
+   * ASCII letters in the name. The parameters are sorted by name, so this
+   * is a binary search.
+   *
+   * @param name The name
+   *
+   * @return The index of the parameter, or {@code -1}
+   */
+
+  int indexOf(
+    final CharSequence name)
+  {
+    final var array = this.parameters;
+    var low = 0;
+    var high = array.length;
+    while (low < high) {
+      final var middle = (low + high) >>> 1;
+      if (MimeCharacters.compareLowerAscii(name, array[middle].name()) > 0) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+
+    if (low < array.length
+        && MimeCharacters.compareLowerAscii(name, array[low].name()) == 0) {
+      return low;
+    }
+    return -1;
+  }
+
+  @SuppressWarnings("unchecked")
+  Optional<MimeTypeParameter> parameter(
+    final CharSequence name)
+  {
+    final var index = this.indexOf(name);
+    if (index < 0) {
+      return Optional.empty();
+    }
+
+    var cache = this.found;
+    if (cache == null) {
+      cache = (Optional<MimeTypeParameter>[]) new Optional<?>[this.size()];
+      this.found = cache;
+    }
+    var result = cache[index];
+    if (result == null) {
+      result = Optional.of(this.parameters[index]);
+      cache[index] = result;
+    }
+    return result;
+  }
+
+  @SuppressWarnings("unchecked")
+  Optional<String> parameterValue(
+    final CharSequence name)
+  {
+    final var index = this.indexOf(name);
+    if (index < 0) {
+      return Optional.empty();
+    }
+
+    var cache = this.foundValues;
+    if (cache == null) {
+      cache = (Optional<String>[]) new Optional<?>[this.size()];
+      this.foundValues = cache;
+    }
+    var result = cache[index];
+    if (result == null) {
+      result = Optional.of(this.parameters[index].value());
+      cache[index] = result;
+    }
+    return result;
+  }
+
+  synchronized void presetSyntax(
+    final MimeStructuredSyntax preset)
+  {
+    if ((this.syntax & SYNTAX_COMPUTED) != 0) {
+      throw new IllegalStateException(
+        "The structured syntax of the type has already been set.");
+    }
+    this.syntax = SYNTAX_COMPUTED | (preset == null ? 0 : preset.bit());
+  }
+
+  boolean parametersEqual(
+    final MimeTypeParameters other)
+  {
+    return Arrays.equals(this.parameters, other.parameters);
+  }
+}
@@ -0,0 +1,299 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.mime2045.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * <p>A pattern that matches types. A pattern can match:</p>
+ *
+ * <ul>
+ *   <li>Exactly one type and subtype ({@code text/plain}).</li>
+ *   <li>Any subtype of a type ({@code text/*}).</li>
+ *   <li>Any subtype of a type with a given structured syntax suffix
+ *   ({@code application/*+json}), or any type with that suffix
+ *   ({@code *}{@code /*+json}).</li>
+ *   <li>Any type at all ({@code *}{@code /*}).</li>
+ * </ul>
+ *
+ * <p>In addition, a pattern can require that matched types have parameters
+ * with given values. As with types, the type, subtype, suffix and
+ * parameter names are converted to lower case.</p>
+ *
+ * @param type       The type, or {@link #WILDCARD}
+ * @param subtype    The subtype, or {@link #WILDCARD}
+ * @param suffix     The required structured syntax suffix (without the
+ *                   {@code '+'}), or the empty string if no suffix is
+ *                   required
+ * @param parameters The parameters that matched types must have
+ *
+ * @since 1.3.0
+ */
+
+public record MimeTypePattern(
+  String type,
+  String subtype,
+  String suffix,
+  List<MimeTypeParameter> parameters)
+{
+  /**
+   * The wildcard type or subtype.
+   */
+
+  public static final String WILDCARD = "*";
+
+  private static final MimeTypePattern ANY =
+    new MimeTypePattern(WILDCARD, WILDCARD, "", List.of());
+
+  /**
+   * A pattern that matches types.
+   *
+   * @param type       The type, or {@link #WILDCARD}
+   * @param subtype    The subtype, or {@link #WILDCARD}
+   * @param suffix     The required structured syntax suffix, or the empty
+   *                   string if no suffix is required
+   * @param parameters The parameters that matched types must have
+   */
+
+  public MimeTypePattern
+  {
+    type = MimeCharacters.toLowerCaseAscii(
+      Objects.requireNonNull(type, "type"));
+    subtype = MimeCharacters.toLowerCaseAscii(
+      Objects.requireNonNull(subtype, "subtype"));
+    suffix = MimeCharacters.toLowerCaseAscii(
+      Objects.requireNonNull(suffix, "suffix"));
+    if (suffix.startsWith("+")) {
+      suffix = suffix.substring(1);
+    }
+    parameters = List.copyOf(parameters);
+
+    if (WILDCARD.equals(type) && !WILDCARD.equals(subtype)) {
+      throw new IllegalArgumentException(
+        "A wildcard type requires a wildcard subtype (received '%s/%s')"
+          .formatted(type, subtype)
+      );
+    }
+    if (!suffix.isEmpty() && !WILDCARD.equals(subtype)) {
+      throw new IllegalArgumentException(
+        "A suffix requires a wildcard subtype (received '%s/%s+%s')"
+          .formatted(type, subtype, suffix)
+      );
+    }
+  }
+
+  /**
+   * @return A pattern that matches every type
+   */
+
+  public static MimeTypePattern any()
+  {
+    return ANY;
+  }
+
+  /**
+   * @param type    The type
+   * @param subtype The subtype
+   *
+   * @return A pattern that matches the given type and subtype, with any
+   * parameters
+   */
+
+  public static MimeTypePattern of(
+    final String type,
+    final String subtype)
+  {
+    return new MimeTypePattern(type, subtype, "", List.of());
+  }
+
+  /**
+   * @param type The type
+   *
+   * @return A pattern that matches types with the same type and subtype
+   * as the given type, and at least its parameters
+   */
+
+  public static MimeTypePattern exact(
+    final MimeType type)
+  {
+    return new MimeTypePattern(
+      type.type(), type.subtype(), "", type.parameters());
+  }
+
+  /**
+   * @param type The type
+   *
+   * @return A pattern that matches any subtype of the given type
+   */
+
+  public static MimeTypePattern anySubtype(
+    final String type)
+  {
+    return new MimeTypePattern(type, WILDCARD, "", List.of());
+  }
+
+  /**
+   * @param type   The type, or {@link #WILDCARD}
+   * @param suffix The structured syntax suffix, such as {@code json}
+   *
+   * @return A pattern that matches any subtype of the given type that has
+   * the given suffix
+   */
+
+  public static MimeTypePattern withSuffix(
+    final String type,
+    final String suffix)
+  {
+    return new MimeTypePattern(type, WILDCARD, suffix, List.of());
+  }
+
+  /**
+   * @param name  The parameter name
+   * @param value The parameter value
+   *
+   * @return A pattern that additionally requires the given parameter
+   */
+
+  public MimeTypePattern withParameter(
+    final String name,
+    final String value)
+  {
+    final var newParameters = new ArrayList<>(this.parameters);
+    newParameters.add(new MimeTypeParameter(name, value));
+    return new MimeTypePattern(
+      this.type, this.subtype, this.suffix, newParameters);
+  }
+
+  /**
+   * @return {@code true} if the type is {@link #WILDCARD}
+   */
+
+  public boolean isTypeWildcard()
+  {
+    return WILDCARD.equals(this.type);
+  }
+
+  /**
+   * @return {@code true} if the subtype is {@link #WILDCARD}
+   */
+
+  public boolean isSubtypeWildcard()
+  {
+    return WILDCARD.equals(this.subtype);
+  }
+
+  /**
+   * The specificity of a pattern orders patterns from the most general to
+   * the most specific: {@code *}{@code /*}, then {@code *}{@code /*+suffix},
+   * then {@code type/*}, then {@code type/*+suffix}, then
+   * {@code type/subtype}. Within each of these, a pattern that requires more
+   * parameters is more specific.
+   *
+   * @return The specificity of the pattern
+   */
+
+  public int specificity()
+  {
+    final int level;
+    if (this.isTypeWildcard()) {
+      level = this.suffix.isEmpty() ? 0 : 1;
+    } else if (this.isSubtypeWildcard()) {
+      level = this.suffix.isEmpty() ? 2 : 3;
+    } else {
+      level = 4;
+    }
+    return (level << 16) + Math.min(this.parameters.size(), 0xffff);
+  }
+
+  /**
+   * Determine whether the given type matches this pattern. This method does
+   * not allocate.
+   *
+   * @param target The type
+   *
+   * @return {@code true} if the type matches
+   */
+
+  public boolean matches(
+    final MimeType target)
+  {
+    if (!this.isTypeWildcard() && !this.type.equals(target.type())) {
+      return false;
+    }
+    if (!this.isSubtypeWildcard() && !this.subtype.equals(target.subtype())) {
+      return false;
+    }
+    if (!this.suffix.isEmpty() && !hasSuffix(target.subtype(), this.suffix)) {
+      return false;
+    }
+    return hasParameters(target.parameters(), this.parameters);
+  }
+
+  private static boolean hasSuffix(
+    final String subtype,
+    final String suffix)
+  {
+    final var plus = subtype.length() - suffix.length() - 1;
+    return plus > 0
+           && subtype.charAt(plus) == '+'
+           && subtype.regionMatches(plus + 1, suffix, 0, suffix.length());
+  }
+
+  private static boolean hasParameters(
+    final List<MimeTypeParameter> available,
+    final List<MimeTypeParameter> required)
+  {
+    for (int index = 0; index < required.size(); ++index) {
+      if (!contains(available, required.get(index))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean contains(
+    final List<MimeTypeParameter> parameters,
+    final MimeTypeParameter parameter)
+  {
+    for (int index = 0; index < parameters.size(); ++index) {
+      if (parameters.get(index).equals(parameter)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public String toString()
+  {
+    final var builder = new StringBuilder(32);
+    builder.append(this.type);
+    builder.append('/');
+    builder.append(this.subtype);
+    if (!this.suffix.isEmpty()) {
+      builder.append('+');
+      builder.append(this.suffix);
+    }
+    for (final var parameter : this.parameters) {
+      parameter.appendTo(builder);
+    }
+    return builder.toString();
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.mime2045.core.internal;
+
+import com.io7m.mime2045.core.MimeStructuredSyntax;
+import com.io7m.mime2045.core.MimeType;
+
+import java.util.Objects;
+
+/**
+ * Access to the internal state of types. The core package installs the
+ * implementation when {@link MimeType} is initialized; this package is
+ * only exported to the modules of this library.
+ */
+
+public final class MimeTypeAccess
+{
+  private static volatile MimeTypeAccessType ACCESS;
+
+  private MimeTypeAccess()
+  {
+
+  }
+
+  /**
+   * Install the implementation. This can only be called once.
+   *
+   * @param inAccess The implementation
+   */
+
+  public static void setAccess(
+    final MimeTypeAccessType inAccess)
+  {
+    Objects.requireNonNull(inAccess, "access");
+    synchronized (MimeTypeAccess.class) {
+      if (ACCESS != null) {
+        throw new IllegalStateException("Access is already installed.");
+      }
+      ACCESS = inAccess;
+    }
+  }
+
+  /**
+   * Record the structured syntax of a type that was computed ahead of
+   * time.
+   *
+   * @param type   The type
+   * @param syntax The structured syntax of the type, or {@code null} if the
+   *               type has no structured syntax
+   *
+   * @return {@code type}
+   *
+   * @throws IllegalStateException If the structured syntax of the type has
+   *                               already been preset or computed
+   * @see MimeTypeAccessType#presetStructuredSyntax(MimeType, MimeStructuredSyntax)
+   */
+
+  public static MimeType presetStructuredSyntax(
+    final MimeType type,
+    final MimeStructuredSyntax syntax)
+  {
+    Objects.requireNonNull(type, "type");
+
+    /*
+     * The implementation is installed by the initializer of MimeType, which
+     * has necessarily run given that an instance exists.
+     */
+
+    ACCESS.presetStructuredSyntax(type, syntax);
+    return type;
+  }
+}
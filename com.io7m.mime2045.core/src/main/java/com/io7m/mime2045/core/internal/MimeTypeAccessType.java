@@ -0,0 +1,45 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.mime2045.core.internal;
+
+import com.io7m.mime2045.core.MimeStructuredSyntax;
+import com.io7m.mime2045.core.MimeType;
+
+/**
+ * Operations on the internal state of types, for use by the modules of
+ * this library that construct the canonical instances of the registered
+ * types.
+ */
+
+public interface MimeTypeAccessType
+{
+  /**
+   * Record the structured syntax of a type that was computed ahead of
+   * time, so that the type does not need to classify itself. The syntax
+   * of a type can only be set once, and only before the type has
+   * classified itself.
+   *
+   * @param type   The type
+   * @param syntax The structured syntax of the type, or {@code null} if the
+   *               type has no structured syntax
+   */
+
+  void presetStructuredSyntax(
+    MimeType type,
+    MimeStructuredSyntax syntax);
+}
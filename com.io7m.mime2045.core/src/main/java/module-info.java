@@ -24,4 +24,6 @@ module com.io7m.mime2045.core
   requires static org.osgi.annotation.versioning;
 
   exports com.io7m.mime2045.core;
+  exports com.io7m.mime2045.core.internal
+    to com.io7m.mime2045.fileext;
 }
@@ -14,19 +14,48 @@
  * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
  */
 
+import com.io7m.mime2045.core.MimeCharacters;
+import com.io7m.mime2045.core.MimeStructuredSyntax;
+import com.io7m.mime2045.core.MimeType;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 public final class MimeGenerate
 {
+  private static final int CHUNK_SIZE = 256;
+
   private MimeGenerate()
   {
 
   }
 
+  private record Entry(
+    String type,
+    String subtype,
+    List<String> extensions)
+  {
+    String text()
+    {
+      return this.type + "/" + this.subtype;
+    }
+
+    String canonicalText()
+    {
+      return MimeCharacters.toLowerCaseAscii(this.text());
+    }
+  }
+
   public static void main(
     final String[] args)
     throws Exception
@@ -34,61 +63,968 @@ public final class MimeGenerate
     final var mimeFile =
       Paths.get(args[0])
         .toAbsolutePath();
-    final var outputFile =
+    final var outputDirectory =
       Paths.get(args[1])
         .toAbsolutePath();
 
+    final List<Entry> entries;
     try (var lineStream = Files.lines(mimeFile, UTF_8)) {
-      final var lines =
+      entries =
         lineStream.map(String::trim)
           .filter(s -> !s.startsWith("#"))
           .filter(s -> !s.isBlank())
           .sorted()
+          .map(MimeGenerate::parseEntry)
           .toList();
+    }
+
+    writeExtensions(
+      outputDirectory.resolve(
+        "com/io7m/mime2045/fileext/internal/MimeFileExtensionsGenerated.java"),
+      entries
+    );
+    writeExtensionTypes(
+      outputDirectory.resolve(
+        "com/io7m/mime2045/fileext/internal/MimeExtensionTypesGenerated.java"),
+      entries
+    );
+    writeTypes(
+      outputDirectory.resolve("com/io7m/mime2045/fileext/MimeTypes.java"),
+      entries
+    );
+    writeTypesTable(
+      outputDirectory.resolve(
+        "com/io7m/mime2045/fileext/internal/MimeTypesGenerated.java"),
+      entries
+    );
+  }
+
+  private static Entry parseEntry(
+    final String line)
+  {
+    final var segments =
+      List.of(line.split("\\s+"));
+    final var name =
+      segments.get(0);
+    final var slash =
+      name.indexOf('/');
+
+    return new Entry(
+      name.substring(0, slash),
+      name.substring(slash + 1),
+      segments.subList(1, segments.size())
+    );
+  }
+
+  /*
+   * This is an exact copy of the hash function in MimePerfectHash. The
+   * generator cannot depend on the module it generates code for, so the
+   * two must be kept in sync.
+   */
+
+  private static int lower(
+    final char ch)
+  {
+    return ch >= 'A' && ch <= 'Z' ? ch + 32 : ch;
+  }
+
+  private static int mix(
+    final int hash)
+  {
+    int h = hash;
+    h ^= h >>> 16;
+    h *= 0x85ebca6b;
+    h ^= h >>> 13;
+    h *= 0xc2b2ae35;
+    h ^= h >>> 16;
+    return h;
+  }
+
+  private static int hashOf(
+    final String text)
+  {
+    int h = 0x811c9dc5;
+    for (int index = 0; index < text.length(); ++index) {
+      h = (h ^ lower(text.charAt(index))) * 0x01000193;
+    }
+    return mix(h);
+  }
+
+  private static int slotOf(
+    final int hash,
+    final int seed,
+    final int size)
+  {
+    return (mix(hash ^ (seed * 0x9e3779b9)) & 0x7fff_ffff) % size;
+  }
+
+  private static int bucketOf(
+    final int hash,
+    final int buckets)
+  {
+    return (hash & 0x7fff_ffff) % buckets;
+  }
+
+  /**
+   * A perfect hash table: the seed for each bucket, and the index of the
+   * key (in the original list of keys) that occupies each slot.
+   */
+
+  private record PerfectHash(
+    int[] seeds,
+    int[] slots)
+  {
+
+  }
 
-      Files.createDirectories(outputFile.getParent());
-
-      try (var writer = Files.newBufferedWriter(outputFile, UTF_8)) {
-        writer.append("package com.io7m.mime2045.fileext.internal;");
-        writer.newLine();
-        writer.append("import java.util.HashMap;");
-        writer.newLine();
-        writer.append("import java.util.Map;");
-        writer.newLine();
-        writer.append("import java.util.Set;");
-        writer.newLine();
-        writer.append("public final class MimeFileExtensionsGenerated {");
-        writer.newLine();
-        writer.append("  private static final Map<String, String> TYPES;");
-        writer.newLine();
-        writer.append("  static {");
-        writer.newLine();
-        writer.append("    TYPES = new HashMap<>();");
-        writer.newLine();
-
-        for (final var line : lines) {
-          final var segments =
-            List.of(line.split("\\s+"));
-
-          if (segments.size() >= 2) {
-            writer.append("    TYPES.put(\"%s\", \"%s\");".formatted(
-              segments.get(0),
-              segments.get(1)
-            ));
-            writer.newLine();
+  /**
+   * Build a minimal perfect hash table over the given (lower-case) keys
+   * using "hash and displace": keys are grouped into buckets, and then,
+   * largest bucket first, a seed is searched for that places every key in
+   * the bucket into a distinct free slot.
+   */
+
+  private static PerfectHash perfectHash(
+    final List<String> keys)
+  {
+    final var size = keys.size();
+    final var bucketCount = Math.max(1, size / 3);
+    final var hashes = new int[size];
+    final var buckets = new ArrayList<List<Integer>>(bucketCount);
+    for (int index = 0; index < bucketCount; ++index) {
+      buckets.add(new ArrayList<>());
+    }
+
+    for (int index = 0; index < size; ++index) {
+      hashes[index] = hashOf(keys.get(index));
+      buckets.get(bucketOf(hashes[index], bucketCount))
+        .add(Integer.valueOf(index));
+    }
+
+    final var order = new ArrayList<Integer>(bucketCount);
+    for (int index = 0; index < bucketCount; ++index) {
+      order.add(Integer.valueOf(index));
+    }
+    order.sort((x, y) -> {
+      return Integer.compare(
+        buckets.get(y.intValue()).size(),
+        buckets.get(x.intValue()).size()
+      );
+    });
+
+    final var seeds = new int[bucketCount];
+    final var slots = new int[size];
+    Arrays.fill(slots, -1);
+    final var taken = new HashSet<Integer>();
+
+    for (final var bucketIndex : order) {
+      final var bucket = buckets.get(bucketIndex.intValue());
+      if (bucket.isEmpty()) {
+        continue;
+      }
+
+      for (int seed = 0; ; ++seed) {
+        taken.clear();
+        var ok = true;
+        for (final var key : bucket) {
+          final var slot = slotOf(hashes[key.intValue()], seed, size);
+          if (slots[slot] != -1 || !taken.add(Integer.valueOf(slot))) {
+            ok = false;
+            break;
+          }
+        }
+
+        if (ok) {
+          seeds[bucketIndex.intValue()] = seed;
+          for (final var key : bucket) {
+            final var slot = slotOf(hashes[key.intValue()], seed, size);
+            slots[slot] = key.intValue();
           }
+          break;
+        }
+      }
+    }
+    return new PerfectHash(seeds, slots);
+  }
+
+  /**
+   * Escape a character for use in a Java string literal. Unicode escapes
+   * are processed before the rest of the source is lexed, and so line
+   * terminators, quotes, and backslashes must use ordinary escapes.
+   */
+
+  private static String escape(
+    final char ch)
+  {
+    return switch (ch) {
+      case '\n' -> "\\n";
+      case '\r' -> "\\r";
+      case '"' -> "\\\"";
+      case '\\' -> "\\\\";
+      default -> {
+        if (ch >= 0x20 && ch < 0x7f) {
+          yield String.valueOf(ch);
         }
+        yield "\\u%04x".formatted(Integer.valueOf(ch));
+      }
+    };
+  }
+
+  /**
+   * The length of a string in the "modified UTF-8" encoding used by the
+   * class file constant pool, which limits constants to 65535 bytes.
+   */
+
+  private static int constantLength(
+    final String value)
+  {
+    var length = 0;
+    for (int index = 0; index < value.length(); ++index) {
+      final var ch = value.charAt(index);
+      if (ch != 0 && ch < 0x80) {
+        length += 1;
+      } else if (ch < 0x800) {
+        length += 2;
+      } else {
+        length += 3;
+      }
+    }
+    return length;
+  }
+
+  /**
+   * Write a string constant, split over several lines. The pieces are
+   * concatenated by the compiler into a single constant, and so loading
+   * the constant costs nothing in the class initializer.
+   */
 
-        writer.append("  }");
-        writer.newLine();
-        writer.append("  public static String get(String x) { return TYPES.get(x); }");
-        writer.newLine();
-        writer.append("  public static Set<String> known() { return TYPES.keySet(); }");
-        writer.newLine();
-        writer.append("}");
-        writer.newLine();
-        writer.flush();
+  private static void writeConstant(
+    final BufferedWriter writer,
+    final String name,
+    final String value)
+    throws IOException
+  {
+    if (constantLength(value) > 65535) {
+      throw new IllegalStateException(
+        "Constant %s is too large for the class file format".formatted(name));
+    }
+
+    line(writer, "  private static final String %s =".formatted(name));
+    if (value.isEmpty()) {
+      line(writer, "    \"\";");
+      return;
+    }
+
+    final var text = new StringBuilder(80);
+    for (int index = 0; index < value.length(); ++index) {
+      text.append(escape(value.charAt(index)));
+      final var last = index + 1 == value.length();
+      if (last) {
+        line(writer, "    \"%s\";".formatted(text));
+      } else if (text.length() >= 72) {
+        line(writer, "    \"%s\" +".formatted(text));
+        text.setLength(0);
       }
     }
   }
+
+  /**
+   * Pack integers into a string, one value per character.
+   */
+
+  private static String pack(
+    final String name,
+    final List<Integer> values)
+  {
+    final var text = new StringBuilder(values.size());
+    for (final var value : values) {
+      if (value.intValue() < 0 || value.intValue() > 0xffff) {
+        throw new IllegalStateException(
+          "Value %s in %s cannot be packed".formatted(value, name));
+      }
+      text.append((char) value.intValue());
+    }
+    return text.toString();
+  }
+
+  private static void writeSeeds(
+    final BufferedWriter writer,
+    final String name,
+    final PerfectHash hash)
+    throws IOException
+  {
+    final var values = Arrays.stream(hash.seeds()).boxed().toList();
+    writeConstant(writer, name, pack(name, values));
+  }
+
+  private static void writeStrings(
+    final BufferedWriter writer,
+    final String name,
+    final PerfectHash hash,
+    final List<String> values)
+    throws IOException
+  {
+    final var ordered = new ArrayList<String>(hash.slots().length);
+    for (final var slot : hash.slots()) {
+      final var value = values.get(slot);
+      if (value.indexOf('\n') >= 0) {
+        throw new IllegalStateException(
+          "Value '%s' in %s contains a line separator".formatted(value, name));
+      }
+      ordered.add(value);
+    }
+    writeConstant(writer, name, String.join("\n", ordered));
+  }
+
+  private static void writeExtensions(
+    final Path outputFile,
+    final List<Entry> entries)
+    throws IOException
+  {
+    Files.createDirectories(outputFile.getParent());
+
+    final var withExtensions =
+      entries.stream()
+        .filter(e -> !e.extensions().isEmpty())
+        .toList();
+    final var keys =
+      withExtensions.stream()
+        .map(Entry::canonicalText)
+        .toList();
+    final var extensions =
+      withExtensions.stream()
+        .map(e -> e.extensions().get(0))
+        .toList();
+
+    final var hash = perfectHash(keys);
+
+    try (var writer = Files.newBufferedWriter(outputFile, UTF_8)) {
+      line(writer, "package com.io7m.mime2045.fileext.internal;");
+      line(writer, "");
+      line(writer, "import java.util.Optional;");
+      line(writer, "");
+      line(writer, "/**");
+      line(writer, " * A perfect hash table from types to their preferred file extensions.");
+      line(writer, " * This file is generated; do not edit.");
+      line(writer, " */");
+      line(writer, "");
+      line(writer, "public final class MimeFileExtensionsGenerated");
+      line(writer, "{");
+      writeSeeds(writer, "SEEDS", hash);
+      writeStrings(writer, "KEYS", hash, keys);
+      writeStrings(writer, "EXTENSIONS", hash, extensions);
+      line(writer, "");
+      line(writer, "  private static final class Table");
+      line(writer, "  {");
+      line(writer, "    private static final MimePerfectHash HASH =");
+      line(writer, "      new MimePerfectHash(MimePerfectHash.unpack(SEEDS), KEYS);");
+      line(writer, "    private static final Optional<?>[] RESULTS =");
+      line(writer, "      new Optional<?>[HASH.size()];");
+      line(writer, "");
+      line(writer, "    static {");
+      line(writer, "      var start = 0;");
+      line(writer, "      for (int index = 0; index < RESULTS.length; ++index) {");
+      line(writer, "        var end = EXTENSIONS.indexOf('\\n', start);");
+      line(writer, "        if (end < 0) {");
+      line(writer, "          end = EXTENSIONS.length();");
+      line(writer, "        }");
+      line(writer, "        RESULTS[index] = Optional.of(EXTENSIONS.substring(start, end));");
+      line(writer, "        start = end + 1;");
+      line(writer, "      }");
+      line(writer, "    }");
+      line(writer, "");
+      line(writer, "    private Table()");
+      line(writer, "    {");
+      line(writer, "");
+      line(writer, "    }");
+      line(writer, "  }");
+      line(writer, "");
+      line(writer, "  private MimeFileExtensionsGenerated()");
+      line(writer, "  {");
+      line(writer, "");
+      line(writer, "  }");
+      line(writer, "");
+      line(writer, "  /**");
+      line(writer, "   * Find the preferred extension for the given type and subtype,");
+      line(writer, "   * ignoring ASCII case.");
+      line(writer, "   *");
+      line(writer, "   * @param type    The type");
+      line(writer, "   * @param subtype The subtype");
+      line(writer, "   *");
+      line(writer, "   * @return A shared optional containing the extension, if any");
+      line(writer, "   */");
+      line(writer, "");
+      line(writer, "  @SuppressWarnings(\"unchecked\")");
+      line(writer, "  public static Optional<String> extensionOf(");
+      line(writer, "    final String type,");
+      line(writer, "    final String subtype)");
+      line(writer, "  {");
+      line(writer, "    final var slot = Table.HASH.find(type, subtype);");
+      line(writer, "    if (slot < 0) {");
+      line(writer, "      return Optional.empty();");
+      line(writer, "    }");
+      line(writer, "    return (Optional<String>) Table.RESULTS[slot];");
+      line(writer, "  }");
+      line(writer, "}");
+      writer.flush();
+    }
+  }
+
+  private static void writeExtensionTypes(
+    final Path outputFile,
+    final List<Entry> entries)
+    throws IOException
+  {
+    Files.createDirectories(outputFile.getParent());
+
+    final var keys = new ArrayList<String>();
+    final var typeIndices = new ArrayList<Integer>();
+    for (int index = 0; index < entries.size(); ++index) {
+      for (final var extension : entries.get(index).extensions()) {
+        keys.add(MimeCharacters.toLowerCaseAscii(extension));
+        typeIndices.add(Integer.valueOf(index));
+      }
+    }
+
+    if (new HashSet<>(keys).size() != keys.size()) {
+      throw new IllegalStateException(
+        "mime.types assigns the same extension to more than one type");
+    }
+
+    final var hash = perfectHash(keys);
+    final var maxLength =
+      keys.stream()
+        .mapToInt(String::length)
+        .max()
+        .orElse(0);
+
+    try (var writer = Files.newBufferedWriter(outputFile, UTF_8)) {
+      line(writer, "package com.io7m.mime2045.fileext.internal;");
+      line(writer, "");
+      line(writer, "import com.io7m.mime2045.core.MimeType;");
+      line(writer, "");
+      line(writer, "import java.util.Objects;");
+      line(writer, "import java.util.Optional;");
+      line(writer, "");
+      line(writer, "/**");
+      line(writer, " * A perfect hash table from every file extension (including compound");
+      line(writer, " * extensions such as {@code cwl.json}) to the canonical type that owns it.");
+      line(writer, " * This file is generated; do not edit.");
+      line(writer, " */");
+      line(writer, "");
+      line(writer, "public final class MimeExtensionTypesGenerated");
+      line(writer, "{");
+      line(writer, "  /**");
+      line(writer, "   * The length of the longest known extension.");
+      line(writer, "   */");
+      line(writer, "");
+      line(writer, "  public static final int MAXIMUM_LENGTH = %d;".formatted(Integer.valueOf(maxLength)));
+      line(writer, "");
+      writeSeeds(writer, "SEEDS", hash);
+      writeStrings(writer, "KEYS", hash, keys);
+      final var types = new ArrayList<Integer>(keys.size());
+      for (final var slot : hash.slots()) {
+        types.add(typeIndices.get(slot));
+      }
+      writeConstant(writer, "TYPES", pack("TYPES", types));
+      line(writer, "");
+      line(writer, "  private static final class Table");
+      line(writer, "  {");
+      line(writer, "    private static final MimePerfectHash HASH =");
+      line(writer, "      new MimePerfectHash(MimePerfectHash.unpack(SEEDS), KEYS);");
+      line(writer, "    private static final Optional<?>[] RESULTS =");
+      line(writer, "      new Optional<?>[HASH.size()];");
+      line(writer, "");
+      line(writer, "    static {");
+      line(writer, "      final var all = MimeTypesGenerated.all();");
+      line(writer, "      for (int index = 0; index < RESULTS.length; ++index) {");
+      line(writer, "        RESULTS[index] = Optional.of(all.get(TYPES.charAt(index)));");
+      line(writer, "      }");
+      line(writer, "    }");
+      line(writer, "");
+      line(writer, "    private Table()");
+      line(writer, "    {");
+      line(writer, "");
+      line(writer, "    }");
+      line(writer, "  }");
+      line(writer, "");
+      line(writer, "  private MimeExtensionTypesGenerated()");
+      line(writer, "  {");
+      line(writer, "");
+      line(writer, "  }");
+      line(writer, "");
+      line(writer, "  /**");
+      line(writer, "   * Find the type for the given extension, ignoring ASCII case.");
+      line(writer, "   *");
+      line(writer, "   * @param text  The text");
+      line(writer, "   * @param start The starting offset of the extension (inclusive)");
+      line(writer, "   * @param end   The ending offset of the extension (exclusive)");
+      line(writer, "   *");
+      line(writer, "   * @return A shared optional containing the type, if any");
+      line(writer, "   */");
+      line(writer, "");
+      line(writer, "  @SuppressWarnings(\"unchecked\")");
+      line(writer, "  public static Optional<MimeType> typeOf(");
+      line(writer, "    final CharSequence text,");
+      line(writer, "    final int start,");
+      line(writer, "    final int end)");
+      line(writer, "  {");
+      line(writer, "    final var slot = Table.HASH.find(text, start, end);");
+      line(writer, "    if (slot < 0) {");
+      line(writer, "      return Optional.empty();");
+      line(writer, "    }");
+      line(writer, "    return (Optional<MimeType>) Table.RESULTS[slot];");
+      line(writer, "  }");
+      line(writer, "");
+      line(writer, "  /**");
+      line(writer, "   * @return The number of known extensions");
+      line(writer, "   */");
+      line(writer, "");
+      line(writer, "  public static int size()");
+      line(writer, "  {");
+      line(writer, "    return Table.HASH.size();");
+      line(writer, "  }");
+      line(writer, "");
+      line(writer, "  /**");
+      line(writer, "   * @param index The extension index");
+      line(writer, "   *");
+      line(writer, "   * @return The lower-case extension at the given index");
+      line(writer, "   */");
+      line(writer, "");
+      line(writer, "  public static String extensionAt(");
+      line(writer, "    final int index)");
+      line(writer, "  {");
+      line(writer, "    return Table.HASH.key(index);");
+      line(writer, "  }");
+      line(writer, "");
+      line(writer, "  /**");
+      line(writer, "   * @param index The extension index");
+      line(writer, "   *");
+      line(writer, "   * @return The index in {@link MimeTypesGenerated#all()} of the type that owns");
+      line(writer, "   *         the extension at the given index");
+      line(writer, "   */");
+      line(writer, "");
+      line(writer, "  public static int typeIndexAt(");
+      line(writer, "    final int index)");
+      line(writer, "  {");
+      line(writer, "    Objects.checkIndex(index, TYPES.length());");
+      line(writer, "    return TYPES.charAt(index);");
+      line(writer, "  }");
+      line(writer, "}");
+      writer.flush();
+    }
+  }
+
+  /**
+   * Derive a unique Java constant name for each entry. Names are derived
+   * from the upper-cased type and subtype with runs of characters that
+   * cannot appear in identifiers replaced by underscores; any collisions
+   * are resolved by appending a numeric suffix, in the (sorted) order of
+   * the entries.
+   */
+
+  private static List<String> constantNames(
+    final List<Entry> entries)
+  {
+    final var used = new HashSet<String>();
+    final var names = new ArrayList<String>(entries.size());
+
+    for (final var entry : entries) {
+      final var base =
+        (entry.type() + "_" + entry.subtype())
+          .toUpperCase(Locale.ROOT)
+          .replaceAll("[^A-Z0-9]+", "_")
+          .replaceAll("^_+|_+$", "");
+
+      var name = base;
+      var suffix = 1;
+      while (!used.add(name)) {
+        ++suffix;
+        name = base + "_" + suffix;
+      }
+      names.add(name);
+    }
+    return names;
+  }
+
+  private static void writeTypes(
+    final Path outputFile,
+    final List<Entry> entries)
+    throws IOException
+  {
+    Files.createDirectories(outputFile.getParent());
+
+    final var names = constantNames(entries);
+    final var count = entries.size();
+
+    try (var writer = Files.newBufferedWriter(outputFile, UTF_8)) {
+      line(writer, "package com.io7m.mime2045.fileext;");
+      line(writer, "");
+      line(writer, "import com.io7m.mime2045.core.MimeStructuredSyntax;");
+      line(writer, "import com.io7m.mime2045.core.MimeType;");
+      line(writer, "import com.io7m.mime2045.fileext.internal.MimeTypesGenerated;");
+      line(writer, "");
+      line(writer, "import java.util.List;");
+      line(writer, "");
+      line(writer, "/**");
+      line(writer, " * Canonical, shared instances of every type registered in the");
+      line(writer, " * {@code mime.types} file. This file is generated; do not edit.");
+      line(writer, " *");
+      line(writer, " * @since 1.3.0");
+      line(writer, " */");
+      line(writer, "");
+      line(writer, "public final class MimeTypes");
+      line(writer, "{");
+      for (int index = 0; index < count; ++index) {
+        line(writer, "  /**");
+        line(writer, "   * The {@code %s} type.".formatted(entries.get(index).canonicalText()));
+        line(writer, "   */");
+        line(writer, "");
+        line(writer, "  public static final MimeType %s =".formatted(names.get(index)));
+        line(writer, "    MimeTypesGenerated.typeAt(%d);".formatted(index));
+        line(writer, "");
+      }
+
+      line(writer, "  private MimeTypes()");
+      line(writer, "  {");
+      line(writer, "");
+      line(writer, "  }");
+      line(writer, "");
+      line(writer, "  /**");
+      line(writer, "   * Find the canonical instance of the given type. If the given type");
+      line(writer, "   * is equal to a registered type, the shared registered instance is");
+      line(writer, "   * returned and can subsequently be compared by identity. Otherwise,");
+      line(writer, "   * the given type is returned unchanged. Registered types have no");
+      line(writer, "   * parameters, and so types with parameters are always returned");
+      line(writer, "   * unchanged.");
+      line(writer, "   *");
+      line(writer, "   * @param type The type");
+      line(writer, "   *");
+      line(writer, "   * @return The canonical instance of the type, or {@code type}");
+      line(writer, "   */");
+      line(writer, "");
+      line(writer, "  public static MimeType canonical(");
+      line(writer, "    final MimeType type)");
+      line(writer, "  {");
+      line(writer, "    return MimeTypesGenerated.canonical(type);");
+      line(writer, "  }");
+      line(writer, "");
+      line(writer, "  /**");
+      line(writer, "   * @param type The type");
+      line(writer, "   *");
+      line(writer, "   * @return {@code true} if {@code type} is a canonical instance");
+      line(writer, "   */");
+      line(writer, "");
+      line(writer, "  public static boolean isCanonical(");
+      line(writer, "    final MimeType type)");
+      line(writer, "  {");
+      line(writer, "    return MimeTypesGenerated.isCanonical(type);");
+      line(writer, "  }");
+      line(writer, "");
+      line(writer, "  /**");
+      line(writer, "   * @return The canonical instances of all registered types, in");
+      line(writer, "   *         lexicographical order");
+      line(writer, "   */");
+      line(writer, "");
+      line(writer, "  public static List<MimeType> all()");
+      line(writer, "  {");
+      line(writer, "    return MimeTypesGenerated.all();");
+      line(writer, "  }");
+      line(writer, "");
+      line(writer, "  /**");
+      line(writer, "   * Find the registered types that have the given structured syntax.");
+      line(writer, "   * The classification of the registered types is computed when this");
+      line(writer, "   * library is built, and the lists are computed once, on the first");
+      line(writer, "   * call. The canonical instances also carry their precomputed");
+      line(writer, "   * classification, so {@link MimeType#hasStructuredSyntax} does not");
+      line(writer, "   * need to classify them.");
+      line(writer, "   *");
+      line(writer, "   * @param syntax The syntax");
+      line(writer, "   *");
+      line(writer, "   * @return The canonical instances of the registered types that have");
+      line(writer, "   *         the given syntax, in lexicographical order");
+      line(writer, "   *");
+      line(writer, "   * @see MimeType#hasStructuredSyntax(MimeStructuredSyntax)");
+      line(writer, "   */");
+      line(writer, "");
+      line(writer, "  public static List<MimeType> withStructuredSyntax(");
+      line(writer, "    final MimeStructuredSyntax syntax)");
+      line(writer, "  {");
+      line(writer, "    return MimeTypesGenerated.withStructuredSyntax(syntax);");
+      line(writer, "  }");
+      line(writer, "}");
+      writer.flush();
+    }
+  }
+
+  /**
+   * Write the table that holds the canonical instances. This is kept
+   * separate from the public constants: the JVM resolves each of the
+   * thousands of fields of the constants class by a linear search, and so
+   * initializing that class is expensive. Lookups that only need the
+   * canonical instances (such as finding the type for a file extension)
+   * can then avoid initializing it.
+   */
+
+  private static void writeTypesTable(
+    final Path outputFile,
+    final List<Entry> entries)
+    throws IOException
+  {
+    Files.createDirectories(outputFile.getParent());
+
+    final var count = entries.size();
+
+    try (var writer = Files.newBufferedWriter(outputFile, UTF_8)) {
+      line(writer, "package com.io7m.mime2045.fileext.internal;");
+      line(writer, "");
+      line(writer, "import com.io7m.mime2045.core.MimeStructuredSyntax;");
+      line(writer, "import com.io7m.mime2045.core.MimeType;");
+      line(writer, "import com.io7m.mime2045.core.internal.MimeTypeAccess;");
+      line(writer, "");
+      line(writer, "import java.util.ArrayList;");
+      line(writer, "import java.util.HashMap;");
+      line(writer, "import java.util.List;");
+      line(writer, "import java.util.Map;");
+      line(writer, "import java.util.Objects;");
+      line(writer, "");
+      line(writer, "/**");
+      line(writer, " * The canonical instances of every registered type, in lexicographical");
+      line(writer, " * order. This file is generated; do not edit.");
+      line(writer, " */");
+      line(writer, "");
+      line(writer, "public final class MimeTypesGenerated");
+      line(writer, "{");
+      for (int chunk = 0; chunk * CHUNK_SIZE < count; ++chunk) {
+        final var end = Math.min(count, (chunk + 1) * CHUNK_SIZE);
+        final var texts = new ArrayList<String>(CHUNK_SIZE);
+        for (int index = chunk * CHUNK_SIZE; index < end; ++index) {
+          texts.add(entries.get(index).text());
+        }
+        writeConstant(writer, "NAMES_%d".formatted(chunk), String.join("\n", texts));
+      }
+      writeSyntaxes(writer, entries);
+      line(writer, "");
+      line(writer, "  private static final MimeType[] TYPES = new MimeType[%d];".formatted(count));
+      line(writer, "  private static final Map<MimeType, MimeType> CANONICAL;");
+      line(writer, "  private static final List<MimeType> ALL;");
+      line(writer, "");
+      line(writer, "  static {");
+      line(writer, "    var index = 0;");
+      for (int chunk = 0; chunk * CHUNK_SIZE < count; ++chunk) {
+        line(writer, "    index = decode(NAMES_%d, index);".formatted(chunk));
+      }
+      line(writer, "    presetSyntaxes();");
+      line(writer, "    CANONICAL = new HashMap<>(TYPES.length * 2);");
+      line(writer, "    for (final var type : TYPES) {");
+      line(writer, "      CANONICAL.put(type, type);");
+      line(writer, "    }");
+      line(writer, "    ALL = List.of(TYPES);");
+      line(writer, "  }");
+      line(writer, "");
+      line(writer, "  /**");
+      line(writer, "   * The canonical instances of the registered types that have each");
+      line(writer, "   * structured syntax, indexed by syntax. This is held in a separate");
+      line(writer, "   * class so that it is only computed if it is used.");
+      line(writer, "   */");
+      line(writer, "");
+      line(writer, "  private static final class BySyntax");
+      line(writer, "  {");
+      line(writer, "    private static final List<List<MimeType>> TYPES_BY_SYNTAX;");
+      line(writer, "");
+      line(writer, "    static {");
+      line(writer, "      final var syntaxes = MimeStructuredSyntax.values();");
+      line(writer, "      final var lists = new ArrayList<List<MimeType>>(syntaxes.length);");
+      line(writer, "      for (final var syntax : syntaxes) {");
+      line(writer, "        final var types = new ArrayList<MimeType>();");
+      line(writer, "        for (final var type : TYPES) {");
+      line(writer, "          if (type.hasStructuredSyntax(syntax)) {");
+      line(writer, "            types.add(type);");
+      line(writer, "          }");
+      line(writer, "        }");
+      line(writer, "        lists.add(List.copyOf(types));");
+      line(writer, "      }");
+      line(writer, "      TYPES_BY_SYNTAX = List.copyOf(lists);");
+      line(writer, "    }");
+      line(writer, "");
+      line(writer, "    private BySyntax()");
+      line(writer, "    {");
+      line(writer, "");
+      line(writer, "    }");
+      line(writer, "  }");
+      line(writer, "");
+      line(writer, "  private MimeTypesGenerated()");
+      line(writer, "  {");
+      line(writer, "");
+      line(writer, "  }");
+      line(writer, "");
+      line(writer, "  /**");
+      line(writer, "   * Decode a chunk of {@code type/subtype} names separated by");
+      line(writer, "   * {@code '\\n'}. The names are sorted, and so consecutive names");
+      line(writer, "   * usually share the same type string. Each type is encoded as");
+      line(writer, "   * US-ASCII here, so that the canonical instances never encode");
+      line(writer, "   * themselves when written.");
+      line(writer, "   */");
+      line(writer, "");
+      line(writer, "  private static int decode(");
+      line(writer, "    final String names,");
+      line(writer, "    final int first)");
+      line(writer, "  {");
+      line(writer, "    var index = first;");
+      line(writer, "    var type = \"\";");
+      line(writer, "    var start = 0;");
+      line(writer, "    while (start < names.length()) {");
+      line(writer, "      var end = names.indexOf('\\n', start);");
+      line(writer, "      if (end < 0) {");
+      line(writer, "        end = names.length();");
+      line(writer, "      }");
+      line(writer, "      final var slash = names.indexOf('/', start);");
+      line(writer, "      final var typeLength = slash - start;");
+      line(writer, "      if (type.length() != typeLength");
+      line(writer, "          || !names.startsWith(type, start)) {");
+      line(writer, "        type = names.substring(start, slash);");
+      line(writer, "      }");
+      line(writer, "      final var result = MimeType.of(type, names.substring(slash + 1, end));");
+      line(writer, "      result.asciiBytes();");
+      line(writer, "      TYPES[index] = result;");
+      line(writer, "      ++index;");
+      line(writer, "      start = end + 1;");
+      line(writer, "    }");
+      line(writer, "    return index;");
+      line(writer, "  }");
+      line(writer, "");
+      line(writer, "  /**");
+      line(writer, "   * Give each type the structured syntax that was computed when this");
+      line(writer, "   * file was generated, so that the types do not classify themselves.");
+      line(writer, "   * The syntaxes are resolved by suffix rather than by ordinal.");
+      line(writer, "   */");
+      line(writer, "");
+      line(writer, "  private static void presetSyntaxes()");
+      line(writer, "  {");
+      line(writer, "    final var suffixes = SYNTAX_SUFFIXES.split(\"\\n\");");
+      line(writer, "    final var syntaxes = new MimeStructuredSyntax[suffixes.length];");
+      line(writer, "    for (int index = 0; index < suffixes.length; ++index) {");
+      line(writer, "      syntaxes[index] =");
+      line(writer, "        MimeStructuredSyntax.ofSuffix(suffixes[index]).orElse(null);");
+      line(writer, "    }");
+      line(writer, "    for (int index = 0; index < TYPES.length; ++index) {");
+      line(writer, "      final var code = SYNTAXES.charAt(index);");
+      line(writer, "      MimeTypeAccess.presetStructuredSyntax(");
+      line(writer, "        TYPES[index],");
+      line(writer, "        code == '-' ? null : syntaxes[code - 'a']");
+      line(writer, "      );");
+      line(writer, "    }");
+      line(writer, "  }");
+      line(writer, "");
+      line(writer, "  /**");
+      line(writer, "   * @param index The index");
+      line(writer, "   *");
+      line(writer, "   * @return The canonical instance at the given index");
+      line(writer, "   */");
+      line(writer, "");
+      line(writer, "  public static MimeType typeAt(");
+      line(writer, "    final int index)");
+      line(writer, "  {");
+      line(writer, "    return TYPES[index];");
+      line(writer, "  }");
+      line(writer, "");
+      line(writer, "  /**");
+      line(writer, "   * @param type The type");
+      line(writer, "   *");
+      line(writer, "   * @return The canonical instance of the type, or {@code type}");
+      line(writer, "   */");
+      line(writer, "");
+      line(writer, "  public static MimeType canonical(");
+      line(writer, "    final MimeType type)");
+      line(writer, "  {");
+      line(writer, "    Objects.requireNonNull(type, \"type\");");
+      line(writer, "    if (!type.parameters().isEmpty()) {");
+      line(writer, "      return type;");
+      line(writer, "    }");
+      line(writer, "    final var result = CANONICAL.get(type);");
+      line(writer, "    return result != null ? result : type;");
+      line(writer, "  }");
+      line(writer, "");
+      line(writer, "  /**");
+      line(writer, "   * @param type The type");
+      line(writer, "   *");
+      line(writer, "   * @return {@code true} if {@code type} is a canonical instance");
+      line(writer, "   */");
+      line(writer, "");
+      line(writer, "  public static boolean isCanonical(");
+      line(writer, "    final MimeType type)");
+      line(writer, "  {");
+      line(writer, "    return CANONICAL.get(type) == type;");
+      line(writer, "  }");
+      line(writer, "");
+      line(writer, "  /**");
+      line(writer, "   * @return The canonical instances of all registered types");
+      line(writer, "   */");
+      line(writer, "");
+      line(writer, "  public static List<MimeType> all()");
+      line(writer, "  {");
+      line(writer, "    return ALL;");
+      line(writer, "  }");
+      line(writer, "");
+      line(writer, "  /**");
+      line(writer, "   * @param syntax The syntax");
+      line(writer, "   *");
+      line(writer, "   * @return The canonical instances of the registered types that have");
+      line(writer, "   * the given syntax");
+      line(writer, "   */");
+      line(writer, "");
+      line(writer, "  public static List<MimeType> withStructuredSyntax(");
+      line(writer, "    final MimeStructuredSyntax syntax)");
+      line(writer, "  {");
+      line(writer, "    return BySyntax.TYPES_BY_SYNTAX.get(syntax.ordinal());");
+      line(writer, "  }");
+      line(writer, "}");
+      writer.flush();
+    }
+  }
+
+  /**
+   * Write the structured syntax of each type, classified by the core
+   * module itself, as one character per type: {@code '-'} for none, or
+   * {@code 'a'} onwards for an index into {@code SYNTAX_SUFFIXES}.
+   */
+
+  private static void writeSyntaxes(
+    final BufferedWriter writer,
+    final List<Entry> entries)
+    throws IOException
+  {
+    final var syntaxes = MimeStructuredSyntax.values();
+    if (syntaxes.length > 26) {
+      throw new IllegalStateException("Too many structured syntaxes.");
+    }
+
+    final var suffixes = new ArrayList<String>(syntaxes.length);
+    for (final var syntax : syntaxes) {
+      suffixes.add(syntax.suffix());
+    }
+
+    final var codes = new StringBuilder(entries.size());
+    for (final var entry : entries) {
+      final var syntax =
+        MimeType.of(entry.type(), entry.subtype()).structuredSyntax();
+      if (syntax.isPresent()) {
+        codes.append((char) ('a' + syntax.get().ordinal()));
+      } else {
+        codes.append('-');
+      }
+    }
+
+    writeConstant(writer, "SYNTAX_SUFFIXES", String.join("\n", suffixes));
+    writeConstant(writer, "SYNTAXES", codes.toString());
+  }
+
+  private static void line(
+    final BufferedWriter writer,
+    final String text)
+    throws IOException
+  {
+    writer.append(text);
+    writer.newLine();
+  }
 }
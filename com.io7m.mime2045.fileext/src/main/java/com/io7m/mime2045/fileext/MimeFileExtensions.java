@@ -18,11 +18,15 @@
 package com.io7m.mime2045.fileext;
 
 import com.io7m.mime2045.core.MimeType;
+import com.io7m.mime2045.fileext.internal.MimeExtensionTypesGenerated;
 import com.io7m.mime2045.fileext.internal.MimeFileExtensionsGenerated;
+import com.io7m.mime2045.fileext.internal.MimeFileNames;
+import com.io7m.mime2045.fileext.internal.MimeTypesGenerated;
 
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Functions to suggest file extensions for MIME types.
@@ -38,7 +42,10 @@ public final class MimeFileExtensions
   }
 
   /**
-   * Suggest a file extension for the MIME type.
+   * Suggest a file extension for the MIME type. The type and subtype are
+   * compared ignoring ASCII case, and any parameters are ignored, so that
+   * (for example) {@code text/plain;charset=utf-8} and {@code TEXT/Plain}
+   * both yield {@code txt}. The lookup does not allocate.
    *
    * @param type The type
    *
@@ -49,7 +56,78 @@ public final class MimeFileExtensions
     final MimeType type)
   {
     Objects.requireNonNull(type, "type");
-    return Optional.ofNullable(MimeFileExtensionsGenerated.get(type.toString()));
+    return MimeFileExtensionsGenerated.extensionOf(type.type(), type.subtype());
+  }
+
+  /**
+   * Find the type that owns the given file extension. The extension must
+   * not include a leading {@code '.'}, may be compound (such as
+   * {@code cwl.json}), and is compared ignoring ASCII case. The lookup does
+   * not allocate.
+   *
+   * @param extension The extension
+   *
+   * @return The canonical type, if any
+   *
+   * @since 1.3.0
+   */
+
+  public static Optional<MimeType> typeForExtension(
+    final CharSequence extension)
+  {
+    return typeForExtension(extension, 0, extension.length());
+  }
+
+  /**
+   * Find the type that owns the file extension held in the given range of
+   * text.
+   *
+   * @param text  The text
+   * @param start The starting offset of the extension (inclusive)
+   * @param end   The ending offset of the extension (exclusive)
+   *
+   * @return The canonical type, if any
+   *
+   * @see #typeForExtension(CharSequence)
+   * @since 1.3.0
+   */
+
+  public static Optional<MimeType> typeForExtension(
+    final CharSequence text,
+    final int start,
+    final int end)
+  {
+    Objects.checkFromToIndex(start, end, text.length());
+    if (end - start > MimeExtensionTypesGenerated.MAXIMUM_LENGTH) {
+      return Optional.empty();
+    }
+    return MimeExtensionTypesGenerated.typeOf(text, start, end);
+  }
+
+  /**
+   * Find the type for the given file name based on its extension. Any
+   * leading directory components (separated by {@code '/'} or
+   * {@code '\\'}) are ignored. If the file name has more than one
+   * extension, the longest known extension wins, so that
+   * {@code x.cwl.json} yields the type for {@code cwl.json} rather than the
+   * type for {@code json}. A leading {@code '.'} (as in {@code .json}) does
+   * not begin an extension. The lookup does not allocate.
+   *
+   * @param fileName The file name
+   *
+   * @return The canonical type, if any
+   *
+   * @since 1.3.0
+   */
+
+  public static Optional<MimeType> typeForFileName(
+    final CharSequence fileName)
+  {
+    return MimeFileNames.typeForFileName(
+      fileName,
+      MimeExtensionTypesGenerated.MAXIMUM_LENGTH,
+      MimeExtensionTypesGenerated::typeOf
+    );
   }
 
   /**
@@ -58,6 +136,21 @@ public final class MimeFileExtensions
 
   public static Set<String> typesWithFileExtensions()
   {
-    return MimeFileExtensionsGenerated.known();
+    return KnownTypes.KNOWN;
+  }
+
+  private static final class KnownTypes
+  {
+    private static final Set<String> KNOWN =
+      MimeTypesGenerated.all()
+        .stream()
+        .filter(t -> suggestFileExtension(t).isPresent())
+        .map(MimeType::toString)
+        .collect(Collectors.toUnmodifiableSet());
+
+    private KnownTypes()
+    {
+
+    }
   }
 }
@@ -0,0 +1,224 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.mime2045.fileext;
+
+import com.io7m.mime2045.core.MimeType;
+import com.io7m.mime2045.fileext.internal.MimeExtensionTypesGenerated;
+import com.io7m.mime2045.fileext.internal.MimeSuffixTrie;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BiConsumer;
+
+/**
+ * Functions to classify files by name, using the longest registered
+ * extension. File names are matched against every known extension in a
+ * single backwards pass using a trie of reversed extensions, and so (for
+ * example) {@code x.cwl.json} yields {@code application/cwl+json} and
+ * {@code archive.tar.gz} yields {@code application/gzip} without the name
+ * being split.
+ *
+ * @since 1.3.0
+ */
+
+public final class MimeFileNameClassifier
+{
+  private MimeFileNameClassifier()
+  {
+
+  }
+
+  private static final class Index
+  {
+    private static final MimeSuffixTrie TRIE;
+    private static final Optional<?>[] RESULTS;
+
+    static {
+      final var size = MimeExtensionTypesGenerated.size();
+      final var extensions = new ArrayList<String>(size);
+      RESULTS = new Optional<?>[size];
+      for (int index = 0; index < size; ++index) {
+        final var extension = MimeExtensionTypesGenerated.extensionAt(index);
+        extensions.add(extension);
+        RESULTS[index] =
+          MimeExtensionTypesGenerated.typeOf(extension, 0, extension.length());
+      }
+      TRIE = MimeSuffixTrie.of(extensions);
+    }
+
+    private Index()
+    {
+
+    }
+  }
+
+  /**
+   * Classify a file by name. Any leading directory components (separated
+   * by {@code '/'} or {@code '\\'}) are ignored, and a leading {@code '.'}
+   * does not begin an extension. Extensions are compared ignoring ASCII
+   * case. The lookup does not allocate.
+   *
+   * @param fileName The file name
+   *
+   * @return The canonical type for the longest known extension, if any
+   */
+
+  @SuppressWarnings("unchecked")
+  public static Optional<MimeType> classify(
+    final CharSequence fileName)
+  {
+    Objects.requireNonNull(fileName, "fileName");
+
+    final var index =
+      Index.TRIE.longestSuffix(fileName, 0, fileName.length());
+    if (index < 0) {
+      return Optional.empty();
+    }
+    return (Optional<MimeType>) Index.RESULTS[index];
+  }
+
+  /**
+   * Classify a file by the name of its last path component.
+   *
+   * @param file The file
+   *
+   * @return The canonical type for the longest known extension, if any
+   *
+   * @see #classify(CharSequence)
+   */
+
+  public static Optional<MimeType> classify(
+    final Path file)
+  {
+    final var name = file.getFileName();
+    if (name == null) {
+      return Optional.empty();
+    }
+    return classify(name.toString());
+  }
+
+  /**
+   * Walk a directory tree in parallel and classify every regular file in
+   * it. Each directory is listed by a separate task in the given
+   * work-stealing pool, so the receiver is called concurrently from pool
+   * threads and must be thread-safe. Symbolic links are not followed.
+   *
+   * @param root     The root directory
+   * @param pool     The pool
+   * @param receiver A function that receives each file and its type
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static void classifyTree(
+    final Path root,
+    final ForkJoinPool pool,
+    final BiConsumer<Path, Optional<MimeType>> receiver)
+    throws IOException
+  {
+    Objects.requireNonNull(root, "root");
+    Objects.requireNonNull(pool, "pool");
+    Objects.requireNonNull(receiver, "receiver");
+
+    try {
+      pool.invoke(new ClassifyDirectory(root, receiver));
+    } catch (final UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  /**
+   * Walk a directory tree in parallel, using the common pool, and classify
+   * every regular file in it.
+   *
+   * @param root The root directory
+   *
+   * @return The type of every file that has a known extension
+   *
+   * @throws IOException On I/O errors
+   * @see #classifyTree(Path, ForkJoinPool, BiConsumer)
+   */
+
+  public static Map<Path, MimeType> classifyTree(
+    final Path root)
+    throws IOException
+  {
+    final var results = new ConcurrentHashMap<Path, MimeType>();
+    classifyTree(root, ForkJoinPool.commonPool(), (file, type) -> {
+      type.ifPresent(t -> results.put(file, t));
+    });
+    return results;
+  }
+
+  private static final class ClassifyDirectory extends RecursiveAction
+  {
+    private static final long serialVersionUID = 1L;
+
+    private final Path directory;
+    private final BiConsumer<Path, Optional<MimeType>> receiver;
+
+    ClassifyDirectory(
+      final Path inDirectory,
+      final BiConsumer<Path, Optional<MimeType>> inReceiver)
+    {
+      this.directory = inDirectory;
+      this.receiver = inReceiver;
+    }
+
+    @Override
+    protected void compute()
+    {
+      final var subtasks = new ArrayList<ClassifyDirectory>();
+
+      try (var stream = Files.newDirectoryStream(this.directory)) {
+        for (final var file : stream) {
+          final var attributes =
+            Files.readAttributes(
+              file,
+              BasicFileAttributes.class,
+              LinkOption.NOFOLLOW_LINKS
+            );
+
+          if (attributes.isDirectory()) {
+            final var task = new ClassifyDirectory(file, this.receiver);
+            task.fork();
+            subtasks.add(task);
+          } else if (attributes.isRegularFile()) {
+            this.receiver.accept(file, classify(file));
+          }
+        }
+      } catch (final IOException e) {
+        throw new UncheckedIOException(e);
+      }
+
+      for (final var task : subtasks) {
+        task.join();
+      }
+    }
+  }
+}
@@ -0,0 +1,375 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.mime2045.fileext;
+
+import com.io7m.mime2045.core.MimeType;
+import com.io7m.mime2045.fileext.internal.MimeTypesFileEntry;
+import com.io7m.mime2045.fileext.internal.MimeTypesFileParser;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * A registry of types and file extensions that can be loaded from
+ * {@code mime.types} files at run time. The built-in table (the table
+ * used by {@link MimeFileExtensions}) forms the lowest layer, and each of
+ * the given files is layered on top of it in order, so that later files
+ * take precedence over earlier files. Files that do not exist are treated
+ * as empty.
+ *
+ * <p>Lookups are served from an immutable {@link MimeRegistrySnapshot}
+ * held in a single volatile field. Reloading builds a complete new
+ * snapshot off to one side and then publishes it with one write, and so
+ * lookups never block and never observe a partially built table.</p>
+ *
+ * @since 1.3.0
+ */
+
+public final class MimeRegistry implements AutoCloseable
+{
+  /**
+   * The conventional location of the system {@code mime.types} file.
+   */
+
+  public static final Path SYSTEM_FILE = Path.of("/etc/mime.types");
+
+  private static final long SETTLE_MILLISECONDS = 50L;
+
+  private final List<Path> files;
+  private final Object reloadLock;
+  private volatile MimeRegistrySnapshot snapshot;
+  private WatchService watcher;
+  private Thread watcherThread;
+
+  private MimeRegistry(
+    final List<Path> inFiles)
+  {
+    this.files = inFiles;
+    this.reloadLock = new Object();
+  }
+
+  /**
+   * Open a registry over the given files. The files are loaded once, and
+   * are reloaded only when {@link #reload()} is called.
+   *
+   * @param files The files, in increasing order of precedence
+   *
+   * @return A registry
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static MimeRegistry open(
+    final List<Path> files)
+    throws IOException
+  {
+    final var registry =
+      new MimeRegistry(
+        files.stream()
+          .map(Path::toAbsolutePath)
+          .toList()
+      );
+    registry.reload();
+    return registry;
+  }
+
+  /**
+   * Open a registry over the given files, and watch the files for changes.
+   * When any of the files are created, modified, or deleted, the registry
+   * is reloaded on a background thread. If a reload fails, the previous
+   * snapshot remains published and the error is passed to {@code errors}.
+   * The registry must be closed to stop watching.
+   *
+   * @param files  The files, in increasing order of precedence
+   * @param errors A receiver of reload errors
+   *
+   * @return A registry
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static MimeRegistry openWatched(
+    final List<Path> files,
+    final Consumer<? super IOException> errors)
+    throws IOException
+  {
+    Objects.requireNonNull(errors, "errors");
+
+    final var registry = open(files);
+    try {
+      registry.startWatching(errors);
+    } catch (final IOException e) {
+      registry.close();
+      throw e;
+    }
+    return registry;
+  }
+
+  private static List<MimeTypesFileEntry> load(
+    final Path file)
+    throws IOException
+  {
+    try {
+      return MimeTypesFileParser.parse(file);
+    } catch (final NoSuchFileException e) {
+      return List.of();
+    }
+  }
+
+  private void startWatching(
+    final Consumer<? super IOException> errors)
+    throws IOException
+  {
+    final var namesByDirectory = new HashMap<Path, Set<Path>>();
+    for (final var file : this.files) {
+      final var directory = file.getParent();
+      if (directory != null && Files.isDirectory(directory)) {
+        namesByDirectory.computeIfAbsent(directory, d -> new HashSet<>())
+          .add(file.getFileName());
+      }
+    }
+
+    this.watcher = FileSystems.getDefault().newWatchService();
+    final var names = new HashMap<WatchKey, Set<Path>>();
+    for (final var entry : namesByDirectory.entrySet()) {
+      final var key = entry.getKey().register(
+        this.watcher,
+        StandardWatchEventKinds.ENTRY_CREATE,
+        StandardWatchEventKinds.ENTRY_MODIFY,
+        StandardWatchEventKinds.ENTRY_DELETE
+      );
+      names.put(key, entry.getValue());
+    }
+
+    final var watchService = this.watcher;
+    this.watcherThread = new Thread(
+      () -> this.watch(watchService, names, errors),
+      "com.io7m.mime2045.fileext.MimeRegistry[watch]"
+    );
+    this.watcherThread.setDaemon(true);
+    this.watcherThread.start();
+  }
+
+  private void watch(
+    final WatchService watchService,
+    final Map<WatchKey, Set<Path>> names,
+    final Consumer<? super IOException> errors)
+  {
+    try {
+      while (true) {
+        var changed = isRelevant(watchService.take(), names);
+
+        /*
+         * Editors and package managers tend to produce bursts of events
+         * for a single change; wait for the burst to end so that the
+         * registry is reloaded once.
+         */
+
+        while (true) {
+          final var next =
+            watchService.poll(SETTLE_MILLISECONDS, TimeUnit.MILLISECONDS);
+          if (next == null) {
+            break;
+          }
+          changed |= isRelevant(next, names);
+        }
+
+        if (changed) {
+          this.reloadReporting(errors);
+        }
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (final ClosedWatchServiceException e) {
+      // The registry was closed.
+    }
+  }
+
+  /*
+   * No exception may escape from here, as it would end the watcher thread
+   * and hot reloading would silently stop. Unchecked exceptions from the
+   * reload (such as a type that fails validation) are reported through the
+   * error receiver; exceptions from the receiver itself are passed to the
+   * thread's uncaught exception handler, and watching continues.
+   */
+
+  private void reloadReporting(
+    final Consumer<? super IOException> errors)
+  {
+    try {
+      this.reload();
+    } catch (final IOException e) {
+      report(errors, e);
+    } catch (final RuntimeException e) {
+      report(errors, new IOException(e));
+    }
+  }
+
+  private static void report(
+    final Consumer<? super IOException> errors,
+    final IOException e)
+  {
+    try {
+      errors.accept(e);
+    } catch (final RuntimeException receiverException) {
+      final var thread = Thread.currentThread();
+      thread.getUncaughtExceptionHandler()
+        .uncaughtException(thread, receiverException);
+    }
+  }
+
+  private static boolean isRelevant(
+    final WatchKey key,
+    final Map<WatchKey, Set<Path>> names)
+  {
+    final var watched = names.getOrDefault(key, Set.of());
+    var relevant = false;
+    for (final var event : key.pollEvents()) {
+      if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+        relevant = true;
+      } else if (watched.contains((Path) event.context())) {
+        relevant = true;
+      }
+    }
+    key.reset();
+    return relevant;
+  }
+
+  /**
+   * Reload all files and publish a new snapshot. Concurrent reloads are
+   * serialized, but lookups proceed against the previous snapshot until
+   * the new one is published. If loading fails, the previous snapshot
+   * remains published.
+   *
+   * @return The new snapshot
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public MimeRegistrySnapshot reload()
+    throws IOException
+  {
+    synchronized (this.reloadLock) {
+      final var layers = new ArrayList<List<MimeTypesFileEntry>>();
+      for (final var file : this.files) {
+        layers.add(load(file));
+      }
+
+      final var previous = this.snapshot;
+      final var generation = previous == null ? 0L : previous.generation() + 1L;
+      final var result = MimeRegistrySnapshot.merge(generation, true, layers);
+      this.snapshot = result;
+      return result;
+    }
+  }
+
+  /**
+   * @return The current snapshot
+   */
+
+  public MimeRegistrySnapshot snapshot()
+  {
+    return this.snapshot;
+  }
+
+  /**
+   * @return The files, in increasing order of precedence
+   */
+
+  public List<Path> files()
+  {
+    return this.files;
+  }
+
+  /**
+   * Find the type that owns the given file extension in the current
+   * snapshot.
+   *
+   * @param extension The extension
+   *
+   * @return The type, if any
+   *
+   * @see MimeRegistrySnapshot#typeForExtension(CharSequence)
+   */
+
+  public Optional<MimeType> typeForExtension(
+    final CharSequence extension)
+  {
+    return this.snapshot.typeForExtension(extension);
+  }
+
+  /**
+   * Find the type for the given file name in the current snapshot.
+   *
+   * @param fileName The file name
+   *
+   * @return The type, if any
+   *
+   * @see MimeRegistrySnapshot#typeForFileName(CharSequence)
+   */
+
+  public Optional<MimeType> typeForFileName(
+    final CharSequence fileName)
+  {
+    return this.snapshot.typeForFileName(fileName);
+  }
+
+  /**
+   * Suggest a file extension for the given type in the current snapshot.
+   *
+   * @param type The type
+   *
+   * @return The extension, if any
+   *
+   * @see MimeRegistrySnapshot#suggestFileExtension(MimeType)
+   */
+
+  public Optional<String> suggestFileExtension(
+    final MimeType type)
+  {
+    return this.snapshot.suggestFileExtension(type);
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    final var watchService = this.watcher;
+    if (watchService != null) {
+      watchService.close();
+      this.watcherThread.interrupt();
+    }
+  }
+}
@@ -0,0 +1,514 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.mime2045.fileext;
+
+import com.io7m.mime2045.core.MimeCharacters;
+import com.io7m.mime2045.core.MimeType;
+import com.io7m.mime2045.fileext.internal.MimeExtensionLookupType;
+import com.io7m.mime2045.fileext.internal.MimeFileNames;
+import com.io7m.mime2045.fileext.internal.MimePerfectHash;
+import com.io7m.mime2045.fileext.internal.MimeTypesGenerated;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A read-only registry served directly from a memory-mapped binary image
+ * produced by {@link MimeRegistryImageCompiler}. Opening an image maps the
+ * file and validates its header, every index slot, and the text of every
+ * type in a single pass, so that a corrupt image is rejected when it is
+ * opened rather than on a later lookup. No hash tables or strings are built on the heap; the only heap
+ * cost proportional to the registry is a pair of arrays, with one reference
+ * per type slot, that cache the results of lookups. Every JVM that maps the
+ * same image shares the same page cache pages.
+ *
+ * <p>An image consists of a header, an open-addressing hash index of
+ * types, an open-addressing hash index of extensions, and a pool of
+ * UTF-16 strings that the indices refer to (by offset and length in
+ * UTF-16 code units). All values are big-endian. Images are immutable; to
+ * change a registry, compile a new image and replace the old file
+ * atomically. Instances are safe to share between threads.</p>
+ *
+ * @since 1.3.0
+ */
+
+public final class MimeRegistryImage
+{
+  static final int MAGIC = 0x4D494D45;
+  static final int VERSION = 1;
+  static final int HEADER_SIZE = 40;
+  static final int TYPE_SLOT_SIZE = 16;
+  static final int EXTENSION_SLOT_SIZE = 12;
+  static final int EMPTY = -1;
+
+  static final int HEADER_MAGIC = 0;
+  static final int HEADER_VERSION = 4;
+  static final int HEADER_TYPE_CAPACITY = 8;
+  static final int HEADER_TYPE_OFFSET = 12;
+  static final int HEADER_EXTENSION_CAPACITY = 16;
+  static final int HEADER_EXTENSION_OFFSET = 20;
+  static final int HEADER_POOL_OFFSET = 24;
+  static final int HEADER_POOL_SIZE = 28;
+  static final int HEADER_MAXIMUM_LENGTH = 32;
+  static final int HEADER_EXTENSION_COUNT = 36;
+
+  private final ByteBuffer data;
+  private final int typeMask;
+  private final int typeOffset;
+  private final int extensionMask;
+  private final int extensionOffset;
+  private final int poolOffset;
+  private final int maximumLength;
+  private final int extensionCount;
+  private final Optional<?>[] types;
+  private final Optional<?>[] preferred;
+  private final MimeExtensionLookupType extensionLookup;
+
+  private MimeRegistryImage(
+    final ByteBuffer inData)
+    throws IOException
+  {
+    this.data = inData;
+
+    if (inData.capacity() < HEADER_SIZE
+        || inData.getInt(HEADER_MAGIC) != MAGIC) {
+      throw new IOException("Not a registry image");
+    }
+    final var version = inData.getInt(HEADER_VERSION);
+    if (version != VERSION) {
+      throw new IOException(
+        "Unsupported registry image version %d".formatted(
+          Integer.valueOf(version)));
+    }
+
+    final var typeCapacity = inData.getInt(HEADER_TYPE_CAPACITY);
+    final var extensionCapacity = inData.getInt(HEADER_EXTENSION_CAPACITY);
+    this.typeOffset = inData.getInt(HEADER_TYPE_OFFSET);
+    this.extensionOffset = inData.getInt(HEADER_EXTENSION_OFFSET);
+    this.poolOffset = inData.getInt(HEADER_POOL_OFFSET);
+    this.maximumLength = inData.getInt(HEADER_MAXIMUM_LENGTH);
+    this.extensionCount = inData.getInt(HEADER_EXTENSION_COUNT);
+
+    checkTable(inData, "type", this.typeOffset, typeCapacity, TYPE_SLOT_SIZE);
+    checkTable(
+      inData,
+      "extension",
+      this.extensionOffset,
+      extensionCapacity,
+      EXTENSION_SLOT_SIZE);
+    final var poolSize = inData.getInt(HEADER_POOL_SIZE);
+    checkRange(inData, "string pool", this.poolOffset, poolSize);
+    if (poolSize % 2 != 0) {
+      throw new IOException("Registry image string pool size is odd");
+    }
+
+    final var poolLength = poolSize / 2;
+    this.checkTypeSlots(typeCapacity, poolLength);
+    this.checkExtensionSlots(extensionCapacity, typeCapacity, poolLength);
+
+    this.typeMask = typeCapacity - 1;
+    this.extensionMask = extensionCapacity - 1;
+    this.types = new Optional<?>[typeCapacity];
+    this.preferred = new Optional<?>[typeCapacity];
+    this.extensionLookup = this::typeForExtension;
+  }
+
+  /*
+   * Every slot that a lookup could read is checked once, here, so that a
+   * corrupt image fails with an IOException when it is opened.
+   */
+
+  private void checkTypeSlots(
+    final int capacity,
+    final int poolLength)
+    throws IOException
+  {
+    for (int slot = 0; slot < capacity; ++slot) {
+      final var base = this.typeOffset + slot * TYPE_SLOT_SIZE;
+      final var offset = this.data.getInt(base);
+      if (offset != EMPTY) {
+        final var length = this.data.getInt(base + 4);
+        checkString(offset, length, poolLength, "type", slot);
+        checkString(
+          this.data.getInt(base + 8),
+          this.data.getInt(base + 12),
+          poolLength,
+          "type",
+          slot);
+        this.checkTypeText(offset, length, slot);
+      }
+    }
+  }
+
+  private void checkTypeText(
+    final int offset,
+    final int length,
+    final int slot)
+    throws IOException
+  {
+    var slash = -1;
+    var valid = true;
+    for (int index = 0; index < length; ++index) {
+      final var ch = this.data.getChar(this.poolOffset + (offset + index) * 2);
+      if (ch == '/' && slash < 0) {
+        slash = index;
+      } else if (!MimeCharacters.characterIsAllowedBare(ch)) {
+        valid = false;
+      }
+    }
+    if (!valid || slash <= 0 || slash == length - 1) {
+      throw new IOException(
+        "Registry image type slot %d does not hold a type"
+          .formatted(Integer.valueOf(slot)));
+    }
+  }
+
+  private void checkExtensionSlots(
+    final int capacity,
+    final int typeCapacity,
+    final int poolLength)
+    throws IOException
+  {
+    for (int slot = 0; slot < capacity; ++slot) {
+      final var base = this.extensionOffset + slot * EXTENSION_SLOT_SIZE;
+      final var offset = this.data.getInt(base);
+      if (offset != EMPTY) {
+        checkString(
+          offset, this.data.getInt(base + 4), poolLength, "extension", slot);
+
+        final var typeSlot = this.data.getInt(base + 8);
+        if (typeSlot < 0
+            || typeSlot >= typeCapacity
+            || this.data.getInt(this.typeOffset + typeSlot * TYPE_SLOT_SIZE)
+               == EMPTY) {
+          throw new IOException(
+            "Registry image extension slot %d refers to an invalid type slot"
+              .formatted(Integer.valueOf(slot)));
+        }
+      }
+    }
+  }
+
+  private static void checkString(
+    final int offset,
+    final int length,
+    final int poolLength,
+    final String name,
+    final int slot)
+    throws IOException
+  {
+    if (offset < 0
+        || length <= 0
+        || (long) offset + (long) length > poolLength) {
+      throw new IOException(
+        "Registry image %s slot %d refers to a string outside the pool"
+          .formatted(name, Integer.valueOf(slot)));
+    }
+  }
+
+  private static void checkTable(
+    final ByteBuffer data,
+    final String name,
+    final int offset,
+    final int capacity,
+    final int slotSize)
+    throws IOException
+  {
+    if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+      throw new IOException(
+        "Registry image %s index capacity %d is not a power of two"
+          .formatted(name, Integer.valueOf(capacity)));
+    }
+    checkRange(data, name + " index", offset, (long) capacity * slotSize);
+  }
+
+  private static void checkRange(
+    final ByteBuffer data,
+    final String name,
+    final int offset,
+    final long size)
+    throws IOException
+  {
+    if (offset < HEADER_SIZE
+        || size < 0L
+        || (long) offset + size > data.capacity()) {
+      throw new IOException(
+        "Registry image %s lies outside the file".formatted(name));
+    }
+  }
+
+  /**
+   * Map the given image file.
+   *
+   * @param file The file
+   *
+   * @return A registry
+   *
+   * @throws IOException On I/O errors, or if the file is not a valid image
+   */
+
+  public static MimeRegistryImage open(
+    final Path file)
+    throws IOException
+  {
+    try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      final var buffer =
+        channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size())
+          .order(ByteOrder.BIG_ENDIAN);
+      return new MimeRegistryImage(buffer);
+    }
+  }
+
+  /**
+   * Wrap an image that is already in memory.
+   *
+   * @param data The image
+   *
+   * @return A registry
+   *
+   * @throws IOException If the data is not a valid image
+   */
+
+  public static MimeRegistryImage wrap(
+    final ByteBuffer data)
+    throws IOException
+  {
+    return new MimeRegistryImage(
+      data.slice().asReadOnlyBuffer().order(ByteOrder.BIG_ENDIAN));
+  }
+
+  private static int lower(
+    final int ch)
+  {
+    return ch >= 'A' && ch <= 'Z' ? ch + 32 : ch;
+  }
+
+  private boolean poolEquals(
+    final int offset,
+    final CharSequence text,
+    final int start,
+    final int end)
+  {
+    final var base = this.poolOffset + offset * 2;
+    for (int index = start; index < end; ++index) {
+      final var ch = this.data.getChar(base + (index - start) * 2);
+      if (lower(ch) != lower(text.charAt(index))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private String poolString(
+    final int offset,
+    final int length)
+  {
+    final var chars = new char[length];
+    final var base = this.poolOffset + offset * 2;
+    for (int index = 0; index < length; ++index) {
+      chars[index] = this.data.getChar(base + index * 2);
+    }
+    return String.valueOf(chars);
+  }
+
+  private int extensionSlot(
+    final CharSequence text,
+    final int start,
+    final int end)
+  {
+    final var length = end - start;
+    var slot = MimePerfectHash.hashOf(text, start, end) & this.extensionMask;
+    for (int probe = 0; probe <= this.extensionMask; ++probe) {
+      final var base = this.extensionOffset + slot * EXTENSION_SLOT_SIZE;
+      final var offset = this.data.getInt(base);
+      if (offset == EMPTY) {
+        return -1;
+      }
+      if (this.data.getInt(base + 4) == length
+          && this.poolEquals(offset, text, start, end)) {
+        return this.data.getInt(base + 8);
+      }
+      slot = (slot + 1) & this.extensionMask;
+    }
+    return -1;
+  }
+
+  private int typeSlot(
+    final MimeType type)
+  {
+    final var typeName = type.type();
+    final var subtypeName = type.subtype();
+    final var typeLength = typeName.length();
+    final var length = typeLength + 1 + subtypeName.length();
+
+    var slot = MimePerfectHash.hashOf(typeName, subtypeName) & this.typeMask;
+    for (int probe = 0; probe <= this.typeMask; ++probe) {
+      final var base = this.typeOffset + slot * TYPE_SLOT_SIZE;
+      final var offset = this.data.getInt(base);
+      if (offset == EMPTY) {
+        return -1;
+      }
+      if (this.data.getInt(base + 4) == length
+          && this.poolEquals(offset, typeName, 0, typeLength)
+          && this.data.getChar(this.poolOffset + (offset + typeLength) * 2) == '/'
+          && this.poolEquals(
+               offset + typeLength + 1, subtypeName, 0, subtypeName.length())) {
+        return slot;
+      }
+      slot = (slot + 1) & this.typeMask;
+    }
+    return -1;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Optional<MimeType> typeAt(
+    final int slot)
+  {
+    final var existing = this.types[slot];
+    if (existing != null) {
+      return (Optional<MimeType>) existing;
+    }
+
+    final var base = this.typeOffset + slot * TYPE_SLOT_SIZE;
+    final var text =
+      this.poolString(this.data.getInt(base), this.data.getInt(base + 4));
+    final var slash = text.indexOf('/');
+    final var result =
+      Optional.of(
+        MimeTypesGenerated.canonical(
+          MimeType.of(text.substring(0, slash), text.substring(slash + 1))));
+    this.types[slot] = result;
+    return result;
+  }
+
+  /**
+   * Find the type that owns the given file extension. The extension must
+   * not include a leading {@code '.'}, and is compared ignoring ASCII case.
+   *
+   * @param extension The extension
+   *
+   * @return The type, if any
+   */
+
+  public Optional<MimeType> typeForExtension(
+    final CharSequence extension)
+  {
+    return this.typeForExtension(extension, 0, extension.length());
+  }
+
+  /**
+   * Find the type that owns the file extension held in the given range of
+   * text.
+   *
+   * @param text  The text
+   * @param start The starting offset of the extension (inclusive)
+   * @param end   The ending offset of the extension (exclusive)
+   *
+   * @return The type, if any
+   */
+
+  public Optional<MimeType> typeForExtension(
+    final CharSequence text,
+    final int start,
+    final int end)
+  {
+    Objects.checkFromToIndex(start, end, text.length());
+    if (end - start > this.maximumLength) {
+      return Optional.empty();
+    }
+    final var slot = this.extensionSlot(text, start, end);
+    if (slot < 0) {
+      return Optional.empty();
+    }
+    return this.typeAt(slot);
+  }
+
+  /**
+   * Find the type for the given file name based on its extension, with
+   * the same rules as {@link MimeFileExtensions#typeForFileName}.
+   *
+   * @param fileName The file name
+   *
+   * @return The type, if any
+   */
+
+  public Optional<MimeType> typeForFileName(
+    final CharSequence fileName)
+  {
+    return MimeFileNames.typeForFileName(
+      fileName,
+      this.maximumLength,
+      this.extensionLookup
+    );
+  }
+
+  /**
+   * Suggest a file extension for the given type. The type and subtype are
+   * compared ignoring ASCII case, and parameters are ignored.
+   *
+   * @param type The type
+   *
+   * @return The preferred extension, if any
+   */
+
+  @SuppressWarnings("unchecked")
+  public Optional<String> suggestFileExtension(
+    final MimeType type)
+  {
+    Objects.requireNonNull(type, "type");
+
+    final var slot = this.typeSlot(type);
+    if (slot < 0) {
+      return Optional.empty();
+    }
+
+    final var existing = this.preferred[slot];
+    if (existing != null) {
+      return (Optional<String>) existing;
+    }
+
+    final var base = this.typeOffset + slot * TYPE_SLOT_SIZE;
+    final var result =
+      Optional.of(
+        this.poolString(this.data.getInt(base + 8), this.data.getInt(base + 12)));
+    this.preferred[slot] = result;
+    return result;
+  }
+
+  /**
+   * @return The number of extensions in the image
+   */
+
+  public int extensionCount()
+  {
+    return this.extensionCount;
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[MimeRegistryImage extensions=%d]"
+      .formatted(Integer.valueOf(this.extensionCount));
+  }
+}
@@ -0,0 +1,333 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.mime2045.fileext;
+
+import com.io7m.mime2045.core.MimeType;
+import com.io7m.mime2045.fileext.internal.MimePerfectHash;
+import com.io7m.mime2045.fileext.internal.MimeTypesFileEntry;
+import com.io7m.mime2045.fileext.internal.MimeTypesFileParser;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.io7m.mime2045.fileext.MimeRegistryImage.EMPTY;
+import static com.io7m.mime2045.fileext.MimeRegistryImage.EXTENSION_SLOT_SIZE;
+import static com.io7m.mime2045.fileext.MimeRegistryImage.HEADER_EXTENSION_CAPACITY;
+import static com.io7m.mime2045.fileext.MimeRegistryImage.HEADER_EXTENSION_COUNT;
+import static com.io7m.mime2045.fileext.MimeRegistryImage.HEADER_EXTENSION_OFFSET;
+import static com.io7m.mime2045.fileext.MimeRegistryImage.HEADER_MAGIC;
+import static com.io7m.mime2045.fileext.MimeRegistryImage.HEADER_MAXIMUM_LENGTH;
+import static com.io7m.mime2045.fileext.MimeRegistryImage.HEADER_POOL_OFFSET;
+import static com.io7m.mime2045.fileext.MimeRegistryImage.HEADER_POOL_SIZE;
+import static com.io7m.mime2045.fileext.MimeRegistryImage.HEADER_SIZE;
+import static com.io7m.mime2045.fileext.MimeRegistryImage.HEADER_TYPE_CAPACITY;
+import static com.io7m.mime2045.fileext.MimeRegistryImage.HEADER_TYPE_OFFSET;
+import static com.io7m.mime2045.fileext.MimeRegistryImage.HEADER_VERSION;
+import static com.io7m.mime2045.fileext.MimeRegistryImage.MAGIC;
+import static com.io7m.mime2045.fileext.MimeRegistryImage.TYPE_SLOT_SIZE;
+import static com.io7m.mime2045.fileext.MimeRegistryImage.VERSION;
+
+/**
+ * A compiler from {@code mime.types} files to the binary images read by
+ * {@link MimeRegistryImage}. Sources are merged with the same precedence
+ * rules as {@link MimeRegistry}.
+ *
+ * @since 1.3.0
+ */
+
+public final class MimeRegistryImageCompiler
+{
+  private MimeRegistryImageCompiler()
+  {
+
+  }
+
+  /**
+   * Compile the given sources to an image file. The image is written to a
+   * temporary file that then atomically replaces {@code output}, and so
+   * processes that map the old image are not disturbed, and processes
+   * never observe a partially written image.
+   *
+   * @param sources        The sources, in increasing order of precedence
+   * @param includeBuiltIn {@code true} if the built-in table should form
+   *                       the lowest layer of the image
+   * @param output         The output file
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static void compile(
+    final List<Path> sources,
+    final boolean includeBuiltIn,
+    final Path output)
+    throws IOException
+  {
+    Objects.requireNonNull(output, "output");
+
+    final var layers = new ArrayList<List<MimeTypesFileEntry>>(sources.size());
+    for (final var source : sources) {
+      layers.add(MimeTypesFileParser.parse(source));
+    }
+
+    final var image =
+      compile(MimeRegistrySnapshot.merge(0L, includeBuiltIn, layers));
+
+    /*
+     * The temporary file is unique, so that concurrent compilations to the
+     * same output cannot overwrite each other's partial images, and it is
+     * created in the same directory, so that the move can be atomic.
+     */
+
+    final var absolute = output.toAbsolutePath();
+    final var temporary =
+      Files.createTempFile(
+        absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+
+    try {
+      Files.write(temporary, image);
+      Files.move(
+        temporary,
+        absolute,
+        StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE
+      );
+    } catch (final IOException | RuntimeException e) {
+      try {
+        Files.deleteIfExists(temporary);
+      } catch (final IOException deleteException) {
+        e.addSuppressed(deleteException);
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Compile the given snapshot to an image.
+   *
+   * @param snapshot The snapshot
+   *
+   * @return The image
+   */
+
+  public static byte[] compile(
+    final MimeRegistrySnapshot snapshot)
+  {
+    Objects.requireNonNull(snapshot, "snapshot");
+
+    final var pool = new StringPool();
+    final var types = new ArrayList<MimeType>();
+    final var extensions = new ArrayList<List<String>>();
+    snapshot.forEachType((type, list) -> {
+      types.add(type);
+      extensions.add(list);
+    });
+
+    final var slotOfType = new int[types.size()];
+    final var typeIndex = typeIndex(types, extensions, pool, slotOfType);
+    final var extensionIndex = extensionIndex(extensions, pool, slotOfType);
+    return write(typeIndex, extensionIndex, pool.bytes.toByteArray());
+  }
+
+  /**
+   * An open-addressing index: the capacity, the slot data, and the number
+   * and maximum length of the keys.
+   */
+
+  private record Index(
+    int capacity,
+    int[] slots,
+    int count,
+    int maximumLength)
+  {
+
+  }
+
+  private static Index typeIndex(
+    final List<MimeType> types,
+    final List<List<String>> extensions,
+    final StringPool pool,
+    final int[] slotOfType)
+  {
+    final var capacity = capacityFor(types.size());
+    final var slots = new int[capacity * 4];
+    Arrays.fill(slots, EMPTY);
+
+    for (int index = 0; index < types.size(); ++index) {
+      final var type = types.get(index);
+      var slot =
+        MimePerfectHash.hashOf(type.type(), type.subtype()) & (capacity - 1);
+      while (slots[slot * 4] != EMPTY) {
+        slot = (slot + 1) & (capacity - 1);
+      }
+
+      final var text = type.type() + "/" + type.subtype();
+      final var first = extensions.get(index).get(0);
+      slots[slot * 4] = pool.add(text);
+      slots[slot * 4 + 1] = text.length();
+      slots[slot * 4 + 2] = pool.add(first);
+      slots[slot * 4 + 3] = first.length();
+      slotOfType[index] = slot;
+    }
+    return new Index(capacity, slots, types.size(), 0);
+  }
+
+  private static Index extensionIndex(
+    final List<List<String>> extensions,
+    final StringPool pool,
+    final int[] slotOfType)
+  {
+    var count = 0;
+    for (final var list : extensions) {
+      count += list.size();
+    }
+
+    final var capacity = capacityFor(count);
+    final var slots = new int[capacity * 3];
+    Arrays.fill(slots, EMPTY);
+    var maximumLength = 0;
+
+    for (int index = 0; index < extensions.size(); ++index) {
+      for (final var extension : extensions.get(index)) {
+        var slot =
+          MimePerfectHash.hashOf(extension, 0, extension.length())
+            & (capacity - 1);
+        while (slots[slot * 3] != EMPTY) {
+          slot = (slot + 1) & (capacity - 1);
+        }
+        slots[slot * 3] = pool.add(extension);
+        slots[slot * 3 + 1] = extension.length();
+        slots[slot * 3 + 2] = slotOfType[index];
+        maximumLength = Math.max(maximumLength, extension.length());
+      }
+    }
+    return new Index(capacity, slots, count, maximumLength);
+  }
+
+  private static byte[] write(
+    final Index types,
+    final Index extensions,
+    final byte[] pool)
+  {
+    final var typeOffset = HEADER_SIZE;
+    final var extensionOffset = typeOffset + types.capacity() * TYPE_SLOT_SIZE;
+    final var poolOffset =
+      extensionOffset + extensions.capacity() * EXTENSION_SLOT_SIZE;
+
+    final var buffer =
+      ByteBuffer.allocate(poolOffset + pool.length)
+        .order(ByteOrder.BIG_ENDIAN);
+
+    buffer.putInt(HEADER_MAGIC, MAGIC);
+    buffer.putInt(HEADER_VERSION, VERSION);
+    buffer.putInt(HEADER_TYPE_CAPACITY, types.capacity());
+    buffer.putInt(HEADER_TYPE_OFFSET, typeOffset);
+    buffer.putInt(HEADER_EXTENSION_CAPACITY, extensions.capacity());
+    buffer.putInt(HEADER_EXTENSION_OFFSET, extensionOffset);
+    buffer.putInt(HEADER_POOL_OFFSET, poolOffset);
+    buffer.putInt(HEADER_POOL_SIZE, pool.length);
+    buffer.putInt(HEADER_MAXIMUM_LENGTH, extensions.maximumLength());
+    buffer.putInt(HEADER_EXTENSION_COUNT, extensions.count());
+
+    buffer.position(typeOffset);
+    for (final var value : types.slots()) {
+      buffer.putInt(value);
+    }
+    for (final var value : extensions.slots()) {
+      buffer.putInt(value);
+    }
+    buffer.put(pool);
+    return buffer.array();
+  }
+
+  /**
+   * A power of two that keeps the load factor at or below one half, so
+   * that probe sequences stay short and always end at an empty slot.
+   */
+
+  private static int capacityFor(
+    final int count)
+  {
+    return Math.max(2, Integer.highestOneBit(Math.max(1, count * 2) - 1) << 1);
+  }
+
+  private static final class StringPool
+  {
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final Map<String, Integer> offsets = new HashMap<>();
+
+    StringPool()
+    {
+
+    }
+
+    int add(
+      final String text)
+    {
+      final var existing = this.offsets.get(text);
+      if (existing != null) {
+        return existing.intValue();
+      }
+
+      final var offset = this.bytes.size() / 2;
+      for (int index = 0; index < text.length(); ++index) {
+        final var ch = text.charAt(index);
+        this.bytes.write(ch >>> 8);
+        this.bytes.write(ch & 0xff);
+      }
+      this.offsets.put(text, Integer.valueOf(offset));
+      return offset;
+    }
+  }
+
+  /**
+   * Compile {@code mime.types} files to an image. The first argument is
+   * the output file, and the remaining arguments are the sources, in
+   * increasing order of precedence. The built-in table is included.
+   *
+   * @param args The command-line arguments
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static void main(
+    final String[] args)
+    throws IOException
+  {
+    if (args.length < 1) {
+      throw new IllegalArgumentException(
+        "Usage: output-file [mime.types ...]");
+    }
+
+    final var sources = new ArrayList<Path>(args.length - 1);
+    for (int index = 1; index < args.length; ++index) {
+      sources.add(Path.of(args[index]));
+    }
+    compile(sources, true, Path.of(args[0]));
+  }
+}
@@ -0,0 +1,334 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.mime2045.fileext;
+
+import com.io7m.mime2045.core.MimeType;
+import com.io7m.mime2045.fileext.internal.MimeEssenceTable;
+import com.io7m.mime2045.fileext.internal.MimeExtensionTable;
+import com.io7m.mime2045.fileext.internal.MimeExtensionTypesGenerated;
+import com.io7m.mime2045.fileext.internal.MimeFileExtensionsGenerated;
+import com.io7m.mime2045.fileext.internal.MimeFileNames;
+import com.io7m.mime2045.fileext.internal.MimeTypesFileEntry;
+import com.io7m.mime2045.fileext.internal.MimeTypesGenerated;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable view of a {@link MimeRegistry} at a point in time. A
+ * snapshot never changes after it has been published, and so it can be
+ * held and queried for as long as is convenient, from any number of
+ * threads, without locking.
+ *
+ * @since 1.3.0
+ */
+
+public final class MimeRegistrySnapshot
+{
+  private final long generation;
+  private final Map<String, Optional<MimeType>> types;
+  private final MimeEssenceTable<Optional<String>> preferred;
+  private final MimeEssenceTable<List<String>> extensions;
+  private final MimeExtensionTable table;
+  private final int maximumLength;
+
+  private MimeRegistrySnapshot(
+    final long inGeneration,
+    final Map<String, Optional<MimeType>> inTypes,
+    final MimeEssenceTable<Optional<String>> inPreferred,
+    final MimeEssenceTable<List<String>> inExtensions,
+    final int inMaximumLength)
+  {
+    this.generation = inGeneration;
+    this.types = inTypes;
+    this.preferred = inPreferred;
+    this.extensions = inExtensions;
+    this.table = new MimeExtensionTable(inTypes);
+    this.maximumLength = inMaximumLength;
+  }
+
+  private static final class BuiltIn
+  {
+    private static final List<MimeTypesFileEntry> ENTRIES = entries();
+
+    private BuiltIn()
+    {
+
+    }
+
+    private static List<MimeTypesFileEntry> entries()
+    {
+      final var byType = new LinkedHashMap<MimeType, List<String>>();
+      for (int index = 0; index < MimeExtensionTypesGenerated.size(); ++index) {
+        final var type =
+          MimeTypesGenerated.typeAt(MimeExtensionTypesGenerated.typeIndexAt(index));
+        byType.computeIfAbsent(type, t -> new ArrayList<>())
+          .add(MimeExtensionTypesGenerated.extensionAt(index));
+      }
+
+      final var result = new ArrayList<MimeTypesFileEntry>(byType.size());
+      for (final var entry : byType.entrySet()) {
+        final var type = entry.getKey();
+        final var list = entry.getValue();
+        MimeFileExtensionsGenerated.extensionOf(type.type(), type.subtype())
+          .ifPresent(first -> {
+            list.remove(first);
+            list.add(0, first);
+          });
+        result.add(new MimeTypesFileEntry(type, list));
+      }
+      return List.copyOf(result);
+    }
+  }
+
+  private static String keyOf(
+    final MimeType type)
+  {
+    return type.type() + "/" + type.subtype();
+  }
+
+  /**
+   * Merge the given layers of entries into a snapshot. The built-in table
+   * forms the lowest layer, and each subsequent layer takes precedence over
+   * the layers before it: if two layers assign the same extension to
+   * different types, the later layer wins, and if two layers list the same
+   * type, the later layer's extensions (in its order of preference)
+   * replace the earlier layer's.
+   *
+   * @param generation The snapshot generation
+   * @param builtIn    {@code true} if the built-in table should be included
+   * @param layers     The layers, in increasing order of precedence
+   *
+   * @return A snapshot
+   */
+
+  static MimeRegistrySnapshot merge(
+    final long generation,
+    final boolean builtIn,
+    final List<List<MimeTypesFileEntry>> layers)
+  {
+    final var allLayers = new ArrayList<List<MimeTypesFileEntry>>();
+    if (builtIn) {
+      allLayers.add(BuiltIn.ENTRIES);
+    }
+    allLayers.addAll(layers);
+
+    final var keyOfExtension = new HashMap<String, String>();
+    final var extensionsOfType = new LinkedHashMap<String, List<String>>();
+    final var typeOfKey = new HashMap<String, MimeType>();
+
+    for (final var layer : allLayers) {
+      for (final var entry : layer) {
+        final var key = keyOf(entry.type());
+        typeOfKey.put(key, entry.type());
+        extensionsOfType.put(key, entry.extensions());
+        for (final var extension : entry.extensions()) {
+          keyOfExtension.put(extension, key);
+        }
+      }
+    }
+
+    /*
+     * An extension that a later layer took away from a type is removed
+     * from that type's list, so that the two directions of lookup agree.
+     */
+
+    final var types = new HashMap<String, Optional<MimeType>>();
+    final var preferred = new HashMap<MimeType, Optional<String>>();
+    final var extensions = new HashMap<MimeType, List<String>>();
+    var maximumLength = 0;
+
+    for (final var entry : extensionsOfType.entrySet()) {
+      final var key = entry.getKey();
+      final var type = typeOfKey.get(key);
+      final var kept = new ArrayList<String>(entry.getValue().size());
+      for (final var extension : entry.getValue()) {
+        if (key.equals(keyOfExtension.get(extension))) {
+          kept.add(extension);
+        }
+      }
+
+      extensions.put(type, List.copyOf(kept));
+      if (!kept.isEmpty()) {
+        preferred.put(type, Optional.of(kept.get(0)));
+      }
+      final var shared = Optional.of(type);
+      for (final var extension : kept) {
+        types.put(extension, shared);
+        maximumLength = Math.max(maximumLength, extension.length());
+      }
+    }
+
+    return new MimeRegistrySnapshot(
+      generation,
+      Collections.unmodifiableMap(types),
+      new MimeEssenceTable<>(preferred),
+      new MimeEssenceTable<>(extensions),
+      maximumLength
+    );
+  }
+
+  /**
+   * Pass every type that owns at least one extension to the given
+   * receiver, along with its extensions in order of preference.
+   *
+   * @param receiver The receiver
+   */
+
+  void forEachType(
+    final BiConsumer<MimeType, List<String>> receiver)
+  {
+    this.extensions.forEach((type, list) -> {
+      if (!list.isEmpty()) {
+        receiver.accept(type, list);
+      }
+    });
+  }
+
+  /**
+   * @return The generation of this snapshot; each reload of a registry
+   * publishes a snapshot with a greater generation
+   */
+
+  public long generation()
+  {
+    return this.generation;
+  }
+
+  /**
+   * Find the type that owns the given file extension. The extension must
+   * not include a leading {@code '.'}, and is compared ignoring ASCII case.
+   * The lookup does not allocate.
+   *
+   * @param extension The extension
+   *
+   * @return The type, if any
+   */
+
+  public Optional<MimeType> typeForExtension(
+    final CharSequence extension)
+  {
+    Objects.requireNonNull(extension, "extension");
+    return this.typeForExtension(extension, 0, extension.length());
+  }
+
+  /**
+   * Find the type that owns the file extension held in the given range of
+   * text.
+   *
+   * @param text  The text
+   * @param start The starting offset of the extension (inclusive)
+   * @param end   The ending offset of the extension (exclusive)
+   *
+   * @return The type, if any
+   *
+   * @see #typeForExtension(CharSequence)
+   */
+
+  public Optional<MimeType> typeForExtension(
+    final CharSequence text,
+    final int start,
+    final int end)
+  {
+    Objects.checkFromToIndex(start, end, text.length());
+    if (end - start > this.maximumLength) {
+      return Optional.empty();
+    }
+    return this.table.typeOf(text, start, end);
+  }
+
+  /**
+   * Find the type for the given file name based on its extension, with
+   * the same rules as {@link MimeFileExtensions#typeForFileName}: leading
+   * directory components are ignored, a leading {@code '.'} does not begin
+   * an extension, and the longest known extension wins. The lookup does
+   * not allocate.
+   *
+   * @param fileName The file name
+   *
+   * @return The type, if any
+   */
+
+  public Optional<MimeType> typeForFileName(
+    final CharSequence fileName)
+  {
+    return MimeFileNames.typeForFileName(
+      fileName,
+      this.maximumLength,
+      this.table
+    );
+  }
+
+  /**
+   * Suggest a file extension for the given type. The type and subtype are
+   * compared ignoring case, and parameters are ignored. The lookup does not
+   * allocate.
+   *
+   * @param type The type
+   *
+   * @return The preferred extension, if any
+   */
+
+  public Optional<String> suggestFileExtension(
+    final MimeType type)
+  {
+    Objects.requireNonNull(type, "type");
+    final var result = this.preferred.get(type);
+    return result != null ? result : Optional.empty();
+  }
+
+  /**
+   * @param type The type
+   *
+   * @return The extensions owned by the given type, in order of preference
+   */
+
+  public List<String> extensionsOf(
+    final MimeType type)
+  {
+    Objects.requireNonNull(type, "type");
+    final var result = this.extensions.get(type);
+    return result != null ? result : List.of();
+  }
+
+  /**
+   * @return The set of extensions known to this snapshot
+   */
+
+  public Set<String> extensions()
+  {
+    return this.types.keySet();
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[MimeRegistrySnapshot generation=%d extensions=%d]"
+      .formatted(
+        Long.valueOf(this.generation),
+        Integer.valueOf(this.types.size()));
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.mime2045.fileext.internal;
+
+import com.io7m.mime2045.core.MimeType;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * A read-only open-addressing hash table keyed by the essence (the type
+ * and subtype) of types, built at run time for registries loaded from
+ * files. Parameters of the given types are ignored, so that a lookup
+ * neither strips the parameters from a type nor builds a string key, and
+ * does not allocate.
+ *
+ * @param <V> The type of values
+ */
+
+public final class MimeEssenceTable<V>
+{
+  private final MimeType[] keys;
+  private final Object[] values;
+  private final int mask;
+
+  /**
+   * An essence table.
+   *
+   * @param entries The types and their values; types with equal essences
+   *                must not appear more than once
+   */
+
+  public MimeEssenceTable(
+    final Map<MimeType, V> entries)
+  {
+    Objects.requireNonNull(entries, "entries");
+
+    var capacity = 2;
+    while (capacity < entries.size() * 2) {
+      capacity <<= 1;
+    }
+
+    this.keys = new MimeType[capacity];
+    this.values = new Object[capacity];
+    this.mask = capacity - 1;
+
+    for (final var entry : entries.entrySet()) {
+      final var key = entry.getKey();
+      var slot = hashOf(key) & this.mask;
+      while (this.keys[slot] != null) {
+        if (this.keys[slot].essenceEquals(key)) {
+          throw new IllegalArgumentException(
+            "Duplicate essence %s/%s".formatted(key.type(), key.subtype()));
+        }
+        slot = (slot + 1) & this.mask;
+      }
+      this.keys[slot] = key;
+      this.values[slot] = Objects.requireNonNull(entry.getValue(), "value");
+    }
+  }
+
+  /*
+   * The type and subtype are lower-case strings whose hash codes are
+   * cached, so hashing a type does not traverse its text.
+   */
+
+  private static int hashOf(
+    final MimeType type)
+  {
+    final var h = type.type().hashCode() * 31 + type.subtype().hashCode();
+    return h ^ (h >>> 16);
+  }
+
+  /**
+   * Find the value for the essence of the given type.
+   *
+   * @param type The type
+   *
+   * @return The value, or {@code null} if there is none
+   */
+
+  @SuppressWarnings("unchecked")
+  public V get(
+    final MimeType type)
+  {
+    var slot = hashOf(type) & this.mask;
+    while (true) {
+      final var key = this.keys[slot];
+      if (key == null) {
+        return null;
+      }
+      if (key.essenceEquals(type)) {
+        return (V) this.values[slot];
+      }
+      slot = (slot + 1) & this.mask;
+    }
+  }
+
+  /**
+   * Pass every entry in the table to the given receiver, in an unspecified
+   * order.
+   *
+   * @param receiver The receiver
+   */
+
+  @SuppressWarnings("unchecked")
+  public void forEach(
+    final BiConsumer<MimeType, V> receiver)
+  {
+    for (int slot = 0; slot < this.keys.length; ++slot) {
+      final var key = this.keys[slot];
+      if (key != null) {
+        receiver.accept(key, (V) this.values[slot]);
+      }
+    }
+  }
+}
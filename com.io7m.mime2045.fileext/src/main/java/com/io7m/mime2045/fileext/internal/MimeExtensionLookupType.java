@@ -0,0 +1,47 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.mime2045.fileext.internal;
+
+import com.io7m.mime2045.core.MimeType;
+
+import java.util.Optional;
+
+/**
+ * A function that finds the type that owns a file extension held in a
+ * range of text.
+ */
+
+@FunctionalInterface
+public interface MimeExtensionLookupType
+{
+  /**
+   * Find the type for the extension held in the given range of text,
+   * ignoring ASCII case.
+   *
+   * @param text  The text
+   * @param start The starting offset of the extension (inclusive)
+   * @param end   The ending offset of the extension (exclusive)
+   *
+   * @return The type, if any
+   */
+
+  Optional<MimeType> typeOf(
+    CharSequence text,
+    int start,
+    int end);
+}
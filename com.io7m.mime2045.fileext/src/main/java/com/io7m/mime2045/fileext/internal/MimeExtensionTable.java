@@ -0,0 +1,122 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.mime2045.fileext.internal;
+
+import com.io7m.mime2045.core.MimeType;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A read-only open-addressing hash table from lower-case file extensions to
+ * types, built at run time for registries loaded from files. Lookups are
+ * made over a range of a {@link CharSequence}, hashed and compared ignoring
+ * ASCII case, so that a lookup neither copies nor lower-cases the key and
+ * does not allocate.
+ */
+
+public final class MimeExtensionTable implements MimeExtensionLookupType
+{
+  private final String[] keys;
+  private final Optional<?>[] values;
+  private final int mask;
+
+  /**
+   * An extension table.
+   *
+   * @param entries The lower-case extensions and their types
+   */
+
+  public MimeExtensionTable(
+    final Map<String, Optional<MimeType>> entries)
+  {
+    Objects.requireNonNull(entries, "entries");
+
+    var capacity = 2;
+    while (capacity < entries.size() * 2) {
+      capacity <<= 1;
+    }
+
+    this.keys = new String[capacity];
+    this.values = new Optional<?>[capacity];
+    this.mask = capacity - 1;
+
+    for (final var entry : entries.entrySet()) {
+      final var key = entry.getKey();
+      var slot = MimePerfectHash.hashOf(key, 0, key.length()) & this.mask;
+      while (this.keys[slot] != null) {
+        slot = (slot + 1) & this.mask;
+      }
+      this.keys[slot] = key;
+      this.values[slot] = Objects.requireNonNull(entry.getValue(), "value");
+    }
+  }
+
+  private static boolean regionEquals(
+    final String lowerKey,
+    final CharSequence text,
+    final int start,
+    final int end)
+  {
+    if (lowerKey.length() != end - start) {
+      return false;
+    }
+    for (int index = start; index < end; ++index) {
+      var ch = text.charAt(index);
+      if (ch >= 'A' && ch <= 'Z') {
+        ch = (char) (ch + 32);
+      }
+      if (lowerKey.charAt(index - start) != ch) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Find the type for the extension held in the given range of text,
+   * ignoring ASCII case.
+   *
+   * @param text  The text
+   * @param start The starting offset of the extension (inclusive)
+   * @param end   The ending offset of the extension (exclusive)
+   *
+   * @return A shared optional containing the type, if any
+   */
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public Optional<MimeType> typeOf(
+    final CharSequence text,
+    final int start,
+    final int end)
+  {
+    var slot = MimePerfectHash.hashOf(text, start, end) & this.mask;
+    while (true) {
+      final var key = this.keys[slot];
+      if (key == null) {
+        return Optional.empty();
+      }
+      if (regionEquals(key, text, start, end)) {
+        return (Optional<MimeType>) this.values[slot];
+      }
+      slot = (slot + 1) & this.mask;
+    }
+  }
+}
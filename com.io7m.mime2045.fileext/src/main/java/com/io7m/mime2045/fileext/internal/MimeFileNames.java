@@ -0,0 +1,82 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.mime2045.fileext.internal;
+
+import com.io7m.mime2045.core.MimeType;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The rules shared by every registry for finding the type of a file name
+ * from its extension.
+ */
+
+public final class MimeFileNames
+{
+  private MimeFileNames()
+  {
+
+  }
+
+  /**
+   * Find the type for the given file name based on its extension. Any
+   * leading directory components (separated by {@code '/'} or
+   * {@code '\\'}) are ignored. Each {@code '.'} in the base name that could
+   * begin an extension of at most {@code maximumLength} characters is tried
+   * in turn, from the left, so that the longest known extension wins. A
+   * leading {@code '.'} does not begin an extension. The scan does not
+   * allocate.
+   *
+   * @param fileName      The file name
+   * @param maximumLength The length of the longest known extension
+   * @param lookup        The extension lookup
+   *
+   * @return The type, if any
+   */
+
+  public static Optional<MimeType> typeForFileName(
+    final CharSequence fileName,
+    final int maximumLength,
+    final MimeExtensionLookupType lookup)
+  {
+    Objects.requireNonNull(fileName, "fileName");
+
+    final var end = fileName.length();
+    int baseStart = end;
+    while (baseStart > 0) {
+      final var ch = fileName.charAt(baseStart - 1);
+      if (ch == '/' || ch == '\\') {
+        break;
+      }
+      --baseStart;
+    }
+
+    for (int index = Math.max(baseStart + 1, end - maximumLength - 1);
+         index < end;
+         ++index) {
+      if (fileName.charAt(index) == '.') {
+        final var result = lookup.typeOf(fileName, index + 1, end);
+        if (result.isPresent()) {
+          return result;
+        }
+      }
+    }
+    return Optional.empty();
+  }
+}
@@ -0,0 +1,335 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.mime2045.fileext.internal;
+
+import java.util.Objects;
+
+/**
+ * A read-only perfect hash table keyed on strings that are compared ASCII
+ * case-insensitively. Keys are either plain strings (such as file
+ * extensions) or (type, subtype) pairs, which are hashed and compared as
+ * if they were the single string {@code type/subtype} without that string
+ * actually being constructed. The tables are produced at build time by
+ * {@code MimeGenerate}, which contains an exact copy of the hash function
+ * below; the two must be kept in sync.
+ *
+ * <p>The table uses "hash and displace": each key's hash selects a bucket,
+ * each bucket has a seed, and the seed mixed with the key's hash selects
+ * a slot. The generator chooses the seeds so that no two keys share a
+ * slot. A lookup therefore computes one hash, reads one seed, and compares
+ * one key.</p>
+ *
+ * <p>So that generated classes do not need large static initializers, the
+ * tables are supplied in packed form: the keys as a single string in
+ * which the keys (in slot order) are separated by {@code '\n'}, and integer
+ * arrays as strings holding one value per character.</p>
+ */
+
+public final class MimePerfectHash
+{
+  private static final int FNV_OFFSET = 0x811c9dc5;
+  private static final int FNV_PRIME = 0x01000193;
+
+  private static final char SEPARATOR = '\n';
+
+  private final int[] seeds;
+  private final String keys;
+  private final int[] starts;
+
+  /**
+   * A perfect hash table.
+   *
+   * @param inSeeds The per-bucket seeds
+   * @param inKeys  The lower-case keys, by slot, separated by {@code '\n'}
+   */
+
+  public MimePerfectHash(
+    final int[] inSeeds,
+    final String inKeys)
+  {
+    this.seeds = Objects.requireNonNull(inSeeds, "seeds");
+    this.keys = Objects.requireNonNull(inKeys, "keys");
+    this.starts = startsOf(inKeys);
+  }
+
+  private static int[] startsOf(
+    final String keys)
+  {
+    if (keys.isEmpty()) {
+      return new int[1];
+    }
+
+    var count = 1;
+    for (int index = 0; index < keys.length(); ++index) {
+      if (keys.charAt(index) == SEPARATOR) {
+        ++count;
+      }
+    }
+
+    /*
+     * The start of each key, followed by the start that a key after the
+     * last key would have, so that every key spans
+     * [starts[slot], starts[slot + 1] - 1).
+     */
+
+    final var result = new int[count + 1];
+    var slot = 1;
+    for (int index = 0; index < keys.length(); ++index) {
+      if (keys.charAt(index) == SEPARATOR) {
+        result[slot] = index + 1;
+        ++slot;
+      }
+    }
+    result[count] = keys.length() + 1;
+    return result;
+  }
+
+  /**
+   * Unpack an array of integers stored as one value per character.
+   *
+   * @param packed The packed values
+   *
+   * @return The values
+   */
+
+  public static int[] unpack(
+    final String packed)
+  {
+    final var result = new int[packed.length()];
+    for (int index = 0; index < result.length; ++index) {
+      result[index] = packed.charAt(index);
+    }
+    return result;
+  }
+
+  private static int lower(
+    final char ch)
+  {
+    return ch >= 'A' && ch <= 'Z' ? ch + 32 : ch;
+  }
+
+  private static int mix(
+    final int hash)
+  {
+    int h = hash;
+    h ^= h >>> 16;
+    h *= 0x85ebca6b;
+    h ^= h >>> 13;
+    h *= 0xc2b2ae35;
+    h ^= h >>> 16;
+    return h;
+  }
+
+  private static int accumulate(
+    final int hash,
+    final CharSequence text,
+    final int start,
+    final int end)
+  {
+    int h = hash;
+    for (int index = start; index < end; ++index) {
+      h = (h ^ lower(text.charAt(index))) * FNV_PRIME;
+    }
+    return h;
+  }
+
+  /**
+   * Hash a range of text, ignoring ASCII case.
+   *
+   * @param text  The text
+   * @param start The starting offset (inclusive)
+   * @param end   The ending offset (exclusive)
+   *
+   * @return The hash
+   */
+
+  public static int hashOf(
+    final CharSequence text,
+    final int start,
+    final int end)
+  {
+    return mix(accumulate(FNV_OFFSET, text, start, end));
+  }
+
+  /**
+   * Hash a (type, subtype) pair, ignoring ASCII case. The result is equal
+   * to the hash of the string {@code type/subtype}.
+   *
+   * @param type    The type
+   * @param subtype The subtype
+   *
+   * @return The hash
+   */
+
+  public static int hashOf(
+    final String type,
+    final String subtype)
+  {
+    int h = accumulate(FNV_OFFSET, type, 0, type.length());
+    h = (h ^ '/') * FNV_PRIME;
+    return mix(accumulate(h, subtype, 0, subtype.length()));
+  }
+
+  /**
+   * Determine the slot for a hash given a bucket seed.
+   *
+   * @param hash The key hash
+   * @param seed The bucket seed
+   * @param size The table size
+   *
+   * @return The slot
+   */
+
+  public static int slotOf(
+    final int hash,
+    final int seed,
+    final int size)
+  {
+    return (mix(hash ^ (seed * 0x9e3779b9)) & 0x7fff_ffff) % size;
+  }
+
+  /**
+   * Determine the bucket for a hash.
+   *
+   * @param hash    The key hash
+   * @param buckets The number of buckets
+   *
+   * @return The bucket
+   */
+
+  public static int bucketOf(
+    final int hash,
+    final int buckets)
+  {
+    return (hash & 0x7fff_ffff) % buckets;
+  }
+
+  private static boolean regionEquals(
+    final String lowerKeys,
+    final int keyOffset,
+    final CharSequence text,
+    final int start,
+    final int end)
+  {
+    for (int index = start; index < end; ++index) {
+      final var keyIndex = keyOffset + index - start;
+      if (lowerKeys.charAt(keyIndex) != lower(text.charAt(index))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private int slotFor(
+    final int hash)
+  {
+    final var seed = this.seeds[bucketOf(hash, this.seeds.length)];
+    return slotOf(hash, seed, this.size());
+  }
+
+  /**
+   * Find the slot holding the given key.
+   *
+   * @param text  The text
+   * @param start The starting offset of the key (inclusive)
+   * @param end   The ending offset of the key (exclusive)
+   *
+   * @return The slot, or {@code -1} if the key is not present
+   */
+
+  public int find(
+    final CharSequence text,
+    final int start,
+    final int end)
+  {
+    Objects.checkFromToIndex(start, end, text.length());
+
+    if (this.size() == 0) {
+      return -1;
+    }
+
+    final var slot = this.slotFor(hashOf(text, start, end));
+    final var keyStart = this.starts[slot];
+    final var keyLength = this.starts[slot + 1] - 1 - keyStart;
+    if (keyLength == end - start
+        && regionEquals(this.keys, keyStart, text, start, end)) {
+      return slot;
+    }
+    return -1;
+  }
+
+  /**
+   * Find the slot holding the given (type, subtype) key.
+   *
+   * @param type    The type
+   * @param subtype The subtype
+   *
+   * @return The slot, or {@code -1} if the key is not present
+   */
+
+  public int find(
+    final String type,
+    final String subtype)
+  {
+    if (this.size() == 0) {
+      return -1;
+    }
+
+    final var slot = this.slotFor(hashOf(type, subtype));
+    final var keyStart = this.starts[slot];
+    final var keyLength = this.starts[slot + 1] - 1 - keyStart;
+    final var typeLength = type.length();
+    final var subtypeLength = subtype.length();
+
+    if (keyLength != typeLength + 1 + subtypeLength) {
+      return -1;
+    }
+    if (this.keys.charAt(keyStart + typeLength) != '/') {
+      return -1;
+    }
+    if (!regionEquals(this.keys, keyStart, type, 0, typeLength)) {
+      return -1;
+    }
+    final var subtypeStart = keyStart + typeLength + 1;
+    if (!regionEquals(this.keys, subtypeStart, subtype, 0, subtypeLength)) {
+      return -1;
+    }
+    return slot;
+  }
+
+  /**
+   * @return The number of slots in the table
+   */
+
+  public int size()
+  {
+    return this.starts.length - 1;
+  }
+
+  /**
+   * @param slot The slot
+   *
+   * @return The lower-case key held in the given slot
+   */
+
+  public String key(
+    final int slot)
+  {
+    Objects.checkIndex(slot, this.size());
+    return this.keys.substring(this.starts[slot], this.starts[slot + 1] - 1);
+  }
+}
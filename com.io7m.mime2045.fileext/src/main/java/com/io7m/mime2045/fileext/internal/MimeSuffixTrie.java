@@ -0,0 +1,199 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.mime2045.fileext.internal;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * A trie of file extensions, stored with their characters reversed, so
+ * that a file name can be matched against every known extension in a
+ * single backwards pass from its last character. Each extension is stored
+ * with a leading {@code '.'}, and so a match can only occur at a real
+ * extension boundary. Characters are compared ignoring ASCII case.
+ *
+ * <p>The trie is flattened into arrays after construction: the children
+ * of each node occupy a contiguous, sorted range of the label and target
+ * arrays.</p>
+ */
+
+public final class MimeSuffixTrie
+{
+  private final int[] childStart;
+  private final int[] childCount;
+  private final char[] labels;
+  private final int[] targets;
+  private final int[] values;
+
+  private MimeSuffixTrie(
+    final int[] inChildStart,
+    final int[] inChildCount,
+    final char[] inLabels,
+    final int[] inTargets,
+    final int[] inValues)
+  {
+    this.childStart = inChildStart;
+    this.childCount = inChildCount;
+    this.labels = inLabels;
+    this.targets = inTargets;
+    this.values = inValues;
+  }
+
+  private static final class Node
+  {
+    private final TreeMap<Character, Node> children = new TreeMap<>();
+    private int value = -1;
+
+    Node()
+    {
+
+    }
+  }
+
+  private static char lower(
+    final char ch)
+  {
+    return ch >= 'A' && ch <= 'Z' ? (char) (ch + 32) : ch;
+  }
+
+  /**
+   * Build a trie from the given extensions.
+   *
+   * @param extensions The extensions (without leading {@code '.'})
+   *
+   * @return A trie in which each extension maps to its index in the list
+   */
+
+  public static MimeSuffixTrie of(
+    final List<String> extensions)
+  {
+    Objects.requireNonNull(extensions, "extensions");
+
+    final var root = new Node();
+    for (int index = 0; index < extensions.size(); ++index) {
+      final var extension = extensions.get(index);
+      var node = root;
+      for (int k = extension.length() - 1; k >= -1; --k) {
+        final var ch = k >= 0 ? lower(extension.charAt(k)) : '.';
+        node = node.children.computeIfAbsent(
+          Character.valueOf(ch), c -> new Node());
+      }
+      node.value = index;
+    }
+
+    final var nodes = new ArrayList<Node>();
+    nodes.add(root);
+    for (int index = 0; index < nodes.size(); ++index) {
+      nodes.addAll(nodes.get(index).children.values());
+    }
+
+    final var nodeIds = new IdentityHashMap<Node, Integer>();
+    for (int index = 0; index < nodes.size(); ++index) {
+      nodeIds.put(nodes.get(index), Integer.valueOf(index));
+    }
+
+    final var count = nodes.size();
+    final var childStart = new int[count];
+    final var childCount = new int[count];
+    final var values = new int[count];
+    final var labels = new char[count - 1];
+    final var targets = new int[count - 1];
+
+    int edge = 0;
+    for (int index = 0; index < count; ++index) {
+      final var node = nodes.get(index);
+      childStart[index] = edge;
+      childCount[index] = node.children.size();
+      values[index] = node.value;
+      for (final var entry : node.children.entrySet()) {
+        labels[edge] = entry.getKey().charValue();
+        targets[edge] = nodeIds.get(entry.getValue()).intValue();
+        ++edge;
+      }
+    }
+
+    return new MimeSuffixTrie(childStart, childCount, labels, targets, values);
+  }
+
+  private int child(
+    final int node,
+    final char label)
+  {
+    int low = this.childStart[node];
+    int high = low + this.childCount[node] - 1;
+    while (low <= high) {
+      final var middle = (low + high) >>> 1;
+      final var found = this.labels[middle];
+      if (found < label) {
+        low = middle + 1;
+      } else if (found > label) {
+        high = middle - 1;
+      } else {
+        return this.targets[middle];
+      }
+    }
+    return -1;
+  }
+
+  private static boolean isSeparator(
+    final char ch)
+  {
+    return ch == '/' || ch == '\\';
+  }
+
+  /**
+   * Find the longest extension that ends the given range of text. An
+   * extension's leading {@code '.'} must be preceded by at least one
+   * character of the file name, so that (for example) {@code .json} has no
+   * extension. Matching stops at the first {@code '/'} or {@code '\\'}.
+   *
+   * @param text  The text
+   * @param start The starting offset (inclusive)
+   * @param end   The ending offset (exclusive)
+   *
+   * @return The index of the extension, or {@code -1} if there is none
+   */
+
+  public int longestSuffix(
+    final CharSequence text,
+    final int start,
+    final int end)
+  {
+    Objects.checkFromToIndex(start, end, text.length());
+
+    int node = 0;
+    int best = -1;
+    for (int index = end - 1; index >= start; --index) {
+      final var ch = lower(text.charAt(index));
+      node = this.child(node, ch);
+      if (node < 0) {
+        break;
+      }
+
+      final var value = this.values[node];
+      if (value >= 0
+          && index > start
+          && !isSeparator(text.charAt(index - 1))) {
+        best = value;
+      }
+    }
+    return best;
+  }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.mime2045.fileext.internal;
+
+import com.io7m.mime2045.core.MimeType;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A single line of a {@code mime.types} file: a type and the extensions
+ * that it owns, in order of preference.
+ *
+ * @param type       The type
+ * @param extensions The lower-case extensions
+ */
+
+public record MimeTypesFileEntry(
+  MimeType type,
+  List<String> extensions)
+{
+  /**
+   * A single line of a {@code mime.types} file.
+   *
+   * @param type       The type
+   * @param extensions The lower-case extensions
+   */
+
+  public MimeTypesFileEntry
+  {
+    Objects.requireNonNull(type, "type");
+    extensions = List.copyOf(extensions);
+  }
+}
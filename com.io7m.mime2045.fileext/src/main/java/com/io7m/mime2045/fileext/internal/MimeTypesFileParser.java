@@ -0,0 +1,173 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.mime2045.fileext.internal;
+
+import com.io7m.mime2045.core.MimeCharacters;
+import com.io7m.mime2045.core.MimeType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A parser for files in the {@code mime.types} format used by the build
+ * and by most operating systems: one type per line, followed by the
+ * whitespace-separated extensions that the type owns, with {@code '#'}
+ * beginning a comment. Types and extensions are converted to lower case,
+ * and extensions may not contain control characters or path separators.
+ * Files found in the wild frequently contain junk, and so lines that do
+ * not begin with a valid {@code type/subtype} are silently ignored rather
+ * than causing the whole file to be rejected.
+ */
+
+public final class MimeTypesFileParser
+{
+  private MimeTypesFileParser()
+  {
+
+  }
+
+  /**
+   * Parse the given file.
+   *
+   * @param file The file
+   *
+   * @return The entries in the file, in order
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static List<MimeTypesFileEntry> parse(
+    final Path file)
+    throws IOException
+  {
+    try (var reader = Files.newBufferedReader(file, UTF_8)) {
+      return parse(reader);
+    }
+  }
+
+  /**
+   * Parse the given stream.
+   *
+   * @param reader The reader
+   *
+   * @return The entries in the stream, in order
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static List<MimeTypesFileEntry> parse(
+    final BufferedReader reader)
+    throws IOException
+  {
+    Objects.requireNonNull(reader, "reader");
+
+    final var entries = new ArrayList<MimeTypesFileEntry>();
+    while (true) {
+      final var line = reader.readLine();
+      if (line == null) {
+        break;
+      }
+      final var entry = parseLine(line);
+      if (entry != null) {
+        entries.add(entry);
+      }
+    }
+    return entries;
+  }
+
+  /**
+   * Parse a single line.
+   *
+   * @param line The line
+   *
+   * @return The entry, or {@code null} if the line is blank, a comment, or
+   * malformed
+   */
+
+  public static MimeTypesFileEntry parseLine(
+    final String line)
+  {
+    final var comment = line.indexOf('#');
+    final var text =
+      (comment >= 0 ? line.substring(0, comment) : line).strip();
+    if (text.isEmpty()) {
+      return null;
+    }
+
+    final var segments = text.split("\\s+");
+    final var name = MimeCharacters.toLowerCaseAscii(segments[0]);
+    final var slash = name.indexOf('/');
+    if (slash <= 0 || slash == name.length() - 1) {
+      return null;
+    }
+
+    final var type = name.substring(0, slash);
+    final var subtype = name.substring(slash + 1);
+    if (!isToken(type) || !isToken(subtype)) {
+      return null;
+    }
+
+    final var extensions = new ArrayList<String>(segments.length - 1);
+    for (int index = 1; index < segments.length; ++index) {
+      final var extension = extensionOf(segments[index]);
+      if (extension != null && !extensions.contains(extension)) {
+        extensions.add(extension);
+      }
+    }
+
+    return new MimeTypesFileEntry(
+      MimeTypesGenerated.canonical(MimeType.of(type, subtype)),
+      extensions
+    );
+  }
+
+  private static String extensionOf(
+    final String segment)
+  {
+    final var extension = MimeCharacters.toLowerCaseAscii(
+      segment.startsWith(".") ? segment.substring(1) : segment);
+    if (extension.isEmpty()) {
+      return null;
+    }
+    for (int index = 0; index < extension.length(); ++index) {
+      if (!isExtensionCharacter(extension.charAt(index))) {
+        return null;
+      }
+    }
+    return extension;
+  }
+
+  private static boolean isExtensionCharacter(
+    final char ch)
+  {
+    return ch > 0x20 && ch != 0x7f && ch != '/' && ch != '\\';
+  }
+
+  private static boolean isToken(
+    final String text)
+  {
+    return MimeCharacters.firstDisallowedBare(text) < 0;
+  }
+}
@@ -21,7 +21,7 @@
  */
 
 @Export
-@Version("1.0.0")
+@Version("1.1.0")
 package com.io7m.mime2045.fileext;
 
 import org.osgi.annotation.bundle.Export;
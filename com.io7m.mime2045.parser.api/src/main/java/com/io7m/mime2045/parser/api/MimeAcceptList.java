@@ -0,0 +1,126 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.mime2045.parser.api;
+
+import com.io7m.mime2045.core.MimeType;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * An immutable list of media ranges, as found in an HTTP {@code Accept}
+ * header, ordered by preference: ranges are sorted by descending quality,
+ * then by descending specificity, and otherwise retain the order in which
+ * they were given.
+ *
+ * @param ranges The media ranges
+ *
+ * @see MimeMediaRange#specificity()
+ * @since 1.3.0
+ */
+
+public record MimeAcceptList(
+  List<MimeMediaRange> ranges)
+{
+  private static final MimeMediaRange[] EMPTY_RANGES =
+    new MimeMediaRange[0];
+
+  private static final Comparator<MimeMediaRange> PREFERENCE =
+    Comparator.comparingInt(MimeMediaRange::quality)
+      .thenComparingInt(MimeMediaRange::specificity)
+      .reversed();
+
+  private static final MimeAcceptList ACCEPT_ALL =
+    new MimeAcceptList(List.of(
+      new MimeMediaRange(
+        MimeMediaRange.WILDCARD,
+        MimeMediaRange.WILDCARD,
+        List.of(),
+        MimeMediaRange.QUALITY_MAX)
+    ));
+
+  /**
+   * An immutable list of media ranges. The given ranges are copied and
+   * sorted into preference order.
+   *
+   * @param ranges The media ranges
+   */
+
+  public MimeAcceptList
+  {
+    final var array = ranges.toArray(EMPTY_RANGES);
+    Arrays.sort(array, PREFERENCE);
+    ranges = List.of(array);
+  }
+
+  /**
+   * A list that accepts any type with the maximum quality. This is the
+   * meaning of a request that has no {@code Accept} header.
+   *
+   * @return A list containing only {@code *}{@code /*}
+   */
+
+  public static MimeAcceptList acceptAll()
+  {
+    return ACCEPT_ALL;
+  }
+
+  /**
+   * Determine the quality with which the given type is accepted. This is
+   * the quality of the most specific range that matches the type, or
+   * {@code 0} if no range matches. Where several equally specific ranges
+   * match, the first (and therefore highest quality) range is used. This
+   * method does not allocate.
+   *
+   * @param type The type
+   *
+   * @return The quality in {@code [0, 1000]}
+   */
+
+  public int qualityOf(
+    final MimeType type)
+  {
+    int bestSpecificity = -1;
+    int bestQuality = 0;
+    for (int index = 0; index < this.ranges.size(); ++index) {
+      final var range = this.ranges.get(index);
+      final var specificity = range.specificity();
+      if (specificity > bestSpecificity && range.matches(type)) {
+        bestSpecificity = specificity;
+        bestQuality = range.quality();
+      }
+    }
+    return bestQuality;
+  }
+
+  /**
+   * @param type The type
+   *
+   * @return {@code true} if the given type is accepted with a non-zero
+   * quality
+   *
+   * @see #qualityOf(MimeType)
+   */
+
+  public boolean accepts(
+    final MimeType type)
+  {
+    return this.qualityOf(type) > 0;
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.mime2045.parser.api;
+
+import java.util.Map;
+
+/**
+ * A factory of {@code Accept} header parsers.
+ *
+ * @since 1.3.0
+ */
+
+public interface MimeAcceptParserFactoryType
+{
+  /**
+   * Create a parser.
+   *
+   * @param options The options
+   *
+   * @return A parser
+   */
+
+  MimeAcceptParserType create(
+    Map<String, String> options);
+
+  /**
+   * Create a parser and call it on the given header value.
+   *
+   * @param text The header value
+   *
+   * @return The media ranges in preference order
+   *
+   * @throws MimeParseException On errors
+   * @see MimeAcceptParserType#parse(String)
+   */
+
+  default MimeAcceptList parse(
+    final String text)
+    throws MimeParseException
+  {
+    return this.create(Map.of())
+      .parse(text);
+  }
+}
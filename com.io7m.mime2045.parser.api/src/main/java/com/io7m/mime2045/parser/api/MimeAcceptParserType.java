@@ -0,0 +1,84 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.mime2045.parser.api;
+
+import java.util.Objects;
+
+/**
+ * A parser of HTTP {@code Accept} header values: comma-separated lists of
+ * media ranges with optional quality values.
+ *
+ * @see "https://www.rfc-editor.org/rfc/rfc9110#section-12.5.1"
+ * @since 1.3.0
+ */
+
+public interface MimeAcceptParserType
+{
+  /**
+   * Parse the given header value. Empty list elements are ignored, so an
+   * empty (or blank) value produces an empty list. Parameters following the
+   * {@code q} parameter of a range are accept extensions, and are
+   * discarded.
+   *
+   * @param text The text
+   *
+   * @return The media ranges in preference order
+   *
+   * @throws MimeParseException On errors
+   */
+
+  MimeAcceptList parse(String text)
+    throws MimeParseException;
+
+  /**
+   * Parse the given range of characters as a header value.
+   *
+   * @param text  The text
+   * @param start The starting offset (inclusive)
+   * @param end   The ending offset (exclusive)
+   *
+   * @return The media ranges in preference order
+   *
+   * @throws MimeParseException On errors
+   * @see #parse(String)
+   */
+
+  default MimeAcceptList parse(
+    final CharSequence text,
+    final int start,
+    final int end)
+    throws MimeParseException
+  {
+    Objects.checkFromToIndex(start, end, text.length());
+    return this.parse(text.subSequence(start, end).toString());
+  }
+
+  /**
+   * Parse the given header value, silently discarding any media ranges
+   * that are malformed rather than failing. This matches the behaviour of
+   * most HTTP servers when faced with invalid {@code Accept} headers.
+   *
+   * @param text The text
+   *
+   * @return The well-formed media ranges in preference order
+   *
+   * @see #parse(String)
+   */
+
+  MimeAcceptList parseLenient(String text);
+}
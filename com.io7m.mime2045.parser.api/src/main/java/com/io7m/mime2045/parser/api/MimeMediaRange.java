@@ -0,0 +1,199 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.mime2045.parser.api;
+
+import com.io7m.mime2045.core.MimeCharacters;
+import com.io7m.mime2045.core.MimeType;
+import com.io7m.mime2045.core.MimeTypeParameter;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A media range, as found in an HTTP {@code Accept} header. A media range
+ * is a type in which the type and subtype may be the wildcard {@code "*"}
+ * ({@code *}{@code /*} or {@code type/*}), together with a quality value.
+ * Quality values are held in fixed-point form as an integer number of
+ * thousandths, so {@code q=0.5} is represented as {@code 500}.
+ *
+ * @param type       The type, or {@link #WILDCARD}
+ * @param subtype    The subtype, or {@link #WILDCARD}
+ * @param parameters The parameters, excluding the quality value
+ * @param quality    The quality value in {@code [0, 1000]}
+ *
+ * @see "https://www.rfc-editor.org/rfc/rfc9110#section-12.5.1"
+ * @since 1.3.0
+ */
+
+public record MimeMediaRange(
+  String type,
+  String subtype,
+  List<MimeTypeParameter> parameters,
+  int quality)
+{
+  /**
+   * The wildcard type or subtype.
+   */
+
+  public static final String WILDCARD = "*";
+
+  /**
+   * The maximum (and default) quality value.
+   */
+
+  public static final int QUALITY_MAX = 1000;
+
+  /**
+   * A media range.
+   *
+   * @param type       The type, or {@link #WILDCARD}
+   * @param subtype    The subtype, or {@link #WILDCARD}
+   * @param parameters The parameters, excluding the quality value
+   * @param quality    The quality value in {@code [0, 1000]}
+   */
+
+  public MimeMediaRange
+  {
+    type = MimeCharacters.toLowerCaseAscii(
+      Objects.requireNonNull(type, "type"));
+    subtype = MimeCharacters.toLowerCaseAscii(
+      Objects.requireNonNull(subtype, "subtype"));
+    parameters = List.copyOf(parameters);
+
+    if (WILDCARD.equals(type) && !WILDCARD.equals(subtype)) {
+      throw new IllegalArgumentException(
+        "A wildcard type requires a wildcard subtype (received '%s/%s')"
+          .formatted(type, subtype)
+      );
+    }
+    if (quality < 0 || quality > QUALITY_MAX) {
+      throw new IllegalArgumentException(
+        "Quality %d must be in the range [0, %d]"
+          .formatted(Integer.valueOf(quality), Integer.valueOf(QUALITY_MAX))
+      );
+    }
+  }
+
+  /**
+   * @return {@code true} if the type is {@link #WILDCARD}
+   */
+
+  public boolean isTypeWildcard()
+  {
+    return WILDCARD.equals(this.type);
+  }
+
+  /**
+   * @return {@code true} if the subtype is {@link #WILDCARD}
+   */
+
+  public boolean isSubtypeWildcard()
+  {
+    return WILDCARD.equals(this.subtype);
+  }
+
+  /**
+   * The specificity of a range orders ranges from the most general to the
+   * most specific: {@code *}{@code /*}, then {@code type/*}, then
+   * {@code type/subtype}. Within each of these, a range with more
+   * parameters is more specific, but parameters never make a range more
+   * specific than a range at a more specific level. When several ranges
+   * match a type, the most specific range determines the quality of the
+   * type.
+   *
+   * @return The specificity of the range
+   */
+
+  public int specificity()
+  {
+    final int level;
+    if (this.isTypeWildcard()) {
+      level = 0;
+    } else if (this.isSubtypeWildcard()) {
+      level = 1;
+    } else {
+      level = 2;
+    }
+    return (level << 16) + Math.min(this.parameters.size(), 0xffff);
+  }
+
+  /**
+   * Determine whether the given type is matched by this range. The type
+   * and subtype must be equal unless they are wildcards, and every
+   * parameter of this range must be present in the given type with the
+   * same value. The quality value is not considered. This method does not
+   * allocate.
+   *
+   * @param target The type
+   *
+   * @return {@code true} if the range matches
+   */
+
+  public boolean matches(
+    final MimeType target)
+  {
+    if (!this.isTypeWildcard() && !this.type.equals(target.type())) {
+      return false;
+    }
+    if (!this.isSubtypeWildcard() && !this.subtype.equals(target.subtype())) {
+      return false;
+    }
+
+    final var targetParameters = target.parameters();
+    for (int index = 0; index < this.parameters.size(); ++index) {
+      if (!containsParameter(targetParameters, this.parameters.get(index))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean containsParameter(
+    final List<MimeTypeParameter> parameters,
+    final MimeTypeParameter parameter)
+  {
+    for (int index = 0; index < parameters.size(); ++index) {
+      if (parameters.get(index).equals(parameter)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public String toString()
+  {
+    final var builder = new StringBuilder(32);
+    builder.append(this.type);
+    builder.append('/');
+    builder.append(this.subtype);
+    for (final var parameter : this.parameters) {
+      parameter.appendTo(builder);
+    }
+    if (this.quality != QUALITY_MAX) {
+      builder.append(";q=0.");
+      final var digits = Integer.toString(1000 + this.quality);
+      var last = digits.length();
+      while (last > 2 && digits.charAt(last - 1) == '0') {
+        --last;
+      }
+      builder.append(digits, 1, Math.max(2, last));
+    }
+    return builder.toString();
+  }
+}
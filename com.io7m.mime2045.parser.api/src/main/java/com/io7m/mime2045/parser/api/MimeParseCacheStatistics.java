@@ -0,0 +1,44 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.mime2045.parser.api;
+
+/**
+ * Statistics for a parser that caches results.
+ *
+ * @param hits       The number of parses answered from the cache
+ * @param misses     The number of parses not answered from the cache
+ * @param admissions The number of results admitted to the cache
+ * @param rejections The number of results refused admission to the cache
+ *                   because their input had not been seen recently
+ * @param evictions  The number of results evicted from the cache
+ * @param size       The current number of cached results
+ * @param capacity   The maximum number of cached results
+ *
+ * @since 1.3.0
+ */
+
+public record MimeParseCacheStatistics(
+  long hits,
+  long misses,
+  long admissions,
+  long rejections,
+  long evictions,
+  int size,
+  int capacity)
+{
+
+}
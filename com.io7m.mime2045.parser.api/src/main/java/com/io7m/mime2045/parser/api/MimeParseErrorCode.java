@@ -0,0 +1,108 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.mime2045.parser.api;
+
+import java.util.Objects;
+
+/**
+ * The kinds of errors that can occur when parsing types and lists of
+ * media ranges.
+ *
+ * @since 1.3.0
+ */
+
+public enum MimeParseErrorCode
+{
+  /**
+   * A {@code <token>} was expected.
+   */
+
+  EXPECTED_TOKEN("A <token>"),
+
+  /**
+   * A {@code '/'} was expected.
+   */
+
+  EXPECTED_SLASH("'/'"),
+
+  /**
+   * A {@code '='} was expected.
+   */
+
+  EXPECTED_EQUALS("'='"),
+
+  /**
+   * A parameter value was expected.
+   */
+
+  EXPECTED_VALUE("A <token> or a <quoted-string>"),
+
+  /**
+   * A {@code ';'} or the end of the input was expected.
+   */
+
+  EXPECTED_SEMICOLON("';' or <EOF>"),
+
+  /**
+   * A quoted parameter value contained a character that is not permitted.
+   */
+
+  INVALID_PARAMETER_VALUE("A parameter value containing only permitted characters"),
+
+  /**
+   * The input could not be parsed. This code is used by parsers that cannot
+   * report anything more specific.
+   */
+
+  SYNTAX_ERROR("A valid type"),
+
+  /**
+   * A {@code ';'}, a {@code ','}, or the end of the input was expected
+   * after a media range.
+   */
+
+  EXPECTED_SEPARATOR("';', ',' or <EOF>"),
+
+  /**
+   * A media range used a wildcard type with a non-wildcard subtype.
+   */
+
+  INVALID_MEDIA_RANGE("A media range of the form '*/*', 'type/*' or 'type/subtype'"),
+
+  /**
+   * A {@code q} parameter was not a valid quality value.
+   */
+
+  INVALID_QUALITY("A quality value in [0, 1] with at most three decimal places");
+
+  private final String expected;
+
+  MimeParseErrorCode(
+    final String inExpected)
+  {
+    this.expected = Objects.requireNonNull(inExpected, "expected");
+  }
+
+  /**
+   * @return A humanly-readable description of what the parser expected
+   */
+
+  public String expected()
+  {
+    return this.expected;
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.mime2045.parser.api;
+
+import com.io7m.mime2045.core.MimeType;
+
+import java.util.Objects;
+
+/**
+ * The result of parsing a type without throwing exceptions.
+ *
+ * @see MimeParserType#tryParse(String)
+ * @since 1.3.0
+ */
+
+public sealed interface MimeParseResultType
+{
+  /**
+   * The input was parsed successfully.
+   *
+   * @param type The parsed type
+   */
+
+  record Success(MimeType type)
+    implements MimeParseResultType
+  {
+    /**
+     * The input was parsed successfully.
+     *
+     * @param type The parsed type
+     */
+
+    public Success
+    {
+      Objects.requireNonNull(type, "type");
+    }
+  }
+
+  /**
+   * The input could not be parsed. No exception (and therefore no stack
+   * trace) is created for a failure; a message is only constructed if
+   * {@link #message()} is called.
+   *
+   * @param code   The error code
+   * @param offset The offset of the offending input, relative to the start
+   *               of the parsed range
+   */
+
+  record Failure(
+    MimeParseErrorCode code,
+    int offset)
+    implements MimeParseResultType
+  {
+    /**
+     * The input could not be parsed.
+     *
+     * @param code   The error code
+     * @param offset The offset of the offending input, relative to the
+     *               start of the parsed range
+     */
+
+    public Failure
+    {
+      Objects.requireNonNull(code, "code");
+    }
+
+    /**
+     * @return A humanly-readable error message
+     */
+
+    public String message()
+    {
+      return "Syntax error: Expected %s at offset %d"
+        .formatted(this.code.expected(), Integer.valueOf(this.offset));
+    }
+  }
+}
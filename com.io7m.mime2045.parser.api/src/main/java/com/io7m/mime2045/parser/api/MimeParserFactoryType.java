@@ -56,4 +56,23 @@ public interface MimeParserFactoryType
     return this.create(Map.of())
       .parse(text);
   }
+
+  /**
+   * Create a parser and call it on the given type string without throwing
+   * exceptions on errors.
+   *
+   * @param text The string
+   *
+   * @return The result of parsing
+   *
+   * @see MimeParserType#tryParse(String)
+   * @since 1.3.0
+   */
+
+  default MimeParseResultType tryParse(
+    final String text)
+  {
+    return this.create(Map.of())
+      .tryParse(text);
+  }
 }
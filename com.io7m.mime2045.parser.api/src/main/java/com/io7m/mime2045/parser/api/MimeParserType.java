@@ -18,6 +18,10 @@ package com.io7m.mime2045.parser.api;
 
 import com.io7m.mime2045.core.MimeType;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
 /**
  * An RFC 2045 type parser.
  */
@@ -37,4 +41,230 @@ public interface MimeParserType
 
   MimeType parse(String text)
     throws MimeParseException;
+
+  /**
+   * Parse the given range of characters as a type string.
+   *
+   * @param text  The text
+   * @param start The starting offset (inclusive)
+   * @param end   The ending offset (exclusive)
+   *
+   * @return The parsed type
+   *
+   * @throws MimeParseException On errors
+   * @see #parse(String)
+   * @since 1.3.0
+   */
+
+  default MimeType parse(
+    final CharSequence text,
+    final int start,
+    final int end)
+    throws MimeParseException
+  {
+    Objects.checkFromToIndex(start, end, text.length());
+    return this.parse(text.subSequence(start, end).toString());
+  }
+
+  /**
+   * Parse the given range of bytes as a type string. Each byte is
+   * interpreted as a single US-ASCII character; bytes outside of the
+   * US-ASCII range can never appear in a valid type string.
+   *
+   * @param data   The data
+   * @param offset The starting offset
+   * @param length The number of bytes
+   *
+   * @return The parsed type
+   *
+   * @throws MimeParseException On errors
+   * @see #parse(String)
+   * @since 1.3.0
+   */
+
+  default MimeType parse(
+    final byte[] data,
+    final int offset,
+    final int length)
+    throws MimeParseException
+  {
+    Objects.checkFromIndexSize(offset, length, data.length);
+    return this.parse(ByteBuffer.wrap(data, offset, length));
+  }
+
+  /**
+   * Parse the bytes between the position and limit of the given buffer as a
+   * type string. Each byte is interpreted as a single US-ASCII character;
+   * bytes outside of the US-ASCII range can never appear in a valid type
+   * string. Heap and direct buffers are both accepted, and the buffer's
+   * position and limit are left unchanged.
+   *
+   * @param buffer The buffer
+   *
+   * @return The parsed type
+   *
+   * @throws MimeParseException On errors
+   * @see #parse(String)
+   * @since 1.3.0
+   */
+
+  default MimeType parse(
+    final ByteBuffer buffer)
+    throws MimeParseException
+  {
+    return this.parse(
+      StandardCharsets.ISO_8859_1.decode(buffer.duplicate()).toString());
+  }
+
+  /**
+   * Parse a given type string without throwing exceptions on errors.
+   *
+   * <p>The default implementations of the {@code tryParse} methods report
+   * failures as {@link MimeParseErrorCode#SYNTAX_ERROR}, with an offset
+   * derived from the lexical position of the {@link MimeParseException}.
+   * Lines in the position are taken to be 1-based and columns 0-based, as
+   * produced by the bundled parsers, and the offset is relative to the start
+   * of the parsed range.</p>
+   *
+   * @param text The text
+   *
+   * @return The result of parsing
+   *
+   * @see #parse(String)
+   * @since 1.3.0
+   */
+
+  default MimeParseResultType tryParse(
+    final String text)
+  {
+    try {
+      return new MimeParseResultType.Success(this.parse(text));
+    } catch (final MimeParseException e) {
+      return failureOf(e, text, 0, text.length());
+    }
+  }
+
+  /**
+   * Parse the given range of characters as a type string without throwing
+   * exceptions on errors.
+   *
+   * @param text  The text
+   * @param start The starting offset (inclusive)
+   * @param end   The ending offset (exclusive)
+   *
+   * @return The result of parsing
+   *
+   * @see #parse(CharSequence, int, int)
+   * @since 1.3.0
+   */
+
+  default MimeParseResultType tryParse(
+    final CharSequence text,
+    final int start,
+    final int end)
+  {
+    try {
+      return new MimeParseResultType.Success(this.parse(text, start, end));
+    } catch (final MimeParseException e) {
+      return failureOf(e, text, start, end);
+    }
+  }
+
+  /**
+   * Parse the given range of bytes as a type string without throwing
+   * exceptions on errors.
+   *
+   * @param data   The data
+   * @param offset The starting offset
+   * @param length The number of bytes
+   *
+   * @return The result of parsing
+   *
+   * @see #parse(byte[], int, int)
+   * @since 1.3.0
+   */
+
+  default MimeParseResultType tryParse(
+    final byte[] data,
+    final int offset,
+    final int length)
+  {
+    try {
+      return new MimeParseResultType.Success(this.parse(data, offset, length));
+    } catch (final MimeParseException e) {
+      final var text =
+        StandardCharsets.ISO_8859_1.decode(
+          ByteBuffer.wrap(data, offset, length));
+      return failureOf(e, text, 0, text.length());
+    }
+  }
+
+  /**
+   * Parse the bytes between the position and limit of the given buffer as a
+   * type string without throwing exceptions on errors.
+   *
+   * @param buffer The buffer
+   *
+   * @return The result of parsing
+   *
+   * @see #parse(ByteBuffer)
+   * @since 1.3.0
+   */
+
+  default MimeParseResultType tryParse(
+    final ByteBuffer buffer)
+  {
+    try {
+      return new MimeParseResultType.Success(this.parse(buffer));
+    } catch (final MimeParseException e) {
+      final var text =
+        StandardCharsets.ISO_8859_1.decode(buffer.duplicate());
+      return failureOf(e, text, 0, text.length());
+    }
+  }
+
+  private static MimeParseResultType failureOf(
+    final MimeParseException e,
+    final CharSequence text,
+    final int start,
+    final int end)
+  {
+    final var position = e.lexical();
+
+    /*
+     * Skip to the start of the reported line, treating CRLF as a single
+     * line break in the same manner as the bundled parsers.
+     */
+
+    int line = 1;
+    int index = start;
+    while (line < position.line() && index < end) {
+      final var ch = text.charAt(index);
+      ++index;
+      if (ch == '\r' && index < end && text.charAt(index) == '\n') {
+        ++index;
+      }
+      if (isLineBreak(ch)) {
+        ++line;
+      }
+    }
+
+    final var column = (long) Math.max(0, position.column());
+    final var offset = (int) Math.min(end, index + column) - start;
+
+    return new MimeParseResultType.Failure(
+      MimeParseErrorCode.SYNTAX_ERROR,
+      offset
+    );
+  }
+
+  private static boolean isLineBreak(
+    final char ch)
+  {
+    return switch (ch) {
+      case '\n', '\r', '\u000B', '\u000C', '\u0085', '\u2028', '\u2029' ->
+        true;
+      default -> false;
+    };
+  }
 }
@@ -0,0 +1,72 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.mime2045.parser;
+
+import com.io7m.mime2045.parser.api.MimeAcceptList;
+import com.io7m.mime2045.parser.api.MimeAcceptParserFactoryType;
+import com.io7m.mime2045.parser.api.MimeAcceptParserType;
+import com.io7m.mime2045.parser.api.MimeParseException;
+import com.io7m.mime2045.parser.internal.MimeAcceptParser;
+
+import java.util.Map;
+
+/**
+ * The default factory of {@code Accept} header parsers.
+ *
+ * @since 1.3.0
+ */
+
+public final class MimeAcceptParsers implements MimeAcceptParserFactoryType
+{
+  private final MimeAcceptParserType defaultParser;
+
+  /**
+   * The default factory of {@code Accept} header parsers.
+   */
+
+  public MimeAcceptParsers()
+  {
+    this.defaultParser = this.create(Map.of());
+  }
+
+  @Override
+  public MimeAcceptParserType create(
+    final Map<String, String> options)
+  {
+    return new MimeAcceptParser(options);
+  }
+
+  /**
+   * Parse the given header value. Unlike the default implementation of
+   * this method, the parser used is created once and shared between calls.
+   *
+   * @param text The header value
+   *
+   * @return The media ranges in preference order
+   *
+   * @throws MimeParseException On errors
+   */
+
+  @Override
+  public MimeAcceptList parse(
+    final String text)
+    throws MimeParseException
+  {
+    return this.defaultParser.parse(text);
+  }
+}
@@ -0,0 +1,307 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.mime2045.parser;
+
+import com.io7m.mime2045.core.MimeType;
+import com.io7m.mime2045.parser.api.MimeAcceptList;
+import com.io7m.mime2045.parser.api.MimeAcceptParserType;
+import com.io7m.mime2045.parser.api.MimeMediaRange;
+import com.io7m.mime2045.parser.api.MimeParseCacheStatistics;
+import com.io7m.mime2045.parser.internal.MimeAcceptParser;
+import com.io7m.mime2045.parser.internal.MimeBoundedCache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * <p>A content negotiator for a fixed set of types that a server can
+ * produce.</p>
+ *
+ * <p>The producible types are indexed by type and subtype when the
+ * negotiator is created, so each media range in an {@code Accept} header
+ * is resolved to the types it can match with a constant number of lookups,
+ * rather than by testing every producible type. Because real traffic
+ * contains very few distinct {@code Accept} values, decisions are also
+ * memoized in a bounded, concurrent cache keyed by the raw header value,
+ * so that a repeated header is answered without parsing it.</p>
+ *
+ * <p>The best type is the producible type with the highest non-zero
+ * quality, where the quality of a type is taken from the most specific
+ * range that matches it, as defined by {@link MimeMediaRange#specificity()}.
+ * Ties are broken in favour of the type that
+ * appears first in the list given to {@link #create(List)}. Malformed
+ * ranges in a header are ignored, as most servers do.</p>
+ *
+ * <p>Negotiators are immutable (apart from their caches) and safe for use
+ * from multiple threads.</p>
+ *
+ * @since 1.3.0
+ */
+
+public final class MimeNegotiator
+{
+  /**
+   * The default maximum number of memoized decisions.
+   */
+
+  public static final int DEFAULT_CACHE_MAX_ENTRIES = 128;
+
+  private static final int[] NO_INDICES = new int[0];
+
+  private final MimeType[] types;
+  private final List<Optional<MimeType>> results;
+  private final int[] allIndices;
+  private final Map<String, TypeIndex> index;
+  private final MimeAcceptParserType parser;
+  private final MimeBoundedCache<Optional<MimeType>> cache;
+
+  /**
+   * The producible types that share a type, by subtype.
+   */
+
+  private static final class TypeIndex
+  {
+    private int[] all;
+    private final Map<String, int[]> bySubtype;
+
+    TypeIndex()
+    {
+      this.all = NO_INDICES;
+      this.bySubtype = new HashMap<>();
+    }
+
+    void add(
+      final String subtype,
+      final int typeIndex)
+    {
+      this.all = append(this.all, typeIndex);
+      this.bySubtype.merge(
+        subtype,
+        new int[]{typeIndex},
+        MimeNegotiator::concat);
+    }
+  }
+
+  private MimeNegotiator(
+    final List<MimeType> inTypes,
+    final int cacheMaxEntries)
+  {
+    this.types = inTypes.toArray(new MimeType[0]);
+    if (this.types.length == 0) {
+      throw new IllegalArgumentException(
+        "At least one producible type is required");
+    }
+
+    final var resultList = new ArrayList<Optional<MimeType>>(this.types.length);
+    this.allIndices = new int[this.types.length];
+    this.index = new HashMap<>();
+    for (int typeIndex = 0; typeIndex < this.types.length; ++typeIndex) {
+      final var type = Objects.requireNonNull(this.types[typeIndex], "type");
+      resultList.add(Optional.of(type));
+      this.allIndices[typeIndex] = typeIndex;
+      this.index.computeIfAbsent(type.type(), k -> new TypeIndex())
+        .add(type.subtype(), typeIndex);
+    }
+
+    this.results = List.copyOf(resultList);
+    this.parser = new MimeAcceptParser(Map.of());
+    this.cache = cacheMaxEntries > 0
+      ? new MimeBoundedCache<>(cacheMaxEntries, false)
+      : null;
+  }
+
+  private static int[] append(
+    final int[] array,
+    final int value)
+  {
+    final var result = Arrays.copyOf(array, array.length + 1);
+    result[array.length] = value;
+    return result;
+  }
+
+  private static int[] concat(
+    final int[] x,
+    final int[] y)
+  {
+    final var result = Arrays.copyOf(x, x.length + y.length);
+    System.arraycopy(y, 0, result, x.length, y.length);
+    return result;
+  }
+
+  /**
+   * Create a negotiator with the default cache size.
+   *
+   * @param types The producible types, in order of preference
+   *
+   * @return A negotiator
+   *
+   * @see #DEFAULT_CACHE_MAX_ENTRIES
+   */
+
+  public static MimeNegotiator create(
+    final List<MimeType> types)
+  {
+    return create(types, DEFAULT_CACHE_MAX_ENTRIES);
+  }
+
+  /**
+   * Create a negotiator.
+   *
+   * @param types           The producible types, in order of preference
+   * @param cacheMaxEntries The maximum number of memoized decisions; a
+   *                        value of {@code 0} disables memoization
+   *
+   * @return A negotiator
+   */
+
+  public static MimeNegotiator create(
+    final List<MimeType> types,
+    final int cacheMaxEntries)
+  {
+    return new MimeNegotiator(types, cacheMaxEntries);
+  }
+
+  /**
+   * @return The producible types, in order of preference
+   */
+
+  public List<MimeType> types()
+  {
+    return List.of(this.types);
+  }
+
+  /**
+   * Choose the best producible type for the given {@code Accept} header
+   * value. A request without an {@code Accept} header accepts any type, and
+   * so should be answered with the first producible type rather than by
+   * calling this method with an empty string (which accepts nothing).
+   *
+   * @param accept The raw header value
+   *
+   * @return The best type, or nothing if no producible type is acceptable
+   */
+
+  public Optional<MimeType> negotiate(
+    final String accept)
+  {
+    Objects.requireNonNull(accept, "accept");
+
+    final var cacheNow = this.cache;
+    if (cacheNow == null) {
+      return this.negotiate(this.parser.parseLenient(accept));
+    }
+
+    final var length = accept.length();
+    final var hash = accept.hashCode();
+    final var cached = cacheNow.get(accept, 0, length, hash);
+    if (cached != null) {
+      return cached;
+    }
+
+    final var result = this.negotiate(this.parser.parseLenient(accept));
+    cacheNow.put(accept, 0, length, hash, result);
+    return result;
+  }
+
+  /**
+   * Choose the best producible type for the given, already parsed, list of
+   * media ranges. The result is not memoized.
+   *
+   * @param accept The media ranges
+   *
+   * @return The best type, or nothing if no producible type is acceptable
+   */
+
+  public Optional<MimeType> negotiate(
+    final MimeAcceptList accept)
+  {
+    final var count = this.types.length;
+    final var qualities = new int[count];
+    final var specificities = new int[count];
+    Arrays.fill(specificities, -1);
+
+    final var ranges = accept.ranges();
+    for (int rangeIndex = 0; rangeIndex < ranges.size(); ++rangeIndex) {
+      final var range = ranges.get(rangeIndex);
+      final var specificity = range.specificity();
+      for (final var typeIndex : this.candidates(range)) {
+        if (specificity > specificities[typeIndex]
+            && range.matches(this.types[typeIndex])) {
+          specificities[typeIndex] = specificity;
+          qualities[typeIndex] = range.quality();
+        }
+      }
+    }
+
+    int best = -1;
+    int bestQuality = 0;
+    for (int typeIndex = 0; typeIndex < count; ++typeIndex) {
+      if (qualities[typeIndex] > bestQuality) {
+        best = typeIndex;
+        bestQuality = qualities[typeIndex];
+      }
+    }
+    return best < 0 ? Optional.empty() : this.results.get(best);
+  }
+
+  private int[] candidates(
+    final MimeMediaRange range)
+  {
+    if (range.isTypeWildcard()) {
+      return this.allIndices;
+    }
+
+    final var byType = this.index.get(range.type());
+    if (byType == null) {
+      return NO_INDICES;
+    }
+    if (range.isSubtypeWildcard()) {
+      return byType.all;
+    }
+    return byType.bySubtype.getOrDefault(range.subtype(), NO_INDICES);
+  }
+
+  /**
+   * @return The statistics of the decision cache, or nothing if
+   * memoization is disabled
+   */
+
+  public Optional<MimeParseCacheStatistics> cacheStatistics()
+  {
+    final var cacheNow = this.cache;
+    if (cacheNow == null) {
+      return Optional.empty();
+    }
+    return Optional.of(
+      new MimeParseCacheStatistics(
+        cacheNow.hits(),
+        cacheNow.misses(),
+        cacheNow.admissions(),
+        cacheNow.rejections(),
+        cacheNow.evictions(),
+        cacheNow.size(),
+        cacheNow.capacity()
+      )
+    );
+  }
+}
@@ -17,8 +17,15 @@
 
 package com.io7m.mime2045.parser;
 
+import com.io7m.mime2045.core.MimeType;
+import com.io7m.mime2045.parser.api.MimeParseException;
+import com.io7m.mime2045.parser.api.MimeParseResultType;
 import com.io7m.mime2045.parser.api.MimeParserFactoryType;
 import com.io7m.mime2045.parser.api.MimeParserType;
+import com.io7m.mime2045.parser.internal.MimeBoundedCache;
+import com.io7m.mime2045.parser.internal.MimeCachingParser;
+import com.io7m.mime2045.parser.internal.MimeDirectParser;
+import com.io7m.mime2045.parser.internal.MimeLexerPool;
 import com.io7m.mime2045.parser.internal.MimeParser;
 
 import java.util.Map;
@@ -29,19 +36,196 @@ import java.util.Map;
 
 public final class MimeParsers implements MimeParserFactoryType
 {
+  /**
+   * The option that selects the parser engine. The value must be one of
+   * {@link #ENGINE_JFLEX} or {@link #ENGINE_DIRECT}.
+   *
+   * @since 1.3.0
+   */
+
+  public static final String OPTION_ENGINE = "engine";
+
+  /**
+   * The default parser engine, driven by a JFlex-generated lexer.
+   *
+   * @since 1.3.0
+   */
+
+  public static final String ENGINE_JFLEX = "jflex";
+
+  /**
+   * A hand-written parser engine that scans the input in a single pass. The
+   * engine accepts and rejects exactly the same inputs as
+   * {@link #ENGINE_JFLEX}, but does not allocate lexer state or token
+   * objects.
+   *
+   * @since 1.3.0
+   */
+
+  public static final String ENGINE_DIRECT = "direct";
+
+  /**
+   * The option that sets the maximum number of idle lexers retained by
+   * parsers using the {@link #ENGINE_JFLEX} engine. Lexers are reset and
+   * reused between parses rather than being created anew each time. A value
+   * of {@code 0} disables pooling.
+   *
+   * @since 1.3.0
+   */
+
+  public static final String OPTION_POOL_SIZE = "pool.size";
+
+  /**
+   * The option that enables caching of parse results. If the value is
+   * greater than {@code 0}, the returned parser is a
+   * {@link com.io7m.mime2045.parser.api.MimeCachingParserType} that retains
+   * at most (approximately) the given number of results, keyed by the raw
+   * input text. Caching is disabled by default.
+   *
+   * @since 1.3.0
+   */
+
+  public static final String OPTION_CACHE_MAX_ENTRIES = "cache.maxEntries";
+
+  /**
+   * The option that controls whether a caching parser only admits an input
+   * to the cache the second time that it is seen recently. This protects the
+   * cache against pollution by inputs that only ever appear once, at the
+   * cost of one extra parse for every input that does recur. The value must
+   * be {@code true} or {@code false}, and defaults to {@code true}.
+   *
+   * @since 1.3.0
+   */
+
+  public static final String OPTION_CACHE_DOORKEEPER = "cache.doorkeeper";
+
+  private final MimeParserType defaultParser;
+
   /**
    * The default factory of parsers.
    */
 
   public MimeParsers()
   {
+    this.defaultParser = this.create(Map.of());
+  }
+
+  private static int intOption(
+    final Map<String, String> options,
+    final String name,
+    final int defaultValue)
+  {
+    final var text = options.get(name);
+    if (text == null) {
+      return defaultValue;
+    }
 
+    try {
+      return Integer.parseInt(text);
+    } catch (final NumberFormatException e) {
+      throw new IllegalArgumentException(
+        "Option '%s' must be an integer (received '%s')"
+          .formatted(name, text),
+        e
+      );
+    }
+  }
+
+  private static boolean booleanOption(
+    final Map<String, String> options,
+    final String name,
+    final boolean defaultValue)
+  {
+    final var text = options.get(name);
+    if (text == null) {
+      return defaultValue;
+    }
+
+    return switch (text) {
+      case "true" -> true;
+      case "false" -> false;
+      default -> throw new IllegalArgumentException(
+        "Option '%s' must be one of [true, false] (received '%s')"
+          .formatted(name, text)
+      );
+    };
   }
 
   @Override
   public MimeParserType create(
     final Map<String, String> options)
   {
-    return new MimeParser(options);
+    final var parser =
+      createEngine(options);
+    final var cacheSize =
+      intOption(options, OPTION_CACHE_MAX_ENTRIES, 0);
+
+    if (cacheSize <= 0) {
+      return parser;
+    }
+
+    final var doorkeeper =
+      booleanOption(options, OPTION_CACHE_DOORKEEPER, true);
+
+    return new MimeCachingParser(
+      parser,
+      new MimeBoundedCache<>(cacheSize, doorkeeper)
+    );
+  }
+
+  private static MimeParserType createEngine(
+    final Map<String, String> options)
+  {
+    final var engine =
+      options.getOrDefault(OPTION_ENGINE, ENGINE_JFLEX);
+
+    return switch (engine) {
+      case ENGINE_JFLEX -> new MimeParser(
+        options,
+        new MimeLexerPool(
+          intOption(options, OPTION_POOL_SIZE, MimeParser.defaultPoolSize()))
+      );
+      case ENGINE_DIRECT -> new MimeDirectParser(options);
+      default -> throw new IllegalArgumentException(
+        "Unrecognized parser engine '%s' (must be one of [%s, %s])"
+          .formatted(engine, ENGINE_JFLEX, ENGINE_DIRECT)
+      );
+    };
+  }
+
+  /**
+   * Parse the given type string. Unlike the default implementation of this
+   * method, the parser used is created once and shared between calls.
+   *
+   * @param text The string
+   *
+   * @return A parsed type
+   *
+   * @throws MimeParseException On errors
+   */
+
+  @Override
+  public MimeType parse(
+    final String text)
+    throws MimeParseException
+  {
+    return this.defaultParser.parse(text);
+  }
+
+  /**
+   * Parse the given type string without throwing exceptions on errors.
+   * Unlike the default implementation of this method, the parser used is
+   * created once and shared between calls.
+   *
+   * @param text The string
+   *
+   * @return The result of parsing
+   */
+
+  @Override
+  public MimeParseResultType tryParse(
+    final String text)
+  {
+    return this.defaultParser.tryParse(text);
   }
 }
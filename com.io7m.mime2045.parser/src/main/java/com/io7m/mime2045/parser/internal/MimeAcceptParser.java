@@ -0,0 +1,375 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.mime2045.parser.internal;
+
+import com.io7m.mime2045.core.MimeCharacters;
+import com.io7m.mime2045.core.MimeTypeParameter;
+import com.io7m.mime2045.parser.api.MimeAcceptList;
+import com.io7m.mime2045.parser.api.MimeAcceptParserType;
+import com.io7m.mime2045.parser.api.MimeMediaRange;
+import com.io7m.mime2045.parser.api.MimeParseException;
+import com.io7m.mime2045.parser.internal.MimeScanner.Kind;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.io7m.mime2045.parser.api.MimeParseErrorCode.EXPECTED_EQUALS;
+import static com.io7m.mime2045.parser.api.MimeParseErrorCode.EXPECTED_SEPARATOR;
+import static com.io7m.mime2045.parser.api.MimeParseErrorCode.EXPECTED_SLASH;
+import static com.io7m.mime2045.parser.api.MimeParseErrorCode.EXPECTED_TOKEN;
+import static com.io7m.mime2045.parser.api.MimeParseErrorCode.EXPECTED_VALUE;
+import static com.io7m.mime2045.parser.api.MimeParseErrorCode.INVALID_MEDIA_RANGE;
+import static com.io7m.mime2045.parser.api.MimeParseErrorCode.INVALID_PARAMETER_VALUE;
+import static com.io7m.mime2045.parser.api.MimeParseErrorCode.INVALID_QUALITY;
+
+/**
+ * A single-pass parser of {@code Accept} header values, built on the same
+ * scanner as {@link MimeDirectParser}. Wildcards and quality values are
+ * recognized directly from the input without creating strings, and
+ * quality values are parsed to fixed-point integers. A range without
+ * parameters costs one range object, plus one string for each of the type
+ * and subtype that is not a wildcard.
+ */
+
+public final class MimeAcceptParser implements MimeAcceptParserType
+{
+  private final Map<String, String> options;
+
+  /**
+   * A parser of {@code Accept} header values.
+   *
+   * @param inOptions The options
+   */
+
+  public MimeAcceptParser(
+    final Map<String, String> inOptions)
+  {
+    this.options = Map.copyOf(inOptions);
+  }
+
+  /**
+   * Parse a list of ranges, recording any error in the scanner.
+   *
+   * @param text    The text
+   * @param scanner The scanner
+   * @param lenient {@code true} if malformed ranges should be skipped
+   *
+   * @return The list, or {@code null} on errors
+   */
+
+  private static MimeAcceptList run(
+    final CharSequence text,
+    final MimeScanner scanner,
+    final boolean lenient)
+  {
+    final var ranges = new ArrayList<MimeMediaRange>(8);
+    while (true) {
+      final var kind = scanner.next();
+      if (kind == Kind.EOF) {
+        return new MimeAcceptList(ranges);
+      }
+      if (kind == Kind.COMMA) {
+        continue;
+      }
+
+      final var range = range(text, scanner);
+      if (range != null) {
+        ranges.add(range);
+      } else if (lenient) {
+        skipRange(scanner);
+      } else {
+        return null;
+      }
+    }
+  }
+
+  /*
+   * Skip the remainder of a malformed range. The scanner is left on the
+   * comma (or end of input) that terminates the range.
+   */
+
+  private static void skipRange(
+    final MimeScanner scanner)
+  {
+    var kind = scanner.kind();
+    while (kind != Kind.COMMA && kind != Kind.EOF) {
+      kind = scanner.next();
+    }
+  }
+
+  private static MimeMediaRange range(
+    final CharSequence text,
+    final MimeScanner scanner)
+  {
+    if (scanner.kind() != Kind.TOKEN) {
+      return scanner.fail(EXPECTED_TOKEN);
+    }
+    final var type = tokenOrWildcard(text, scanner);
+
+    if (scanner.next() != Kind.SLASH) {
+      return scanner.fail(EXPECTED_SLASH);
+    }
+
+    if (scanner.next() != Kind.TOKEN) {
+      return scanner.fail(EXPECTED_TOKEN);
+    }
+    final var subtype = tokenOrWildcard(text, scanner);
+
+    if (MimeMediaRange.WILDCARD.equals(type)
+        && !MimeMediaRange.WILDCARD.equals(subtype)) {
+      return scanner.fail(INVALID_MEDIA_RANGE);
+    }
+
+    return rangeParameters(new RangeBuilder(text, scanner), type, subtype);
+  }
+
+  private static MimeMediaRange rangeParameters(
+    final RangeBuilder builder,
+    final String type,
+    final String subtype)
+  {
+    final var scanner = builder.scanner;
+    while (true) {
+      final var kind = scanner.next();
+      if (kind == Kind.EOF || kind == Kind.COMMA) {
+        return new MimeMediaRange(
+          type, subtype, builder.parameters, builder.quality);
+      }
+      if (kind != Kind.SEMICOLON) {
+        return scanner.fail(EXPECTED_SEPARATOR);
+      }
+      if (!builder.parameter()) {
+        return null;
+      }
+    }
+  }
+
+  private static String tokenOrWildcard(
+    final CharSequence text,
+    final MimeScanner scanner)
+  {
+    final var start = scanner.tokenStart();
+    if (scanner.tokenEnd() - start == 1 && text.charAt(start) == '*') {
+      return MimeMediaRange.WILDCARD;
+    }
+    return scanner.tokenValue();
+  }
+
+  /**
+   * Parse a quality value of the form {@code 0[.ddd]} or {@code 1[.000]}.
+   *
+   * @param text  The text
+   * @param start The starting offset (inclusive)
+   * @param end   The ending offset (exclusive)
+   *
+   * @return The quality in thousandths, or {@code -1} if the text is not a
+   * valid quality value
+   */
+
+  static int quality(
+    final CharSequence text,
+    final int start,
+    final int end)
+  {
+    final var length = end - start;
+    if (length < 1 || length > 5) {
+      return -1;
+    }
+
+    final var first = text.charAt(start);
+    if (first != '0' && first != '1') {
+      return -1;
+    }
+    if (length == 1) {
+      return (first - '0') * MimeMediaRange.QUALITY_MAX;
+    }
+    if (text.charAt(start + 1) != '.') {
+      return -1;
+    }
+
+    final var value = fraction(text, start + 2, end);
+    if (first == '1') {
+      return value == 0 ? MimeMediaRange.QUALITY_MAX : -1;
+    }
+    return value;
+  }
+
+  private static int fraction(
+    final CharSequence text,
+    final int start,
+    final int end)
+  {
+    int value = 0;
+    int scale = 100;
+    for (int index = start; index < end; ++index) {
+      final var ch = text.charAt(index);
+      if (ch < '0' || ch > '9') {
+        return -1;
+      }
+      value += (ch - '0') * scale;
+      scale /= 10;
+    }
+    return value;
+  }
+
+  /**
+   * The parameters and quality of the range being parsed.
+   */
+
+  private static final class RangeBuilder
+  {
+    private final CharSequence text;
+    private final MimeScanner scanner;
+    private List<MimeTypeParameter> parameters;
+    private int quality;
+    private boolean extensions;
+
+    RangeBuilder(
+      final CharSequence inText,
+      final MimeScanner inScanner)
+    {
+      this.text = inText;
+      this.scanner = inScanner;
+      this.parameters = List.of();
+      this.quality = MimeMediaRange.QUALITY_MAX;
+    }
+
+    private boolean isQualityName()
+    {
+      final var start = this.scanner.tokenStart();
+      if (this.scanner.tokenEnd() - start != 1) {
+        return false;
+      }
+      final var ch = this.text.charAt(start);
+      return ch == 'q' || ch == 'Q';
+    }
+
+    /**
+     * Parse a parameter following a semicolon. Parameters after the
+     * quality value are accept extensions, and are validated but discarded.
+     *
+     * @return {@code false} on errors
+     */
+
+    boolean parameter()
+    {
+      final var s = this.scanner;
+      if (s.next() != Kind.TOKEN) {
+        s.fail(EXPECTED_TOKEN);
+        return false;
+      }
+
+      if (this.extensions) {
+        return this.value() != null;
+      }
+      if (this.isQualityName()) {
+        final var kind = this.value();
+        return kind != null && this.qualityValue(kind);
+      }
+
+      final var name = s.tokenValue();
+      return this.value() != null && this.addParameter(name);
+    }
+
+    /*
+     * Scan the '=' and value of a parameter, validating quoted values.
+     */
+
+    private Kind value()
+    {
+      final var s = this.scanner;
+      if (s.next() != Kind.EQUALS) {
+        return s.fail(EXPECTED_EQUALS);
+      }
+
+      final var kind = s.next();
+      if (kind != Kind.TOKEN && kind != Kind.QUOTED) {
+        return s.fail(EXPECTED_VALUE);
+      }
+      if (kind == Kind.QUOTED
+          && MimeCharacters.firstDisallowedQuoted(s.tokenValue()) >= 0) {
+        return s.fail(INVALID_PARAMETER_VALUE);
+      }
+      return kind;
+    }
+
+    private boolean addParameter(
+      final String name)
+    {
+      final var value = this.scanner.tokenValue();
+      if (this.parameters.isEmpty()) {
+        this.parameters = new ArrayList<>(2);
+      }
+      this.parameters.add(new MimeTypeParameter(name, value));
+      return true;
+    }
+
+    private boolean qualityValue(
+      final Kind kind)
+    {
+      final var s = this.scanner;
+      final var value =
+        kind == Kind.TOKEN ? quality(this.text, s.tokenStart(), s.tokenEnd()) : -1;
+      if (value < 0) {
+        s.fail(INVALID_QUALITY);
+        return false;
+      }
+      this.quality = value;
+      this.extensions = true;
+      return true;
+    }
+  }
+
+  private static MimeAcceptList parseWith(
+    final CharSequence text,
+    final MimeScanner scanner)
+    throws MimeParseException
+  {
+    final var list = run(text, scanner, false);
+    if (list == null) {
+      throw scanner.exception();
+    }
+    return list;
+  }
+
+  @Override
+  public MimeAcceptList parse(
+    final String text)
+    throws MimeParseException
+  {
+    return parseWith(text, new MimeScanner(text, 0, text.length(), true));
+  }
+
+  @Override
+  public MimeAcceptList parse(
+    final CharSequence text,
+    final int start,
+    final int end)
+    throws MimeParseException
+  {
+    return parseWith(text, new MimeScanner(text, start, end, true));
+  }
+
+  @Override
+  public MimeAcceptList parseLenient(
+    final String text)
+  {
+    return run(text, new MimeScanner(text, 0, text.length(), true), true);
+  }
+}
@@ -0,0 +1,447 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.mime2045.parser.internal;
+
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>A bounded, concurrent cache keyed by ranges of characters.</p>
+ *
+ * <p>The cache is a set-associative table: a key can only ever live in one
+ * of {@link #WAYS} slots of the set selected by its hash. Lookups read those
+ * slots without locking and compare the key in place, so looking up a range
+ * of a larger buffer does not require building a string. Insertions replace
+ * entries within a set using the CLOCK (second chance) policy: entries that
+ * have been read since the last sweep are skipped once before being
+ * evicted.</p>
+ *
+ * <p>To stop keys that are only ever seen once (such as attacker-controlled
+ * header values) from evicting the working set, insertions can optionally
+ * pass through a <i>doorkeeper</i>: a small bloom filter that admits a key
+ * into the cache only on the second time that it is offered. The doorkeeper
+ * is cleared periodically so that it does not saturate. It hashes the key
+ * text with a seed chosen per cache, rather than using
+ * {@link String#hashCode()}, so that keys chosen to collide under the
+ * string hash do not pass it.</p>
+ *
+ * @param <V> The type of cached values
+ */
+
+public final class MimeBoundedCache<V>
+{
+  /**
+   * The number of slots in each set.
+   */
+
+  public static final int WAYS = 8;
+
+  private static final int DOORKEEPER_BITS_PER_ENTRY = 16;
+  private static final int DOORKEEPER_MAXIMUM_BITS = 1 << 30;
+
+  private final AtomicReferenceArray<Entry<V>> slots;
+  private final AtomicIntegerArray hands;
+  private final int setMask;
+  private final AtomicLongArray doorkeeper;
+  private final int doorkeeperMask;
+  private final long doorkeeperWindow;
+  private final int doorkeeperSampleMask;
+  private final int doorkeeperSeed;
+  private final LongAdder doorkeeperCount;
+  private final LongAdder hits;
+  private final LongAdder misses;
+  private final LongAdder admissions;
+  private final LongAdder rejections;
+  private final LongAdder evictions;
+
+  private static final class Entry<V>
+  {
+    private final String key;
+    private final int hash;
+    private final V value;
+    private volatile boolean referenced;
+
+    Entry(
+      final String inKey,
+      final int inHash,
+      final V inValue)
+    {
+      this.key = inKey;
+      this.hash = inHash;
+      this.value = inValue;
+    }
+  }
+
+  /**
+   * A bounded, concurrent cache.
+   *
+   * @param maxEntries    The maximum number of entries; this is rounded up to
+   *                      a power of two that is at least {@link #WAYS}
+   * @param useDoorkeeper {@code true} if keys should only be admitted on the
+   *                      second time they are offered
+   */
+
+  public MimeBoundedCache(
+    final int maxEntries,
+    final boolean useDoorkeeper)
+  {
+    if (maxEntries <= 0) {
+      throw new IllegalArgumentException(
+        "Maximum entries %d must be positive"
+          .formatted(Integer.valueOf(maxEntries))
+      );
+    }
+
+    final var capacity =
+      Math.max(WAYS, roundUpPowerOfTwo(maxEntries));
+    final var sets =
+      capacity / WAYS;
+
+    this.slots = new AtomicReferenceArray<>(capacity);
+    this.hands = new AtomicIntegerArray(sets);
+    this.setMask = sets - 1;
+
+    if (useDoorkeeper) {
+      final var bits = (int) Math.min(
+        (long) capacity * DOORKEEPER_BITS_PER_ENTRY,
+        DOORKEEPER_MAXIMUM_BITS
+      );
+      this.doorkeeper = new AtomicLongArray(bits / 64);
+      this.doorkeeperMask = bits - 1;
+      this.doorkeeperWindow = bits / DOORKEEPER_BITS_PER_ENTRY;
+      this.doorkeeperSampleMask = Math.max(0, Math.min(63, capacity / 16 - 1));
+      this.doorkeeperSeed = ThreadLocalRandom.current().nextInt();
+    } else {
+      this.doorkeeper = null;
+      this.doorkeeperMask = 0;
+      this.doorkeeperWindow = 0L;
+      this.doorkeeperSampleMask = 0;
+      this.doorkeeperSeed = 0;
+    }
+
+    this.doorkeeperCount = new LongAdder();
+    this.hits = new LongAdder();
+    this.misses = new LongAdder();
+    this.admissions = new LongAdder();
+    this.rejections = new LongAdder();
+    this.evictions = new LongAdder();
+  }
+
+  private static int roundUpPowerOfTwo(
+    final int x)
+  {
+    if (x >= 1 << 30) {
+      return 1 << 30;
+    }
+    return Integer.highestOneBit(Math.max(1, x - 1)) << 1;
+  }
+
+  private static int spread(
+    final int hash)
+  {
+    final var h = hash * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  /**
+   * Compute the hash of a range of characters. The result is the same as
+   * {@link String#hashCode()} for the equivalent string.
+   *
+   * @param text  The text
+   * @param start The starting offset (inclusive)
+   * @param end   The ending offset (exclusive)
+   *
+   * @return The hash code
+   */
+
+  public static int hashOf(
+    final CharSequence text,
+    final int start,
+    final int end)
+  {
+    if (start == 0 && end == text.length() && text instanceof String) {
+      return text.hashCode();
+    }
+
+    int h = 0;
+    for (int index = start; index < end; ++index) {
+      h = 31 * h + text.charAt(index);
+    }
+    return h;
+  }
+
+  private static boolean keyMatches(
+    final String key,
+    final CharSequence text,
+    final int start,
+    final int end)
+  {
+    final var length = end - start;
+    if (key.length() != length) {
+      return false;
+    }
+    if (text instanceof String string) {
+      return key.regionMatches(0, string, start, length);
+    }
+    for (int index = 0; index < length; ++index) {
+      if (key.charAt(index) != text.charAt(start + index)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Find the value associated with the given range of characters.
+   *
+   * @param text  The text
+   * @param start The starting offset (inclusive)
+   * @param end   The ending offset (exclusive)
+   * @param hash  The hash of the range, as computed by
+   *              {@link #hashOf(CharSequence, int, int)}
+   *
+   * @return The value, or {@code null} if no value is cached
+   */
+
+  public V get(
+    final CharSequence text,
+    final int start,
+    final int end,
+    final int hash)
+  {
+    final var base = (spread(hash) & this.setMask) * WAYS;
+    for (int way = 0; way < WAYS; ++way) {
+      final var entry = this.slots.get(base + way);
+      if (entry != null
+          && entry.hash == hash
+          && keyMatches(entry.key, text, start, end)) {
+        if (!entry.referenced) {
+          entry.referenced = true;
+        }
+        this.hits.increment();
+        return entry.value;
+      }
+    }
+
+    this.misses.increment();
+    return null;
+  }
+
+  /**
+   * Offer a value for the given range of characters. The value might not be
+   * admitted to the cache.
+   *
+   * @param text  The text
+   * @param start The starting offset (inclusive)
+   * @param end   The ending offset (exclusive)
+   * @param hash  The hash of the range, as computed by
+   *              {@link #hashOf(CharSequence, int, int)}
+   * @param value The value
+   */
+
+  public void put(
+    final CharSequence text,
+    final int start,
+    final int end,
+    final int hash,
+    final V value)
+  {
+    Objects.requireNonNull(value, "value");
+
+    if (!this.admit(text, start, end)) {
+      this.rejections.increment();
+      return;
+    }
+
+    final var set = spread(hash) & this.setMask;
+    final var base = set * WAYS;
+
+    for (int way = 0; way < WAYS; ++way) {
+      final var existing = this.slots.get(base + way);
+      if (existing != null
+          && existing.hash == hash
+          && keyMatches(existing.key, text, start, end)) {
+        return;
+      }
+    }
+
+    final var entry =
+      new Entry<>(MimeScanner.substring(text, start, end), hash, value);
+
+    /*
+     * Sweep the set at most twice, starting at the set's clock hand. The
+     * first sweep clears reference bits, so the second sweep is guaranteed
+     * to find a victim unless other threads are concurrently touching the
+     * same set, in which case the insertion is simply abandoned.
+     */
+
+    final var hand = this.hands.getAndIncrement(set);
+    for (int step = 0; step < WAYS * 2; ++step) {
+      final var index = base + ((hand + step) & (WAYS - 1));
+      final var current = this.slots.get(index);
+      if (current == null) {
+        if (this.slots.compareAndSet(index, null, entry)) {
+          this.admissions.increment();
+          return;
+        }
+        continue;
+      }
+      if (current.referenced) {
+        current.referenced = false;
+        continue;
+      }
+      if (this.slots.compareAndSet(index, current, entry)) {
+        this.admissions.increment();
+        this.evictions.increment();
+        return;
+      }
+    }
+  }
+
+  private int doorkeeperHash(
+    final CharSequence text,
+    final int start,
+    final int end)
+  {
+    int h = this.doorkeeperSeed;
+    for (int index = start; index < end; ++index) {
+      h = (h ^ text.charAt(index)) * 0x01000193;
+    }
+    return spread(h ^ this.doorkeeperSeed);
+  }
+
+  private boolean admit(
+    final CharSequence text,
+    final int start,
+    final int end)
+  {
+    final var filter = this.doorkeeper;
+    if (filter == null) {
+      return true;
+    }
+
+    final var h = this.doorkeeperHash(text, start, end);
+    final var bit0 = h & this.doorkeeperMask;
+    final var bit1 = Integer.rotateLeft(h, 16) & this.doorkeeperMask;
+    final var mask0 = 1L << (bit0 & 63);
+    final var mask1 = 1L << (bit1 & 63);
+
+    final var seen =
+      (filter.get(bit0 >>> 6) & mask0) != 0L
+        && (filter.get(bit1 >>> 6) & mask1) != 0L;
+
+    if (seen) {
+      return true;
+    }
+
+    filter.accumulateAndGet(bit0 >>> 6, mask0, (x, y) -> x | y);
+    filter.accumulateAndGet(bit1 >>> 6, mask1, (x, y) -> x | y);
+
+    /*
+     * The count is striped so that threads refusing keys concurrently do
+     * not contend on it. Summing the stripes reads every one of them, so
+     * the sum is only checked for a sample of the refused keys, chosen by
+     * the seeded hash. The filter is therefore cleared slightly after the
+     * window has passed, by at most a sixteenth of the window on average.
+     * Racing threads might both clear the filter, which is harmless.
+     */
+
+    final var count = this.doorkeeperCount;
+    count.increment();
+    if (((h >>> 26) & this.doorkeeperSampleMask) == 0
+        && count.sum() >= this.doorkeeperWindow) {
+      count.reset();
+      for (int index = 0; index < filter.length(); ++index) {
+        filter.set(index, 0L);
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return The number of lookups that found a value
+   */
+
+  public long hits()
+  {
+    return this.hits.sum();
+  }
+
+  /**
+   * @return The number of lookups that did not find a value
+   */
+
+  public long misses()
+  {
+    return this.misses.sum();
+  }
+
+  /**
+   * @return The number of values admitted to the cache
+   */
+
+  public long admissions()
+  {
+    return this.admissions.sum();
+  }
+
+  /**
+   * @return The number of values refused by the doorkeeper
+   */
+
+  public long rejections()
+  {
+    return this.rejections.sum();
+  }
+
+  /**
+   * @return The number of values evicted from the cache
+   */
+
+  public long evictions()
+  {
+    return this.evictions.sum();
+  }
+
+  /**
+   * @return The maximum number of entries in the cache
+   */
+
+  public int capacity()
+  {
+    return this.slots.length();
+  }
+
+  /**
+   * @return The current number of entries in the cache
+   */
+
+  public int size()
+  {
+    int count = 0;
+    for (int index = 0; index < this.slots.length(); ++index) {
+      if (this.slots.get(index) != null) {
+        ++count;
+      }
+    }
+    return count;
+  }
+}
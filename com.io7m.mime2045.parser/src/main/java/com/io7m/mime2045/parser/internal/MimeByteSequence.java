@@ -0,0 +1,209 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.mime2045.parser.internal;
+
+import com.io7m.mime2045.core.MimeCharacters;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * A read-only view of a range of bytes as a sequence of characters. Each
+ * byte is read as a single character in the range {@code [0, 255]}, which
+ * is correct for US-ASCII and guarantees that any byte outside of that range
+ * produces a character that the parsers reject. The bytes are read in place
+ * and are never copied; a view of a {@link ByteBuffer} uses absolute reads,
+ * so the buffer's position and limit are never modified.
+ */
+
+public final class MimeByteSequence implements CharSequence
+{
+  private final byte[] array;
+  private final ByteBuffer buffer;
+  private final int offset;
+  private final int length;
+
+  private MimeByteSequence(
+    final byte[] inArray,
+    final ByteBuffer inBuffer,
+    final int inOffset,
+    final int inLength)
+  {
+    this.array = inArray;
+    this.buffer = inBuffer;
+    this.offset = inOffset;
+    this.length = inLength;
+  }
+
+  /**
+   * A view of a range of an array.
+   *
+   * @param data   The array
+   * @param offset The offset of the first byte
+   * @param length The number of bytes
+   *
+   * @return A view of the bytes
+   */
+
+  public static MimeByteSequence ofArray(
+    final byte[] data,
+    final int offset,
+    final int length)
+  {
+    Objects.checkFromIndexSize(offset, length, data.length);
+    return new MimeByteSequence(data, null, offset, length);
+  }
+
+  /**
+   * A view of the bytes between the position and limit of a buffer.
+   *
+   * @param buffer The buffer
+   *
+   * @return A view of the bytes
+   */
+
+  public static MimeByteSequence ofBuffer(
+    final ByteBuffer buffer)
+  {
+    Objects.requireNonNull(buffer, "buffer");
+
+    if (buffer.hasArray()) {
+      return new MimeByteSequence(
+        buffer.array(),
+        null,
+        buffer.arrayOffset() + buffer.position(),
+        buffer.remaining()
+      );
+    }
+    return new MimeByteSequence(
+      null,
+      buffer,
+      buffer.position(),
+      buffer.remaining()
+    );
+  }
+
+  @Override
+  public int length()
+  {
+    return this.length;
+  }
+
+  @Override
+  public char charAt(
+    final int index)
+  {
+    Objects.checkIndex(index, this.length);
+    if (this.array != null) {
+      return (char) (this.array[this.offset + index] & 0xff);
+    }
+    return (char) (this.buffer.get(this.offset + index) & 0xff);
+  }
+
+  /**
+   * Find the end of the run of token characters that starts at the given
+   * offset. Array-backed views are examined eight bytes at a time.
+   *
+   * @param start The starting offset (inclusive)
+   * @param end   The ending offset (exclusive)
+   *
+   * @return The offset of the first character in the range that cannot
+   * appear in an unquoted token, or {@code end}
+   *
+   * @see MimeCharacters#firstDisallowedBareByte(byte[], int, int)
+   */
+
+  public int tokenEnd(
+    final int start,
+    final int end)
+  {
+    Objects.checkFromToIndex(start, end, this.length);
+
+    if (this.array != null) {
+      final var bad = MimeCharacters.firstDisallowedBareByte(
+        this.array, this.offset + start, end - start);
+      return bad < 0 ? end : bad - this.offset;
+    }
+
+    int index = start;
+    while (index < end
+           && MimeCharacters.characterIsAllowedBare(this.charAt(index))) {
+      ++index;
+    }
+    return index;
+  }
+
+  /**
+   * Copy a range of characters into a new string.
+   *
+   * @param start The starting offset (inclusive)
+   * @param end   The ending offset (exclusive)
+   *
+   * @return A string
+   */
+
+  public String substring(
+    final int start,
+    final int end)
+  {
+    Objects.checkFromToIndex(start, end, this.length);
+
+    /*
+     * ISO-8859-1 maps each byte to the character of the same value, and
+     * the decoder copies the bytes directly into the string's own storage.
+     */
+
+    final var count = end - start;
+    if (this.array != null) {
+      return new String(
+        this.array,
+        this.offset + start,
+        count,
+        StandardCharsets.ISO_8859_1
+      );
+    }
+
+    /*
+     * Buffers without an accessible array must be copied out first.
+     */
+
+    final var bytes = new byte[count];
+    this.buffer.get(this.offset + start, bytes);
+    return new String(bytes, StandardCharsets.ISO_8859_1);
+  }
+
+  @Override
+  public CharSequence subSequence(
+    final int start,
+    final int end)
+  {
+    Objects.checkFromToIndex(start, end, this.length);
+    return new MimeByteSequence(
+      this.array,
+      this.buffer,
+      this.offset + start,
+      end - start
+    );
+  }
+
+  @Override
+  public String toString()
+  {
+    return this.substring(0, this.length);
+  }
+}
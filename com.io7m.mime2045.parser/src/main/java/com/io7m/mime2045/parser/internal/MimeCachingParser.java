@@ -0,0 +1,225 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.mime2045.parser.internal;
+
+import com.io7m.mime2045.core.MimeType;
+import com.io7m.mime2045.parser.api.MimeCachingParserType;
+import com.io7m.mime2045.parser.api.MimeParseCacheStatistics;
+import com.io7m.mime2045.parser.api.MimeParseException;
+import com.io7m.mime2045.parser.api.MimeParseResultType;
+import com.io7m.mime2045.parser.api.MimeParserType;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * A parser that caches the results of another parser, keyed by the raw
+ * text of the input. Only successful results are cached, and the cached
+ * results are shared between {@code parse} and {@code tryParse} so that
+ * neither allocates on a cache hit.
+ */
+
+public final class MimeCachingParser implements MimeCachingParserType
+{
+  private final MimeParserType delegate;
+  private final MimeBoundedCache<MimeParseResultType.Success> cache;
+
+  /**
+   * A parser that caches the results of another parser.
+   *
+   * @param inDelegate The parser that handles cache misses
+   * @param inCache    The cache
+   */
+
+  public MimeCachingParser(
+    final MimeParserType inDelegate,
+    final MimeBoundedCache<MimeParseResultType.Success> inCache)
+  {
+    this.delegate = Objects.requireNonNull(inDelegate, "delegate");
+    this.cache = Objects.requireNonNull(inCache, "cache");
+  }
+
+  @Override
+  public MimeType parse(
+    final String text)
+    throws MimeParseException
+  {
+    final var length = text.length();
+    final var hash = text.hashCode();
+    final var cached = this.cache.get(text, 0, length, hash);
+    if (cached != null) {
+      return cached.type();
+    }
+
+    final var result = this.delegate.parse(text);
+    this.cache.put(text, 0, length, hash, new MimeParseResultType.Success(result));
+    return result;
+  }
+
+  @Override
+  public MimeType parse(
+    final CharSequence text,
+    final int start,
+    final int end)
+    throws MimeParseException
+  {
+    Objects.checkFromToIndex(start, end, text.length());
+
+    final var hash = MimeBoundedCache.hashOf(text, start, end);
+    final var cached = this.cache.get(text, start, end, hash);
+    if (cached != null) {
+      return cached.type();
+    }
+
+    final var result = this.delegate.parse(text, start, end);
+    this.cache.put(text, start, end, hash, new MimeParseResultType.Success(result));
+    return result;
+  }
+
+  @Override
+  public MimeType parse(
+    final byte[] data,
+    final int offset,
+    final int length)
+    throws MimeParseException
+  {
+    final var text = MimeByteSequence.ofArray(data, offset, length);
+    final var hash = MimeBoundedCache.hashOf(text, 0, length);
+    final var cached = this.cache.get(text, 0, length, hash);
+    if (cached != null) {
+      return cached.type();
+    }
+
+    final var result = this.delegate.parse(data, offset, length);
+    this.cache.put(text, 0, length, hash, new MimeParseResultType.Success(result));
+    return result;
+  }
+
+  @Override
+  public MimeType parse(
+    final ByteBuffer buffer)
+    throws MimeParseException
+  {
+    final var text = MimeByteSequence.ofBuffer(buffer);
+    final var length = text.length();
+    final var hash = MimeBoundedCache.hashOf(text, 0, length);
+    final var cached = this.cache.get(text, 0, length, hash);
+    if (cached != null) {
+      return cached.type();
+    }
+
+    final var result = this.delegate.parse(buffer);
+    this.cache.put(text, 0, length, hash, new MimeParseResultType.Success(result));
+    return result;
+  }
+
+  @Override
+  public MimeParseResultType tryParse(
+    final String text)
+  {
+    final var length = text.length();
+    final var hash = text.hashCode();
+    final var cached = this.cache.get(text, 0, length, hash);
+    if (cached != null) {
+      return cached;
+    }
+
+    final var result = this.delegate.tryParse(text);
+    this.remember(text, 0, length, hash, result);
+    return result;
+  }
+
+  @Override
+  public MimeParseResultType tryParse(
+    final CharSequence text,
+    final int start,
+    final int end)
+  {
+    Objects.checkFromToIndex(start, end, text.length());
+
+    final var hash = MimeBoundedCache.hashOf(text, start, end);
+    final var cached = this.cache.get(text, start, end, hash);
+    if (cached != null) {
+      return cached;
+    }
+
+    final var result = this.delegate.tryParse(text, start, end);
+    this.remember(text, start, end, hash, result);
+    return result;
+  }
+
+  @Override
+  public MimeParseResultType tryParse(
+    final byte[] data,
+    final int offset,
+    final int length)
+  {
+    final var text = MimeByteSequence.ofArray(data, offset, length);
+    final var hash = MimeBoundedCache.hashOf(text, 0, length);
+    final var cached = this.cache.get(text, 0, length, hash);
+    if (cached != null) {
+      return cached;
+    }
+
+    final var result = this.delegate.tryParse(data, offset, length);
+    this.remember(text, 0, length, hash, result);
+    return result;
+  }
+
+  @Override
+  public MimeParseResultType tryParse(
+    final ByteBuffer buffer)
+  {
+    final var text = MimeByteSequence.ofBuffer(buffer);
+    final var length = text.length();
+    final var hash = MimeBoundedCache.hashOf(text, 0, length);
+    final var cached = this.cache.get(text, 0, length, hash);
+    if (cached != null) {
+      return cached;
+    }
+
+    final var result = this.delegate.tryParse(buffer);
+    this.remember(text, 0, length, hash, result);
+    return result;
+  }
+
+  private void remember(
+    final CharSequence text,
+    final int start,
+    final int end,
+    final int hash,
+    final MimeParseResultType result)
+  {
+    if (result instanceof MimeParseResultType.Success success) {
+      this.cache.put(text, start, end, hash, success);
+    }
+  }
+
+  @Override
+  public MimeParseCacheStatistics cacheStatistics()
+  {
+    return new MimeParseCacheStatistics(
+      this.cache.hits(),
+      this.cache.misses(),
+      this.cache.admissions(),
+      this.cache.rejections(),
+      this.cache.evictions(),
+      this.cache.size(),
+      this.cache.capacity()
+    );
+  }
+}
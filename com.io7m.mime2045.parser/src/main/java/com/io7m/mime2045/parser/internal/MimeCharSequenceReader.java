@@ -0,0 +1,104 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.mime2045.parser.internal;
+
+import java.io.Reader;
+import java.util.Objects;
+
+/**
+ * A resettable reader over a range of characters. Unlike
+ * {@link java.io.StringReader}, a single instance can be pointed at any
+ * number of inputs in turn, and reading does not require synchronization.
+ * Instances are not thread-safe.
+ */
+
+public final class MimeCharSequenceReader extends Reader
+{
+  private CharSequence text;
+  private int position;
+  private int end;
+
+  /**
+   * A resettable reader over a range of characters.
+   */
+
+  public MimeCharSequenceReader()
+  {
+    this.text = "";
+    this.position = 0;
+    this.end = 0;
+  }
+
+  /**
+   * Reset the reader so that it reads the given range of characters.
+   *
+   * @param inText  The text
+   * @param inStart The starting offset (inclusive)
+   * @param inEnd   The ending offset (exclusive)
+   */
+
+  public void reset(
+    final CharSequence inText,
+    final int inStart,
+    final int inEnd)
+  {
+    Objects.requireNonNull(inText, "text");
+    Objects.checkFromToIndex(inStart, inEnd, inText.length());
+    this.text = inText;
+    this.position = inStart;
+    this.end = inEnd;
+  }
+
+  @Override
+  public int read(
+    final char[] buffer,
+    final int offset,
+    final int length)
+  {
+    Objects.checkFromIndexSize(offset, length, buffer.length);
+
+    if (length == 0) {
+      return 0;
+    }
+
+    final var remaining = this.end - this.position;
+    if (remaining <= 0) {
+      return -1;
+    }
+
+    final var count = Math.min(remaining, length);
+    final var source = this.text;
+    if (source instanceof String string) {
+      string.getChars(this.position, this.position + count, buffer, offset);
+    } else {
+      for (int index = 0; index < count; ++index) {
+        buffer[offset + index] = source.charAt(this.position + index);
+      }
+    }
+
+    this.position += count;
+    return count;
+  }
+
+  @Override
+  public void close()
+  {
+    this.text = "";
+    this.position = 0;
+    this.end = 0;
+  }
+}
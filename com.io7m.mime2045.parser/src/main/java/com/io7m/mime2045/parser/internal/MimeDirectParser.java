@@ -0,0 +1,248 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.mime2045.parser.internal;
+
+import com.io7m.mime2045.core.MimeCharacters;
+import com.io7m.mime2045.core.MimeType;
+import com.io7m.mime2045.core.MimeTypeParameter;
+import com.io7m.mime2045.parser.api.MimeParseException;
+import com.io7m.mime2045.parser.api.MimeParseResultType;
+import com.io7m.mime2045.parser.api.MimeParserType;
+import com.io7m.mime2045.parser.internal.MimeScanner.Kind;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.io7m.mime2045.parser.api.MimeParseErrorCode.EXPECTED_EQUALS;
+import static com.io7m.mime2045.parser.api.MimeParseErrorCode.EXPECTED_SEMICOLON;
+import static com.io7m.mime2045.parser.api.MimeParseErrorCode.EXPECTED_SLASH;
+import static com.io7m.mime2045.parser.api.MimeParseErrorCode.EXPECTED_TOKEN;
+import static com.io7m.mime2045.parser.api.MimeParseErrorCode.EXPECTED_VALUE;
+import static com.io7m.mime2045.parser.api.MimeParseErrorCode.INVALID_PARAMETER_VALUE;
+
+/**
+ * A hand-written parser that scans the input in a single pass, without
+ * the JFlex-generated lexer. The parser accepts and rejects exactly the same
+ * inputs as {@link MimeParser}. Errors are recorded in the scanner rather
+ * than thrown, and an exception is only constructed if the caller asked for
+ * one.
+ */
+
+public final class MimeDirectParser implements MimeParserType
+{
+  private final Map<String, String> options;
+
+  /**
+   * A hand-written parser.
+   *
+   * @param inOptions The options
+   */
+
+  public MimeDirectParser(
+    final Map<String, String> inOptions)
+  {
+    this.options = Map.copyOf(inOptions);
+  }
+
+  /**
+   * Parse a type, recording any error in the scanner.
+   *
+   * @param scanner The scanner
+   *
+   * @return The type, or {@code null} on errors
+   */
+
+  private static MimeType run(
+    final MimeScanner scanner)
+  {
+    if (scanner.next() != Kind.TOKEN) {
+      return scanner.fail(EXPECTED_TOKEN);
+    }
+    final var type = scanner.tokenValue();
+
+    if (scanner.next() != Kind.SLASH) {
+      return scanner.fail(EXPECTED_SLASH);
+    }
+
+    if (scanner.next() != Kind.TOKEN) {
+      return scanner.fail(EXPECTED_TOKEN);
+    }
+    return withParameters(scanner, type, scanner.tokenValue());
+  }
+
+  private static MimeType withParameters(
+    final MimeScanner scanner,
+    final String type,
+    final String subtype)
+  {
+    var kind = scanner.next();
+    if (kind == Kind.EOF) {
+      return new MimeType(type, subtype, List.of());
+    }
+    if (kind != Kind.SEMICOLON) {
+      return scanner.fail(EXPECTED_SEMICOLON);
+    }
+
+    final var parameters = new ArrayList<MimeTypeParameter>(4);
+    while (true) {
+      final var parameter = parameter(scanner);
+      if (parameter == null) {
+        return null;
+      }
+      parameters.add(parameter);
+
+      kind = scanner.next();
+      if (kind == Kind.EOF) {
+        return new MimeType(type, subtype, parameters);
+      }
+      if (kind != Kind.SEMICOLON) {
+        return scanner.fail(EXPECTED_SEMICOLON);
+      }
+    }
+  }
+
+  private static MimeTypeParameter parameter(
+    final MimeScanner scanner)
+  {
+    if (scanner.next() != Kind.TOKEN) {
+      return scanner.fail(EXPECTED_TOKEN);
+    }
+    final var name = scanner.tokenValue();
+
+    if (scanner.next() != Kind.EQUALS) {
+      return scanner.fail(EXPECTED_EQUALS);
+    }
+
+    final var kind = scanner.next();
+    if (kind != Kind.TOKEN && kind != Kind.QUOTED) {
+      return scanner.fail(EXPECTED_VALUE);
+    }
+
+    final var value = scanner.tokenValue();
+    if (kind == Kind.QUOTED && MimeCharacters.firstDisallowedQuoted(value) >= 0) {
+      return scanner.fail(INVALID_PARAMETER_VALUE);
+    }
+    return new MimeTypeParameter(name, value);
+  }
+
+  private static MimeType parseWith(
+    final MimeScanner scanner)
+    throws MimeParseException
+  {
+    final var type = run(scanner);
+    if (type == null) {
+      throw scanner.exception();
+    }
+    return type;
+  }
+
+  private static MimeParseResultType tryParseWith(
+    final MimeScanner scanner)
+  {
+    final var type = run(scanner);
+    if (type == null) {
+      return scanner.failure();
+    }
+    return new MimeParseResultType.Success(type);
+  }
+
+  private static MimeScanner scannerOf(
+    final byte[] data,
+    final int offset,
+    final int length)
+  {
+    return new MimeScanner(
+      MimeByteSequence.ofArray(data, offset, length), 0, length);
+  }
+
+  private static MimeScanner scannerOf(
+    final ByteBuffer buffer)
+  {
+    final var text = MimeByteSequence.ofBuffer(buffer);
+    return new MimeScanner(text, 0, text.length());
+  }
+
+  @Override
+  public MimeType parse(
+    final String text)
+    throws MimeParseException
+  {
+    return parseWith(new MimeScanner(text, 0, text.length()));
+  }
+
+  @Override
+  public MimeType parse(
+    final CharSequence text,
+    final int start,
+    final int end)
+    throws MimeParseException
+  {
+    return parseWith(new MimeScanner(text, start, end));
+  }
+
+  @Override
+  public MimeType parse(
+    final byte[] data,
+    final int offset,
+    final int length)
+    throws MimeParseException
+  {
+    return parseWith(scannerOf(data, offset, length));
+  }
+
+  @Override
+  public MimeType parse(
+    final ByteBuffer buffer)
+    throws MimeParseException
+  {
+    return parseWith(scannerOf(buffer));
+  }
+
+  @Override
+  public MimeParseResultType tryParse(
+    final String text)
+  {
+    return tryParseWith(new MimeScanner(text, 0, text.length()));
+  }
+
+  @Override
+  public MimeParseResultType tryParse(
+    final CharSequence text,
+    final int start,
+    final int end)
+  {
+    return tryParseWith(new MimeScanner(text, start, end));
+  }
+
+  @Override
+  public MimeParseResultType tryParse(
+    final byte[] data,
+    final int offset,
+    final int length)
+  {
+    return tryParseWith(scannerOf(data, offset, length));
+  }
+
+  @Override
+  public MimeParseResultType tryParse(
+    final ByteBuffer buffer)
+  {
+    return tryParseWith(scannerOf(buffer));
+  }
+}
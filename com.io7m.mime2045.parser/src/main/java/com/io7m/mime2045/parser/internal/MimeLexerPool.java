@@ -0,0 +1,118 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.mime2045.parser.internal;
+
+import java.io.Reader;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded pool of lexers. Lexers are taken from the pool for the
+ * duration of a single parse and then returned; if the pool is empty, a new
+ * lexer is created, and if the pool is full, a returned lexer is simply
+ * discarded. The pool does not use thread-local storage and never blocks,
+ * and so is equally safe to use from platform threads and virtual threads.
+ */
+
+public final class MimeLexerPool
+{
+  private final AtomicReferenceArray<MimeLexer> slots;
+
+  /**
+   * A bounded pool of lexers.
+   *
+   * @param size The maximum number of idle lexers retained by the pool
+   */
+
+  public MimeLexerPool(
+    final int size)
+  {
+    if (size < 0) {
+      throw new IllegalArgumentException(
+        "Pool size %d must be non-negative".formatted(Integer.valueOf(size))
+      );
+    }
+    this.slots = new AtomicReferenceArray<>(size);
+  }
+
+  /**
+   * Take a lexer from the pool (or create a new one), and reset it so that
+   * it reads the given range of characters.
+   *
+   * @param text  The text
+   * @param start The starting offset (inclusive)
+   * @param end   The ending offset (exclusive)
+   *
+   * @return A lexer
+   */
+
+  public MimeLexer acquire(
+    final CharSequence text,
+    final int start,
+    final int end)
+  {
+    final var size = this.slots.length();
+
+    MimeLexer lexer = null;
+    if (size > 0) {
+      final var first = ThreadLocalRandom.current().nextInt(size);
+      for (int index = 0; index < size; ++index) {
+        final var slot = (first + index) % size;
+        if (this.slots.get(slot) != null) {
+          lexer = this.slots.getAndSet(slot, null);
+          if (lexer != null) {
+            break;
+          }
+        }
+      }
+    }
+
+    if (lexer == null) {
+      lexer = new MimeLexer(Reader.nullReader());
+    }
+
+    lexer.reset(text, start, end);
+    return lexer;
+  }
+
+  /**
+   * Return a lexer to the pool. The lexer is reset so that the pool does not
+   * retain a reference to the most recently parsed input.
+   *
+   * @param lexer The lexer
+   */
+
+  public void release(
+    final MimeLexer lexer)
+  {
+    final var size = this.slots.length();
+    if (size == 0) {
+      return;
+    }
+
+    lexer.reset("", 0, 0);
+
+    final var first = ThreadLocalRandom.current().nextInt(size);
+    for (int index = 0; index < size; ++index) {
+      final var slot = (first + index) % size;
+      if (this.slots.get(slot) == null
+          && this.slots.compareAndSet(slot, null, lexer)) {
+        return;
+      }
+    }
+  }
+}
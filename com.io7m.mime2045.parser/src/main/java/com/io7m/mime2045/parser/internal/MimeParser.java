@@ -16,10 +16,14 @@
 
 package com.io7m.mime2045.parser.internal;
 
+import com.io7m.mime2045.core.MimeCharacters;
 import com.io7m.mime2045.core.MimeType;
 import com.io7m.mime2045.core.MimeTypeParameter;
+import com.io7m.mime2045.parser.api.MimeParseErrorCode;
 import com.io7m.mime2045.parser.api.MimeParseException;
+import com.io7m.mime2045.parser.api.MimeParseResultType;
 import com.io7m.mime2045.parser.api.MimeParserType;
+import com.io7m.mime2045.parser.internal.MimeTokenType.EOF;
 import com.io7m.mime2045.parser.internal.MimeTokenType.Equals;
 import com.io7m.mime2045.parser.internal.MimeTokenType.Quoted;
 import com.io7m.mime2045.parser.internal.MimeTokenType.Semicolon;
@@ -27,13 +31,19 @@ import com.io7m.mime2045.parser.internal.MimeTokenType.Slash;
 import com.io7m.mime2045.parser.internal.MimeTokenType.Token;
 
 import java.io.IOException;
-import java.io.StringReader;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Objects;
+
+import static com.io7m.mime2045.parser.api.MimeParseErrorCode.EXPECTED_EQUALS;
+import static com.io7m.mime2045.parser.api.MimeParseErrorCode.EXPECTED_SEMICOLON;
+import static com.io7m.mime2045.parser.api.MimeParseErrorCode.EXPECTED_SLASH;
+import static com.io7m.mime2045.parser.api.MimeParseErrorCode.EXPECTED_TOKEN;
+import static com.io7m.mime2045.parser.api.MimeParseErrorCode.EXPECTED_VALUE;
+import static com.io7m.mime2045.parser.api.MimeParseErrorCode.INVALID_PARAMETER_VALUE;
+import static com.io7m.mime2045.parser.api.MimeParseErrorCode.SYNTAX_ERROR;
 
 /**
  * The default parser.
@@ -42,6 +52,7 @@ import java.util.stream.Collectors;
 public final class MimeParser implements MimeParserType
 {
   private final Map<String, String> options;
+  private final MimeLexerPool lexers;
 
   /**
    * The default parser.
@@ -51,144 +62,287 @@ public final class MimeParser implements MimeParserType
 
   public MimeParser(
     final Map<String, String> inOptions)
+  {
+    this(inOptions, new MimeLexerPool(defaultPoolSize()));
+  }
+
+  /**
+   * The default parser.
+   *
+   * @param inOptions The options
+   * @param inLexers  The pool of lexers
+   */
+
+  public MimeParser(
+    final Map<String, String> inOptions,
+    final MimeLexerPool inLexers)
   {
     this.options = Map.copyOf(inOptions);
+    this.lexers = Objects.requireNonNull(inLexers, "lexers");
   }
 
-  private static MimeType parseWithLexer(
-    final MimeLexer lexer)
-    throws MimeParseException
+  /**
+   * @return The default size of the lexer pool
+   */
+
+  public static int defaultPoolSize()
   {
-    final var type =
-      exact(lexer, Token.class);
+    return 2 * Runtime.getRuntime().availableProcessors();
+  }
 
-    exact(lexer, Slash.class);
+  /**
+   * An error encountered by a parse. The parsing methods return either
+   * their result or an error state, so that an error state is only created
+   * when a parse fails.
+   */
 
-    final var subtype =
-      exact(lexer, Token.class);
+  private static final class ErrorState
+  {
+    private final MimeParseErrorCode code;
+    private final MimeTokenType token;
+    private final int offset;
+    private final IOException exception;
 
-    final var semi =
-      optional(lexer, Semicolon.class);
+    private ErrorState(
+      final MimeParseErrorCode inCode,
+      final MimeTokenType inToken,
+      final int inOffset,
+      final IOException inException)
+    {
+      this.code = inCode;
+      this.token = inToken;
+      this.offset = inOffset;
+      this.exception = inException;
+    }
 
-    if (semi.isEmpty()) {
-      return new MimeType(type.value(), subtype.value(), List.of());
+    static ErrorState fail(
+      final MimeParseErrorCode code,
+      final MimeTokenType token,
+      final MimeLexer lexer)
+    {
+      return new ErrorState(code, token, lexer.offset(), null);
     }
 
-    lexer.pushBack(semi.get());
-    return new MimeType(type.value(), subtype.value(), parseParameters(lexer));
-  }
+    static ErrorState fail(
+      final IOException e,
+      final MimeLexer lexer)
+    {
+      return new ErrorState(SYNTAX_ERROR, null, lexer.offset(), e);
+    }
 
-  private static List<MimeTypeParameter> parseParameters(
-    final MimeLexer lexer)
-    throws MimeParseException
-  {
-    final var parameters =
-      new ArrayList<MimeTypeParameter>();
+    MimeParseResultType.Failure failure()
+    {
+      return new MimeParseResultType.Failure(this.code, this.offset);
+    }
 
-    while (true) {
-      final var semi =
-        exact(lexer, Semicolon.class);
-      final var name =
-        exact(lexer, Token.class);
-      final var eq =
-        exact(lexer, Equals.class);
-      final var value =
-        oneOf(lexer, Token.class, Quoted.class);
-
-      final String valueText;
-      if (value instanceof Token token) {
-        valueText = token.value();
-      } else if (value instanceof Quoted quoted) {
-        valueText = quoted.value();
-      } else {
-        throw new IllegalStateException("Unreachable code.");
+    MimeParseException exception(
+      final MimeLexer lexer)
+    {
+      if (this.exception != null) {
+        return new MimeParseException(
+          lexer.position(),
+          String.valueOf(this.exception.getMessage()),
+          this.exception
+        );
       }
 
-      parameters.add(new MimeTypeParameter(name.value(), valueText));
+      return new MimeParseException(
+        this.token.lexical(),
+        "Syntax error: Expected %s but received: %s"
+          .formatted(this.code.expected(), this.token)
+      );
+    }
+  }
 
-      final var semiNext =
-        optional(lexer, Semicolon.class);
+  /**
+   * Parse a type.
+   *
+   * @param lexer The lexer
+   *
+   * @return The {@link MimeType}, or an {@link ErrorState} on errors
+   */
 
-      if (semiNext.isEmpty()) {
-        return List.copyOf(parameters);
-      }
+  private static Object run(
+    final MimeLexer lexer)
+  {
+    try {
+      return runWithLexer(lexer);
+    } catch (final IOException e) {
+      return ErrorState.fail(e, lexer);
+    }
+  }
 
-      lexer.pushBack(semiNext.get());
+  private static Object runWithLexer(
+    final MimeLexer lexer)
+    throws IOException
+  {
+    final var typeToken = lexer.token();
+    if (!(typeToken instanceof Token type)) {
+      return ErrorState.fail(EXPECTED_TOKEN, typeToken, lexer);
     }
+
+    final var slash = lexer.token();
+    if (!(slash instanceof Slash)) {
+      return ErrorState.fail(EXPECTED_SLASH, slash, lexer);
+    }
+
+    final var subtypeToken = lexer.token();
+    if (!(subtypeToken instanceof Token subtype)) {
+      return ErrorState.fail(EXPECTED_TOKEN, subtypeToken, lexer);
+    }
+
+    return withParameters(lexer, type.value(), subtype.value());
   }
 
-  @SafeVarargs
-  private static MimeTokenType oneOf(
+  private static Object withParameters(
     final MimeLexer lexer,
-    final Class<? extends MimeTokenType>... classes)
-    throws MimeParseException
+    final String type,
+    final String subtype)
+    throws IOException
   {
-    final MimeTokenType token;
-    try {
-      token = lexer.token();
-    } catch (final IOException e) {
-      throw new MimeParseException(lexer.position(), e.getMessage(), e);
+    var next = lexer.token();
+    if (next instanceof EOF) {
+      return new MimeType(type, subtype, List.of());
+    }
+    if (!(next instanceof Semicolon)) {
+      return ErrorState.fail(EXPECTED_SEMICOLON, next, lexer);
     }
 
-    for (final var required : classes) {
-      if (token.getClass().isAssignableFrom(required)) {
-        return token;
+    final var parameters = new ArrayList<MimeTypeParameter>(4);
+    while (true) {
+      final var parameter = parameter(lexer);
+      if (!(parameter instanceof MimeTypeParameter)) {
+        return parameter;
       }
-    }
+      parameters.add((MimeTypeParameter) parameter);
 
-    throw new MimeParseException(
-      lexer.position(),
-      "Syntax error: Expected one of [%s] but received: %s"
-        .formatted(
-          Arrays.stream(classes)
-            .map(MimeTokenType::name)
-            .collect(Collectors.joining(", ")),
-          token)
-    );
+      next = lexer.token();
+      if (next instanceof EOF) {
+        return new MimeType(type, subtype, parameters);
+      }
+      if (!(next instanceof Semicolon)) {
+        return ErrorState.fail(EXPECTED_SEMICOLON, next, lexer);
+      }
+    }
   }
 
-  private static <T extends MimeTokenType> Optional<T> optional(
-    final MimeLexer lexer,
-    final Class<T> clazz)
-    throws MimeParseException
+  private static Object parameter(
+    final MimeLexer lexer)
+    throws IOException
   {
-    final MimeTokenType t;
-    try {
-      t = lexer.token();
-    } catch (final IOException e) {
-      throw new MimeParseException(lexer.position(), e.getMessage(), e);
+    final var nameToken = lexer.token();
+    if (!(nameToken instanceof Token name)) {
+      return ErrorState.fail(EXPECTED_TOKEN, nameToken, lexer);
     }
 
-    if (t instanceof MimeTokenType.EOF) {
-      return Optional.empty();
+    final var equals = lexer.token();
+    if (!(equals instanceof Equals)) {
+      return ErrorState.fail(EXPECTED_EQUALS, equals, lexer);
     }
 
-    if (!t.getClass().isAssignableFrom(clazz)) {
-      throw new MimeParseException(
-        t.lexical(),
-        "Syntax error: Expected %s but received %s"
-          .formatted(MimeTokenType.name(clazz), t)
-      );
+    final var valueToken = lexer.token();
+    if (valueToken instanceof Token token) {
+      return new MimeTypeParameter(name.value(), token.value());
     }
+    if (valueToken instanceof Quoted quoted) {
+      if (MimeCharacters.firstDisallowedQuoted(quoted.value()) >= 0) {
+        return ErrorState.fail(INVALID_PARAMETER_VALUE, valueToken, lexer);
+      }
+      return new MimeTypeParameter(name.value(), quoted.value());
+    }
+    return ErrorState.fail(EXPECTED_VALUE, valueToken, lexer);
+  }
 
-    return (Optional<T>) Optional.of(t);
+  @Override
+  public MimeType parse(
+    final String text)
+    throws MimeParseException
+  {
+    return this.parse(text, 0, text.length());
   }
 
-  private static <T extends MimeTokenType> T exact(
-    final MimeLexer lexer,
-    final Class<T> clazz)
+  @Override
+  public MimeType parse(
+    final CharSequence text,
+    final int start,
+    final int end)
     throws MimeParseException
   {
-    return (T) oneOf(lexer, clazz);
+    Objects.requireNonNull(text, "text");
+
+    final var lexer = this.lexers.acquire(text, start, end);
+    try {
+      final var result = run(lexer);
+      if (result instanceof ErrorState errors) {
+        throw errors.exception(lexer);
+      }
+      return (MimeType) result;
+    } finally {
+      this.lexers.release(lexer);
+    }
   }
 
   @Override
   public MimeType parse(
-    final String text)
+    final byte[] data,
+    final int offset,
+    final int length)
     throws MimeParseException
   {
-    try (var reader = new StringReader(text)) {
-      return parseWithLexer(new MimeLexer(reader));
+    return this.parse(MimeByteSequence.ofArray(data, offset, length), 0, length);
+  }
+
+  @Override
+  public MimeType parse(
+    final ByteBuffer buffer)
+    throws MimeParseException
+  {
+    final var text = MimeByteSequence.ofBuffer(buffer);
+    return this.parse(text, 0, text.length());
+  }
+
+  @Override
+  public MimeParseResultType tryParse(
+    final String text)
+  {
+    return this.tryParse(text, 0, text.length());
+  }
+
+  @Override
+  public MimeParseResultType tryParse(
+    final CharSequence text,
+    final int start,
+    final int end)
+  {
+    Objects.requireNonNull(text, "text");
+
+    final var lexer = this.lexers.acquire(text, start, end);
+    try {
+      final var result = run(lexer);
+      if (result instanceof ErrorState errors) {
+        return errors.failure();
+      }
+      return new MimeParseResultType.Success((MimeType) result);
+    } finally {
+      this.lexers.release(lexer);
     }
   }
+
+  @Override
+  public MimeParseResultType tryParse(
+    final byte[] data,
+    final int offset,
+    final int length)
+  {
+    return this.tryParse(
+      MimeByteSequence.ofArray(data, offset, length), 0, length);
+  }
+
+  @Override
+  public MimeParseResultType tryParse(
+    final ByteBuffer buffer)
+  {
+    final var text = MimeByteSequence.ofBuffer(buffer);
+    return this.tryParse(text, 0, text.length());
+  }
 }
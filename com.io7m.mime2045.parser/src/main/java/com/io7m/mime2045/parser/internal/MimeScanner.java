@@ -0,0 +1,488 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.mime2045.parser.internal;
+
+import com.io7m.jlexing.core.LexicalPosition;
+import com.io7m.mime2045.core.MimeCharacters;
+import com.io7m.mime2045.parser.api.MimeParseErrorCode;
+import com.io7m.mime2045.parser.api.MimeParseException;
+import com.io7m.mime2045.parser.api.MimeParseResultType;
+
+import java.net.URI;
+import java.util.Objects;
+
+/**
+ * A single-pass scanner over a range of characters. The scanner recognizes
+ * exactly the same tokens as the JFlex-generated {@link MimeLexer}, but
+ * does not allocate a token object per token: callers read the kind of the
+ * most recent token from {@link #next()} and the text of the token from the
+ * scanner itself. A scanner can optionally recognize {@code ','} as a
+ * separator, for use when parsing lists of types such as HTTP
+ * {@code Accept} headers.
+ */
+
+public final class MimeScanner
+{
+  private static final URI FILE = URI.create("urn:stdin");
+
+  private final CharSequence text;
+  private final int start;
+  private final int end;
+  private final boolean commas;
+  private int position;
+  private int tokenStart;
+  private int tokenEnd;
+  private String quotedValue;
+  private Kind kind;
+  private MimeParseErrorCode errorCode;
+
+  /**
+   * The kind of tokens.
+   */
+
+  public enum Kind
+  {
+    /**
+     * The end of the input.
+     */
+
+    EOF,
+
+    /**
+     * The slash token.
+     */
+
+    SLASH,
+
+    /**
+     * The semicolon token.
+     */
+
+    SEMICOLON,
+
+    /**
+     * The equals token.
+     */
+
+    EQUALS,
+
+    /**
+     * The comma token (only recognized by scanners that accept lists).
+     */
+
+    COMMA,
+
+    /**
+     * A type "token".
+     */
+
+    TOKEN,
+
+    /**
+     * A quoted type "token".
+     */
+
+    QUOTED,
+
+    /**
+     * An invalid token.
+     */
+
+    INVALID
+  }
+
+  /**
+   * A single-pass scanner over a range of characters.
+   *
+   * @param inText  The text
+   * @param inStart The starting offset (inclusive)
+   * @param inEnd   The ending offset (exclusive)
+   */
+
+  public MimeScanner(
+    final CharSequence inText,
+    final int inStart,
+    final int inEnd)
+  {
+    this(inText, inStart, inEnd, false);
+  }
+
+  /**
+   * A single-pass scanner over a range of characters.
+   *
+   * @param inText   The text
+   * @param inStart  The starting offset (inclusive)
+   * @param inEnd    The ending offset (exclusive)
+   * @param inCommas {@code true} if {@code ','} should be recognized as
+   *                 {@link Kind#COMMA} rather than as an invalid token
+   */
+
+  public MimeScanner(
+    final CharSequence inText,
+    final int inStart,
+    final int inEnd,
+    final boolean inCommas)
+  {
+    this.commas = inCommas;
+    this.text =
+      Objects.requireNonNull(inText, "text");
+
+    Objects.checkFromToIndex(inStart, inEnd, inText.length());
+    this.start = inStart;
+    this.end = inEnd;
+    this.position = inStart;
+    this.tokenStart = inStart;
+    this.tokenEnd = inStart;
+    this.kind = Kind.EOF;
+  }
+
+  private static boolean isWhitespace(
+    final char ch)
+  {
+    return switch (ch) {
+      case ' ', '\t', '\f', '\r', '\n' -> true;
+      default -> false;
+    };
+  }
+
+  /*
+   * The characters that the JFlex "." pattern refuses to match.
+   */
+
+  private static boolean isLineBreak(
+    final char ch)
+  {
+    return switch (ch) {
+      case '\n', '\r', '\u000B', '\u000C', '\u0085', '\u2028', '\u2029' ->
+        true;
+      default -> false;
+    };
+  }
+
+  /**
+   * Scan the next token.
+   *
+   * @return The kind of the token
+   */
+
+  public Kind next()
+  {
+    this.kind = this.scan();
+    return this.kind;
+  }
+
+  private Kind scan()
+  {
+    final var t = this.text;
+    int i = this.position;
+
+    while (i < this.end && isWhitespace(t.charAt(i))) {
+      ++i;
+    }
+
+    this.tokenStart = i;
+    if (i == this.end) {
+      this.tokenEnd = i;
+      this.position = i;
+      return Kind.EOF;
+    }
+
+    final var ch = t.charAt(i);
+    switch (ch) {
+      case '/' -> {
+        return this.single(i, Kind.SLASH);
+      }
+      case ';' -> {
+        return this.single(i, Kind.SEMICOLON);
+      }
+      case '=' -> {
+        return this.single(i, Kind.EQUALS);
+      }
+      case ',' -> {
+        return this.single(i, this.commas ? Kind.COMMA : Kind.INVALID);
+      }
+      case '"' -> {
+        return this.quoted(i + 1);
+      }
+      default -> {
+        if (!MimeCharacters.characterIsAllowedBare(ch)) {
+          return this.single(i, Kind.INVALID);
+        }
+
+        final var k = this.tokenRunEnd(i + 1);
+        this.tokenEnd = k;
+        this.position = k;
+        return Kind.TOKEN;
+      }
+    }
+  }
+
+  /*
+   * Byte input is checked in bulk; other text is checked a character at
+   * a time.
+   */
+
+  private int tokenRunEnd(
+    final int from)
+  {
+    final var t = this.text;
+    if (t instanceof MimeByteSequence bytes) {
+      return bytes.tokenEnd(from, this.end);
+    }
+
+    int k = from;
+    while (k < this.end && MimeCharacters.characterIsAllowedBare(t.charAt(k))) {
+      ++k;
+    }
+    return k;
+  }
+
+  private Kind single(
+    final int index,
+    final Kind result)
+  {
+    this.tokenEnd = index + 1;
+    this.position = index + 1;
+    return result;
+  }
+
+  private Kind quoted(
+    final int contentStart)
+  {
+    final var t = this.text;
+
+    /*
+     * The common case: A quoted string without escapes can be taken
+     * directly from the input.
+     */
+
+    int i = contentStart;
+    while (i < this.end) {
+      final var ch = t.charAt(i);
+      if (ch == '"') {
+        this.quotedValue = substring(t, contentStart, i);
+        return this.single(i, Kind.QUOTED);
+      }
+      if (ch == '\\') {
+        break;
+      }
+      ++i;
+    }
+
+    final var buffer = new StringBuilder(this.end - contentStart);
+    buffer.append(t, contentStart, i);
+
+    while (i < this.end) {
+      final var ch = t.charAt(i);
+      if (ch == '"') {
+        this.quotedValue = buffer.toString();
+        return this.single(i, Kind.QUOTED);
+      }
+      if (ch == '\\') {
+        ++i;
+        if (i == this.end) {
+          break;
+        }
+        final var escaped = t.charAt(i);
+        if (isLineBreak(escaped)) {
+          this.tokenStart = i;
+          return this.single(i, Kind.INVALID);
+        }
+        buffer.append(escaped);
+      } else {
+        buffer.append(ch);
+      }
+      ++i;
+    }
+
+    /*
+     * An unterminated string is an empty invalid token at the end of input.
+     */
+
+    this.tokenStart = this.end;
+    this.tokenEnd = this.end;
+    this.position = this.end;
+    return Kind.INVALID;
+  }
+
+  /**
+   * @return The text of the most recent {@link Kind#TOKEN} token, or the
+   * unescaped content of the most recent {@link Kind#QUOTED} token
+   */
+
+  public String tokenValue()
+  {
+    if (this.kind == Kind.QUOTED) {
+      return this.quotedValue;
+    }
+    return substring(this.text, this.tokenStart, this.tokenEnd);
+  }
+
+  /**
+   * @return The kind of the most recent token
+   */
+
+  public Kind kind()
+  {
+    return this.kind;
+  }
+
+  /**
+   * @return The offset in the text of the start of the most recent token
+   */
+
+  public int tokenStart()
+  {
+    return this.tokenStart;
+  }
+
+  /**
+   * @return The offset in the text of the end of the most recent token
+   */
+
+  public int tokenEnd()
+  {
+    return this.tokenEnd;
+  }
+
+  /**
+   * Copy a range of characters into a string, without creating an
+   * intermediate subsequence where possible.
+   *
+   * @param text  The text
+   * @param start The starting offset (inclusive)
+   * @param end   The ending offset (exclusive)
+   *
+   * @return A string
+   */
+
+  public static String substring(
+    final CharSequence text,
+    final int start,
+    final int end)
+  {
+    if (text instanceof String string) {
+      return string.substring(start, end);
+    }
+    if (text instanceof MimeByteSequence bytes) {
+      return bytes.substring(start, end);
+    }
+    return text.subSequence(start, end).toString();
+  }
+
+  /**
+   * Describe the most recent token in the same form that
+   * {@link MimeTokenType#toString()} would.
+   *
+   * @return A humanly-readable description of the token
+   */
+
+  public String describe()
+  {
+    return switch (this.kind) {
+      case EOF -> "<EOF>";
+      case SLASH -> "'/'";
+      case SEMICOLON -> "';'";
+      case EQUALS -> "'='";
+      case COMMA -> "','";
+      case TOKEN -> this.tokenValue();
+      case QUOTED -> "\"%s\"".formatted(this.quotedValue);
+      case INVALID -> "[Invalid token %s]".formatted(
+        substring(this.text, this.tokenStart, this.tokenEnd));
+    };
+  }
+
+  /**
+   * @return The lexical position of the most recent token
+   */
+
+  public LexicalPosition<URI> position()
+  {
+    int line = 1;
+    int column = 0;
+
+    int i = this.start;
+    while (i < this.tokenStart) {
+      final var ch = this.text.charAt(i);
+      if (ch == '\r') {
+        if (i + 1 < this.tokenStart && this.text.charAt(i + 1) == '\n') {
+          ++i;
+        }
+        ++line;
+        column = 0;
+      } else if (isLineBreak(ch)) {
+        ++line;
+        column = 0;
+      } else {
+        ++column;
+      }
+      ++i;
+    }
+
+    return LexicalPosition.<URI>builder()
+      .setLine(line)
+      .setColumn(column)
+      .setColumnEnd(column + (this.tokenEnd - this.tokenStart))
+      .setFile(FILE)
+      .build();
+  }
+
+  /**
+   * Record an error at the most recent token.
+   *
+   * @param code The error code
+   * @param <T>  The type of returned values
+   *
+   * @return {@code null}
+   */
+
+  public <T> T fail(
+    final MimeParseErrorCode code)
+  {
+    this.errorCode = Objects.requireNonNull(code, "code");
+    return null;
+  }
+
+  /**
+   * @return The most recently recorded error as a result value
+   *
+   * @see #fail(MimeParseErrorCode)
+   */
+
+  public MimeParseResultType.Failure failure()
+  {
+    return new MimeParseResultType.Failure(
+      this.errorCode,
+      this.tokenStart - this.start
+    );
+  }
+
+  /**
+   * @return The most recently recorded error as an exception
+   *
+   * @see #fail(MimeParseErrorCode)
+   */
+
+  public MimeParseException exception()
+  {
+    return new MimeParseException(
+      this.position(),
+      "Syntax error: Expected %s but received: %s"
+        .formatted(this.errorCode.expected(), this.describe())
+    );
+  }
+}
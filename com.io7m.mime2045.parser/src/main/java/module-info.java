@@ -14,7 +14,9 @@
  * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
  */
 
+import com.io7m.mime2045.parser.MimeAcceptParsers;
 import com.io7m.mime2045.parser.MimeParsers;
+import com.io7m.mime2045.parser.api.MimeAcceptParserFactoryType;
 import com.io7m.mime2045.parser.api.MimeParserFactoryType;
 
 /**
@@ -33,6 +35,8 @@ module com.io7m.mime2045.parser
 
   provides MimeParserFactoryType
     with MimeParsers;
+  provides MimeAcceptParserFactoryType
+    with MimeAcceptParsers;
 
   exports com.io7m.mime2045.parser;
   exports com.io7m.mime2045.parser.internal;
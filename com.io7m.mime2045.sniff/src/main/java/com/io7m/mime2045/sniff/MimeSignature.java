@@ -0,0 +1,181 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.mime2045.sniff;
+
+import com.io7m.mime2045.core.MimeType;
+
+import java.util.ArrayList;
+import java.util.Objects;
+
+/**
+ * A magic-byte signature. The pattern is a space-separated sequence of
+ * tokens, each of which is either a pair of hexadecimal digits denoting a
+ * single byte, the token {@code ??} denoting any single byte, or a
+ * double-quoted US-ASCII literal (which may contain spaces). The pattern is
+ * matched against the content beginning at the given offset.
+ *
+ * @param type    The type identified by the signature
+ * @param offset  The offset at which the pattern begins
+ * @param pattern The pattern
+ *
+ * @since 1.3.0
+ */
+
+public record MimeSignature(
+  MimeType type,
+  int offset,
+  String pattern)
+{
+  /**
+   * The byte value used to indicate "any byte" in compiled patterns.
+   */
+
+  public static final int ANY = -1;
+
+  /**
+   * A magic-byte signature.
+   *
+   * @param type    The type identified by the signature
+   * @param offset  The offset at which the pattern begins
+   * @param pattern The pattern
+   */
+
+  public MimeSignature
+  {
+    Objects.requireNonNull(type, "type");
+    Objects.requireNonNull(pattern, "pattern");
+
+    if (offset < 0) {
+      throw new IllegalArgumentException(
+        "Offset %d must be non-negative".formatted(Integer.valueOf(offset))
+      );
+    }
+    if (compilePattern(pattern).isEmpty()) {
+      throw new IllegalArgumentException("Pattern must not be empty");
+    }
+  }
+
+  /**
+   * A magic-byte signature beginning at offset zero.
+   *
+   * @param type    The type identified by the signature
+   * @param pattern The pattern
+   *
+   * @return A signature
+   */
+
+  public static MimeSignature of(
+    final MimeType type,
+    final String pattern)
+  {
+    return new MimeSignature(type, 0, pattern);
+  }
+
+  /**
+   * Compile the signature to an array of byte values, one per position
+   * starting at offset zero, where {@link #ANY} matches any byte. Positions
+   * before the offset are filled with {@link #ANY}.
+   *
+   * @return The compiled signature
+   */
+
+  public int[] compile()
+  {
+    final var bytes = compilePattern(this.pattern);
+    final var result = new int[this.offset + bytes.size()];
+    for (int index = 0; index < this.offset; ++index) {
+      result[index] = ANY;
+    }
+    for (int index = 0; index < bytes.size(); ++index) {
+      result[this.offset + index] = bytes.get(index).intValue();
+    }
+    return result;
+  }
+
+  private static ArrayList<Integer> compilePattern(
+    final String pattern)
+  {
+    final var bytes = new ArrayList<Integer>();
+    final var length = pattern.length();
+
+    int index = 0;
+    while (index < length) {
+      final var ch = pattern.charAt(index);
+      if (ch == ' ') {
+        ++index;
+      } else if (ch == '"') {
+        index = compileLiteral(pattern, index + 1, bytes);
+      } else {
+        index = compileByte(pattern, index, bytes);
+      }
+    }
+    return bytes;
+  }
+
+  private static int compileLiteral(
+    final String pattern,
+    final int start,
+    final ArrayList<Integer> bytes)
+  {
+    final var end = pattern.indexOf('"', start);
+    if (end < 0) {
+      throw invalid(pattern, start, "Unterminated literal");
+    }
+    for (int index = start; index < end; ++index) {
+      final var ch = pattern.charAt(index);
+      if (ch > 0x7f) {
+        throw invalid(pattern, index, "Non-ASCII character in literal");
+      }
+      bytes.add(Integer.valueOf(ch));
+    }
+    return end + 1;
+  }
+
+  private static int compileByte(
+    final String pattern,
+    final int start,
+    final ArrayList<Integer> bytes)
+  {
+    if (start + 2 > pattern.length()) {
+      throw invalid(pattern, start, "Truncated byte");
+    }
+    if (pattern.startsWith("??", start)) {
+      bytes.add(Integer.valueOf(ANY));
+      return start + 2;
+    }
+
+    final var hi = Character.digit(pattern.charAt(start), 16);
+    final var lo = Character.digit(pattern.charAt(start + 1), 16);
+    if (hi < 0 || lo < 0) {
+      throw invalid(pattern, start, "Expected a pair of hexadecimal digits");
+    }
+    bytes.add(Integer.valueOf((hi << 4) | lo));
+    return start + 2;
+  }
+
+  private static IllegalArgumentException invalid(
+    final String pattern,
+    final int index,
+    final String message)
+  {
+    return new IllegalArgumentException(
+      "%s at offset %d of pattern '%s'"
+        .formatted(message, Integer.valueOf(index), pattern)
+    );
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.mime2045.sniff;
+
+import java.util.List;
+
+import static com.io7m.mime2045.fileext.MimeTypes.APPLICATION_GZIP;
+import static com.io7m.mime2045.fileext.MimeTypes.APPLICATION_PDF;
+import static com.io7m.mime2045.fileext.MimeTypes.APPLICATION_POSTSCRIPT;
+import static com.io7m.mime2045.fileext.MimeTypes.APPLICATION_RTF;
+import static com.io7m.mime2045.fileext.MimeTypes.APPLICATION_VND_RAR;
+import static com.io7m.mime2045.fileext.MimeTypes.APPLICATION_VND_SQLITE3;
+import static com.io7m.mime2045.fileext.MimeTypes.APPLICATION_WASM;
+import static com.io7m.mime2045.fileext.MimeTypes.APPLICATION_XML;
+import static com.io7m.mime2045.fileext.MimeTypes.APPLICATION_X_BZIP2;
+import static com.io7m.mime2045.fileext.MimeTypes.APPLICATION_X_TAR;
+import static com.io7m.mime2045.fileext.MimeTypes.APPLICATION_X_XZ;
+import static com.io7m.mime2045.fileext.MimeTypes.APPLICATION_ZIP;
+import static com.io7m.mime2045.fileext.MimeTypes.APPLICATION_ZSTD;
+import static com.io7m.mime2045.fileext.MimeTypes.AUDIO_MP4;
+import static com.io7m.mime2045.fileext.MimeTypes.AUDIO_MPEG;
+import static com.io7m.mime2045.fileext.MimeTypes.AUDIO_OGG;
+import static com.io7m.mime2045.fileext.MimeTypes.AUDIO_X_FLAC;
+import static com.io7m.mime2045.fileext.MimeTypes.AUDIO_X_WAV;
+import static com.io7m.mime2045.fileext.MimeTypes.FONT_OTF;
+import static com.io7m.mime2045.fileext.MimeTypes.FONT_TTF;
+import static com.io7m.mime2045.fileext.MimeTypes.FONT_WOFF;
+import static com.io7m.mime2045.fileext.MimeTypes.FONT_WOFF2;
+import static com.io7m.mime2045.fileext.MimeTypes.IMAGE_AVIF;
+import static com.io7m.mime2045.fileext.MimeTypes.IMAGE_BMP;
+import static com.io7m.mime2045.fileext.MimeTypes.IMAGE_GIF;
+import static com.io7m.mime2045.fileext.MimeTypes.IMAGE_HEIC;
+import static com.io7m.mime2045.fileext.MimeTypes.IMAGE_JPEG;
+import static com.io7m.mime2045.fileext.MimeTypes.IMAGE_JXL;
+import static com.io7m.mime2045.fileext.MimeTypes.IMAGE_PNG;
+import static com.io7m.mime2045.fileext.MimeTypes.IMAGE_TIFF;
+import static com.io7m.mime2045.fileext.MimeTypes.IMAGE_VND_ADOBE_PHOTOSHOP;
+import static com.io7m.mime2045.fileext.MimeTypes.IMAGE_VND_MICROSOFT_ICON;
+import static com.io7m.mime2045.fileext.MimeTypes.IMAGE_WEBP;
+import static com.io7m.mime2045.fileext.MimeTypes.VIDEO_MP4;
+import static com.io7m.mime2045.fileext.MimeTypes.VIDEO_QUICKTIME;
+import static com.io7m.mime2045.fileext.MimeTypes.VIDEO_X_MATROSKA;
+import static com.io7m.mime2045.fileext.MimeTypes.VIDEO_X_MSVIDEO;
+
+/**
+ * The built-in magic-byte signatures.
+ *
+ * @since 1.3.0
+ */
+
+public final class MimeSignatures
+{
+  private static final List<MimeSignature> STANDARD = List.of(
+    MimeSignature.of(IMAGE_PNG, "89 \"PNG\" 0D 0A 1A 0A"),
+    MimeSignature.of(IMAGE_JPEG, "FF D8 FF"),
+    MimeSignature.of(IMAGE_GIF, "\"GIF87a\""),
+    MimeSignature.of(IMAGE_GIF, "\"GIF89a\""),
+    MimeSignature.of(IMAGE_BMP, "\"BM\""),
+    MimeSignature.of(IMAGE_TIFF, "\"II\" 2A 00"),
+    MimeSignature.of(IMAGE_TIFF, "\"MM\" 00 2A"),
+    MimeSignature.of(IMAGE_VND_MICROSOFT_ICON, "00 00 01 00"),
+    MimeSignature.of(IMAGE_VND_ADOBE_PHOTOSHOP, "\"8BPS\""),
+    MimeSignature.of(IMAGE_WEBP, "\"RIFF\" ?? ?? ?? ?? \"WEBP\""),
+    MimeSignature.of(IMAGE_JXL, "FF 0A"),
+    MimeSignature.of(IMAGE_JXL, "00 00 00 0C \"JXL \" 0D 0A 87 0A"),
+
+    MimeSignature.of(APPLICATION_PDF, "\"%PDF-\""),
+    MimeSignature.of(APPLICATION_ZIP, "\"PK\" 03 04"),
+    MimeSignature.of(APPLICATION_ZIP, "\"PK\" 05 06"),
+    MimeSignature.of(APPLICATION_ZIP, "\"PK\" 07 08"),
+    MimeSignature.of(APPLICATION_GZIP, "1F 8B"),
+    MimeSignature.of(APPLICATION_X_BZIP2, "\"BZh\""),
+    MimeSignature.of(APPLICATION_X_XZ, "FD \"7zXZ\" 00"),
+    new MimeSignature(APPLICATION_X_TAR, 257, "\"ustar\""),
+    MimeSignature.of(APPLICATION_VND_SQLITE3, "\"SQLite format 3\" 00"),
+    MimeSignature.of(APPLICATION_WASM, "00 \"asm\""),
+    MimeSignature.of(APPLICATION_POSTSCRIPT, "\"%!PS\""),
+    MimeSignature.of(APPLICATION_RTF, "\"{\\rtf\""),
+    MimeSignature.of(APPLICATION_XML, "\"<?xml\""),
+    MimeSignature.of(APPLICATION_VND_RAR, "\"Rar!\" 1A 07"),
+    MimeSignature.of(APPLICATION_ZSTD, "28 B5 2F FD"),
+
+    MimeSignature.of(AUDIO_X_WAV, "\"RIFF\" ?? ?? ?? ?? \"WAVE\""),
+    MimeSignature.of(VIDEO_X_MSVIDEO, "\"RIFF\" ?? ?? ?? ?? \"AVI \""),
+    MimeSignature.of(AUDIO_OGG, "\"OggS\""),
+    MimeSignature.of(AUDIO_MPEG, "\"ID3\""),
+    MimeSignature.of(AUDIO_X_FLAC, "\"fLaC\""),
+    MimeSignature.of(VIDEO_X_MATROSKA, "1A 45 DF A3"),
+
+    new MimeSignature(VIDEO_MP4, 4, "\"ftypisom\""),
+    new MimeSignature(VIDEO_MP4, 4, "\"ftypiso2\""),
+    new MimeSignature(VIDEO_MP4, 4, "\"ftypmp41\""),
+    new MimeSignature(VIDEO_MP4, 4, "\"ftypmp42\""),
+    new MimeSignature(VIDEO_MP4, 4, "\"ftypavc1\""),
+    new MimeSignature(VIDEO_QUICKTIME, 4, "\"ftypqt  \""),
+    new MimeSignature(IMAGE_HEIC, 4, "\"ftypheic\""),
+    new MimeSignature(IMAGE_HEIC, 4, "\"ftypheix\""),
+    new MimeSignature(IMAGE_AVIF, 4, "\"ftypavif\""),
+    new MimeSignature(AUDIO_MP4, 4, "\"ftypM4A \""),
+
+    MimeSignature.of(FONT_WOFF, "\"wOFF\""),
+    MimeSignature.of(FONT_WOFF2, "\"wOF2\""),
+    MimeSignature.of(FONT_TTF, "00 01 00 00 00"),
+    MimeSignature.of(FONT_OTF, "\"OTTO\"")
+  );
+
+  private MimeSignatures()
+  {
+
+  }
+
+  /**
+   * The built-in signatures. Where two signatures match content to the
+   * same length, the signature that appears first in the list wins.
+   *
+   * @return The built-in signatures
+   */
+
+  public static List<MimeSignature> standard()
+  {
+    return STANDARD;
+  }
+}
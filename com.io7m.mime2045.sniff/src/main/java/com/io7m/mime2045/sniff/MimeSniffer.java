@@ -0,0 +1,218 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.mime2045.sniff;
+
+import com.io7m.mime2045.core.MimeType;
+import com.io7m.mime2045.fileext.MimeTypes;
+import com.io7m.mime2045.sniff.internal.MimeSniffAutomaton;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A content sniffer that identifies types by their leading magic bytes.
+ * All signatures are compiled into a single deterministic automaton, and
+ * so content is examined in one pass regardless of the number of
+ * signatures, and no more than {@link #prefixLength()} bytes are ever
+ * examined. Sniffers are immutable and safe to share between threads.
+ *
+ * @since 1.3.0
+ */
+
+public final class MimeSniffer
+{
+  private static final MimeSniffer STANDARD =
+    create(MimeSignatures.standard());
+
+  private final MimeSniffAutomaton automaton;
+  private final Optional<?>[] results;
+
+  private MimeSniffer(
+    final MimeSniffAutomaton inAutomaton,
+    final Optional<?>[] inResults)
+  {
+    this.automaton = inAutomaton;
+    this.results = inResults;
+  }
+
+  /**
+   * @return A sniffer for the built-in signatures
+   *
+   * @see MimeSignatures#standard()
+   */
+
+  public static MimeSniffer standard()
+  {
+    return STANDARD;
+  }
+
+  /**
+   * Create a sniffer for the given signatures. Where several signatures
+   * match, the signature that matches the most bytes wins, and ties are
+   * broken in favour of the signature that appears first in the list.
+   * Types that are registered are replaced by their canonical instances.
+   *
+   * @param signatures The signatures
+   *
+   * @return A sniffer
+   */
+
+  public static MimeSniffer create(
+    final List<MimeSignature> signatures)
+  {
+    Objects.requireNonNull(signatures, "signatures");
+
+    final var patterns = new ArrayList<int[]>(signatures.size());
+    final var results = new Optional<?>[signatures.size()];
+    for (int index = 0; index < signatures.size(); ++index) {
+      final var signature = signatures.get(index);
+      patterns.add(signature.compile());
+      results[index] = Optional.of(MimeTypes.canonical(signature.type()));
+    }
+    return new MimeSniffer(MimeSniffAutomaton.of(patterns), results);
+  }
+
+  /**
+   * @return The number of leading bytes that the sniffer needs to examine
+   */
+
+  public int prefixLength()
+  {
+    return this.automaton.maximumLength();
+  }
+
+  @SuppressWarnings("unchecked")
+  private Optional<MimeType> resultOf(
+    final int index)
+  {
+    if (index < 0) {
+      return Optional.empty();
+    }
+    return (Optional<MimeType>) this.results[index];
+  }
+
+  /**
+   * Identify the content held in the given range of bytes.
+   *
+   * @param data   The data
+   * @param offset The offset of the first byte
+   * @param length The number of bytes
+   *
+   * @return The identified type, if any
+   */
+
+  public Optional<MimeType> sniff(
+    final byte[] data,
+    final int offset,
+    final int length)
+  {
+    Objects.requireNonNull(data, "data");
+    return this.resultOf(this.automaton.match(data, offset, length));
+  }
+
+  /**
+   * Identify the content held in the given bytes.
+   *
+   * @param data The data
+   *
+   * @return The identified type, if any
+   */
+
+  public Optional<MimeType> sniff(
+    final byte[] data)
+  {
+    return this.sniff(data, 0, data.length);
+  }
+
+  /**
+   * Identify the content held between the buffer's position and limit.
+   * The buffer's position is not changed.
+   *
+   * @param data The data
+   *
+   * @return The identified type, if any
+   */
+
+  public Optional<MimeType> sniff(
+    final ByteBuffer data)
+  {
+    Objects.requireNonNull(data, "data");
+    return this.resultOf(this.automaton.match(data));
+  }
+
+  /**
+   * Identify the content of the given channel. Only the first
+   * {@link #prefixLength()} bytes of the channel are read, using positional
+   * reads, and so the channel's position is not changed.
+   *
+   * @param channel The channel
+   *
+   * @return The identified type, if any
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public Optional<MimeType> sniff(
+    final FileChannel channel)
+    throws IOException
+  {
+    Objects.requireNonNull(channel, "channel");
+
+    final var buffer = ByteBuffer.allocate(this.prefixLength());
+    while (buffer.hasRemaining()) {
+      final var r = channel.read(buffer, buffer.position());
+      if (r < 0) {
+        break;
+      }
+    }
+    return this.sniff(buffer.flip());
+  }
+
+  /**
+   * Identify the content of the given file.
+   *
+   * @param file The file
+   *
+   * @return The identified type, if any
+   *
+   * @throws IOException On I/O errors
+   * @see #sniff(FileChannel)
+   */
+
+  public Optional<MimeType> sniff(
+    final Path file)
+    throws IOException
+  {
+    try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      return this.sniff(channel);
+    }
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[MimeSniffer %s]".formatted(this.automaton);
+  }
+}
@@ -0,0 +1,320 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.mime2045.sniff.internal;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * A deterministic automaton that matches content against a set of
+ * anchored byte patterns in a single pass. The patterns are first built
+ * into a trie in which each edge is labelled with either a byte value or
+ * "any byte", and the trie is then determinized by subset construction.
+ * Bytes that no pattern mentions explicitly are collapsed into a single
+ * equivalence class, and so the transition table has one column per
+ * distinct byte value used by the patterns, plus one.
+ *
+ * <p>Scanning stops as soon as the automaton reaches the dead state, and
+ * so at most {@link #maximumLength()} bytes are examined.</p>
+ */
+
+public final class MimeSniffAutomaton
+{
+  private static final int ANY = -1;
+  private static final int DEAD = -1;
+
+  private final int[] classes;
+  private final int classCount;
+  private final int[] transitions;
+  private final int[] accepts;
+  private final int maximumLength;
+
+  private MimeSniffAutomaton(
+    final int[] inClasses,
+    final int inClassCount,
+    final int[] inTransitions,
+    final int[] inAccepts,
+    final int inMaximumLength)
+  {
+    this.classes = inClasses;
+    this.classCount = inClassCount;
+    this.transitions = inTransitions;
+    this.accepts = inAccepts;
+    this.maximumLength = inMaximumLength;
+  }
+
+  private static final class Node
+  {
+    private final TreeMap<Integer, Node> children = new TreeMap<>();
+    private final int id;
+    private int accept = -1;
+
+    Node(
+      final int inId)
+    {
+      this.id = inId;
+    }
+  }
+
+  /**
+   * Build an automaton from the given patterns. Each pattern is an array
+   * of byte values in the range {@code [0, 255]}, or {@code -1} to match
+   * any byte. Where several patterns match content to the same length,
+   * the pattern with the lowest index wins; otherwise, the longest match
+   * wins.
+   *
+   * @param patterns The patterns
+   *
+   * @return An automaton
+   */
+
+  public static MimeSniffAutomaton of(
+    final List<int[]> patterns)
+  {
+    Objects.requireNonNull(patterns, "patterns");
+
+    final var nodes = new ArrayList<Node>();
+    final var root = new Node(0);
+    nodes.add(root);
+
+    final var explicit = new TreeSet<Integer>();
+    var maximum = 0;
+    for (int index = 0; index < patterns.size(); ++index) {
+      final var pattern = patterns.get(index);
+      maximum = Math.max(maximum, pattern.length);
+
+      var node = root;
+      for (final var value : pattern) {
+        if (value != ANY) {
+          explicit.add(Integer.valueOf(value));
+        }
+        node = node.children.computeIfAbsent(
+          Integer.valueOf(value),
+          v -> {
+            final var created = new Node(nodes.size());
+            nodes.add(created);
+            return created;
+          });
+      }
+      if (node.accept < 0) {
+        node.accept = index;
+      }
+    }
+
+    final var classes = new int[256];
+    final var representatives = new int[explicit.size() + 1];
+    representatives[0] = ANY;
+    var classIndex = 1;
+    for (final var value : explicit) {
+      classes[value.intValue()] = classIndex;
+      representatives[classIndex] = value.intValue();
+      ++classIndex;
+    }
+
+    return determinize(root, classes, representatives, maximum);
+  }
+
+  private static MimeSniffAutomaton determinize(
+    final Node root,
+    final int[] classes,
+    final int[] representatives,
+    final int maximum)
+  {
+    final var classCount = representatives.length;
+    final var states = new HashMap<List<Integer>, Integer>();
+    final var stateNodes = new ArrayList<List<Node>>();
+    final var queue = new ArrayDeque<Integer>();
+    final var transitions = new ArrayList<int[]>();
+
+    final var start = List.of(root);
+    states.put(List.of(Integer.valueOf(root.id)), Integer.valueOf(0));
+    stateNodes.add(start);
+    queue.add(Integer.valueOf(0));
+
+    while (!queue.isEmpty()) {
+      final var state = queue.poll().intValue();
+      final var row = new int[classCount];
+      for (int c = 0; c < classCount; ++c) {
+        final var next = step(stateNodes.get(state), representatives[c]);
+        if (next.isEmpty()) {
+          row[c] = DEAD;
+          continue;
+        }
+
+        final var key = next.stream().map(n -> Integer.valueOf(n.id)).toList();
+        final var existing = states.get(key);
+        if (existing != null) {
+          row[c] = existing.intValue();
+          continue;
+        }
+
+        final var created = Integer.valueOf(stateNodes.size());
+        states.put(key, created);
+        stateNodes.add(next);
+        queue.add(created);
+        row[c] = created.intValue();
+      }
+      /*
+       * States are numbered in the order that they are queued, and so
+       * rows are produced in state order.
+       */
+
+      transitions.add(row);
+    }
+
+    final var stateCount = stateNodes.size();
+    final var table = new int[stateCount * classCount];
+    final var accepts = new int[stateCount];
+    for (int state = 0; state < stateCount; ++state) {
+      System.arraycopy(
+        transitions.get(state), 0, table, state * classCount, classCount);
+      accepts[state] = acceptOf(stateNodes.get(state));
+    }
+    return new MimeSniffAutomaton(
+      classes, classCount, table, accepts, maximum);
+  }
+
+  private static List<Node> step(
+    final List<Node> nodes,
+    final int value)
+  {
+    final var next = new TreeMap<Integer, Node>();
+    for (final var node : nodes) {
+      if (value != ANY) {
+        final var child = node.children.get(Integer.valueOf(value));
+        if (child != null) {
+          next.put(Integer.valueOf(child.id), child);
+        }
+      }
+      final var any = node.children.get(Integer.valueOf(ANY));
+      if (any != null) {
+        next.put(Integer.valueOf(any.id), any);
+      }
+    }
+    return List.copyOf(next.values());
+  }
+
+  private static int acceptOf(
+    final List<Node> nodes)
+  {
+    var best = -1;
+    for (final var node : nodes) {
+      if (node.accept >= 0 && (best < 0 || node.accept < best)) {
+        best = node.accept;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * @return The length of the longest pattern
+   */
+
+  public int maximumLength()
+  {
+    return this.maximumLength;
+  }
+
+  /**
+   * @return The number of states in the automaton
+   */
+
+  public int stateCount()
+  {
+    return this.accepts.length;
+  }
+
+  /**
+   * Match the given range of bytes.
+   *
+   * @param data   The data
+   * @param offset The offset of the first byte
+   * @param length The number of bytes
+   *
+   * @return The index of the matching pattern, or {@code -1}
+   */
+
+  public int match(
+    final byte[] data,
+    final int offset,
+    final int length)
+  {
+    Objects.checkFromIndexSize(offset, length, data.length);
+
+    final var end = offset + Math.min(length, this.maximumLength);
+    var state = 0;
+    var best = -1;
+    for (int index = offset; index < end; ++index) {
+      state = this.transitions[
+        state * this.classCount + this.classes[data[index] & 0xff]];
+      if (state == DEAD) {
+        break;
+      }
+      final var accept = this.accepts[state];
+      if (accept >= 0) {
+        best = accept;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Match the bytes between the buffer's position and limit. The buffer's
+   * position is not changed.
+   *
+   * @param data The data
+   *
+   * @return The index of the matching pattern, or {@code -1}
+   */
+
+  public int match(
+    final ByteBuffer data)
+  {
+    final var start = data.position();
+    final var end = start + Math.min(data.remaining(), this.maximumLength);
+    var state = 0;
+    var best = -1;
+    for (int index = start; index < end; ++index) {
+      state = this.transitions[
+        state * this.classCount + this.classes[data.get(index) & 0xff]];
+      if (state == DEAD) {
+        break;
+      }
+      final var accept = this.accepts[state];
+      if (accept >= 0) {
+        best = accept;
+      }
+    }
+    return best;
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[MimeSniffAutomaton states=%d classes=%d]"
+      .formatted(
+        Integer.valueOf(this.accepts.length),
+        Integer.valueOf(this.classCount));
+  }
+}
@@ -0,0 +1,369 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.mime2045.tests;
+
+import com.io7m.mime2045.core.MimeType;
+import com.io7m.mime2045.core.MimeTypeParameter;
+import com.io7m.mime2045.parser.MimeAcceptParsers;
+import com.io7m.mime2045.parser.api.MimeAcceptList;
+import com.io7m.mime2045.parser.api.MimeAcceptParserFactoryType;
+import com.io7m.mime2045.parser.api.MimeAcceptParserType;
+import com.io7m.mime2045.parser.api.MimeMediaRange;
+import com.io7m.mime2045.parser.api.MimeParseException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+import static com.io7m.mime2045.parser.api.MimeMediaRange.WILDCARD;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class MimeAcceptParserTest
+{
+  private static final MimeAcceptParserType PARSER =
+    new MimeAcceptParsers().create(Map.of());
+
+  private static List<String> texts(
+    final MimeAcceptList list)
+  {
+    return list.ranges()
+      .stream()
+      .map(MimeMediaRange::toString)
+      .toList();
+  }
+
+  @Test
+  public void testBrowser()
+    throws Exception
+  {
+    final var list = PARSER.parse(
+      "text/html,application/xhtml+xml,application/xml;q=0.9,"
+      + "image/avif,image/webp,image/apng,*/*;q=0.8,"
+      + "application/signed-exchange;v=b3;q=0.7"
+    );
+
+    assertEquals(
+      List.of(
+        "application/signed-exchange;v=b3;q=0.7",
+        "text/html",
+        "application/xhtml+xml",
+        "image/avif",
+        "image/webp",
+        "image/apng",
+        "application/xml;q=0.9",
+        "*/*;q=0.8"
+      ).stream().sorted().toList(),
+      texts(list).stream().sorted().toList()
+    );
+
+    assertEquals(
+      List.of(
+        "text/html",
+        "application/xhtml+xml",
+        "image/avif",
+        "image/webp",
+        "image/apng",
+        "application/xml;q=0.9",
+        "*/*;q=0.8",
+        "application/signed-exchange;v=b3;q=0.7"
+      ),
+      texts(list)
+    );
+  }
+
+  @Test
+  public void testSpecificityOrdering()
+    throws Exception
+  {
+    final var list = PARSER.parse(
+      "*/*, text/*, text/plain;format=flowed, text/plain"
+    );
+
+    assertEquals(
+      List.of(
+        "text/plain;format=flowed",
+        "text/plain",
+        "text/*",
+        "*/*"
+      ),
+      texts(list)
+    );
+  }
+
+  @Test
+  public void testWildcards()
+    throws Exception
+  {
+    final var list = PARSER.parse("*/*, image/*");
+    final var all = list.ranges().get(1);
+    final var image = list.ranges().get(0);
+
+    assertTrue(all.isTypeWildcard());
+    assertTrue(all.isSubtypeWildcard());
+    assertEquals(0, all.specificity());
+    assertFalse(image.isTypeWildcard());
+    assertTrue(image.isSubtypeWildcard());
+    assertEquals(1 << 16, image.specificity());
+    assertEquals(WILDCARD, all.type());
+  }
+
+  @Test
+  public void testQualityValues()
+    throws Exception
+  {
+    final var list = PARSER.parse(
+      "a/a;q=1, a/b;q=1.000, a/c;q=0.5, a/d;q=0.123, a/e;q=0, "
+      + "a/f;q=0.05, a/g;Q=0.25, a/h;q=0., a/i;q=1."
+    );
+
+    assertEquals(
+      List.of(
+        "a/a", "a/b", "a/i",
+        "a/c;q=0.5",
+        "a/g;q=0.25",
+        "a/d;q=0.123",
+        "a/f;q=0.05",
+        "a/e;q=0.0",
+        "a/h;q=0.0"
+      ),
+      texts(list)
+    );
+
+    assertEquals(
+      List.of(1000, 1000, 1000, 500, 250, 123, 50, 0, 0),
+      list.ranges().stream().map(MimeMediaRange::quality).toList()
+    );
+  }
+
+  @Test
+  public void testQualityInvalid()
+  {
+    final var cases = new String[]{
+    "a/a;q=1.5",
+    "a/a;q=1.001",
+    "a/a;q=2",
+    "a/a;q=0.1234",
+    "a/a;q=.5",
+    "a/a;q=-0",
+    "a/a;q=0,5",
+    "a/a;q=\"0.5\"",
+    "a/a;q=",
+    "a/a;q=0x1",
+  };
+
+    for (final var text : cases) {
+      assertThrows(
+        MimeParseException.class,
+        () -> PARSER.parse(text),
+        () -> "Expected failure for '%s'".formatted(text)
+      );
+    }
+  }
+
+  @Test
+  public void testInvalid()
+  {
+    final var cases = new String[]{
+    "*/html",
+    "text",
+    "text/",
+    "/html",
+    "text/html;",
+    "text/html;a",
+    "text/html;a=",
+    "text/html a",
+    "text/html;a=\"b",
+    "text/html;a=b=c",
+    "text/html;a=b;q=0.5;c",
+    "text/html/plain",
+    "\"text\"/html",
+  };
+
+    for (final var text : cases) {
+      assertThrows(
+        MimeParseException.class,
+        () -> PARSER.parse(text),
+        () -> "Expected failure for '%s'".formatted(text)
+      );
+    }
+  }
+
+  @Test
+  public void testEmptyElements()
+    throws Exception
+  {
+    assertEquals(List.of(), PARSER.parse("").ranges());
+    assertEquals(List.of(), PARSER.parse(" , ,, ").ranges());
+    assertEquals(
+      List.of("text/plain", "text/html"),
+      texts(PARSER.parse(", text/plain,, text/html ,"))
+    );
+  }
+
+  @Test
+  public void testParametersAndExtensions()
+    throws Exception
+  {
+    final var list = PARSER.parse(
+      "Text/HTML; Level=1; q=0.5; ext=\"x,y\"; other=z"
+    );
+    final var range = list.ranges().get(0);
+
+    assertEquals("text", range.type());
+    assertEquals("html", range.subtype());
+    assertEquals(List.of(new MimeTypeParameter("level", "1")), range.parameters());
+    assertEquals(500, range.quality());
+  }
+
+  @Test
+  public void testLenient()
+  {
+    final var list = PARSER.parseLenient(
+      "text/html, */html, text/plain;q=7, image/png;a=\"b,c\";q=0.5, "
+      + "garbage, application/json;q=0.9, \"x\""
+    );
+
+    assertEquals(
+      List.of("text/html", "application/json;q=0.9", "image/png;a=\"b,c\";q=0.5"),
+      texts(list)
+    );
+  }
+
+  @Test
+  public void testRange()
+    throws Exception
+  {
+    final var text = "Accept: text/plain, text/html;q=0.1";
+    final var list = PARSER.parse(text, 8, text.length());
+    assertEquals(List.of("text/plain", "text/html;q=0.1"), texts(list));
+  }
+
+  @Test
+  public void testQualityOf()
+    throws Exception
+  {
+    final var list = PARSER.parse(
+      "text/*;q=0.3, text/plain;q=0.7, text/plain;format=flowed, "
+      + "text/plain;level=2;q=0.4, */*;q=0.5, image/png;q=0"
+    );
+
+    assertEquals(
+      1000,
+      list.qualityOf(new MimeType("text", "plain", List.of(
+        new MimeTypeParameter("format", "flowed")))));
+    assertEquals(700, list.qualityOf(MimeType.of("text", "plain")));
+    assertEquals(300, list.qualityOf(MimeType.of("text", "html")));
+    assertEquals(
+      400,
+      list.qualityOf(new MimeType("text", "plain", List.of(
+        new MimeTypeParameter("level", "2")))));
+    assertEquals(500, list.qualityOf(MimeType.of("image", "jpeg")));
+    assertEquals(0, list.qualityOf(MimeType.of("image", "png")));
+    assertFalse(list.accepts(MimeType.of("image", "png")));
+    assertTrue(list.accepts(MimeType.of("image", "jpeg")));
+  }
+
+  /**
+   * Parameters only break ties between ranges at the same level, so a
+   * wildcard with parameters never outranks a more concrete range.
+   */
+
+  @Test
+  public void testQualityOfParameterizedWildcards()
+    throws Exception
+  {
+    final var list = PARSER.parse(
+      "text/*;a=1;b=2;q=0.9, */*;a=1;b=2;q=0.8, text/plain;q=0.2, "
+      + "image/*;q=0.1"
+    );
+
+    final var plain = new MimeType("text", "plain", List.of(
+      new MimeTypeParameter("a", "1"),
+      new MimeTypeParameter("b", "2")));
+    final var html = new MimeType("text", "html", List.of(
+      new MimeTypeParameter("a", "1"),
+      new MimeTypeParameter("b", "2")));
+    final var png = new MimeType("image", "png", List.of(
+      new MimeTypeParameter("a", "1"),
+      new MimeTypeParameter("b", "2")));
+
+    assertEquals(200, list.qualityOf(plain));
+    assertEquals(900, list.qualityOf(html));
+    assertEquals(100, list.qualityOf(png));
+
+    assertTrue(
+      PARSER.parse("text/plain").ranges().get(0).specificity()
+      > PARSER.parse("text/*;a=1;b=2").ranges().get(0).specificity()
+    );
+    assertTrue(
+      PARSER.parse("text/plain").ranges().get(0).specificity()
+      > PARSER.parse("*/*;a=1;b=2").ranges().get(0).specificity()
+    );
+  }
+
+  @Test
+  public void testAcceptAll()
+  {
+    final var list = MimeAcceptList.acceptAll();
+    assertEquals(1000, list.qualityOf(MimeType.of("a", "b")));
+    assertEquals(List.of("*/*"), texts(list));
+  }
+
+  @Test
+  public void testMediaRangeInvalid()
+  {
+    assertThrows(IllegalArgumentException.class, () -> {
+      new MimeMediaRange(WILDCARD, "html", List.of(), 1000);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new MimeMediaRange("text", "html", List.of(), 1001);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new MimeMediaRange("text", "html", List.of(), -1);
+    });
+  }
+
+  @Test
+  public void testListSorted()
+  {
+    final var list = new MimeAcceptList(List.of(
+      new MimeMediaRange(WILDCARD, WILDCARD, List.of(), 1000),
+      new MimeMediaRange("text", "plain", List.of(), 500),
+      new MimeMediaRange("text", "html", List.of(), 1000)
+    ));
+    assertEquals(List.of("text/html", "*/*", "text/plain;q=0.5"), texts(list));
+  }
+
+  @Test
+  public void testServiceLoader()
+    throws Exception
+  {
+    final var factory =
+      ServiceLoader.load(MimeAcceptParserFactoryType.class)
+        .findFirst()
+        .orElseThrow();
+
+    assertInstanceOf(MimeAcceptParsers.class, factory);
+    assertEquals(List.of("a/b"), texts(factory.parse("a/b")));
+  }
+}
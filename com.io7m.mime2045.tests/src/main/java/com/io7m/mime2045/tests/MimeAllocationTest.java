@@ -0,0 +1,474 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.mime2045.tests;
+
+import com.io7m.mime2045.core.MimeStructuredSyntax;
+import com.io7m.mime2045.core.MimeType;
+import com.io7m.mime2045.core.MimeTypeDispatcher;
+import com.io7m.mime2045.core.MimeTypePattern;
+import com.io7m.mime2045.core.MimeTypeParameter;
+import com.io7m.mime2045.fileext.MimeFileExtensions;
+import com.io7m.mime2045.fileext.MimeRegistry;
+import com.io7m.mime2045.fileext.MimeTypes;
+import com.io7m.mime2045.parser.MimeAcceptParsers;
+import com.io7m.mime2045.parser.MimeNegotiator;
+import com.io7m.mime2045.parser.MimeParsers;
+import com.io7m.mime2045.parser.api.MimeParserType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Per-operation allocation ceilings for the hot paths. The budgets are
+ * deliberately loose enough to tolerate the interpreter and the JIT
+ * compiler's choices, but tight enough to fail if an operation starts
+ * producing garbage proportional to its input on every call.
+ */
+
+public final class MimeAllocationTest
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(MimeAllocationTest.class);
+
+  private static final int WARMUP = 20_000;
+  private static final int ITERATIONS = 20_000;
+
+  private static com.sun.management.ThreadMXBean THREADS;
+
+  @BeforeAll
+  public static void setupOnce()
+  {
+    final var bean = ManagementFactory.getThreadMXBean();
+    assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+    THREADS = (com.sun.management.ThreadMXBean) bean;
+    assumeTrue(THREADS.isThreadAllocatedMemorySupported());
+    THREADS.setThreadAllocatedMemoryEnabled(true);
+  }
+
+  /**
+   * Run the given operation repeatedly and assert that the average number
+   * of bytes allocated per call is within the given budget. The result of
+   * each call is accumulated so that the work cannot be discarded.
+   */
+
+  private static void checkBudget(
+    final String name,
+    final long bytesPerOperation,
+    final IntSupplier operation)
+  {
+    int sink = 0;
+    for (int index = 0; index < WARMUP; ++index) {
+      sink += operation.getAsInt();
+    }
+
+    final var thread = Thread.currentThread().getId();
+    final var before = THREADS.getThreadAllocatedBytes(thread);
+    for (int index = 0; index < ITERATIONS; ++index) {
+      sink += operation.getAsInt();
+    }
+    final var after = THREADS.getThreadAllocatedBytes(thread);
+
+    final var perOperation = (double) (after - before) / ITERATIONS;
+    LOG.debug("{}: {} bytes/op (sink {})", name, perOperation, sink);
+    assertTrue(
+      perOperation <= bytesPerOperation,
+      "%s allocated %.2f bytes/op (budget %d)"
+        .formatted(name, perOperation, bytesPerOperation)
+    );
+  }
+
+  private static long firstAsciiBytes(
+    final List<MimeType> types)
+  {
+    int sink = 0;
+    final var thread = Thread.currentThread().getId();
+    final var before = THREADS.getThreadAllocatedBytes(thread);
+    for (int index = 0; index < types.size(); ++index) {
+      sink += types.get(index).asciiBytes().remaining();
+    }
+    final var after = THREADS.getThreadAllocatedBytes(thread);
+    assertTrue(sink > 0);
+    return after - before;
+  }
+
+  private static MimeParserType cachingParser()
+  {
+    return new MimeParsers().create(Map.of(
+      MimeParsers.OPTION_ENGINE,
+      MimeParsers.ENGINE_DIRECT,
+      MimeParsers.OPTION_CACHE_MAX_ENTRIES,
+      "64"
+    ));
+  }
+
+  private static MimeType exampleType()
+  {
+    return new MimeType(
+      "text",
+      "plain",
+      List.of(
+        new MimeTypeParameter("charset", "utf-8"),
+        new MimeTypeParameter("title", "a,quoted;value")
+      )
+    );
+  }
+
+  @Test
+  public void testParseCached()
+  {
+    final var parser = cachingParser();
+    checkBudget("parse (cached)", 8L, () -> {
+      try {
+        return parser.parse("text/html; charset=utf-8").hashCode();
+      } catch (final Exception e) {
+        throw new IllegalStateException(e);
+      }
+    });
+  }
+
+  @Test
+  public void testParseKnown()
+  {
+    final var parser = cachingParser();
+    checkBudget("parse (known)", 8L, () -> {
+      try {
+        return parser.parse("application/json").hashCode();
+      } catch (final Exception e) {
+        throw new IllegalStateException(e);
+      }
+    });
+  }
+
+  @Test
+  public void testSuggestFileExtension()
+  {
+    final var type = exampleType();
+    checkBudget(
+      "suggestFileExtension",
+      8L,
+      () -> MimeFileExtensions.suggestFileExtension(type).hashCode()
+    );
+  }
+
+  @Test
+  public void testTypeForExtension()
+  {
+    checkBudget(
+      "typeForExtension",
+      8L,
+      () -> MimeFileExtensions.typeForExtension("png").hashCode()
+    );
+  }
+
+  @Test
+  public void testTypeForFileName()
+  {
+    checkBudget(
+      "typeForFileName",
+      8L,
+      () -> MimeFileExtensions.typeForFileName("archive.tar.gz").hashCode()
+    );
+  }
+
+  @Test
+  public void testToString()
+  {
+    final var type = exampleType();
+    checkBudget("toString", 8L, () -> type.toString().length());
+  }
+
+  @Test
+  public void testAppendTo()
+  {
+    final var type = exampleType();
+    final var builder = new StringBuilder(128);
+    checkBudget("appendTo", 8L, () -> {
+      builder.setLength(0);
+      return type.appendTo(builder).length();
+    });
+  }
+
+  @Test
+  public void testWriteAsciiTo()
+  {
+    final var type = exampleType();
+    final var buffer = ByteBuffer.allocate(128);
+    checkBudget("writeAsciiTo", 8L, () -> {
+      buffer.clear();
+      return type.writeAsciiTo(buffer).position();
+    });
+  }
+
+  @Test
+  public void testAppendToCached()
+  {
+    final var type = exampleType();
+    final var builder = new StringBuilder(128);
+    type.toString();
+    checkBudget("appendTo (cached)", 8L, () -> {
+      builder.setLength(0);
+      return type.appendTo(builder).length();
+    });
+  }
+
+  @Test
+  public void testWriteAsciiToCached()
+  {
+    final var type = exampleType();
+    final var buffer = ByteBuffer.allocate(128);
+    type.asciiBytes();
+    checkBudget("writeAsciiTo (cached)", 8L, () -> {
+      buffer.clear();
+      return type.writeAsciiTo(buffer).position();
+    });
+  }
+
+  /**
+   * The canonical registered types are encoded when they are created, so
+   * the first call to {@link MimeType#asciiBytes()} on each of them only
+   * allocates the returned view. Fresh, equal types are measured for
+   * comparison, as they must encode on their first call.
+   */
+
+  @Test
+  public void testCanonicalAsciiPreEncoded()
+  {
+    final var canonical = MimeTypes.all();
+    final var fresh = new ArrayList<MimeType>(canonical.size());
+    for (final var type : canonical) {
+      fresh.add(MimeType.of(type.type(), type.subtype()));
+    }
+
+    final var freshBytes = firstAsciiBytes(fresh);
+    final var canonicalBytes = firstAsciiBytes(canonical);
+    final var perType = (double) canonicalBytes / canonical.size();
+    LOG.debug(
+      "asciiBytes (first, canonical): {} bytes/op (fresh {})",
+      perType,
+      (double) freshBytes / fresh.size()
+    );
+
+    assertTrue(
+      perType <= 96.0,
+      "canonical asciiBytes allocated %.2f bytes/op".formatted(perType)
+    );
+    assertTrue(canonicalBytes * 2 < freshBytes);
+  }
+
+  @Test
+  public void testSerializedLength()
+  {
+    final var type = exampleType();
+    checkBudget("serializedLength", 8L, type::serializedLength);
+  }
+
+  @Test
+  public void testEssenceEquals()
+  {
+    final var type = exampleType();
+    final var other = MimeType.of("TEXT", "Plain");
+    checkBudget(
+      "essenceEquals",
+      8L,
+      () -> type.essenceEquals(other) ? 1 : 0
+    );
+  }
+
+  @Test
+  public void testMatchesIgnoringParameters()
+  {
+    final var type = exampleType();
+    checkBudget(
+      "matchesIgnoringParameters",
+      8L,
+      () -> type.matchesIgnoringParameters("Text/Plain; charset=utf-8") ? 1 : 0
+    );
+  }
+
+  /*
+   * A typical browser header has eight ranges, seven of which have
+   * no parameters. The budget allows for the ranges and their strings, the
+   * list, and the sorted copy, but not for per-character garbage.
+   */
+
+  @Test
+  public void testParseAccept()
+  {
+    final var parser = new MimeAcceptParsers().create(Map.of());
+    final var text =
+      "text/html,application/xhtml+xml,application/xml;q=0.9,"
+      + "image/avif,image/webp,image/apng,*/*;q=0.8,"
+      + "application/signed-exchange;v=b3;q=0.7";
+
+    checkBudget("parseAccept", 2048L, () -> {
+      try {
+        return parser.parse(text).ranges().size();
+      } catch (final Exception e) {
+        throw new IllegalStateException(e);
+      }
+    });
+  }
+
+  @Test
+  public void testNegotiateMemoized()
+  {
+    final var negotiator = MimeNegotiator.create(List.of(
+      MimeType.of("application", "json"),
+      MimeType.of("text", "html")
+    ));
+    final var accept =
+      "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8";
+
+    checkBudget(
+      "negotiate (memoized)",
+      8L,
+      () -> negotiator.negotiate(accept).hashCode()
+    );
+  }
+
+  @Test
+  public void testDispatch()
+  {
+    final var dispatcher = MimeTypeDispatcher.create(Map.of(
+      MimeTypePattern.any(), "any",
+      MimeTypePattern.withSuffix("application", "json"), "json",
+      MimeTypePattern.of("text", "plain"), "plain"
+    ));
+    final var types = new MimeType[]{
+      MimeType.of("application", "vnd.api+json"),
+      MimeType.of("text", "plain"),
+      MimeType.of("image", "png"),
+    };
+
+    checkBudget(
+      "handlerFor",
+      8L,
+      () -> dispatcher.handlerFor(types[0]).hashCode()
+            + dispatcher.handlerFor(types[1]).hashCode()
+            + dispatcher.handlerFor(types[2]).hashCode()
+    );
+
+    /*
+     * Distinct instances that are equal to the cached types, as would be
+     * produced by parsing each request afresh.
+     */
+
+    final var fresh = new MimeType[64];
+    for (int index = 0; index < fresh.length; ++index) {
+      final var type = types[index % types.length];
+      fresh[index] = new MimeType(type.type(), type.subtype(), List.of());
+    }
+    final var counter = new int[1];
+
+    checkBudget(
+      "handlerFor (fresh)",
+      8L,
+      () -> {
+        final var index = counter[0]++ & (fresh.length - 1);
+        return dispatcher.handlerFor(fresh[index]).hashCode();
+      }
+    );
+  }
+
+  @Test
+  public void testStructuredSyntax()
+  {
+    final var types = new MimeType[]{
+      MimeType.of("application", "vnd.api+json"),
+      MimeType.of("application", "xml"),
+      MimeType.of("image", "png"),
+    };
+
+    checkBudget(
+      "hasStructuredSyntax",
+      8L,
+      () -> {
+        var count = 0;
+        for (final var type : types) {
+          count += type.hasStructuredSyntax(MimeStructuredSyntax.JSON) ? 1 : 0;
+          count += type.structuredSyntax().isPresent() ? 1 : 0;
+        }
+        return count;
+      }
+    );
+  }
+
+  @Test
+  public void testParameterLookup()
+  {
+    final var type = new MimeType("multipart", "form-data", List.of(
+      new MimeTypeParameter("boundary", "xyzzy"),
+      new MimeTypeParameter("charset", "utf-8"),
+      new MimeTypeParameter("format", "flowed")
+    ));
+
+    checkBudget(
+      "parameterValue",
+      8L,
+      () -> type.parameterValue("CHARSET").orElseThrow().length()
+            + type.parameterValue("boundary").orElseThrow().length()
+            + type.parameter("Format").orElseThrow().value().length()
+            + type.parameterValue("missing").orElse("").length()
+    );
+  }
+
+  @Test
+  public void testParameterCompare()
+  {
+    final var p0 = new MimeTypeParameter("charset", "utf-8");
+    final var p1 = new MimeTypeParameter("charset", "us-ascii");
+    final var p2 = new MimeTypeParameter("boundary", "xyzzy");
+
+    checkBudget(
+      "compareTo",
+      8L,
+      () -> p0.compareTo(p1) + p1.compareTo(p2) + p2.compareTo(p0)
+    );
+  }
+
+  @Test
+  public void testRegistrySnapshotLookup()
+    throws Exception
+  {
+    try (var registry = MimeRegistry.open(List.of())) {
+      final var snapshot = registry.snapshot();
+      final var name = new StringBuilder("/tmp/Archive.TAR.GZ");
+      final var type = exampleType();
+
+      checkBudget(
+        "MimeRegistrySnapshot",
+        8L,
+        () -> snapshot.typeForExtension("JSON").hashCode()
+              + snapshot.typeForFileName(name).hashCode()
+              + snapshot.suggestFileExtension(type).hashCode()
+              + snapshot.extensionsOf(type).size()
+      );
+    }
+  }
+}
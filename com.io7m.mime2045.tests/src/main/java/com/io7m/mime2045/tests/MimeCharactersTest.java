@@ -0,0 +1,171 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.mime2045.tests;
+
+import com.io7m.mime2045.core.MimeCharacters;
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+import net.jqwik.api.Tuple;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class MimeCharactersTest
+{
+  private static final String BARE =
+    "!#$%&'*+-.0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ^_`"
+    + "abcdefghijklmnopqrstuvwxyz{|}~";
+
+  private static final String TSPECIALS =
+    "()<>@,;:\\\"/[]?=";
+
+  private static boolean isAllTokenBytesSlow(
+    final byte[] data,
+    final int offset,
+    final int length)
+  {
+    for (int index = offset; index < offset + length; ++index) {
+      if (BARE.indexOf((char) (data[index] & 0xff)) < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int firstDisallowedSlow(
+    final byte[] data,
+    final int offset,
+    final int length)
+  {
+    for (int index = offset; index < offset + length; ++index) {
+      if (BARE.indexOf((char) (data[index] & 0xff)) < 0) {
+        return index;
+      }
+    }
+    return -1;
+  }
+
+  @Test
+  public void testAllCharacters()
+  {
+    for (int c = 0; c <= 0xffff; ++c) {
+      final var ch = (char) c;
+      final var bare = BARE.indexOf(ch) >= 0;
+      final var quoted = bare || TSPECIALS.indexOf(ch) >= 0;
+      assertEquals(bare, MimeCharacters.characterIsAllowedBare(ch));
+      assertEquals(quoted, MimeCharacters.characterIsAllowedQuoted(ch));
+    }
+  }
+
+  @Test
+  public void testFirstDisallowed()
+  {
+    assertEquals(-1, MimeCharacters.firstDisallowedBare(""));
+    assertEquals(-1, MimeCharacters.firstDisallowedBare("utf-8"));
+    assertEquals(3, MimeCharacters.firstDisallowedBare("utf/8"));
+    assertEquals(3, MimeCharacters.firstDisallowedBare("abc/d", 1, 5));
+    assertEquals(-1, MimeCharacters.firstDisallowedBare("abc/d", 0, 3));
+    assertEquals(-1, MimeCharacters.firstDisallowedQuoted("utf/8"));
+    assertEquals(1, MimeCharacters.firstDisallowedQuoted("a b"));
+    assertEquals(2, MimeCharacters.firstDisallowedQuoted("abé"));
+
+    assertThrows(IndexOutOfBoundsException.class, () -> {
+      MimeCharacters.firstDisallowedBare("abc", 2, 4);
+    });
+  }
+
+  /**
+   * Every byte value is placed at every position of a run of token bytes, so
+   * that each value is seen in each lane of the word-at-a-time scan as
+   * well as in the scalar tail.
+   */
+
+  @Test
+  public void testTokenBytesEachLane()
+  {
+    final var base = new byte[19];
+    for (int index = 0; index < base.length; ++index) {
+      base[index] = (byte) 'a';
+    }
+    assertTrue(MimeCharacters.isAllTokenBytes(base, 0, base.length));
+
+    for (int value = 0; value < 256; ++value) {
+      for (int position = 0; position < base.length; ++position) {
+        final var data = base.clone();
+        data[position] = (byte) value;
+        assertEquals(
+          isAllTokenBytesSlow(data, 0, data.length),
+          MimeCharacters.isAllTokenBytes(data, 0, data.length),
+          "byte 0x%02x at %d".formatted(value, position)
+        );
+        assertEquals(
+          isAllTokenBytesSlow(data, 3, 16),
+          MimeCharacters.isAllTokenBytes(data, 3, 16),
+          "byte 0x%02x at %d (offset 3)".formatted(value, position)
+        );
+        assertEquals(
+          firstDisallowedSlow(data, 3, 16),
+          MimeCharacters.firstDisallowedBareByte(data, 3, 16),
+          "byte 0x%02x at %d (offset 3)".formatted(value, position)
+        );
+      }
+    }
+  }
+
+  @Test
+  public void testTokenBytesBounds()
+  {
+    assertTrue(MimeCharacters.isAllTokenBytes(new byte[0], 0, 0));
+    assertThrows(IndexOutOfBoundsException.class, () -> {
+      MimeCharacters.isAllTokenBytes(new byte[4], 2, 3);
+    });
+  }
+
+  @Provide(value = "TokenishBytes")
+  private Arbitrary<byte[]> tokenishBytes()
+  {
+    final var tokenBytes =
+      Arbitraries.of(BARE.chars().boxed().toList())
+        .map(Integer::byteValue);
+
+    return Arbitraries.frequencyOf(
+        Tuple.of(Integer.valueOf(20), tokenBytes),
+        Tuple.of(Integer.valueOf(1), Arbitraries.bytes()))
+      .array(byte[].class)
+      .ofMaxSize(40);
+  }
+
+  @Property(tries = 5000)
+  public void testTokenBytesAgree(
+    final @ForAll(value = "TokenishBytes") byte[] data)
+  {
+    assertEquals(
+      isAllTokenBytesSlow(data, 0, data.length),
+      MimeCharacters.isAllTokenBytes(data, 0, data.length)
+    );
+    assertEquals(
+      firstDisallowedSlow(data, 0, data.length),
+      MimeCharacters.firstDisallowedBareByte(data, 0, data.length)
+    );
+  }
+}
@@ -17,13 +17,19 @@
 
 package com.io7m.mime2045.tests;
 
+import com.io7m.mime2045.core.MimeType;
+import com.io7m.mime2045.core.MimeTypeParameter;
 import com.io7m.mime2045.fileext.MimeFileExtensions;
+import com.io7m.mime2045.fileext.MimeTypes;
 import com.io7m.mime2045.parser.MimeParsers;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 public final class MimeFileExtensionsTest
 {
@@ -46,4 +52,146 @@ public final class MimeFileExtensionsTest
         MimeFileExtensions.suggestFileExtension(type));
     }
   }
+
+  @Test
+  public void testIgnoresCaseAndParameters()
+  {
+    final var expected = Optional.of("txt");
+    assertEquals(
+      expected,
+      MimeFileExtensions.suggestFileExtension(MimeType.of("text", "plain")));
+    assertEquals(
+      expected,
+      MimeFileExtensions.suggestFileExtension(MimeType.of("TEXT", "Plain")));
+    assertEquals(
+      expected,
+      MimeFileExtensions.suggestFileExtension(
+        new MimeType("text", "plain", List.of(
+          new MimeTypeParameter("charset", "utf-8")))));
+    assertEquals(
+      Optional.of("a2l"),
+      MimeFileExtensions.suggestFileExtension(
+        MimeType.of("application", "a2l")));
+  }
+
+  @Test
+  public void testUnknown()
+  {
+    assertEquals(
+      Optional.empty(),
+      MimeFileExtensions.suggestFileExtension(MimeType.of("x-none", "none")));
+    assertEquals(
+      Optional.empty(),
+      MimeFileExtensions.suggestFileExtension(MimeType.of("text", "plai")));
+    assertEquals(
+      Optional.empty(),
+      MimeFileExtensions.suggestFileExtension(MimeType.of("", "")));
+    assertEquals(
+      Optional.empty(),
+      MimeFileExtensions.suggestFileExtension(
+        MimeType.of("application", "json-seq")));
+  }
+
+  @Test
+  public void testSharedResults()
+  {
+    assertSame(
+      MimeFileExtensions.suggestFileExtension(MimeType.of("text", "plain")),
+      MimeFileExtensions.suggestFileExtension(MimeTypes.TEXT_PLAIN)
+    );
+  }
+
+  @Test
+  public void testEveryRegisteredType()
+  {
+    for (final var type : MimeTypes.all()) {
+      final var extension = MimeFileExtensions.suggestFileExtension(type);
+      assertEquals(
+        extension.isPresent(),
+        MimeFileExtensions.typesWithFileExtensions()
+          .contains(type.toString())
+      );
+    }
+  }
+
+  @Test
+  public void testTypeForExtension()
+  {
+    assertEquals(
+      Optional.of(MimeTypes.APPLICATION_GZIP),
+      MimeFileExtensions.typeForExtension("gz"));
+    assertEquals(
+      Optional.of(MimeTypes.APPLICATION_GZIP),
+      MimeFileExtensions.typeForExtension("TGZ"));
+    assertEquals(
+      Optional.of(MimeTypes.APPLICATION_MATHEMATICA),
+      MimeFileExtensions.typeForExtension("mb"));
+    assertEquals(
+      Optional.of(MimeTypes.IMAGE_JPEG),
+      MimeFileExtensions.typeForExtension("jfif"));
+    assertEquals(
+      Optional.of(MimeTypes.APPLICATION_CWL_JSON),
+      MimeFileExtensions.typeForExtension("cwl.json"));
+    assertEquals(
+      Optional.of(MimeTypes.TEXT_HTML),
+      MimeFileExtensions.typeForExtension("index.htm", 6, 9));
+
+    assertEquals(
+      Optional.empty(),
+      MimeFileExtensions.typeForExtension(""));
+    assertEquals(
+      Optional.empty(),
+      MimeFileExtensions.typeForExtension(".json"));
+    assertEquals(
+      Optional.empty(),
+      MimeFileExtensions.typeForExtension("nonexistent-extension"));
+    assertEquals(
+      Optional.empty(),
+      MimeFileExtensions.typeForExtension("x".repeat(1000)));
+  }
+
+  @Test
+  public void testTypeForExtensionShared()
+  {
+    final var r0 = MimeFileExtensions.typeForExtension("json");
+    final var r1 = MimeFileExtensions.typeForExtension(new StringBuilder("JSON"));
+    assertSame(r0, r1);
+    assertSame(MimeTypes.APPLICATION_JSON, r0.orElseThrow());
+  }
+
+  @Test
+  public void testTypeForFileName()
+  {
+    assertEquals(
+      Optional.of(MimeTypes.APPLICATION_JSON),
+      MimeFileExtensions.typeForFileName("data.json"));
+    assertEquals(
+      Optional.of(MimeTypes.APPLICATION_CWL_JSON),
+      MimeFileExtensions.typeForFileName("workflow.cwl.json"));
+    assertEquals(
+      Optional.of(MimeTypes.APPLICATION_CWL),
+      MimeFileExtensions.typeForFileName("workflow.json.cwl"));
+    assertEquals(
+      Optional.of(MimeTypes.APPLICATION_GZIP),
+      MimeFileExtensions.typeForFileName("/var/tmp/archive.tar.gz"));
+    assertEquals(
+      Optional.of(MimeTypes.TEXT_PLAIN),
+      MimeFileExtensions.typeForFileName("C:\\Users\\x\\README.TXT"));
+    assertEquals(
+      Optional.of(MimeTypes.TEXT_PLAIN),
+      MimeFileExtensions.typeForFileName("a.b.c.unknown.txt"));
+
+    assertEquals(
+      Optional.empty(),
+      MimeFileExtensions.typeForFileName(".json"));
+    assertEquals(
+      Optional.empty(),
+      MimeFileExtensions.typeForFileName("dir.json/file"));
+    assertEquals(
+      Optional.empty(),
+      MimeFileExtensions.typeForFileName("file."));
+    assertEquals(
+      Optional.empty(),
+      MimeFileExtensions.typeForFileName(""));
+  }
 }
@@ -0,0 +1,159 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.mime2045.tests;
+
+import com.io7m.mime2045.core.MimeType;
+import com.io7m.mime2045.fileext.MimeFileExtensions;
+import com.io7m.mime2045.fileext.MimeFileNameClassifier;
+import com.io7m.mime2045.fileext.MimeTypes;
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class MimeFileNameClassifierTest
+{
+  @Test
+  public void testClassify()
+  {
+    assertEquals(
+      Optional.of(MimeTypes.APPLICATION_CWL_JSON),
+      MimeFileNameClassifier.classify("x.cwl.json"));
+    assertEquals(
+      Optional.of(MimeTypes.APPLICATION_JSON),
+      MimeFileNameClassifier.classify("x.y.JSON"));
+    assertEquals(
+      Optional.of(MimeTypes.APPLICATION_GZIP),
+      MimeFileNameClassifier.classify("archive.tar.gz"));
+    assertEquals(
+      Optional.of(MimeTypes.APPLICATION_X_TAR),
+      MimeFileNameClassifier.classify("archive.gz.tar"));
+    assertEquals(
+      Optional.of(MimeTypes.TEXT_PLAIN),
+      MimeFileNameClassifier.classify(Path.of("a", "b", "notes.txt")));
+
+    assertEquals(
+      Optional.empty(),
+      MimeFileNameClassifier.classify(".json"));
+    assertEquals(
+      Optional.empty(),
+      MimeFileNameClassifier.classify("dir/.json"));
+    assertEquals(
+      Optional.empty(),
+      MimeFileNameClassifier.classify("json"));
+    assertEquals(
+      Optional.empty(),
+      MimeFileNameClassifier.classify(""));
+  }
+
+  @Test
+  public void testClassifyShared()
+  {
+    assertSame(
+      MimeFileExtensions.typeForExtension("json"),
+      MimeFileNameClassifier.classify("data.json")
+    );
+  }
+
+  @Provide(value = "FileNames")
+  private Arbitrary<String> fileNames()
+  {
+    final var pieces =
+      Arbitraries.of(
+        "a", "x", "/", "\\\\", ".", ".json", ".JSON", ".cwl", ".tar", ".gz",
+        ".txt", "cwl", "json", ".tm", ".jsonld", ".1905", ".1", "é"
+      );
+
+    return pieces.list()
+      .ofMaxSize(8)
+      .map(xs -> String.join("", xs));
+  }
+
+  @Property(tries = 3000)
+  public void testAgreesWithExtensionLookup(
+    final @ForAll(value = "FileNames") String name)
+  {
+    assertEquals(
+      MimeFileExtensions.typeForFileName(name),
+      MimeFileNameClassifier.classify(name),
+      () -> "Classification of '%s'".formatted(name)
+    );
+  }
+
+  @Test
+  public void testClassifyTree(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var deep = directory.resolve("a").resolve("b").resolve("c");
+    Files.createDirectories(deep);
+    Files.createDirectories(directory.resolve("d.json"));
+    Files.writeString(directory.resolve("top.txt"), "x");
+    Files.writeString(directory.resolve("a").resolve("x.cwl.json"), "x");
+    Files.writeString(deep.resolve("archive.tar.gz"), "x");
+    Files.writeString(deep.resolve("unknown.zzzzz"), "x");
+
+    final Map<Path, MimeType> results =
+      MimeFileNameClassifier.classifyTree(directory);
+
+    assertEquals(
+      Map.of(
+        directory.resolve("top.txt"),
+        MimeTypes.TEXT_PLAIN,
+        directory.resolve("a").resolve("x.cwl.json"),
+        MimeTypes.APPLICATION_CWL_JSON,
+        deep.resolve("archive.tar.gz"),
+        MimeTypes.APPLICATION_GZIP
+      ),
+      results
+    );
+
+    final var all = new ConcurrentHashMap<Path, Optional<MimeType>>();
+    final var pool = new ForkJoinPool(4);
+    try {
+      MimeFileNameClassifier.classifyTree(directory, pool, all::put);
+    } finally {
+      pool.shutdown();
+    }
+    assertEquals(4, all.size());
+    assertEquals(Optional.empty(), all.get(deep.resolve("unknown.zzzzz")));
+  }
+
+  @Test
+  public void testClassifyTreeMissing(
+    final @TempDir Path directory)
+  {
+    assertThrows(NoSuchFileException.class, () -> {
+      MimeFileNameClassifier.classifyTree(directory.resolve("missing"));
+    });
+  }
+}
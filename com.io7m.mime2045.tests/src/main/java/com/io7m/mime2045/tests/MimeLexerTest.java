@@ -170,4 +170,17 @@ public final class MimeLexerTest
 
     assertInstanceOf(MimeTokenType.Invalid.class, lexer.token());
   }
+
+  @Test
+  public void testError5()
+    throws Exception
+  {
+    final var text = new StringBuilder(128);
+    text.append('\u2028');
+
+    final var lexer =
+      lexerOf(text.toString());
+
+    assertInstanceOf(MimeTokenType.Invalid.class, lexer.token());
+  }
 }
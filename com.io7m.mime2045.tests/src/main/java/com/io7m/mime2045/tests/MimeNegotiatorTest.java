@@ -0,0 +1,175 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.mime2045.tests;
+
+import com.io7m.mime2045.core.MimeType;
+import com.io7m.mime2045.core.MimeTypeParameter;
+import com.io7m.mime2045.parser.MimeAcceptParsers;
+import com.io7m.mime2045.parser.MimeNegotiator;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class MimeNegotiatorTest
+{
+  private static final MimeType JSON =
+    MimeType.of("application", "json");
+  private static final MimeType XML =
+    MimeType.of("application", "xml");
+  private static final MimeType HTML =
+    MimeType.of("text", "html");
+  private static final MimeType PLAIN =
+    new MimeType("text", "plain", List.of(
+      new MimeTypeParameter("charset", "utf-8")));
+
+  private static final List<MimeType> TYPES =
+    List.of(JSON, XML, HTML, PLAIN);
+
+  @Test
+  public void testBrowser()
+  {
+    final var negotiator = MimeNegotiator.create(TYPES);
+    assertEquals(
+      Optional.of(HTML),
+      negotiator.negotiate(
+        "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8")
+    );
+  }
+
+  @Test
+  public void testWildcardPrefersServerOrder()
+  {
+    final var negotiator = MimeNegotiator.create(TYPES);
+    assertEquals(Optional.of(JSON), negotiator.negotiate("*/*"));
+    assertEquals(Optional.of(HTML), negotiator.negotiate("text/*"));
+    assertEquals(Optional.of(XML), negotiator.negotiate("application/*;q=0.5, application/json;q=0.1"));
+  }
+
+  @Test
+  public void testMostSpecificRangeWins()
+  {
+    final var negotiator = MimeNegotiator.create(TYPES);
+    assertEquals(
+      Optional.of(XML),
+      negotiator.negotiate("*/*;q=0.9, application/json;q=0.2")
+    );
+    assertEquals(
+      Optional.of(HTML),
+      negotiator.negotiate("application/*;q=0, */*")
+    );
+  }
+
+  @Test
+  public void testParameters()
+  {
+    final var negotiator = MimeNegotiator.create(TYPES);
+    assertEquals(
+      Optional.of(PLAIN),
+      negotiator.negotiate("text/plain;charset=utf-8, text/html;q=0.5")
+    );
+    assertEquals(
+      Optional.of(HTML),
+      negotiator.negotiate("text/plain;charset=latin1, text/html;q=0.5")
+    );
+  }
+
+  /**
+   * A concrete range outranks a wildcard however many parameters the
+   * wildcard has, and so refusing the concrete type refuses it.
+   */
+
+  @Test
+  public void testParameterizedWildcardDoesNotOutrankConcrete()
+    throws Exception
+  {
+    final var flowed =
+      new MimeType("text", "plain", List.of(
+        new MimeTypeParameter("charset", "utf-8"),
+        new MimeTypeParameter("format", "flowed")));
+    final var negotiator = MimeNegotiator.create(List.of(flowed));
+    final var accept =
+      "text/*;charset=utf-8;format=flowed;q=1, text/plain;q=0";
+
+    assertEquals(Optional.empty(), negotiator.negotiate(accept));
+    assertEquals(
+      Optional.empty(),
+      negotiator.negotiate(new MimeAcceptParsers().parse(accept))
+    );
+  }
+
+  @Test
+  public void testNothingAcceptable()
+  {
+    final var negotiator = MimeNegotiator.create(TYPES);
+    assertEquals(Optional.empty(), negotiator.negotiate("image/png"));
+    assertEquals(Optional.empty(), negotiator.negotiate("text/html;q=0"));
+    assertEquals(Optional.empty(), negotiator.negotiate(""));
+  }
+
+  @Test
+  public void testMalformedIgnored()
+  {
+    final var negotiator = MimeNegotiator.create(TYPES);
+    assertEquals(
+      Optional.of(XML),
+      negotiator.negotiate("application/json;q=2, */json, application/xml")
+    );
+  }
+
+  @Test
+  public void testMemoized()
+  {
+    final var negotiator = MimeNegotiator.create(TYPES, 16);
+    final var accept = "application/xml, application/json;q=0.5";
+
+    final var r0 = negotiator.negotiate(accept);
+    final var r1 = negotiator.negotiate(accept);
+    assertEquals(Optional.of(XML), r0);
+    assertSame(r0, r1);
+
+    final var stats = negotiator.cacheStatistics().orElseThrow();
+    assertEquals(1L, stats.hits());
+    assertEquals(1L, stats.misses());
+  }
+
+  @Test
+  public void testNotMemoized()
+    throws Exception
+  {
+    final var negotiator = MimeNegotiator.create(TYPES, 0);
+    assertEquals(Optional.empty(), negotiator.cacheStatistics());
+    assertEquals(Optional.of(JSON), negotiator.negotiate("*/*"));
+    assertEquals(
+      Optional.of(HTML),
+      negotiator.negotiate(new MimeAcceptParsers().parse("text/*"))
+    );
+  }
+
+  @Test
+  public void testNoTypes()
+  {
+    assertThrows(IllegalArgumentException.class, () -> {
+      MimeNegotiator.create(List.of());
+    });
+  }
+}
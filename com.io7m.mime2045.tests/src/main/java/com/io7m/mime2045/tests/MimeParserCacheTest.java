@@ -0,0 +1,246 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.mime2045.tests;
+
+import com.io7m.mime2045.core.MimeType;
+import com.io7m.mime2045.parser.MimeParsers;
+import com.io7m.mime2045.parser.api.MimeCachingParserType;
+import com.io7m.mime2045.parser.api.MimeParseException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class MimeParserCacheTest
+{
+  private static MimeCachingParserType cachingParser(
+    final int size,
+    final boolean doorkeeper)
+  {
+    return assertInstanceOf(
+      MimeCachingParserType.class,
+      new MimeParsers().create(Map.of(
+        MimeParsers.OPTION_ENGINE,
+        MimeParsers.ENGINE_DIRECT,
+        MimeParsers.OPTION_CACHE_MAX_ENTRIES,
+        Integer.toString(size),
+        MimeParsers.OPTION_CACHE_DOORKEEPER,
+        Boolean.toString(doorkeeper)
+      ))
+    );
+  }
+
+  @Test
+  public void testNotCachingByDefault()
+  {
+    assertTrue(
+      !(new MimeParsers().create(Map.of()) instanceof MimeCachingParserType)
+    );
+  }
+
+  @Test
+  public void testDoorkeeperAdmitsOnSecondSight()
+    throws Exception
+  {
+    final var parser = cachingParser(64, true);
+
+    final var t0 = parser.parse("text/plain");
+    final var t1 = parser.parse("text/plain");
+    final var t2 = parser.parse("text/plain");
+
+    assertEquals(MimeType.of("text", "plain"), t0);
+    assertNotSame(t0, t1);
+    assertSame(t1, t2);
+
+    final var stats = parser.cacheStatistics();
+    assertEquals(1L, stats.hits());
+    assertEquals(2L, stats.misses());
+    assertEquals(1L, stats.rejections());
+    assertEquals(1L, stats.admissions());
+    assertEquals(1, stats.size());
+  }
+
+  @Test
+  public void testDoorkeeperRefusesStringHashCollisions()
+    throws Exception
+  {
+    final var parser = cachingParser(4096, true);
+
+    /*
+     * "Aa" and "BB" have the same String.hashCode(), so every pair of keys
+     * collides under the string hash.
+     */
+
+    for (int index = 0; index < 200; ++index) {
+      final var prefix = "text/k%d".formatted(Integer.valueOf(index));
+      assertEquals(
+        (prefix + "Aa").hashCode(),
+        (prefix + "BB").hashCode()
+      );
+      parser.parse(prefix + "Aa");
+      parser.parse(prefix + "BB");
+    }
+
+    final var stats = parser.cacheStatistics();
+    assertTrue(stats.admissions() < 10L, stats.toString());
+    assertTrue(stats.rejections() > 390L, stats.toString());
+  }
+
+  @Test
+  public void testWithoutDoorkeeper()
+    throws Exception
+  {
+    final var parser = cachingParser(64, false);
+
+    final var t0 = parser.parse("text/plain");
+    final var t1 = parser.parse("text/plain");
+    assertSame(t0, t1);
+    assertEquals(1L, parser.cacheStatistics().hits());
+  }
+
+  @Test
+  public void testBytesShareEntries()
+    throws Exception
+  {
+    final var parser = cachingParser(64, false);
+    final var text = "xtext/html;charset=utf-8";
+    final var t0 = parser.parse(text.substring(1));
+    final var bytes = text.getBytes(US_ASCII);
+
+    assertSame(t0, parser.parse(bytes, 1, bytes.length - 1));
+    assertSame(t0, parser.parse(ByteBuffer.wrap(bytes).position(1)));
+    assertSame(t0, parser.parse(text, 1, text.length()));
+
+    final var direct = ByteBuffer.allocateDirect(bytes.length);
+    direct.put(bytes).flip().position(1);
+    assertSame(t0, parser.parse(direct));
+    assertEquals(1, direct.position());
+    assertEquals(4L, parser.cacheStatistics().hits());
+  }
+
+  @Test
+  public void testFailuresNotCached()
+  {
+    final var parser = cachingParser(64, false);
+    for (int index = 0; index < 3; ++index) {
+      assertThrows(MimeParseException.class, () -> {
+        parser.parse("text/");
+      });
+    }
+    assertEquals(0, parser.cacheStatistics().size());
+  }
+
+  @Test
+  public void testBounded()
+    throws Exception
+  {
+    final var parser = cachingParser(100, false);
+    for (int index = 0; index < 10_000; ++index) {
+      parser.parse("text/x%d".formatted(Integer.valueOf(index)));
+    }
+
+    final var stats = parser.cacheStatistics();
+    assertEquals(128, stats.capacity());
+    assertTrue(stats.size() <= stats.capacity());
+    assertTrue(stats.evictions() > 0L);
+  }
+
+  @Test
+  public void testHotEntriesSurvivePollution()
+    throws Exception
+  {
+    final var parser = cachingParser(64, true);
+    final var hot = new ArrayList<MimeType>();
+    for (int index = 0; index < 16; ++index) {
+      final var text = "text/hot%d".formatted(Integer.valueOf(index));
+      parser.parse(text);
+      hot.add(parser.parse(text));
+    }
+
+    /*
+     * The doorkeeper's hash is seeded per cache, so the occasional cold key
+     * passes it as a false positive and might evict a hot entry. Require
+     * that the hot entries overwhelmingly survive.
+     */
+
+    int survived = 0;
+    for (int round = 0; round < 100; ++round) {
+      for (int index = 0; index < 100; ++index) {
+        final var cold = round * 100 + index;
+        parser.parse("text/cold%d".formatted(Integer.valueOf(cold)));
+      }
+      for (int index = 0; index < 16; ++index) {
+        final var text = "text/hot%d".formatted(Integer.valueOf(index));
+        final var type = parser.parse(text);
+        if (type == hot.get(index)) {
+          ++survived;
+        } else {
+          hot.set(index, type);
+        }
+      }
+    }
+
+    assertTrue(survived >= 1440, Integer.toString(survived));
+
+    assertTrue(parser.cacheStatistics().rejections() > 9_000L);
+  }
+
+  @Test
+  public void testConcurrent()
+    throws Exception
+  {
+    final var parser = cachingParser(32, true);
+
+    final var tasks = new ArrayList<Callable<Void>>();
+    for (int thread = 0; thread < 8; ++thread) {
+      tasks.add(() -> {
+        for (int count = 0; count < 5000; ++count) {
+          final var index = count % 64;
+          final var text = "text/t%d".formatted(Integer.valueOf(index));
+          assertEquals(
+            MimeType.of("text", "t" + index),
+            parser.parse(text)
+          );
+        }
+        return null;
+      });
+    }
+
+    final var executor = Executors.newFixedThreadPool(8);
+    try {
+      for (final var future : executor.invokeAll(tasks)) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    final var stats = parser.cacheStatistics();
+    assertEquals(40_000L, stats.hits() + stats.misses());
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.mime2045.tests;
+
+import com.io7m.mime2045.core.MimeType;
+import com.io7m.mime2045.parser.MimeParsers;
+import com.io7m.mime2045.parser.api.MimeParserType;
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class MimeParserEnginesTest
+{
+  private static final MimeParserType JFLEX =
+    new MimeParsers().create(Map.of(
+      MimeParsers.OPTION_ENGINE, MimeParsers.ENGINE_JFLEX));
+
+  private static final MimeParserType DIRECT =
+    new MimeParsers().create(Map.of(
+      MimeParsers.OPTION_ENGINE, MimeParsers.ENGINE_DIRECT));
+
+  private static Object outcome(
+    final MimeParserType parser,
+    final String text)
+  {
+    try {
+      return parser.parse(text);
+    } catch (final Exception e) {
+      return e.getClass();
+    }
+  }
+
+  private static void checkSame(
+    final String text)
+  {
+    assertEquals(
+      outcome(JFLEX, text),
+      outcome(DIRECT, text),
+      () -> "Engines disagree on '%s'".formatted(text)
+    );
+  }
+
+  @Provide(value = "Fragments")
+  private Arbitrary<String> fragments()
+  {
+    final var pieces =
+      Arbitraries.of(
+        "text", "plain", "/", ";", "=", "\"", "\\", " ", "\t", "\r\n",
+        "\n", "\u0085", " ", "\0", "@", "a", "utf-8", "x y", "*", "é",
+        "\"a\\\"b\"", "charset", "+json"
+      );
+
+    return pieces.list()
+      .ofMaxSize(12)
+      .map(xs -> String.join("", xs));
+  }
+
+  @Property(tries = 5000)
+  public void testEnginesAgree(
+    final @ForAll(value = "Fragments") String text)
+  {
+    checkSame(text);
+  }
+
+  @Test
+  public void testEnginesAgreeSpecific()
+  {
+    final var cases = new String[]{
+      "",
+      "text",
+      "text/",
+      "text/plain",
+      " text / plain ",
+      "text/plain;",
+      "text/plain;a",
+      "text/plain;a=",
+      "text/plain;a=b",
+      "text/plain;a=b;",
+      "text/plain;a=\"b\"",
+      "text/plain;a=\"\"",
+      "text/plain;a=\"b",
+      "text/plain;a=\"b\\",
+      "text/plain;a=\"b\\\n\"",
+      "text/plain;a=\"b c\"",
+      "text/plain;a=b c",
+      "text/plain;a==",
+      "text/plain\0",
+      "\"text\"/plain",
+      "\u000B",
+      "text/plain\u2028",
+      "text/plain;a=\"\\\u0085\"",
+      "text/plain;a=b;c=\"d\\\"e\"",
+    };
+
+    for (final var text : cases) {
+      checkSame(text);
+    }
+  }
+
+  @Test
+  public void testDirectTextPlain()
+    throws Exception
+  {
+    assertEquals(MimeType.of("text", "plain"), DIRECT.parse("text/plain"));
+  }
+
+  @Test
+  public void testCaseNormalized()
+    throws Exception
+  {
+    final var text = "Text/HTML; CharSet=\"UTF-8\"";
+    final var expected = "text/html;charset=UTF-8";
+    assertEquals(expected, JFLEX.parse(text).toString());
+    assertEquals(expected, DIRECT.parse(text).toString());
+  }
+
+  @Test
+  public void testUnknownEngine()
+  {
+    assertThrows(IllegalArgumentException.class, () -> {
+      new MimeParsers().create(Map.of(MimeParsers.OPTION_ENGINE, "x"));
+    });
+  }
+}
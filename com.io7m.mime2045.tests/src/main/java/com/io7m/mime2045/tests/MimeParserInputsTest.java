@@ -0,0 +1,226 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.mime2045.tests;
+
+import com.io7m.mime2045.core.MimeType;
+import com.io7m.mime2045.core.MimeTypeParameter;
+import com.io7m.mime2045.parser.MimeParsers;
+import com.io7m.mime2045.parser.api.MimeParseException;
+import com.io7m.mime2045.parser.api.MimeParseResultType;
+import com.io7m.mime2045.parser.api.MimeParserType;
+import com.io7m.mime2045.parser.internal.MimeByteSequence;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class MimeParserInputsTest
+{
+  private static final String TEXT =
+    "xxtext/plain;charset=\"utf-8\";a=byy";
+
+  private static final MimeType EXPECTED =
+    new MimeType(
+      "text",
+      "plain",
+      List.of(
+        new MimeTypeParameter("a", "b"),
+        new MimeTypeParameter("charset", "utf-8")
+      )
+    );
+
+  private static Stream<MimeParserType> parsers()
+  {
+    return Stream.of(MimeParsers.ENGINE_JFLEX, MimeParsers.ENGINE_DIRECT)
+      .map(engine -> {
+        return new MimeParsers()
+          .create(Map.of(MimeParsers.OPTION_ENGINE, engine));
+      });
+  }
+
+  private static Stream<DynamicTest> forEachParser(
+    final String name,
+    final ParserTestType test)
+  {
+    return parsers().map(parser -> {
+      return DynamicTest.dynamicTest(
+        "%s (%s)".formatted(name, parser.getClass().getSimpleName()),
+        () -> test.execute(parser)
+      );
+    });
+  }
+
+  private interface ParserTestType
+  {
+    void execute(MimeParserType parser)
+      throws Exception;
+  }
+
+  @TestFactory
+  public Stream<DynamicTest> testCharSequenceRange()
+  {
+    return forEachParser("CharSequence", parser -> {
+      assertEquals(EXPECTED, parser.parse(TEXT, 2, TEXT.length() - 2));
+      assertEquals(
+        EXPECTED,
+        parser.parse(new StringBuilder(TEXT), 2, TEXT.length() - 2)
+      );
+    });
+  }
+
+  @TestFactory
+  public Stream<DynamicTest> testByteArrayRange()
+  {
+    return forEachParser("byte[]", parser -> {
+      final var data = TEXT.getBytes(US_ASCII);
+      assertEquals(EXPECTED, parser.parse(data, 2, data.length - 4));
+    });
+  }
+
+  @TestFactory
+  public Stream<DynamicTest> testHeapBuffer()
+  {
+    return forEachParser("Heap ByteBuffer", parser -> {
+      final var data = TEXT.getBytes(US_ASCII);
+      final var buffer =
+        ByteBuffer.wrap(data)
+          .slice(1, data.length - 1)
+          .position(1)
+          .limit(data.length - 3);
+
+      assertEquals(EXPECTED, parser.parse(buffer));
+      assertEquals(1, buffer.position());
+      assertEquals(data.length - 3, buffer.limit());
+    });
+  }
+
+  @TestFactory
+  public Stream<DynamicTest> testDirectBuffer()
+  {
+    return forEachParser("Direct ByteBuffer", parser -> {
+      final var data = TEXT.getBytes(US_ASCII);
+      final var buffer = ByteBuffer.allocateDirect(data.length);
+      buffer.put(data);
+      buffer.position(2);
+      buffer.limit(data.length - 2);
+
+      assertEquals(EXPECTED, parser.parse(buffer));
+      assertEquals(2, buffer.position());
+      assertEquals(data.length - 2, buffer.limit());
+    });
+  }
+
+  @TestFactory
+  public Stream<DynamicTest> testNonASCII()
+  {
+    return forEachParser("Non-ASCII", parser -> {
+      final var bare = "text/pléin".getBytes(US_ASCII);
+      bare[7] = (byte) 0xe9;
+      assertThrows(MimeParseException.class, () -> {
+        parser.parse(bare, 0, bare.length);
+      });
+
+      final var quoted = "text/plain;a=\"?\"".getBytes(US_ASCII);
+      quoted[14] = (byte) 0xe9;
+      assertThrows(MimeParseException.class, () -> {
+        parser.parse(ByteBuffer.wrap(quoted));
+      });
+    });
+  }
+
+  /**
+   * Token runs over byte arrays are scanned a word at a time, so invalid
+   * bytes are placed at each position of long tokens to check that the
+   * byte and text paths agree.
+   */
+
+  @TestFactory
+  public Stream<DynamicTest> testByteArrayLongTokens()
+  {
+    return forEachParser("Long tokens", parser -> {
+      final var base = "application/vnd.openxmlformats-document;parameter=abcdefghijk";
+      for (int position = 0; position < base.length(); ++position) {
+        for (final var ch : new char[]{'a', ' ', '(', '\u007f', '\u00e9'}) {
+          final var chars = base.toCharArray();
+          chars[position] = ch;
+          final var text = String.valueOf(chars);
+          final var data = new byte[chars.length];
+          for (int index = 0; index < chars.length; ++index) {
+            data[index] = (byte) chars[index];
+          }
+
+          final var expected = parser.tryParse(text);
+          final var received = parser.tryParse(data, 0, data.length);
+          assertEquals(expected.getClass(), received.getClass(), text);
+          if (expected instanceof MimeParseResultType.Success success) {
+            assertEquals(
+              success.type(),
+              ((MimeParseResultType.Success) received).type());
+          }
+        }
+      }
+    });
+  }
+
+  /**
+   * Substrings of byte views map each byte to the character of the same
+   * value, whether the bytes are in an array or a direct buffer.
+   */
+
+  @Test
+  public void testByteSequenceSubstring()
+  {
+    final var data = new byte[256 + 4];
+    for (int index = 0; index < 256; ++index) {
+      data[index + 2] = (byte) index;
+    }
+
+    final var chars = new char[256];
+    for (int index = 0; index < 256; ++index) {
+      chars[index] = (char) index;
+    }
+    final var expected = String.valueOf(chars);
+
+    final var direct = ByteBuffer.allocateDirect(data.length);
+    direct.put(data);
+    direct.position(2);
+    direct.limit(258);
+
+    for (final var sequence : List.of(
+      MimeByteSequence.ofArray(data, 2, 256),
+      MimeByteSequence.ofBuffer(ByteBuffer.wrap(data, 2, 256)),
+      MimeByteSequence.ofBuffer(direct))) {
+      assertEquals(expected, sequence.toString());
+      assertEquals(expected.substring(60, 200), sequence.substring(60, 200));
+      assertEquals("", sequence.substring(7, 7));
+      assertThrows(
+        IndexOutOfBoundsException.class,
+        () -> sequence.substring(0, 257));
+    }
+
+    assertEquals(2, direct.position());
+    assertEquals(258, direct.limit());
+  }
+}
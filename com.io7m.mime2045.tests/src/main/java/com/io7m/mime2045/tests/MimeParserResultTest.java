@@ -0,0 +1,301 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.mime2045.tests;
+
+import com.io7m.mime2045.core.MimeType;
+import com.io7m.mime2045.core.MimeTypeParameter;
+import com.io7m.mime2045.parser.MimeParsers;
+import com.io7m.mime2045.parser.api.MimeParseErrorCode;
+import com.io7m.mime2045.parser.api.MimeParseException;
+import com.io7m.mime2045.parser.api.MimeParseResultType;
+import com.io7m.mime2045.parser.api.MimeParserType;
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class MimeParserResultTest
+{
+  private static final MimeParserType JFLEX =
+    new MimeParsers().create(Map.of(
+      MimeParsers.OPTION_ENGINE, MimeParsers.ENGINE_JFLEX));
+
+  private static final MimeParserType DIRECT =
+    new MimeParsers().create(Map.of(
+      MimeParsers.OPTION_ENGINE, MimeParsers.ENGINE_DIRECT));
+
+  /*
+   * A parser that implements only the required method, and therefore uses
+   * the default implementations of the tryParse methods.
+   */
+
+  private static final MimeParserType MINIMAL = DIRECT::parse;
+
+  private static Stream<DynamicTest> forEachEngine(
+    final String name,
+    final ParserTestType test)
+  {
+    final var configurations =
+      Map.of(
+        "jflex",
+        Map.of(MimeParsers.OPTION_ENGINE, MimeParsers.ENGINE_JFLEX),
+        "direct",
+        Map.of(MimeParsers.OPTION_ENGINE, MimeParsers.ENGINE_DIRECT),
+        "cached",
+        Map.of(MimeParsers.OPTION_CACHE_MAX_ENTRIES, "64")
+      );
+
+    return configurations.entrySet()
+      .stream()
+      .map(entry -> {
+        return DynamicTest.dynamicTest(
+          "%s [%s]".formatted(name, entry.getKey()),
+          () -> test.execute(new MimeParsers().create(entry.getValue()))
+        );
+      });
+  }
+
+  private interface ParserTestType
+  {
+    void execute(MimeParserType parser)
+      throws Exception;
+  }
+
+  private static MimeParseResultType.Failure failure(
+    final MimeParserType parser,
+    final String text)
+  {
+    return assertInstanceOf(
+      MimeParseResultType.Failure.class,
+      parser.tryParse(text)
+    );
+  }
+
+  @TestFactory
+  public Stream<DynamicTest> testSuccess()
+  {
+    return forEachEngine("testSuccess", parser -> {
+      final var result =
+        assertInstanceOf(
+          MimeParseResultType.Success.class,
+          parser.tryParse("text/plain;charset=utf-8")
+        );
+      assertEquals(
+        new MimeType(
+          "text",
+          "plain",
+          List.of(new MimeTypeParameter("charset", "utf-8"))),
+        result.type()
+      );
+    });
+  }
+
+  @TestFactory
+  public Stream<DynamicTest> testFailureCodes()
+  {
+    return forEachEngine("testFailureCodes", parser -> {
+      var f = failure(parser, "");
+      assertEquals(MimeParseErrorCode.EXPECTED_TOKEN, f.code());
+      assertEquals(0, f.offset());
+
+      f = failure(parser, "text");
+      assertEquals(MimeParseErrorCode.EXPECTED_SLASH, f.code());
+      assertEquals(4, f.offset());
+
+      f = failure(parser, "text/");
+      assertEquals(MimeParseErrorCode.EXPECTED_TOKEN, f.code());
+      assertEquals(5, f.offset());
+
+      f = failure(parser, "text/plain x");
+      assertEquals(MimeParseErrorCode.EXPECTED_SEMICOLON, f.code());
+      assertEquals(11, f.offset());
+
+      f = failure(parser, "text/plain;a");
+      assertEquals(MimeParseErrorCode.EXPECTED_EQUALS, f.code());
+      assertEquals(12, f.offset());
+
+      f = failure(parser, "text/plain;a=;");
+      assertEquals(MimeParseErrorCode.EXPECTED_VALUE, f.code());
+      assertEquals(13, f.offset());
+
+      f = failure(parser, "text/plain;a=\"é\"");
+      assertEquals(MimeParseErrorCode.INVALID_PARAMETER_VALUE, f.code());
+      assertEquals(13, f.offset());
+
+      assertTrue(f.message().contains("offset 13"), f.message());
+    });
+  }
+
+  @TestFactory
+  public Stream<DynamicTest> testRanges()
+  {
+    return forEachEngine("testRanges", parser -> {
+      final var text = "xxtext/plainyy";
+      final var ok =
+        assertInstanceOf(
+          MimeParseResultType.Success.class,
+          parser.tryParse(text, 2, 12));
+      assertEquals(MimeType.of("text", "plain"), ok.type());
+
+      final var bad =
+        assertInstanceOf(
+          MimeParseResultType.Failure.class,
+          parser.tryParse(text, 2, 6));
+      assertEquals(MimeParseErrorCode.EXPECTED_SLASH, bad.code());
+      assertEquals(4, bad.offset());
+
+      final var bytes = text.getBytes(US_ASCII);
+      assertInstanceOf(
+        MimeParseResultType.Success.class,
+        parser.tryParse(bytes, 2, 10));
+      assertInstanceOf(
+        MimeParseResultType.Failure.class,
+        parser.tryParse(bytes, 0, 4));
+
+      final var buffer = ByteBuffer.wrap(bytes, 2, 10);
+      assertInstanceOf(
+        MimeParseResultType.Success.class,
+        parser.tryParse(buffer));
+      assertEquals(2, buffer.position());
+    });
+  }
+
+  @TestFactory
+  public Stream<DynamicTest> testParseAgrees()
+  {
+    return forEachEngine("testParseAgrees", parser -> {
+      final var ex =
+        assertThrows(MimeParseException.class, () -> {
+          parser.parse("text/plain;a=;");
+        });
+      assertTrue(ex.getMessage().contains("<quoted-string>"), ex.getMessage());
+    });
+  }
+
+  @Test
+  public void testDefaultOffsets()
+  {
+    var f = failure(MINIMAL, "text/plain;a=;");
+    assertEquals(MimeParseErrorCode.SYNTAX_ERROR, f.code());
+    assertEquals(13, f.offset());
+
+    f = failure(MINIMAL, "text/plain;\r\n a=;");
+    assertEquals(16, f.offset());
+
+    final var text = "xxtext/plain x";
+    final var bytes = text.getBytes(US_ASCII);
+    final var expected = failure(DIRECT, "text/plain x").offset();
+    assertEquals(
+      expected,
+      assertInstanceOf(
+        MimeParseResultType.Failure.class,
+        MINIMAL.tryParse(text, 2, text.length())).offset());
+    assertEquals(
+      expected,
+      assertInstanceOf(
+        MimeParseResultType.Failure.class,
+        MINIMAL.tryParse(bytes, 2, bytes.length - 2)).offset());
+    assertEquals(
+      expected,
+      assertInstanceOf(
+        MimeParseResultType.Failure.class,
+        MINIMAL.tryParse(ByteBuffer.wrap(bytes, 2, bytes.length - 2)))
+        .offset());
+  }
+
+  @Test
+  public void testCachedSuccessShared()
+  {
+    final var parser =
+      new MimeParsers().create(Map.of(
+        MimeParsers.OPTION_CACHE_MAX_ENTRIES, "64",
+        MimeParsers.OPTION_CACHE_DOORKEEPER, "false"));
+
+    final var r0 = parser.tryParse("text/plain");
+    final var r1 = parser.tryParse("text/plain");
+    assertSame(r0, r1);
+  }
+
+  @Test
+  public void testFactoryTryParse()
+  {
+    assertInstanceOf(
+      MimeParseResultType.Success.class,
+      new MimeParsers().tryParse("text/plain"));
+    assertInstanceOf(
+      MimeParseResultType.Failure.class,
+      new MimeParsers().tryParse("text/"));
+  }
+
+  @Provide(value = "Fragments")
+  private Arbitrary<String> fragments()
+  {
+    final var pieces =
+      Arbitraries.of(
+        "text", "plain", "/", ";", "=", "\"", "\\", " ", "\t", "\r\n",
+        "\n", "\u0085", "\0", "@", "a", "utf-8", "x y", "*", "é",
+        "\"a\\\"b\"", "charset", "+json"
+      );
+
+    return pieces.list()
+      .ofMaxSize(12)
+      .map(xs -> String.join("", xs));
+  }
+
+  @Property(tries = 5000)
+  public void testEnginesAgreeOnResults(
+    final @ForAll(value = "Fragments") String text)
+  {
+    final var jflex = JFLEX.tryParse(text);
+    final var direct = DIRECT.tryParse(text);
+    assertEquals(
+      jflex,
+      direct,
+      () -> "Engines disagree on '%s'".formatted(text)
+    );
+
+    if (jflex instanceof MimeParseResultType.Failure failure) {
+      final var minimal =
+        assertInstanceOf(
+          MimeParseResultType.Failure.class,
+          MINIMAL.tryParse(text));
+      assertEquals(
+        failure.offset(),
+        minimal.offset(),
+        () -> "Default offset disagrees on '%s'".formatted(text)
+      );
+      assertThrows(MimeParseException.class, () -> JFLEX.parse(text));
+      assertThrows(MimeParseException.class, () -> DIRECT.parse(text));
+    }
+  }
+}
@@ -31,7 +31,11 @@ import net.jqwik.api.Provide;
 import net.jqwik.api.arbitraries.ListArbitrary;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -231,4 +235,66 @@ public final class MimeParsersTest
       new MimeParsers().parse(text.toString());
     });
   }
+
+  @Test
+  public void testPooledReuseAfterError()
+    throws Exception
+  {
+    final var parser =
+      new MimeParsers().create(Map.of(MimeParsers.OPTION_POOL_SIZE, "1"));
+
+    assertThrows(MimeParseException.class, () -> {
+      parser.parse("text/plain;a=\"unterminated");
+    });
+
+    assertEquals(
+      new MimeType("text", "plain", List.of(new MimeTypeParameter("a", "b"))),
+      parser.parse("text/plain;a=\"b\"")
+    );
+  }
+
+  @Test
+  public void testPooledConcurrent()
+    throws Exception
+  {
+    final var parser =
+      new MimeParsers().create(Map.of(MimeParsers.OPTION_POOL_SIZE, "2"));
+
+    final var tasks = new ArrayList<Callable<Void>>();
+    for (int thread = 0; thread < 8; ++thread) {
+      final var index = thread;
+      tasks.add(() -> {
+        final var expected =
+          new MimeType(
+            "text",
+            "plain",
+            List.of(new MimeTypeParameter("n", Integer.toString(index)))
+          );
+        for (int count = 0; count < 2000; ++count) {
+          assertEquals(expected, parser.parse(expected.toString()));
+        }
+        return null;
+      });
+    }
+
+    final var executor = Executors.newFixedThreadPool(8);
+    try {
+      for (final var future : executor.invokeAll(tasks)) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testPoolSizeInvalid()
+  {
+    assertThrows(IllegalArgumentException.class, () -> {
+      new MimeParsers().create(Map.of(MimeParsers.OPTION_POOL_SIZE, "x"));
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new MimeParsers().create(Map.of(MimeParsers.OPTION_POOL_SIZE, "-1"));
+    });
+  }
 }
@@ -0,0 +1,334 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.mime2045.tests;
+
+import com.io7m.mime2045.core.MimeType;
+import com.io7m.mime2045.fileext.MimeRegistry;
+import com.io7m.mime2045.fileext.MimeRegistryImage;
+import com.io7m.mime2045.fileext.MimeRegistryImageCompiler;
+import com.io7m.mime2045.fileext.MimeTypes;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class MimeRegistryImageTest
+{
+  private static final MimeType VENDOR =
+    MimeType.of("application", "vnd.example.widget");
+
+  @Test
+  public void testAgreesWithRegistry(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var site = directory.resolve("site.types");
+    Files.writeString(site, """
+      application/vnd.example.widget    widget wdg
+      text/x-custom                     json
+      """, UTF_8);
+
+    final var output = directory.resolve("registry.img");
+    MimeRegistryImageCompiler.main(
+      new String[]{output.toString(), site.toString()});
+
+    final var image = MimeRegistryImage.open(output);
+    try (var registry = MimeRegistry.open(List.of(site))) {
+      final var snapshot = registry.snapshot();
+      assertEquals(snapshot.extensions().size(), image.extensionCount());
+
+      for (final var extension : snapshot.extensions()) {
+        assertEquals(
+          snapshot.typeForExtension(extension),
+          image.typeForExtension(extension),
+          extension);
+        assertEquals(
+          snapshot.typeForExtension(extension),
+          image.typeForExtension(extension.toUpperCase(Locale.ROOT)),
+          extension);
+      }
+      for (final var type : MimeTypes.all()) {
+        assertEquals(
+          snapshot.suggestFileExtension(type),
+          image.suggestFileExtension(type),
+          type.toString());
+      }
+    }
+
+    assertEquals(Optional.of(VENDOR), image.typeForExtension("widget"));
+    assertEquals(Optional.of("widget"), image.suggestFileExtension(VENDOR));
+    assertEquals(
+      Optional.of(MimeTypes.APPLICATION_CWL_JSON),
+      image.typeForFileName("dir/x.cwl.json"));
+    assertEquals(
+      Optional.of(MimeType.of("text", "x-custom")),
+      image.typeForFileName("x.json"));
+    assertEquals(Optional.empty(), image.typeForFileName(".widget"));
+    assertEquals(Optional.empty(), image.typeForExtension("nonexistent"));
+    assertSame(
+      MimeTypes.IMAGE_PNG,
+      image.typeForExtension("png").orElseThrow());
+    assertSame(
+      image.typeForExtension("png"),
+      image.typeForExtension("PNG"));
+  }
+
+  @Test
+  public void testWithoutBuiltIn(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var site = directory.resolve("site.types");
+    Files.writeString(site, "application/vnd.example.widget wdg\n", UTF_8);
+
+    final var output = directory.resolve("registry.img");
+    MimeRegistryImageCompiler.compile(List.of(site), false, output);
+
+    final var image = MimeRegistryImage.open(output);
+    assertEquals(1, image.extensionCount());
+    assertEquals(Optional.of(VENDOR), image.typeForExtension("wdg"));
+    assertEquals(Optional.empty(), image.typeForExtension("png"));
+  }
+
+  @Test
+  public void testReplaceWhileMapped(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var site = directory.resolve("site.types");
+    final var output = directory.resolve("registry.img");
+
+    Files.writeString(site, "application/vnd.example.widget wdg\n", UTF_8);
+    MimeRegistryImageCompiler.compile(List.of(site), false, output);
+    final var first = MimeRegistryImage.open(output);
+
+    Files.writeString(site, "application/vnd.example.widget wdg2\n", UTF_8);
+    MimeRegistryImageCompiler.compile(List.of(site), false, output);
+    final var second = MimeRegistryImage.open(output);
+
+    assertEquals(Optional.of(VENDOR), first.typeForExtension("wdg"));
+    assertEquals(Optional.empty(), second.typeForExtension("wdg"));
+    assertEquals(Optional.of(VENDOR), second.typeForExtension("wdg2"));
+  }
+
+  @Test
+  public void testInvalid()
+  {
+    assertThrows(
+      IOException.class,
+      () -> MimeRegistryImage.wrap(ByteBuffer.allocate(8)));
+    assertThrows(
+      IOException.class,
+      () -> MimeRegistryImage.wrap(ByteBuffer.allocate(64)));
+
+    final var image = ByteBuffer.wrap(
+      MimeRegistryImageCompiler.compile(emptySnapshot()));
+
+    final var badVersion = ByteBuffer.allocate(image.capacity());
+    badVersion.put(image.duplicate());
+    badVersion.putInt(4, 23);
+    assertThrows(
+      IOException.class,
+      () -> MimeRegistryImage.wrap(badVersion.flip()));
+
+    final var truncated = image.duplicate().limit(image.capacity() - 1);
+    assertThrows(
+      IOException.class,
+      () -> MimeRegistryImage.wrap(truncated));
+  }
+
+  @Test
+  public void testCompileConcurrently(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var site = directory.resolve("site.types");
+    Files.writeString(site, "application/vnd.example.widget wdg\n", UTF_8);
+    final var output = directory.resolve("registry.img");
+
+    final var threads = new ArrayList<Thread>();
+    final var failures = new ConcurrentLinkedQueue<Throwable>();
+    for (int index = 0; index < 8; ++index) {
+      final var thread = new Thread(() -> {
+        try {
+          for (int count = 0; count < 10; ++count) {
+            MimeRegistryImageCompiler.compile(List.of(site), false, output);
+          }
+        } catch (final Throwable e) {
+          failures.add(e);
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    for (final var thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(List.of(), List.copyOf(failures));
+    assertEquals(
+      Optional.of(VENDOR),
+      MimeRegistryImage.open(output).typeForExtension("wdg"));
+    try (var files = Files.list(directory)) {
+      assertEquals(2L, files.count());
+    }
+  }
+
+  @Test
+  public void testCompileFailureRemovesTemporary(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var site = directory.resolve("site.types");
+    Files.writeString(site, "application/vnd.example.widget wdg\n", UTF_8);
+
+    /*
+     * A non-empty directory cannot be replaced, so the move fails.
+     */
+
+    final var output = directory.resolve("registry.img");
+    Files.createDirectories(output);
+    Files.writeString(output.resolve("x"), "x", UTF_8);
+
+    assertThrows(
+      IOException.class,
+      () -> MimeRegistryImageCompiler.compile(List.of(site), false, output));
+    try (var files = Files.list(directory)) {
+      assertEquals(2L, files.count());
+    }
+  }
+
+  private static int firstUsedSlot(
+    final ByteBuffer image,
+    final int offset,
+    final int capacity,
+    final int slotSize)
+  {
+    for (int slot = 0; slot < capacity; ++slot) {
+      final var base = offset + slot * slotSize;
+      if (image.getInt(base) != -1) {
+        return base;
+      }
+    }
+    throw new AssertionError("No used slot");
+  }
+
+  private static void assertCorrupt(
+    final ByteBuffer image,
+    final int position,
+    final int value)
+  {
+    final var copy = ByteBuffer.allocate(image.capacity());
+    copy.put(image.duplicate());
+    copy.putInt(position, value);
+    assertThrows(
+      IOException.class,
+      () -> MimeRegistryImage.wrap(copy.flip()));
+  }
+
+  private static void assertCorruptChar(
+    final ByteBuffer image,
+    final int position,
+    final char value)
+  {
+    final var copy = ByteBuffer.allocate(image.capacity());
+    copy.put(image.duplicate());
+    copy.putChar(position, value);
+    assertThrows(
+      IOException.class,
+      () -> MimeRegistryImage.wrap(copy.flip()));
+  }
+
+  @Test
+  public void testCorruptSlots(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var site = directory.resolve("site.types");
+    Files.writeString(site, "application/vnd.example.widget wdg\n", UTF_8);
+    final var output = directory.resolve("registry.img");
+    MimeRegistryImageCompiler.compile(List.of(site), false, output);
+
+    final var image = ByteBuffer.wrap(Files.readAllBytes(output));
+    MimeRegistryImage.wrap(image);
+
+    /*
+     * The header fields: type capacity and offset at 8 and 12, extension
+     * capacity and offset at 16 and 20.
+     */
+
+    final var typeCapacity = image.getInt(8);
+    final var type =
+      firstUsedSlot(image, image.getInt(12), typeCapacity, 16);
+    final var extension =
+      firstUsedSlot(image, image.getInt(20), image.getInt(16), 12);
+
+    assertCorrupt(image, type, 0x100000);
+    assertCorrupt(image, type + 4, 0x100000);
+    assertCorrupt(image, type + 4, 3);
+    assertCorrupt(image, type + 8, -2);
+    assertCorrupt(image, type + 12, 0x100000);
+    assertCorrupt(image, extension, 0x100000);
+    assertCorrupt(image, extension + 4, 0);
+    assertCorrupt(image, extension + 8, typeCapacity);
+    assertCorrupt(image, extension + 8, -1);
+    assertCorrupt(image, extension + 8, (type - image.getInt(12)) / 16 ^ 1);
+
+    /*
+     * Capacities whose index sizes overflow 32 bits.
+     */
+
+    assertCorrupt(image, 8, 1 << 28);
+    assertCorrupt(image, 8, 1 << 29);
+    assertCorrupt(image, 16, 1 << 29);
+    assertCorrupt(image, 16, 1 << 30);
+
+    /*
+     * Type text that is not a valid type: the pool is at 24, and the text
+     * of the type is "application/vnd.example.widget".
+     */
+
+    final var text = image.getInt(24) + image.getInt(type) * 2;
+    assertCorruptChar(image, text + 2, ' ');
+    assertCorruptChar(image, text + 2, '/');
+    assertCorruptChar(image, text + 2 * 14, 'é');
+    assertCorruptChar(image, text + 2 * 20, '(');
+  }
+
+  private static com.io7m.mime2045.fileext.MimeRegistrySnapshot emptySnapshot()
+  {
+    try (var registry = MimeRegistry.open(List.of())) {
+      return registry.snapshot();
+    } catch (final IOException e) {
+      throw new AssertionError(e);
+    }
+  }
+}
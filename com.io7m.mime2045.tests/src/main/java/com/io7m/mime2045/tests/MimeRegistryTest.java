@@ -0,0 +1,313 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.mime2045.tests;
+
+import com.io7m.mime2045.core.MimeType;
+import com.io7m.mime2045.core.MimeTypeParameter;
+import com.io7m.mime2045.fileext.MimeFileExtensions;
+import com.io7m.mime2045.fileext.MimeRegistry;
+import com.io7m.mime2045.fileext.MimeTypes;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class MimeRegistryTest
+{
+  private static final MimeType VENDOR =
+    MimeType.of("application", "vnd.example.widget");
+
+  @Test
+  public void testBuiltInOnly()
+    throws IOException
+  {
+    try (var registry = MimeRegistry.open(List.of())) {
+      for (final var extension : List.of("png", "json", "cwl.json", "TXT")) {
+        assertEquals(
+          MimeFileExtensions.typeForExtension(extension),
+          registry.typeForExtension(extension));
+      }
+      for (final var type : MimeTypes.all()) {
+        assertEquals(
+          MimeFileExtensions.suggestFileExtension(type),
+          registry.suggestFileExtension(type),
+          type.toString());
+      }
+      assertEquals(
+        Optional.of(MimeTypes.APPLICATION_CWL_JSON),
+        registry.typeForFileName("dir/x.cwl.json"));
+      assertEquals(Optional.empty(), registry.typeForFileName(".json"));
+    }
+  }
+
+  @Test
+  public void testPrecedence(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var system = directory.resolve("system.types");
+    final var site = directory.resolve("site.types");
+    Files.writeString(system, """
+      # A comment.
+      application/vnd.example.widget    wdg wdgt
+      text/x-custom                     json
+      not-a-type junk
+      bad/ty(pe)                        bad
+      """, UTF_8);
+    Files.writeString(site, """
+      application/vnd.example.widget    widget wdg  # Preferred.
+      """, UTF_8);
+
+    try (var registry = MimeRegistry.open(List.of(system, site))) {
+      final var custom = MimeType.of("text", "x-custom");
+
+      assertEquals(Optional.of(VENDOR), registry.typeForExtension("WIDGET"));
+      assertEquals(Optional.of(VENDOR), registry.typeForExtension("wdg"));
+      assertEquals(Optional.empty(), registry.typeForExtension("wdgt"));
+      assertEquals(Optional.empty(), registry.typeForExtension("bad"));
+      assertEquals(Optional.of("widget"), registry.suggestFileExtension(VENDOR));
+      assertEquals(
+        List.of("widget", "wdg"),
+        registry.snapshot().extensionsOf(VENDOR));
+
+      assertEquals(Optional.of(custom), registry.typeForExtension("json"));
+      assertEquals(
+        Optional.of(MimeTypes.APPLICATION_CWL_JSON),
+        registry.typeForFileName("x.cwl.json"));
+      assertEquals(
+        Optional.of(custom),
+        registry.typeForFileName("x.json"));
+      assertEquals(
+        Optional.empty(),
+        registry.suggestFileExtension(MimeTypes.APPLICATION_JSON));
+    }
+  }
+
+  @Test
+  public void testExtensionsFoldAsciiOnly(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var file = directory.resolve("system.types");
+    Files.writeString(file, """
+      application/vnd.example.widget    \u212Aey WDG
+      """, UTF_8);
+
+    try (var registry = MimeRegistry.open(List.of(file))) {
+      assertEquals(Optional.empty(), registry.typeForExtension("key"));
+      assertEquals(
+        Optional.of(VENDOR),
+        registry.typeForExtension("\u212Aey"));
+      assertEquals(Optional.of(VENDOR), registry.typeForExtension("wdg"));
+      assertEquals(
+        List.of("\u212Aey", "wdg"),
+        registry.snapshot().extensionsOf(VENDOR));
+    }
+  }
+
+  @Test
+  public void testMissingFile(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    try (var registry =
+           MimeRegistry.open(List.of(directory.resolve("missing")))) {
+      assertEquals(
+        Optional.of(MimeTypes.IMAGE_PNG),
+        registry.typeForExtension("png"));
+    }
+  }
+
+  @Test
+  public void testReloadSwapsSnapshot(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var file = directory.resolve("mime.types");
+    Files.writeString(file, "application/vnd.example.widget wdg\n", UTF_8);
+
+    try (var registry = MimeRegistry.open(List.of(file))) {
+      final var first = registry.snapshot();
+      assertEquals(Optional.of(VENDOR), first.typeForExtension("wdg"));
+
+      Files.writeString(file, "application/vnd.example.widget wdg2\n", UTF_8);
+      final var second = registry.reload();
+
+      assertNotSame(first, second);
+      assertSame(second, registry.snapshot());
+      assertEquals(first.generation() + 1L, second.generation());
+      assertEquals(Optional.of(VENDOR), first.typeForExtension("wdg"));
+      assertEquals(Optional.empty(), second.typeForExtension("wdg"));
+      assertEquals(Optional.of(VENDOR), second.typeForExtension("wdg2"));
+    }
+  }
+
+  @Test
+  public void testReloadDuringLookups(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("mime.types");
+    Files.writeString(file, "application/vnd.example.widget wdg\n", UTF_8);
+
+    try (var registry = MimeRegistry.open(List.of(file))) {
+      final var done = new AtomicBoolean(false);
+      final var failures = new ConcurrentLinkedQueue<Throwable>();
+      final var readers = new Thread[4];
+      for (int index = 0; index < readers.length; ++index) {
+        readers[index] = new Thread(() -> {
+          try {
+            while (!done.get()) {
+              if (registry.typeForExtension("png").isEmpty()) {
+                failures.add(new AssertionError("png vanished"));
+              }
+              registry.typeForExtension("wdg");
+            }
+          } catch (final Throwable e) {
+            failures.add(e);
+          }
+        });
+        readers[index].start();
+      }
+
+      for (int index = 0; index < 20; ++index) {
+        registry.reload();
+      }
+      done.set(true);
+      for (final var reader : readers) {
+        reader.join();
+      }
+      assertEquals(List.of(), List.copyOf(failures));
+      assertEquals(20L, registry.snapshot().generation());
+    }
+  }
+
+  @Test
+  public void testWatched(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("mime.types");
+    final var errors = new ConcurrentLinkedQueue<IOException>();
+
+    try (var registry =
+           MimeRegistry.openWatched(List.of(file), errors::add)) {
+      assertEquals(Optional.empty(), registry.typeForExtension("wdg"));
+
+      Files.writeString(file, "application/vnd.example.widget wdg\n", UTF_8);
+
+      final var deadline = Instant.now().plus(Duration.ofSeconds(30L));
+      while (registry.typeForExtension("wdg").isEmpty()) {
+        assertTrue(Instant.now().isBefore(deadline), "Reload timed out");
+        Thread.sleep(10L);
+      }
+
+      assertEquals(Optional.of(VENDOR), registry.typeForExtension("wdg"));
+      assertEquals(List.of(), List.copyOf(errors));
+    }
+  }
+
+  @Test
+  public void testWatchedSurvivesFailures(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("mime.types");
+    final var errors = new ConcurrentLinkedQueue<IOException>();
+
+    try (var registry =
+           MimeRegistry.openWatched(List.of(file), e -> {
+             errors.add(e);
+             throw new IllegalStateException("Receiver failed.");
+           })) {
+
+      /*
+       * A file that is not valid UTF-8 fails to load, and the receiver
+       * then throws; the watcher must keep going.
+       */
+
+      Files.write(file, new byte[]{(byte) 0xff, (byte) 0xfe, (byte) '\n'});
+
+      final var deadline = Instant.now().plus(Duration.ofSeconds(30L));
+      while (errors.isEmpty()) {
+        assertTrue(Instant.now().isBefore(deadline), "Reload timed out");
+        Thread.sleep(10L);
+      }
+
+      Files.writeString(file, "application/vnd.example.widget wdg\n", UTF_8);
+      while (registry.typeForExtension("wdg").isEmpty()) {
+        assertTrue(Instant.now().isBefore(deadline), "Reload timed out");
+        Thread.sleep(10L);
+      }
+      assertEquals(Optional.of(VENDOR), registry.typeForExtension("WDG"));
+    }
+  }
+
+  @Test
+  public void testSnapshotLookups(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("mime.types");
+    Files.writeString(file, "application/vnd.example.widget wdg w.dg\n", UTF_8);
+
+    try (var registry = MimeRegistry.open(List.of(file))) {
+      final var snapshot = registry.snapshot();
+      assertEquals(Optional.of(VENDOR), snapshot.typeForExtension("WdG"));
+      assertEquals(Optional.of(VENDOR), snapshot.typeForExtension("x.W.DG", 2, 6));
+      assertEquals(Optional.of(VENDOR), snapshot.typeForFileName("a/b.c.W.dg"));
+      assertEquals(Optional.of(VENDOR), snapshot.typeForFileName("a/b.WDG"));
+      assertEquals(Optional.empty(), snapshot.typeForFileName(".wdg"));
+      assertEquals(Optional.empty(), snapshot.typeForFileName("wdg/x"));
+      assertEquals(Optional.empty(), snapshot.typeForExtension("wd"));
+      assertEquals(
+        Optional.of(MimeTypes.APPLICATION_JSON),
+        snapshot.typeForExtension(new StringBuilder("JSON")));
+
+      final var withParameters =
+        new MimeType("Application", "VND.example.widget", List.of(
+          new MimeTypeParameter("charset", "utf-8")));
+      assertEquals(
+        Optional.of("wdg"),
+        snapshot.suggestFileExtension(withParameters));
+      assertEquals(
+        List.of("wdg", "w.dg"),
+        snapshot.extensionsOf(withParameters));
+      assertEquals(
+        Optional.empty(),
+        snapshot.suggestFileExtension(MimeType.of("application", "x-none")));
+      assertEquals(
+        List.of(),
+        snapshot.extensionsOf(MimeType.of("application", "x-none")));
+    }
+  }
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.mime2045.tests;
+
+import com.io7m.mime2045.core.MimeType;
+import com.io7m.mime2045.fileext.MimeTypes;
+import com.io7m.mime2045.sniff.MimeSignature;
+import com.io7m.mime2045.sniff.MimeSignatures;
+import com.io7m.mime2045.sniff.MimeSniffer;
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.Combinators;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class MimeSnifferTest
+{
+  private static byte[] sampleOf(
+    final MimeSignature signature,
+    final int extra)
+  {
+    final var pattern = signature.compile();
+    final var data = new byte[pattern.length + extra];
+    for (int index = 0; index < pattern.length; ++index) {
+      final var value = pattern[index];
+      data[index] = value == MimeSignature.ANY ? 0x20 : (byte) value;
+    }
+    return data;
+  }
+
+  /**
+   * A straightforward reference implementation: the longest match wins,
+   * and ties go to the earliest signature.
+   */
+
+  private static Optional<MimeType> naive(
+    final List<MimeSignature> signatures,
+    final byte[] data)
+  {
+    var bestLength = -1;
+    MimeType best = null;
+    for (final var signature : signatures) {
+      final var pattern = signature.compile();
+      if (pattern.length > data.length || pattern.length <= bestLength) {
+        continue;
+      }
+      var matched = true;
+      for (int index = 0; index < pattern.length; ++index) {
+        final var value = pattern[index];
+        if (value != MimeSignature.ANY && value != (data[index] & 0xff)) {
+          matched = false;
+          break;
+        }
+      }
+      if (matched) {
+        bestLength = pattern.length;
+        best = signature.type();
+      }
+    }
+    return Optional.ofNullable(best);
+  }
+
+  @TestFactory
+  public Stream<DynamicTest> testStandardSignatures()
+  {
+    return MimeSignatures.standard()
+      .stream()
+      .map(signature -> {
+        return DynamicTest.dynamicTest(
+          "testStandardSignature_%s_%s".formatted(
+            signature.type(), signature.pattern()),
+          () -> {
+            final var sniffer = MimeSniffer.standard();
+            final var data = sampleOf(signature, 16);
+            final var result = sniffer.sniff(data);
+            assertEquals(Optional.of(signature.type()), result);
+            assertSame(MimeTypes.canonical(signature.type()), result.get());
+            assertEquals(
+              result,
+              sniffer.sniff(data, 0, signature.compile().length));
+          });
+      });
+  }
+
+  @Test
+  public void testExamples()
+  {
+    final var sniffer = MimeSniffer.standard();
+
+    assertEquals(
+      Optional.of(MimeTypes.IMAGE_WEBP),
+      sniffer.sniff(ascii("RIFF\u0001\u0002\u0003\u0004WEBPVP8 ")));
+    assertEquals(
+      Optional.of(MimeTypes.AUDIO_X_WAV),
+      sniffer.sniff(ascii("RIFFxxxxWAVEfmt ")));
+    assertEquals(
+      Optional.of(MimeTypes.VIDEO_MP4),
+      sniffer.sniff(ascii("\u0000\u0000\u0000\u0018ftypmp42")));
+    assertEquals(
+      Optional.of(MimeTypes.APPLICATION_PDF),
+      sniffer.sniff(ascii("%PDF-1.7\n")));
+    assertEquals(
+      Optional.of(MimeTypes.APPLICATION_XML),
+      sniffer.sniff(ascii("<?xml version=\"1.0\"?>")));
+  }
+
+  @Test
+  public void testTar()
+  {
+    final var data = new byte[512];
+    final var magic = ascii("ustar\u000000");
+    System.arraycopy(magic, 0, data, 257, magic.length);
+
+    assertEquals(
+      Optional.of(MimeTypes.APPLICATION_X_TAR),
+      MimeSniffer.standard().sniff(data));
+    assertEquals(
+      Optional.empty(),
+      MimeSniffer.standard().sniff(data, 0, 260));
+  }
+
+  @Test
+  public void testUnknown()
+  {
+    final var sniffer = MimeSniffer.standard();
+    assertEquals(Optional.empty(), sniffer.sniff(ascii("Hello, world.")));
+    assertEquals(Optional.empty(), sniffer.sniff(new byte[0]));
+    assertEquals(Optional.empty(), sniffer.sniff(ascii("RIFF")));
+    assertEquals(Optional.empty(), sniffer.sniff(ascii("%PDF")));
+  }
+
+  @Test
+  public void testLongestMatch()
+  {
+    final var sniffer = MimeSniffer.create(List.of(
+      MimeSignature.of(MimeTypes.APPLICATION_ZIP, "\"PK\""),
+      MimeSignature.of(MimeTypes.APPLICATION_JAVA_ARCHIVE, "\"PK\" 03 04"),
+      MimeSignature.of(MimeTypes.TEXT_PLAIN, "\"PK\" ?? 04")
+    ));
+
+    assertEquals(
+      Optional.of(MimeTypes.APPLICATION_JAVA_ARCHIVE),
+      sniffer.sniff(ascii("PK\u0003\u0004")));
+    assertEquals(
+      Optional.of(MimeTypes.TEXT_PLAIN),
+      sniffer.sniff(ascii("PK\u0005\u0004")));
+    assertEquals(
+      Optional.of(MimeTypes.APPLICATION_ZIP),
+      sniffer.sniff(ascii("PK\u0005\u0005")));
+    assertEquals(4, sniffer.prefixLength());
+  }
+
+  @Test
+  public void testByteBufferPositionUnchanged()
+  {
+    final var buffer = ByteBuffer.allocateDirect(32);
+    buffer.put(ascii("xxxx%PDF-1.4"));
+    buffer.flip();
+    buffer.position(4);
+
+    assertEquals(
+      Optional.of(MimeTypes.APPLICATION_PDF),
+      MimeSniffer.standard().sniff(buffer));
+    assertEquals(4, buffer.position());
+    assertEquals(12, buffer.limit());
+  }
+
+  @Test
+  public void testFileChannel(
+    final @TempDir Path directory)
+    throws IOException
+  {
+    final var file = directory.resolve("image");
+    final var data = new byte[4096];
+    final var magic = sampleOf(MimeSignatures.standard().get(0), 0);
+    System.arraycopy(magic, 0, data, 0, magic.length);
+    Files.write(file, data);
+
+    assertEquals(
+      Optional.of(MimeTypes.IMAGE_PNG),
+      MimeSniffer.standard().sniff(file));
+
+    try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      channel.position(100L);
+      assertEquals(
+        Optional.of(MimeTypes.IMAGE_PNG),
+        MimeSniffer.standard().sniff(channel));
+      assertEquals(100L, channel.position());
+    }
+
+    final var small = directory.resolve("small");
+    Files.write(small, ascii("GIF8"));
+    assertEquals(Optional.empty(), MimeSniffer.standard().sniff(small));
+  }
+
+  @Test
+  public void testInvalidPatterns()
+  {
+    final var type = MimeTypes.TEXT_PLAIN;
+    assertThrows(
+      IllegalArgumentException.class,
+      () -> MimeSignature.of(type, ""));
+    assertThrows(
+      IllegalArgumentException.class,
+      () -> MimeSignature.of(type, "0"));
+    assertThrows(
+      IllegalArgumentException.class,
+      () -> MimeSignature.of(type, "ZZ"));
+    assertThrows(
+      IllegalArgumentException.class,
+      () -> MimeSignature.of(type, "\"abc"));
+    assertThrows(
+      IllegalArgumentException.class,
+      () -> MimeSignature.of(type, "\"é\""));
+    assertThrows(
+      IllegalArgumentException.class,
+      () -> new MimeSignature(type, -1, "00"));
+  }
+
+  @Provide
+  public Arbitrary<byte[]> contents()
+  {
+    final var signatures = MimeSignatures.standard();
+    final var prefixes =
+      Arbitraries.integers()
+        .between(0, signatures.size() - 1)
+        .map(i -> sampleOf(signatures.get(i), 0));
+    final var noise =
+      Arbitraries.bytes().array(byte[].class).ofMaxSize(300);
+    final var cut =
+      Arbitraries.integers().between(0, 300);
+
+    return Combinators.combine(prefixes, noise, cut)
+      .as((prefix, rest, length) -> {
+        final var data = new byte[prefix.length + rest.length];
+        System.arraycopy(prefix, 0, data, 0, prefix.length);
+        System.arraycopy(rest, 0, data, prefix.length, rest.length);
+        final var truncated = new byte[Math.min(length, data.length)];
+        System.arraycopy(data, 0, truncated, 0, truncated.length);
+        return truncated;
+      });
+  }
+
+  @Property
+  public void testAgreesWithNaive(
+    final @ForAll("contents") byte[] data)
+  {
+    assertEquals(
+      naive(MimeSignatures.standard(), data),
+      MimeSniffer.standard().sniff(data));
+  }
+
+  private static byte[] ascii(
+    final String text)
+  {
+    return text.getBytes(StandardCharsets.ISO_8859_1);
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.mime2045.tests;
+
+import com.io7m.mime2045.core.MimeStructuredSyntax;
+import com.io7m.mime2045.core.MimeType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class MimeStructuredSyntaxTest
+{
+  @Test
+  public void testSuffix()
+  {
+    final String[][] cases = {
+      {"application", "vnd.api+json", "json"},
+      {"application", "atom+XML", "xml"},
+      {"application", "a+b+cbor-seq", "cbor-seq"},
+      {"application", "vnd.unknown+thing", "thing"},
+    };
+
+    for (final var c : cases) {
+      final var type = MimeType.of(c[0], c[1]);
+      assertEquals(Optional.of(c[2]), type.structuredSyntaxSuffix());
+      assertSame(type.structuredSyntaxSuffix(), type.structuredSyntaxSuffix());
+    }
+
+    final String[][] none = {
+      {"application", "json"},
+      {"application", "+json"},
+      {"application", "json+"},
+      {"text", "plain"},
+    };
+
+    for (final var c : none) {
+      final var type = MimeType.of(c[0], c[1]);
+      assertEquals(Optional.empty(), type.structuredSyntaxSuffix());
+    }
+  }
+
+  @Test
+  public void testClassify()
+  {
+    final var cases = new Object[][]{
+      {MimeType.of("application", "vnd.api+json"), MimeStructuredSyntax.JSON},
+      {MimeType.of("application", "json"), MimeStructuredSyntax.JSON},
+      {MimeType.of("application", "JSON"), MimeStructuredSyntax.JSON},
+      {MimeType.of("text", "xml"), MimeStructuredSyntax.XML},
+      {MimeType.of("image", "svg+xml"), MimeStructuredSyntax.XML},
+      {MimeType.of("application", "geo+json-seq"), MimeStructuredSyntax.JSON_SEQ},
+      {MimeType.of("application", "vnd.x+zstd"), MimeStructuredSyntax.ZSTD},
+    };
+
+    for (final var c : cases) {
+      final var type = (MimeType) c[0];
+      final var syntax = (MimeStructuredSyntax) c[1];
+      assertEquals(Optional.of(syntax), type.structuredSyntax());
+      for (final var other : MimeStructuredSyntax.values()) {
+        assertEquals(other == syntax, type.hasStructuredSyntax(other));
+      }
+    }
+  }
+
+  @Test
+  public void testClassifyNone()
+  {
+    final var cases = new MimeType[]{
+      MimeType.of("text", "plain"),
+      MimeType.of("image", "json"),
+      MimeType.of("application", "vnd.unknown+thing"),
+      MimeType.of("application", "octet-stream"),
+      MimeType.of("application", "+json"),
+    };
+
+    for (final var type : cases) {
+      assertEquals(Optional.empty(), type.structuredSyntax());
+      for (final var syntax : MimeStructuredSyntax.values()) {
+        assertFalse(type.hasStructuredSyntax(syntax));
+      }
+    }
+  }
+
+  @Test
+  public void testOfSuffix()
+  {
+    for (final var syntax : MimeStructuredSyntax.values()) {
+      assertEquals(
+        Optional.of(syntax),
+        MimeStructuredSyntax.ofSuffix(syntax.suffix()));
+      assertEquals(
+        Optional.of(syntax),
+        MimeStructuredSyntax.ofSuffix(syntax.suffix().toUpperCase(Locale.ROOT)));
+    }
+    assertEquals(Optional.empty(), MimeStructuredSyntax.ofSuffix("thing"));
+    assertTrue(MimeStructuredSyntax.ofSuffix("").isEmpty());
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.mime2045.tests;
+
+import com.io7m.mime2045.core.MimeType;
+import com.io7m.mime2045.core.MimeTypeDispatcher;
+import com.io7m.mime2045.core.MimeTypeParameter;
+import com.io7m.mime2045.core.MimeTypePattern;
+import com.io7m.mime2045.fileext.MimeTypes;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.io7m.mime2045.core.MimeTypePattern.WILDCARD;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public final class MimeTypeDispatcherTest
+{
+  private static MimeTypeDispatcher<String> dispatcher()
+  {
+    final var handlers = new LinkedHashMap<MimeTypePattern, String>();
+    handlers.put(MimeTypePattern.any(), "any");
+    handlers.put(MimeTypePattern.anySubtype("text"), "text");
+    handlers.put(
+      MimeTypePattern.anySubtype("text").withParameter("charset", "utf-8"),
+      "text-utf8");
+    handlers.put(MimeTypePattern.of("text", "plain"), "plain");
+    handlers.put(MimeTypePattern.withSuffix("application", "json"), "json-suffix");
+    handlers.put(MimeTypePattern.withSuffix(WILDCARD, "xml"), "xml-suffix");
+    handlers.put(MimeTypePattern.of("application", "json"), "json");
+    handlers.put(MimeTypePattern.of("application", "xml"), "xml");
+    return MimeTypeDispatcher.create(handlers);
+  }
+
+  @Test
+  public void testMostSpecificWins()
+  {
+    final var d = dispatcher();
+
+    assertEquals(Optional.of("plain"), d.handlerFor(MimeType.of("text", "plain")));
+    assertEquals(
+      Optional.of("plain"),
+      d.handlerFor(new MimeType("text", "plain", List.of(
+        new MimeTypeParameter("charset", "utf-8")))));
+    assertEquals(
+      Optional.of("text-utf8"),
+      d.handlerFor(new MimeType("text", "html", List.of(
+        new MimeTypeParameter("charset", "utf-8")))));
+    assertEquals(Optional.of("text"), d.handlerFor(MimeType.of("text", "html")));
+    assertEquals(Optional.of("json"), d.handlerFor(MimeType.of("application", "json")));
+    assertEquals(
+      Optional.of("json-suffix"),
+      d.handlerFor(MimeType.of("application", "vnd.api+json")));
+    assertEquals(
+      Optional.of("xml-suffix"),
+      d.handlerFor(MimeType.of("image", "svg+xml")));
+    assertEquals(Optional.of("xml"), d.handlerFor(MimeType.of("application", "xml")));
+    assertEquals(
+      Optional.of("any"),
+      d.handlerFor(MimeType.of("application", "octet-stream")));
+    assertEquals(Optional.of("any"), d.handlerFor(MimeType.of("image", "png")));
+  }
+
+  @Test
+  public void testNoMatch()
+  {
+    final var d = MimeTypeDispatcher.create(Map.of(
+      MimeTypePattern.of("text", "plain"), "plain",
+      MimeTypePattern.anySubtype("image"), "image"
+    ));
+
+    assertEquals(Optional.empty(), d.handlerFor(MimeType.of("text", "html")));
+    assertEquals(Optional.empty(), d.handlerFor(MimeType.of("audio", "ogg")));
+    assertEquals(Optional.of("image"), d.handlerFor(MimeType.of("image", "png")));
+  }
+
+  @Test
+  public void testEquallySpecificFirstWins()
+  {
+    final var handlers = new LinkedHashMap<MimeTypePattern, String>();
+    handlers.put(MimeTypePattern.withSuffix(WILDCARD, "json"), "first");
+    handlers.put(MimeTypePattern.withSuffix(WILDCARD, "json").withParameter("a", "b"), "params");
+    handlers.put(MimeTypePattern.any().withParameter("x", "y"), "x");
+
+    final var d = MimeTypeDispatcher.create(handlers);
+    assertEquals(
+      Optional.of("params"),
+      d.handlerFor(new MimeType("a", "b+json", List.of(
+        new MimeTypeParameter("a", "b"), new MimeTypeParameter("x", "y")))));
+    assertEquals(
+      Optional.of("first"),
+      d.handlerFor(new MimeType("a", "b+json", List.of(
+        new MimeTypeParameter("x", "y")))));
+    assertEquals(
+      Optional.of("x"),
+      d.handlerFor(new MimeType("a", "b", List.of(
+        new MimeTypeParameter("x", "y")))));
+  }
+
+  @Test
+  public void testCachedCanonical()
+  {
+    final var d = dispatcher();
+    final var r0 = d.handlerFor(MimeTypes.APPLICATION_JSON);
+    final var r1 = d.handlerFor(MimeTypes.APPLICATION_JSON);
+    assertEquals(Optional.of("json"), r0);
+    assertSame(r0, r1);
+
+    final var r2 = d.handlerFor(MimeTypes.TEXT_PLAIN);
+    assertEquals(Optional.of("plain"), r2);
+    assertEquals(Optional.of("json"), d.handlerFor(MimeTypes.APPLICATION_JSON));
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.mime2045.tests;
+
+import com.io7m.mime2045.core.MimeType;
+import com.io7m.mime2045.core.MimeTypeParameter;
+import com.io7m.mime2045.core.MimeTypePattern;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.io7m.mime2045.core.MimeTypePattern.WILDCARD;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class MimeTypePatternTest
+{
+  private static final MimeType JSON =
+    MimeType.of("application", "json");
+  private static final MimeType API_JSON =
+    MimeType.of("application", "vnd.api+json");
+  private static final MimeType PLAIN_UTF8 =
+    new MimeType("text", "plain", List.of(
+      new MimeTypeParameter("charset", "utf-8")));
+
+  @Test
+  public void testAny()
+  {
+    final var p = MimeTypePattern.any();
+    assertTrue(p.matches(JSON));
+    assertTrue(p.matches(PLAIN_UTF8));
+    assertEquals("*/*", p.toString());
+  }
+
+  @Test
+  public void testExact()
+  {
+    final var p = MimeTypePattern.of("Application", "JSON");
+    assertTrue(p.matches(JSON));
+    assertFalse(p.matches(API_JSON));
+    assertEquals("application/json", p.toString());
+
+    final var q = MimeTypePattern.exact(PLAIN_UTF8);
+    assertTrue(q.matches(PLAIN_UTF8));
+    assertFalse(q.matches(MimeType.of("text", "plain")));
+  }
+
+  @Test
+  public void testAnySubtype()
+  {
+    final var p = MimeTypePattern.anySubtype("application");
+    assertTrue(p.matches(JSON));
+    assertTrue(p.matches(API_JSON));
+    assertFalse(p.matches(PLAIN_UTF8));
+    assertEquals("application/*", p.toString());
+  }
+
+  @Test
+  public void testSuffix()
+  {
+    final var p = MimeTypePattern.withSuffix("application", "+json");
+    assertTrue(p.matches(API_JSON));
+    assertFalse(p.matches(JSON));
+    assertFalse(p.matches(MimeType.of("application", "+json")));
+    assertFalse(p.matches(MimeType.of("application", "vnd.api-json")));
+    assertFalse(p.matches(MimeType.of("text", "vnd.api+json")));
+    assertEquals("application/*+json", p.toString());
+
+    final var q = MimeTypePattern.withSuffix(WILDCARD, "json");
+    assertTrue(q.matches(MimeType.of("text", "x+json")));
+    assertEquals("*/*+json", q.toString());
+  }
+
+  @Test
+  public void testParameters()
+  {
+    final var p =
+      MimeTypePattern.anySubtype("text")
+        .withParameter("Charset", "utf-8");
+
+    assertTrue(p.matches(PLAIN_UTF8));
+    assertFalse(p.matches(MimeType.of("text", "plain")));
+    assertFalse(p.matches(new MimeType("text", "plain", List.of(
+      new MimeTypeParameter("charset", "UTF-8")))));
+    assertEquals("text/*;charset=utf-8", p.toString());
+  }
+
+  @Test
+  public void testSpecificity()
+  {
+    final var ordered = List.of(
+      MimeTypePattern.any(),
+      MimeTypePattern.any().withParameter("a", "b"),
+      MimeTypePattern.withSuffix(WILDCARD, "json"),
+      MimeTypePattern.anySubtype("application"),
+      MimeTypePattern.withSuffix("application", "json"),
+      MimeTypePattern.of("application", "json"),
+      MimeTypePattern.of("application", "json").withParameter("a", "b")
+    );
+
+    for (int index = 1; index < ordered.size(); ++index) {
+      assertTrue(
+        ordered.get(index - 1).specificity() < ordered.get(index).specificity()
+      );
+    }
+  }
+
+  @Test
+  public void testInvalid()
+  {
+    assertThrows(IllegalArgumentException.class, () -> {
+      MimeTypePattern.of(WILDCARD, "json");
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new MimeTypePattern("application", "json", "json", List.of());
+    });
+  }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.mime2045.tests;
+
+import com.io7m.mime2045.core.MimeCharacters;
+import com.io7m.mime2045.core.MimeType;
+import com.io7m.mime2045.core.MimeTypeParameter;
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.Combinators;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class MimeTypeSerializationTest
+{
+  private static final String QUOTED_CHARACTERS;
+
+  static {
+    final var sb = new StringBuilder();
+    for (char ch = 0; ch < 128; ++ch) {
+      if (MimeCharacters.characterIsAllowedQuoted(ch)) {
+        sb.append(ch);
+      }
+    }
+    QUOTED_CHARACTERS = sb.toString();
+  }
+
+  @Provide(value = "Types")
+  private Arbitrary<MimeType> types()
+  {
+    final var names =
+      Arbitraries.strings()
+        .withChars("abcxyz-+.")
+        .ofMinLength(1)
+        .ofMaxLength(8);
+
+    final var values =
+      Arbitraries.strings()
+        .withChars(QUOTED_CHARACTERS)
+        .ofMaxLength(12);
+
+    final var parameters =
+      Combinators.combine(names, values)
+        .as(MimeTypeParameter::new)
+        .list()
+        .ofMaxSize(4);
+
+    return Combinators.combine(names, names, parameters)
+      .as(MimeType::new);
+  }
+
+  @Property(tries = 2000)
+  public void testSerializedFormsAgree(
+    final @ForAll(value = "Types") MimeType type)
+    throws Exception
+  {
+    final var text = new MimeType(
+      type.type(), type.subtype(), type.parameters()).toString();
+
+    assertEquals(text.length(), type.serializedLength());
+    assertEquals(text, type.appendTo(new StringBuilder()).toString());
+    assertEquals(text, type.appendTo(new StringWriter()).toString());
+
+    final var buffer = ByteBuffer.allocate(type.serializedLength());
+    type.writeAsciiTo(buffer);
+    assertEquals(0, buffer.remaining());
+    assertArrayEquals(text.getBytes(US_ASCII), buffer.array());
+
+    final var ascii = type.asciiBytes();
+    assertTrue(ascii.isReadOnly());
+    final var asciiBytes = new byte[ascii.remaining()];
+    ascii.get(asciiBytes);
+    assertArrayEquals(text.getBytes(US_ASCII), asciiBytes);
+
+    final var again = ByteBuffer.allocate(type.serializedLength());
+    type.writeAsciiTo(again);
+    assertArrayEquals(text.getBytes(US_ASCII), again.array());
+
+    for (final var parameter : type.parameters()) {
+      final var pText = parameter.toString();
+      assertEquals(pText.length(), parameter.serializedLength());
+      assertEquals(pText, parameter.appendTo(new StringBuilder()).toString());
+      assertEquals(pText, parameter.appendTo(new StringWriter()).toString());
+      final var pBuffer = ByteBuffer.allocate(pText.length());
+      parameter.writeAsciiTo(pBuffer);
+      assertArrayEquals(pText.getBytes(US_ASCII), pBuffer.array());
+    }
+  }
+
+  @Test
+  public void testQuoting()
+  {
+    final var type =
+      new MimeType("text", "plain", List.of(
+        new MimeTypeParameter("b", "q\"\\"),
+        new MimeTypeParameter("c", ""),
+        new MimeTypeParameter("d", "x/y")
+      ));
+
+    assertEquals(
+      "text/plain;b=\"q\\\"\\\\\";c=;d=\"x/y\"",
+      type.toString()
+    );
+  }
+
+  @Test
+  public void testOverflowWritesNothing()
+  {
+    final var type =
+      new MimeType("text", "plain", List.of(
+        new MimeTypeParameter("charset", "utf-8")));
+
+    final var buffer = ByteBuffer.allocate(type.serializedLength() - 1);
+    assertThrows(BufferOverflowException.class, () -> {
+      type.writeAsciiTo(buffer);
+    });
+    assertEquals(0, buffer.position());
+
+    final var zeroes = new byte[buffer.capacity()];
+    Arrays.fill(zeroes, (byte) 0);
+    assertArrayEquals(zeroes, buffer.array());
+  }
+
+  @Test
+  public void testNonAsciiTypeReplaced()
+  {
+    final var type = MimeType.of("tëxt", "plain");
+    final var buffer = ByteBuffer.allocate(type.serializedLength());
+    type.writeAsciiTo(buffer);
+    assertArrayEquals("t?xt/plain".getBytes(US_ASCII), buffer.array());
+  }
+
+  @Test
+  public void testWriteAtPosition()
+  {
+    final var type = MimeType.of("text", "plain");
+    final var buffer = ByteBuffer.allocateDirect(32);
+    buffer.position(3);
+    type.writeAsciiTo(buffer);
+    assertEquals(13, buffer.position());
+
+    final var bytes = new byte[10];
+    buffer.get(3, bytes);
+    assertArrayEquals("text/plain".getBytes(US_ASCII), bytes);
+  }
+
+  @Test
+  public void testAsciiBytesViews()
+  {
+    final var type =
+      new MimeType("text", "plain", List.of(
+        new MimeTypeParameter("charset", "utf-8")));
+
+    final var b0 = type.asciiBytes();
+    final var b1 = type.asciiBytes();
+    assertNotSame(b0, b1);
+    assertTrue(b0.isReadOnly());
+    assertEquals(0, b0.position());
+    assertEquals(type.serializedLength(), b0.remaining());
+
+    b0.position(b0.limit());
+    assertEquals(0, b1.position());
+    assertEquals(b1, type.asciiBytes());
+    assertEquals(
+      type.toString(),
+      US_ASCII.decode(b1).toString()
+    );
+
+    assertThrows(ReadOnlyBufferException.class, () -> {
+      type.asciiBytes().put(0, (byte) 'x');
+    });
+  }
+
+  @Test
+  public void testOverflowWritesNothingCached()
+  {
+    final var type = MimeType.of("text", "plain");
+    type.asciiBytes();
+
+    final var buffer = ByteBuffer.allocate(4);
+    assertThrows(BufferOverflowException.class, () -> {
+      type.writeAsciiTo(buffer);
+    });
+    assertEquals(0, buffer.position());
+  }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.mime2045.tests;
+
+import com.io7m.mime2045.core.MimeType;
+import com.io7m.mime2045.core.MimeTypeParameter;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class MimeTypeTest
+{
+  private static final MimeTypeParameter CHARSET =
+    new MimeTypeParameter("charset", "utf-8");
+  private static final MimeTypeParameter FORMAT =
+    new MimeTypeParameter("format", "flowed");
+
+  @Test
+  public void testToStringCached()
+  {
+    final var type = new MimeType("text", "plain", List.of(FORMAT, CHARSET));
+    final var text = type.toString();
+    assertEquals("text/plain;charset=utf-8;format=flowed", text);
+    assertSame(text, type.toString());
+  }
+
+  @Test
+  public void testEqualsHashCode()
+  {
+    final var t0 = new MimeType("text", "plain", List.of(FORMAT, CHARSET));
+    final var t1 = new MimeType("text", "plain", List.of(CHARSET, FORMAT));
+    final var t2 = new MimeType("text", "plain", List.of(CHARSET));
+    final var t3 = new MimeType("text", "html", List.of(CHARSET, FORMAT));
+
+    assertEquals(t0, t1);
+    assertEquals(t0.hashCode(), t1.hashCode());
+    assertEquals(t0.parameters(), t1.parameters());
+    assertNotEquals(t0, t2);
+    assertNotEquals(t0, t3);
+    assertNotEquals(t0, "text/plain;charset=utf-8;format=flowed");
+    assertEquals(MimeType.of("a", "b"), new MimeType("a", "b", List.of()));
+  }
+
+  @Test
+  public void testParametersSortedCopy()
+  {
+    final var input = new ArrayList<>(List.of(FORMAT, CHARSET));
+    final var type = new MimeType("text", "plain", input);
+    input.clear();
+
+    assertEquals(List.of(CHARSET, FORMAT), type.parameters());
+    assertThrows(UnsupportedOperationException.class, () -> {
+      type.parameters().add(CHARSET);
+    });
+  }
+
+  @Test
+  public void testParametersNull()
+  {
+    assertThrows(NullPointerException.class, () -> {
+      new MimeType("text", "plain", Arrays.asList(CHARSET, null));
+    });
+  }
+
+  @Test
+  public void testCaseNormalized()
+  {
+    final var type = new MimeType(
+      "Text",
+      "HTML",
+      List.of(new MimeTypeParameter("CharSet", "UTF-8")));
+
+    assertEquals("text", type.type());
+    assertEquals("html", type.subtype());
+    assertEquals("text/html;charset=UTF-8", type.toString());
+    assertEquals(
+      new MimeType("text", "html", List.of(
+        new MimeTypeParameter("charset", "UTF-8"))),
+      type);
+    assertNotEquals(
+      new MimeType("text", "html", List.of(
+        new MimeTypeParameter("charset", "utf-8"))),
+      type);
+  }
+
+  @Test
+  public void testCaseNormalizedSharesLowerCase()
+  {
+    final var subtype = "plain";
+    assertSame(subtype, MimeType.of("text", subtype).subtype());
+  }
+
+  @Test
+  public void testEssenceEquals()
+  {
+    final var t0 = new MimeType("text", "plain", List.of(CHARSET));
+
+    assertTrue(t0.essenceEquals(MimeType.of("TEXT", "Plain")));
+    assertTrue(t0.essenceEquals(t0));
+    assertFalse(t0.essenceEquals(MimeType.of("text", "html")));
+    assertFalse(t0.essenceEquals(MimeType.of("image", "plain")));
+  }
+
+  @Test
+  public void testMatchesIgnoringParameters()
+  {
+    final var t0 = new MimeType("text", "plain", List.of(CHARSET));
+
+    assertTrue(t0.matchesIgnoringParameters("text/plain"));
+    assertTrue(t0.matchesIgnoringParameters("Text/PLAIN"));
+    assertTrue(t0.matchesIgnoringParameters("  text/plain\t"));
+    assertTrue(t0.matchesIgnoringParameters("text/plain;charset=x"));
+    assertTrue(t0.matchesIgnoringParameters("text/plain ; whatever"));
+
+    assertFalse(t0.matchesIgnoringParameters(""));
+    assertFalse(t0.matchesIgnoringParameters("text"));
+    assertFalse(t0.matchesIgnoringParameters("text/"));
+    assertFalse(t0.matchesIgnoringParameters("text/plai"));
+    assertFalse(t0.matchesIgnoringParameters("text/plainx"));
+    assertFalse(t0.matchesIgnoringParameters("text/plain x"));
+    assertFalse(t0.matchesIgnoringParameters("textx/plain"));
+    assertFalse(t0.matchesIgnoringParameters("texT-plain"));
+    assertFalse(t0.matchesIgnoringParameters("image/plain"));
+  }
+
+  @Test
+  public void testParameterLookup()
+  {
+    final var parameters = new ArrayList<MimeTypeParameter>();
+    for (int index = 0; index < 20; ++index) {
+      parameters.add(new MimeTypeParameter("p" + index, "v" + index));
+    }
+    parameters.add(CHARSET);
+    parameters.add(FORMAT);
+    final var type = new MimeType("text", "plain", parameters);
+
+    final String[] cases = {"charset", "CHARSET", "ChArSeT", "format", "P7"};
+    for (final var name : cases) {
+      final var found = type.parameter(name).orElseThrow();
+      assertTrue(found.name().equalsIgnoreCase(name));
+      assertSame(found, type.parameter(name).orElseThrow());
+      assertEquals(found.value(), type.parameterValue(name).orElseThrow());
+      assertSame(
+        type.parameterValue(name).orElseThrow(),
+        type.parameterValue(new StringBuilder(name)).orElseThrow());
+    }
+
+    final String[] missing = {"", "c", "charsets", "charse", "p20", "zzz", "0"};
+    for (final var name : missing) {
+      assertTrue(type.parameter(name).isEmpty(), name);
+      assertTrue(type.parameterValue(name).isEmpty(), name);
+    }
+  }
+
+  @Test
+  public void testParameterLookupDuplicates()
+  {
+    final var type = new MimeType("text", "plain", List.of(
+      new MimeTypeParameter("x", "2"),
+      new MimeTypeParameter("x", "1"),
+      new MimeTypeParameter("y", "3")
+    ));
+    assertEquals("1", type.parameterValue("X").orElseThrow());
+    assertEquals("3", type.parameterValue("y").orElseThrow());
+    assertTrue(MimeType.of("text", "plain").parameter("x").isEmpty());
+    assertThrows(NullPointerException.class, () -> type.parameter(null));
+  }
+}
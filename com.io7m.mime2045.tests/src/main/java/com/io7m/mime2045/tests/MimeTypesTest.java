@@ -0,0 +1,124 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.mime2045.tests;
+
+import com.io7m.mime2045.core.MimeStructuredSyntax;
+import com.io7m.mime2045.core.MimeType;
+import com.io7m.mime2045.core.MimeTypeParameter;
+import com.io7m.mime2045.fileext.MimeTypes;
+import com.io7m.mime2045.parser.MimeParsers;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class MimeTypesTest
+{
+  @Test
+  public void testConstants()
+  {
+    assertEquals(MimeType.of("application", "json"), MimeTypes.APPLICATION_JSON);
+    assertEquals(MimeType.of("text", "plain"), MimeTypes.TEXT_PLAIN);
+    assertEquals(
+      MimeType.of("application", "vnd.paos.xml"),
+      MimeTypes.APPLICATION_VND_PAOS_XML_2
+    );
+  }
+
+  @Test
+  public void testCanonicalParsed()
+    throws Exception
+  {
+    final var parsers = new MimeParsers();
+    for (final var type : MimeTypes.all()) {
+      final var parsed = parsers.parse(type.toString());
+      assertNotSame(type, parsed);
+      assertSame(type, MimeTypes.canonical(parsed));
+      assertTrue(MimeTypes.isCanonical(type));
+      assertFalse(MimeTypes.isCanonical(parsed));
+    }
+  }
+
+  @Test
+  public void testCanonicalUnknown()
+  {
+    final var unknown = MimeType.of("x-unknown", "nothing");
+    assertSame(unknown, MimeTypes.canonical(unknown));
+
+    final var parameterized =
+      new MimeType("text", "plain", List.of(
+        new MimeTypeParameter("charset", "utf-8")));
+    assertSame(parameterized, MimeTypes.canonical(parameterized));
+  }
+
+  @Test
+  public void testAllDistinct()
+  {
+    final var all = MimeTypes.all();
+    assertEquals(all.size(), new HashSet<>(all).size());
+  }
+
+  /**
+   * The canonical instances carry the classification computed when the
+   * table was generated; a fresh instance classifies itself.
+   */
+
+  @Test
+  public void testStructuredSyntaxConsistent()
+  {
+    for (final var syntax : MimeStructuredSyntax.values()) {
+      final var with = new HashSet<>(MimeTypes.withStructuredSyntax(syntax));
+      for (final var type : MimeTypes.all()) {
+        final var fresh = MimeType.of(type.type(), type.subtype());
+        assertEquals(
+          fresh.hasStructuredSyntax(syntax),
+          type.hasStructuredSyntax(syntax),
+          "%s %s".formatted(type, syntax)
+        );
+        assertEquals(
+          fresh.hasStructuredSyntax(syntax),
+          with.contains(type),
+          "%s %s".formatted(type, syntax)
+        );
+      }
+      assertSame(
+        MimeTypes.withStructuredSyntax(syntax),
+        MimeTypes.withStructuredSyntax(syntax)
+      );
+    }
+  }
+
+  @Test
+  public void testStructuredSyntaxRegistered()
+  {
+    final var json = MimeTypes.withStructuredSyntax(MimeStructuredSyntax.JSON);
+    assertTrue(json.contains(MimeTypes.APPLICATION_JSON));
+    assertFalse(json.contains(MimeTypes.TEXT_PLAIN));
+    for (final var type : json) {
+      assertTrue(MimeTypes.isCanonical(type));
+    }
+
+    final var xml = MimeTypes.withStructuredSyntax(MimeStructuredSyntax.XML);
+    assertTrue(xml.size() > 100);
+  }
+}
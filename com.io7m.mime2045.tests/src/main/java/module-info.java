@@ -29,8 +29,12 @@ open module com.io7m.mime2045.tests
   requires com.io7m.mime2045.fileext;
   requires com.io7m.mime2045.core;
   requires com.io7m.mime2045.parser;
+  requires com.io7m.mime2045.sniff;
   requires net.jqwik.api;
+  requires jdk.management;
   requires org.slf4j;
 
+  uses com.io7m.mime2045.parser.api.MimeAcceptParserFactoryType;
+
   exports com.io7m.mime2045.tests;
 }
\ No newline at end of file